@@ -86,14 +86,20 @@ public class SegmentInstantiator implements Instantiable
         int firstValidSingleRational_X = -1;
 
         // 7) for all  close_x := start_x to MAX
-        for (int close_X = start_X; close_X <= S_top; close_X++)
+        //    Evaluate both bounds at all candidate x-values at once
+        double[] close_Xs = new double[Math.max(0, (int)Math.floor(S_top) - start_X + 1)];
+        for (int i = 0; i < close_Xs.length; i++) close_Xs[i] = start_X + i;
+
+        //   double f1y = f1.evaluate(close_x)), double f2y = f2.evaluate(close_x))
+        double[] _top_Ys = last_top.evaluateAll(close_Xs);
+        double[] _bottom_Ys = last_bottom.evaluateAll(close_Xs);
+
+        for (int i = 0; i < close_Xs.length; i++)
         {
             // Check for proper closure; Proper closure is:
-            //   double f1y = f1.evaluate(close_x))
-            double _top_Y = last_top.evaluateAtPoint(close_X).getReal(); 
-
-            //   double f2y = f2.evaluate(close_x))
-            double _bottom_Y = last_bottom.evaluateAtPoint(close_X).getReal();
+            int close_X = start_X + i;
+            double _top_Y = _top_Ys[i];
+            double _bottom_Y = _bottom_Ys[i];
 
             // Save the x-value for later if one or both y-values are integer values
             if (firstValidSingleInt_X == -1)
@@ -3,6 +3,8 @@ package frontend;
 import java.util.Vector;
 
 import globals.Constants;
+import math.external_interface.CasInterface;
+import math.external_interface.CasT;
 
 //
 // A aggregation class for options specified in the command-line
@@ -102,6 +104,16 @@ public class Options
             return true;
         }
 
+        //
+        // Answer all CAS queries in-process (no Mathematica kernel)
+        //
+        else if (args[index].equalsIgnoreCase("-native") || args[index].equalsIgnoreCase("-native-cas"))
+        {
+            Constants.CAS_BACKEND = CasT.NATIVE;
+            CasInterface.initialize(CasT.NATIVE);
+            return true;
+        }
+
         //
         // Forces contact to the Wolfram / Alpha Engine
         //
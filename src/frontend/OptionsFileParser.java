@@ -70,6 +70,10 @@ public class OptionsFileParser
                 Constants.INTEGERS_ONLY = new Boolean(strings[2]);
                 break;
 
+            case "EXACT_ARITHMETIC":
+                Constants.EXACT_ARITHMETIC = new Boolean(strings[2]);
+                break;
+
             case "SAME_LENGTH_BOUNDS":
                 Constants.SAME_LENGTH_BOUNDS = new Boolean(strings[2]);
                 break;
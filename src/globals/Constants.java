@@ -1,4 +1,5 @@
 package globals;
+import math.external_interface.CasT;
 import representation.bounds.functions.FunctionT;
 
 public final class Constants
@@ -41,6 +42,9 @@ public final class Constants
 	// This is here to have the code able to limit the functions to only ints.  This does not guarantee int intersect points.
 	public static boolean INTEGERS_ONLY = true;
 
+	// Points, domain endpoints and intersections with rational coordinates are carried as exact rationals: compared and hashed without tolerance.
+	public static boolean EXACT_ARITHMETIC = true;
+
 	// If you want the bounds to be the same length between functions.  This also requires the top and bottom to have the same number of functions.
 	public static boolean SAME_LENGTH_BOUNDS = false;
 
@@ -56,6 +60,28 @@ public final class Constants
     // Path for Mathematica
     public static String MATHEMATICA_PATH = "C:\\Program Files\\Wolfram Research\\Mathematica\\10.4\\MathKernel.exe";
 
+    // The CAS answering all queries: a Mathematica kernel or the in-process native interpreter
+    public static CasT CAS_BACKEND = CasT.MATHEMATICA;
+
+    // The number of CAS query results memoized (least-recently used results are evicted); 0 disables caching
+    public static int CAS_CACHE_CAPACITY = 10000;
+
+    // Whether each Mathematica query is evaluated in a Block localizing our symbols (one round-trip);
+    // otherwise the symbols are cleared with separate evaluations before each query
+    public static boolean CAS_SCOPED_EVALUATION = true;
+
+    // The number of Mathematica kernels answering queries in parallel (each requires a kernel license)
+    public static int CAS_POOL_SIZE = 1;
+
+    // File persisting Mathematica query results across runs (shared by concurrent runs); null disables the store
+    public static String CAS_STORE_PATH = null;
+
+    // Requested error of definite integrals evaluated in-process (absolute below 1, relative above)
+    public static double INTEGRAL_TOLERANCE = 1e-10;
+
+    // Whether each definite integral evaluated in-process is also queried from the CAS (discrepancies are reported)
+    public static boolean INTEGRAL_CAS_CROSS_CHECK = false;
+
     // Whether top / bottom functions must begin and end on same x-values
     public static boolean ENFORCE_FUNCTION_BOUND_ALIGNMENT = false;
 }
@@ -1,6 +1,8 @@
 package math.analysis;
 
 import java.util.Vector;
+
+import math.external_interface.ReplyParser;
 import representation.Point;
 import representation.bounds.Bound;
 
@@ -23,15 +25,25 @@ public abstract class Analyzer
      */
     protected Vector<Point> parsePoints(Bound f, String input)
     {
-        Vector<Double> xs = parseXValues(input);
+        return toPoints(f, ReplyParser.parseValues(input));
+    }
+
+    /**
+     * @param f -- a function to allow us to acquire f(x) given x.
+     * @param xs -- x-values
+     * @return the distinct points (x, f(x)) for each x in xs
+     */
+    protected Vector<Point> toPoints(Bound f, double[] xs)
+    {
+        double[] ys = f.evaluateAll(xs);
         
         //
         // Construct the set of points (x, f(x)) for each x-value parsed
         //
         Vector<Point> points = new Vector<Point>();
-        for (Double x : xs)
+        for (int i = 0; i < ys.length; i++)
         {
-            Point pt = new Point(x, f.evaluateAtPoint(x).getReal());
+            Point pt = new Point(xs[i], ys[i]);
 
             if( ! points.contains( pt ) )
             	points.add( pt ) ;
@@ -47,53 +59,42 @@ public abstract class Analyzer
      *       index    x-value
      *       0          5
      *       1          2
+     *       Non-numeric (and complex) values are skipped
      */
     protected Vector<Double> parseXValues(String input)
     {
-//        System.out.println("Input: " + input);
-        
-//        String values = input.substring(1, input.length()-1);
-        
-//        System.out.println("Values: " + values);
-        
-        String[] points = input.split("[{]|[}]|,");
-        
-        //
-        // Parse the individual points: x -> 0
-        //
-        Vector<Double> xs = new Vector<Double>();
-        for (String point : points)
+        return toVector(ReplyParser.parseValues(input));
+    }
+
+    /**
+     * @param values -- a vector of doubles
+     * @return the values as a primitive array (for batch evaluation)
+     */
+    protected static double[] toArray(Vector<Double> values)
+    {
+        double[] array = new double[values.size()];
+
+        for (int i = 0; i < array.length; i++)
         {
-        	String p = point.trim();
-//            System.out.print(point + "?");
-        	
-        	// Check for a strange boolean result from Mathematica
-        	if (p.contains("True") || p.contains("False"))
-        	{
-        	    System.err.println("Boolean detected in |" + point + "|");
-        	}
+            array[i] = values.get(i);
+        }
 
-            try
-            {
-	            // Avoid garbage
-	            if( p.length() > 5 && p.charAt(0) == 'x' )
-	            {
-	                // Take |x -> things| and extract: |things|
-	                p = p.substring( p.indexOf( "->" ) + 3 ) ;
-	            }
+        return array;
+    }
+
+    /**
+     * @param values -- a primitive array of doubles
+     * @return the values as a vector
+     */
+    protected static Vector<Double> toVector(double[] values)
+    {
+        Vector<Double> vector = new Vector<Double>(values.length);
 
-	            if( p.length() > 0 )
-	            {
-                	Double d = Double.parseDouble( p ) ;
-               		xs.add( d ) ;
-	            }
-            }
-            catch( NumberFormatException e )
-            {
-                System.err.println("Expected formatting issue when parsing (non)-double " + p);
-            }
+        for (double value : values)
+        {
+            vector.add(value);
         }
 
-        return xs;
+        return vector;
     }
 }
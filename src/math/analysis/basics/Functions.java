@@ -1,11 +1,18 @@
 package math.analysis.basics;
 
 
+import java.util.Arrays;
 import java.util.Vector;
-import java.util.stream.Collectors;
+import java.util.function.DoubleUnaryOperator;
 
 import math.analysis.Analyzer;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.expression.PolynomialExpander;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
+import math.numeric.Chebyshev;
+import math.numeric.RootIsolator;
 import representation.bounds.Bound;
 
 //
@@ -36,24 +43,14 @@ public class Functions extends Analyzer
      */
     public Vector<Double> atPoints( String func, Vector<Double> points )
     {
-        String query = func;
-        query += " /. x -> {" ;
-        query += String.join( ", ", points.stream().map( n -> n.toString() ).collect( Collectors.toList() ) ) ;  
-        query += "} //N" ; // forces a numerical evaluation of the value
+        // A single query for all points
+        double[] ys = CasInterface.getInstance().evaluateAll( func, toArray( points ) ) ;
 
-        System.out.println("Query: |" + query + "|");
-
-        // Query Mathematica
-        String result = LocalMathematicaCasInterface.getInstance().query( query ) ;
+        Vector<Double> values = toVector( ys ) ;
 
-        System.out.println( "|" + result + "|" ) ;
+        System.out.println( "Result: |" + values + "|" ) ;
 
-        // Interpret the Mathematica result
-        Vector<Double> xs = parseXValues( result ) ;
-
-        System.out.println( "Result: |" + xs + "|" ) ;
-
-        return xs ;
+        return values ;
     }
 
     /**
@@ -63,12 +60,15 @@ public class Functions extends Analyzer
      */
     public Vector<Double> atPoints( Bound f, Vector<Double> points )
     {
-        return atPoints(f.toFullMathematicaString(), points);
+        return toVector( f.evaluateAll( toArray( points ) ) ) ;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////// ZEROS ///////////////////////////////////////
     ///////////////////////////////////////////////////////////////////////////////////
+
+    // Zeros within this distance of an exclusive bound are on the bound
+    public static final double EXCLUSIVE_TOLERANCE = 1e-9;
  
     /**
      * @param f -- a function
@@ -78,7 +78,7 @@ public class Functions extends Analyzer
      */
     public Vector<Double> zerosExclusive(Bound f, double lowerX, double upperX)
     {
-        return zeros(f.toFullMathematicaString(), lowerX + " < x < " + upperX);
+        return zeros(f.toQuery(), lowerX, upperX, false);
     }
 
     /**
@@ -89,33 +89,122 @@ public class Functions extends Analyzer
      */
     public Vector<Double> zerosInclusive(Bound f, double lowerX, double upperX)
     {
-        return zeros(f.toFullMathematicaString(), lowerX + " <= x <= " + upperX);
+        return zeros(f.toQuery(), lowerX, upperX, true);
     }
 
     /**
-     * @param f -- a function
+     * @param f -- the expression tree of a function
      * @param lowerX -- domain lower bound
      * @param upperX -- domain upper bound
      * @return all x in (lowerX, upperX) such that f(x) = 0
      */
-    private Vector<Double> zeros(String f, String restriction)
+    public Vector<Double> zerosExclusive(Expr f, double lowerX, double upperX)
+    {
+        return zeros(f, lowerX, upperX, false);
+    }
+
+    /**
+     * @param f -- a function
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @param inclusive -- whether zeros on the bounds are included
+     * @return all x in [lowerX, upperX] (or (lowerX, upperX)) such that f(x) = 0, isolated in-process when possible
+     */
+    private Vector<Double> zeros(Expr f, double lowerX, double upperX, boolean inclusive)
+    {
+        double[] zeros = nativeZeros(f, lowerX, upperX);
+
+        if (zeros != null) return toVector(inclusive ? zeros : exclusive(zeros, lowerX, upperX));
+
+        // Not isolated natively: defer to the CAS
+        return zeros(f, inclusive ? QueryBuilder.inclusive(lowerX, upperX) : QueryBuilder.exclusive(lowerX, upperX));
+    }
+
+    /**
+     * @param f -- the expression tree of a function of x
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the sorted zeros of f in [lowerX, upperX] found in-process: from the Chebyshev proxy of a smooth
+     *         function, by root isolation otherwise; null if f cannot be solved natively
+     */
+    public static double[] nativeZeros(Expr f, double lowerX, double upperX)
     {
-        String query = "InputForm[";
+        // A smooth function resolved by its Chebyshev proxy
+        double[] proxied = proxyZeros(f, lowerX, upperX);
+
+        if (proxied != null) return proxied;
+
+        try
+        {
+            return RootIsolator.isolate(f, QueryBuilder.X.toString(), lowerX, upperX).values();
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
 
-        query += "NSolve[{Factor[";
+    /**
+     * @param f -- a function
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the zeros of f in [lowerX, upperX] from its (memoized) Chebyshev proxy, as the shortest decimals
+     *         near each; null for polynomials (isolated exactly), infinite bounds, and functions not resolved
+     */
+    private static double[] proxyZeros(Expr f, double lowerX, double upperX)
+    {
+        String x = QueryBuilder.X.toString();
 
-        query += f;
+        if (Double.isInfinite(lowerX) || Double.isInfinite(upperX)) return null;
 
-        query += "] == 0,";
+        if (PolynomialExpander.coefficients(f, x) != null) return null;
 
-        query += restriction;
+        Chebyshev proxy = Chebyshev.proxy(f, x, lowerX, upperX);
 
-        query += "}, {x}]] //N"; //  //N forces a numerical evaluation of the value
+        if (proxy == null) return null;
+
+        DoubleUnaryOperator compiled = ExpressionCompiler.compile(f, x);
+
+        double[] zeros = proxy.roots();
+        for (int i = 0; i < zeros.length; i++)
+        {
+            zeros[i] = RootIsolator.simplest(compiled, zeros[i]);
+        }
+
+        return zeros;
+    }
+
+    /**
+     * @param xs -- sorted values
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the values strictly within (lowerX, upperX): those within EXCLUSIVE_TOLERANCE of a bound are on it
+     */
+    public static double[] exclusive(double[] xs, double lowerX, double upperX)
+    {
+        int from = 0;
+        while (from < xs.length && xs[from] <= lowerX + EXCLUSIVE_TOLERANCE) from++;
+
+        int to = xs.length;
+        while (to > from && xs[to - 1] >= upperX - EXCLUSIVE_TOLERANCE) to--;
+
+        return Arrays.copyOfRange(xs, from, to);
+    }
+
+    /**
+     * @param f -- a function
+     * @param restriction -- the interval of interest
+     * @return all x in the restriction such that f(x) = 0 (a CAS query)
+     */
+    private Vector<Double> zeros(Expr f, Expr restriction)
+    {
+        // InputForm[NSolve[{Factor[f] == 0, restriction}, {x}]] //N forces a numerical evaluation of the value
+        Expr query = QueryBuilder.numeric(QueryBuilder.inputForm(QueryBuilder.zeros(QueryBuilder.call("Factor", f), restriction)));
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        String result = LocalMathematicaCasInterface.getInstance().query(query);
+        String result = CasInterface.getInstance().query(query);
 
         System.out.println("|" + result + "|");
 
@@ -137,7 +226,7 @@ public class Functions extends Analyzer
      */
     public Vector<Double> zerosExclusive(String f, double lowerX, double upperX)
     {
-        return zeros(f, lowerX + " < x < " + upperX);
+        return zeros(QueryBuilder.parseOrText(f), lowerX, upperX, false);
     }
 
     /**
@@ -148,6 +237,6 @@ public class Functions extends Analyzer
      */
     public Vector<Double> zerosInclusive(String f, double lowerX, double upperX)
     {
-        return zeros(f, lowerX + " <= x <= " + upperX);
+        return zeros(QueryBuilder.parseOrText(f), lowerX, upperX, true);
     }
 }
@@ -2,11 +2,19 @@ package math.analysis.derivatives;
 
 
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleUnaryOperator;
 
 import math.analysis.Analyzer;
 import math.analysis.basics.Functions;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.expression.Differentiator;
+import math.expression.DualEvaluator;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
 import representation.bounds.Bound;
+import utilities.LruCache;
 
 //
 //
@@ -29,23 +37,86 @@ public class Derivatives extends Analyzer
         return _theInstance;
     }
 
+    //
+    // Derivatives are computed in-process (Differentiator) and the CAS is queried only for functions
+    // without a derivative rule; evaluators of derivatives are compiled once per derivative tree
+    //
+    private static final String VARIABLE = "x";
+
+    private final LruCache<Expr, DoubleUnaryOperator> _evaluators = new LruCache<Expr, DoubleUnaryOperator>(Differentiator.MEMO_CAPACITY);
+
+    /**
+     * @param f -- the expression tree of a function
+     * @param n -- the order of the derivative
+     * @return the simplified (and memoized) nth derivative of f; null if f has no native derivative
+     */
+    public Expr nthDerivativeTree(Expr f, int n)
+    {
+        try
+        {
+            return Differentiator.simplifiedDerivative(f, VARIABLE, n);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
     /**
      * @return f' (given f)
      */
-    public String nthDerivative(String f, int n)
+    public String nthDerivative(String f, int n) { return nthDerivative(QueryBuilder.parseOrText(f), n); }
+
+    /**
+     * @return f' (given the expression tree of f)
+     */
+    public String nthDerivative(Expr f, int n)
     {
-        String query = "InputForm[Factor[D[" + f + ", {x, " + n + " }]]]"; // nth derivative
+        Expr tree = nthDerivativeTree(f, n);
+
+        if (tree != null) return tree.toString();
+
+        Expr query = derivativeQuery(f, n);
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        String deriv = LocalMathematicaCasInterface.getInstance().query(query);
+        String deriv = CasInterface.getInstance().query(query);
 
         System.out.println("|" + deriv + "|");
 
         return deriv;
     }
     
+    /**
+     * @return the (eventual) nth derivative of f; the query is queued
+     */
+    public CompletableFuture<String> nthDerivativeAsync(String f, int n) { return nthDerivativeAsync(QueryBuilder.parseOrText(f), n); }
+
+    /**
+     * @return the (eventual) nth derivative of f; complete at once when computed in-process
+     */
+    public CompletableFuture<String> nthDerivativeAsync(Expr f, int n)
+    {
+        Expr tree = nthDerivativeTree(f, n);
+
+        if (tree != null) return CompletableFuture.completedFuture(tree.toString());
+
+        Expr query = derivativeQuery(f, n);
+
+        System.out.println("Query: |" + query + "|");
+
+        return CasInterface.getInstance().queryAsync(query);
+    }
+
+    /**
+     * @return InputForm[Factor[D[f, {x, n}]]]: the nth derivative
+     */
+    private Expr derivativeQuery(Expr f, int n)
+    {
+        return QueryBuilder.inputForm(QueryBuilder.call("Factor", QueryBuilder.derivative(f, n)));
+    }
+
     /**
      * @return f' (given f)
      */
@@ -55,7 +126,7 @@ public class Derivatives extends Analyzer
      * @param f -- a function
      * @return f' (given f)
      */
-    public String derivative(Bound func) { return derivative(func.toFullMathematicaString()); }
+    public String derivative(Bound func) { return nthDerivative(func.toQuery(), 1); }
 
     /**
      * @param f -- a function
@@ -65,7 +136,11 @@ public class Derivatives extends Analyzer
      */
     public Vector<Double> zeros(Bound f, double lowerX, double upperX)
     {
-        return Functions.getInstance().zerosExclusive(derivative(f), lowerX, upperX);
+        Expr tree = nthDerivativeTree(f.toQuery(), 1);
+
+        if (tree == null) return Functions.getInstance().zerosExclusive(derivative(f), lowerX, upperX);
+
+        return Functions.getInstance().zerosExclusive(tree, lowerX, upperX);
     }
 
     /**
@@ -85,61 +160,121 @@ public class Derivatives extends Analyzer
     
     public Vector<Double> firstDerivativeAtPoints( String f, Vector<Double> points )
     {
-        return Functions.getInstance().atPoints(derivative(f), points);
+        return nthDerivativeAtPoints(QueryBuilder.parseOrText(f), 1, points);
     }
     
     public Vector<Double> firstDerivativeAtPoints( Bound f, Vector<Double> points )
     {
-        return firstDerivativeAtPoints(f.toFullMathematicaString(), points);
-//        
-//        String query = "InputForm[D[" ; 
-//        query += f.toFullMathematicaString() ;
-//        query += ", {x, 1}]] /. x -> {" ;
-//        query += String.join( ", ", points.stream().map( n -> n.toString() ).collect( Collectors.toList() ) ) ;  
-//        query += "} //N" ; // forces a numerical evaluation of the value
-//
-//        System.out.println("Query: |" + query + "|");
-//
-//        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query( query ) ;
-//
-//        System.out.println( "|" + result + "|" ) ;
-//
-//        // Interpret the Mathematica result
-//        Vector<Double> xs = parseXValues( result ) ;
-//
-//        System.out.println( "Result: |" + xs + "|" ) ;
-//
-//        return xs ;
+        return nthDerivativeAtPoints(f.toQuery(), 1, points);
     }
 
     public Vector<Double> secondDerivativeAtPoints( String f, Vector<Double> points )
     {
-        return Functions.getInstance().atPoints(nthDerivative(f, 2), points);
+        return nthDerivativeAtPoints(QueryBuilder.parseOrText(f), 2, points);
     }
     
     public Vector<Double> secondDerivativeAtPoints( Bound f, Vector<Double> points )
     {
-        return secondDerivativeAtPoints(f.toFullMathematicaString(), points);
-        
-//        String query = "InputForm[D[" ;
-//        query += f.toFullMathematicaString() ;
-//        query += ", {x, 2}]] /. x -> {" ;
-//        query += String.join( ", ", points.stream().map( n -> n.toString() ).collect( Collectors.toList() ) ) ;  
-//        query += "} //N" ; // forces a numerical evaluation of the value
-//
-//        System.out.println("Query: |" + query + "|");
-//
-//        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query( query ) ;
-//
-//        System.out.println( "|" + result + "|" ) ;
-//
-//        // Interpret the Mathematica result
-//        Vector<Double> xs = parseXValues( result ) ;
-//
-//        System.out.println( "Result: |" + xs + "|" ) ;
-//
-//        return xs ;
+        return nthDerivativeAtPoints(f.toQuery(), 2, points);
+    }
+
+    /**
+     * @param f -- the expression tree of a function
+     * @param n -- the order of the derivative
+     * @param points -- a set of values in the domain of f
+     * @return f^(n)(x) for all x \in points; values without a real evaluation in-process (NaN) are queried
+     */
+    public Vector<Double> nthDerivativeAtPoints( Expr f, int n, Vector<Double> points )
+    {
+        // Slopes and curvatures by forward-mode differentiation, without a symbolic derivative
+        if (n == 1 || n == 2)
+        {
+            double[] values = dualAtPoints(f, n, points);
+
+            if (values != null) return toVector(values);
+        }
+
+        Expr tree = nthDerivativeTree(f, n);
+
+        if (tree == null) return Functions.getInstance().atPoints(nthDerivative(f, n), points);
+
+        DoubleUnaryOperator evaluator = _evaluators.get(tree, t -> compile(t));
+
+        if (evaluator == null) return Functions.getInstance().atPoints(tree.toString(), points);
+
+        double[] values = new double[points.size()];
+        int undefined = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = evaluator.applyAsDouble(points.get(i));
+
+            if (Double.isNaN(values[i])) undefined++;
+        }
+
+        // Defer to the CAS for points where the derivative is not real-valued in-process
+        if (undefined > 0)
+        {
+            double[] xs = new double[undefined];
+            for (int i = 0, u = 0; i < values.length; i++)
+            {
+                if (Double.isNaN(values[i])) xs[u++] = points.get(i);
+            }
+
+            double[] queried = CasInterface.getInstance().evaluateAll(tree.toString(), xs);
+
+            for (int i = 0, u = 0; i < values.length; i++)
+            {
+                if (Double.isNaN(values[i])) values[i] = queried[u++];
+            }
+        }
+
+        return toVector(values);
+    }
+
+    /**
+     * @param f -- the expression tree of a function
+     * @param n -- the order of the derivative (1 or 2)
+     * @param points -- a set of values in the domain of f
+     * @return f^(n)(x) for all x \in points by (hyper-)dual numbers; null if f has no numeric derivative or
+     *         one of the values is not real
+     */
+    private double[] dualAtPoints(Expr f, int n, Vector<Double> points)
+    {
+        DualEvaluator evaluator;
+        try
+        {
+            evaluator = DualEvaluator.compile(f, VARIABLE, n);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        double[] values = new double[points.size()];
+        for (int i = 0; i < values.length; i++)
+        {
+            evaluator.evaluate(points.get(i));
+
+            values[i] = n == 1 ? evaluator.slope() : evaluator.curvature();
+
+            if (Double.isNaN(values[i])) return null;
+        }
+
+        return values;
+    }
+
+    /**
+     * @return an evaluator for a derivative; null if the derivative has no numeric evaluation
+     */
+    private DoubleUnaryOperator compile(Expr derivative)
+    {
+        try
+        {
+            return ExpressionCompiler.compile(derivative, VARIABLE);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
     }
 }
@@ -0,0 +1,209 @@
+package math.analysis.extrema;
+
+import java.util.Arrays;
+
+import math.analysis.basics.Functions;
+import math.expression.Differentiator;
+import math.expression.DualEvaluator;
+import math.expression.Expr;
+
+/**
+ * The critical points of a function on an interval found in-process: sorted x-values where f' = 0, each with
+ * f(x) and its type (parallel primitive arrays).
+ *
+ *     isolation:       the zeros of f' on [lower, upper] (Chebyshev proxy or root isolation)
+ *     classification:  the sign of f''(x) (by hyper-dual numbers); when f'' vanishes (or is undefined), the signs of f' on either
+ *                      side of x: a change from - to + is a minimum, + to - a maximum, and no change a
+ *                      stationary inflection (x^3 at 0)
+ */
+public class CriticalPoints
+{
+    public static final byte MINIMUM = 1;
+    public static final byte MAXIMUM = -1;
+    public static final byte INFLECTION = 0;
+
+    // |f''| (relative to the scale of f') no larger than this is inconclusive
+    private static final double CONCAVITY_TOLERANCE = 1e-9;
+
+    // The offset (relative to the magnitude of x) of the first-derivative sign test
+    private static final double SIGN_TEST_OFFSET = 1e-6;
+
+    public static final CriticalPoints NONE = new CriticalPoints(new double[0], new double[0], new byte[0]);
+
+    private final double[] _xs;
+    private final double[] _values;
+    private final byte[] _types;
+
+    /**
+     * @param xs -- sorted x-values
+     * @param values -- f(x) for each x
+     * @param types -- MINIMUM, MAXIMUM, or INFLECTION for each x
+     */
+    public CriticalPoints(double[] xs, double[] values, byte[] types)
+    {
+        if (xs.length != values.length || xs.length != types.length) throw new IllegalArgumentException("Each critical point requires a value and a type");
+
+        _xs = xs;
+        _values = values;
+        _types = types;
+    }
+
+    public int size() { return _xs.length; }
+
+    public boolean isEmpty() { return _xs.length == 0; }
+
+    public double x(int i) { return _xs[i]; }
+
+    public double value(int i) { return _values[i]; }
+
+    public byte type(int i) { return _types[i]; }
+
+    /**
+     * @return the sorted x-values
+     */
+    public double[] xs() { return _xs.clone(); }
+
+    /**
+     * @return f(x) for each critical point (parallel to xs())
+     */
+    public double[] values() { return _values.clone(); }
+
+    /**
+     * @return the type of each critical point (parallel to xs())
+     */
+    public byte[] types() { return _types.clone(); }
+
+    /**
+     * @param lower -- lower bound
+     * @param upper -- upper bound
+     * @return the critical points strictly within (lower, upper): those within Functions.EXCLUSIVE_TOLERANCE
+     *         of a bound are on the bound
+     */
+    public CriticalPoints exclusive(double lower, double upper)
+    {
+        int from = 0;
+        while (from < _xs.length && _xs[from] <= lower + Functions.EXCLUSIVE_TOLERANCE) from++;
+
+        int to = _xs.length;
+        while (to > from && _xs[to - 1] >= upper - Functions.EXCLUSIVE_TOLERANCE) to--;
+
+        if (from == 0 && to == _xs.length) return this;
+
+        return new CriticalPoints(Arrays.copyOfRange(_xs, from, to), Arrays.copyOfRange(_values, from, to), Arrays.copyOfRange(_types, from, to));
+    }
+
+    /**
+     * @return the local extrema: the critical points other than stationary inflections
+     */
+    public CriticalPoints extrema()
+    {
+        int count = 0;
+        for (byte type : _types)
+        {
+            if (type != INFLECTION) count++;
+        }
+
+        if (count == _types.length) return this;
+
+        double[] xs = new double[count];
+        double[] values = new double[count];
+        byte[] types = new byte[count];
+
+        for (int i = 0, j = 0; i < _types.length; i++)
+        {
+            if (_types[i] == INFLECTION) continue;
+
+            xs[j] = _xs[i];
+            values[j] = _values[i];
+            types[j++] = _types[i];
+        }
+
+        return new CriticalPoints(xs, values, types);
+    }
+
+    /**
+     * @param f -- the expression tree of a function of x
+     * @param lower -- lower bound (infinite only for polynomials)
+     * @param upper -- upper bound (infinite only for polynomials)
+     * @return the classified critical points of f in [lower, upper]; null if f (or its derivatives) does not
+     *         compile or f' cannot be solved in-process
+     */
+    public static CriticalPoints of(Expr f, double lower, double upper)
+    {
+        if (lower > upper) return NONE;
+
+        String x = "x";
+
+        Expr derivative;
+        DualEvaluator evaluator;
+        try
+        {
+            derivative = Differentiator.simplifiedDerivative(f, x, 1);
+            evaluator = DualEvaluator.compile(f, x);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        double[] xs = Functions.nativeZeros(derivative, lower, upper);
+
+        if (xs == null) return null;
+
+        double[] values = new double[xs.length];
+        byte[] types = new byte[xs.length];
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            types[i] = classify(evaluator, xs[i], lower, upper);
+            values[i] = evaluator.evaluate(xs[i]);
+        }
+
+        return new CriticalPoints(xs, values, types);
+    }
+
+    /**
+     * @param f -- a hyper-dual evaluator of the function
+     * @return the type of the critical point x of f in [lower, upper]
+     */
+    private static byte classify(DualEvaluator f, double x, double lower, double upper)
+    {
+        double offset = SIGN_TEST_OFFSET * Math.max(1, Math.abs(x));
+        double left = Math.max(lower, x - offset);
+        double right = Math.min(upper, x + offset);
+
+        double leftSlope = f.slope(left);
+        double rightSlope = f.slope(right);
+
+        // Second derivative test
+        double concavity = f.curvature(x);
+        double scale = Math.max(Math.abs(leftSlope), Math.abs(rightSlope)) / offset;
+
+        if (Math.abs(concavity) > CONCAVITY_TOLERANCE * Math.max(1, scale)) return concavity > 0 ? MINIMUM : MAXIMUM;
+
+        // First derivative sign test (at a bound, only the side within the interval is informative)
+        if (left == x) return rightSlope > 0 ? MINIMUM : rightSlope < 0 ? MAXIMUM : INFLECTION;
+        if (right == x) return leftSlope < 0 ? MINIMUM : leftSlope > 0 ? MAXIMUM : INFLECTION;
+
+        if (leftSlope < 0 && rightSlope > 0) return MINIMUM;
+        if (leftSlope > 0 && rightSlope < 0) return MAXIMUM;
+
+        return INFLECTION;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("{");
+
+        for (int i = 0; i < _xs.length; i++)
+        {
+            if (i > 0) sb.append(", ");
+
+            sb.append("(").append(_xs[i]).append(", ").append(_values[i]).append(", ");
+            sb.append(_types[i] == MINIMUM ? "min" : _types[i] == MAXIMUM ? "max" : "inflection").append(")");
+        }
+
+        return sb.append("}").toString();
+    }
+}
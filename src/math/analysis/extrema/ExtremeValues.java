@@ -2,10 +2,15 @@ package math.analysis.extrema;
 
 
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import math.analysis.Analyzer;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.analysis.derivatives.Derivatives;
+import math.expression.Expr;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
+import math.numeric.Chebyshev;
 import representation.Point;
 import representation.bounds.Bound;
 import representation.bounds.functions.BoundedFunction;
@@ -35,24 +40,53 @@ public class ExtremeValues extends Analyzer
      * @param f -- a function
      * @param lowerX -- domain lower bound
      * @param upperX -- domain upper bound
-     * @return the local maximum of f on the interval [lowerX, upperX]
+     * @return the classified critical points of f in [lowerX, upperX] found in-process; null if f cannot be
+     *         differentiated or its derivative solved natively
+     */
+    public CriticalPoints criticalPoints(Bound f, double lowerX, double upperX)
+    {
+        try
+        {
+            return CriticalPoints.of(f.toExpr(), lowerX, upperX);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // No expression tree
+            return null;
+        }
+    }
+
+    /**
+     * @param f -- a function
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the local maximum of f on the interval [lowerX, upperX] with the largest value (a bound if f is
+     *         larger there); null if the critical points of f are not found in-process
      */
     public Point localMaximum(BoundedFunction f, double lowerX, double upperX)
     {
-        String query = constructBasicMathematicaQuery("FindMaximum", f.toFullMathematicaString(), lowerX, upperX, lowerX);
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
 
-        System.out.println("Query: |" + query + "|");
+        if (critical == null) return null;
 
-        // Query Mathematica
-        String result = LocalMathematicaCasInterface.getInstance().query(query);
+        Point maximum = null;
+        for (double x : new double[] { lowerX, upperX })
+        {
+            if (Double.isInfinite(x)) continue;
 
-        System.out.println("Result: |" + result + "|");
+            double y = f.evaluateAtPoint(x).getReal();
 
-        //
-        // Interpret the Mathematica result
-        //
-        //        return parsePoint(result);
-        return null;
+            if (maximum == null || y > maximum.getY()) maximum = new Point(x, y);
+        }
+
+        for (int i = 0; i < critical.size(); i++)
+        {
+            if (critical.type(i) != CriticalPoints.MAXIMUM) continue;
+
+            if (maximum == null || critical.value(i) > maximum.getY()) maximum = new Point(critical.x(i), critical.value(i));
+        }
+
+        return maximum;
     }
 
     /**
@@ -72,14 +106,21 @@ public class ExtremeValues extends Analyzer
      */
     public double maxValue(BoundedFunction f, double lowerX, double upperX)
     {
-        String query = constructBasicMathematicaQuery("MaxValue", f.toFullMathematicaString(), lowerX, upperX, lowerX);
+        Chebyshev proxy = proxy(f, lowerX, upperX);
+
+        if (proxy != null) return proxy.maximum();
+
+        Double value = extremeValue(f, lowerX, upperX, true);
 
-        query += "//N"; // forces a numerical evaluation of the value
+        if (value != null) return value;
+
+        // //N forces a numerical evaluation of the value
+        Expr query = QueryBuilder.numeric(constructBasicMathematicaQuery("MaxValue", f.toQuery(), lowerX, upperX, lowerX));
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        double result = LocalMathematicaCasInterface.getInstance().queryComplexNumber(query).getReal();
+        double result = CasInterface.getInstance().queryComplexNumber(query).getReal();
 
         System.out.println("Result: |" + result + "|");
 
@@ -106,14 +147,21 @@ public class ExtremeValues extends Analyzer
      */
     public double minValue(BoundedFunction f, double lowerX, double upperX)
     {
-        String query = constructBasicMathematicaQuery("MinValue", f.toFullMathematicaString(), lowerX, upperX, lowerX);
+        Chebyshev proxy = proxy(f, lowerX, upperX);
+
+        if (proxy != null) return proxy.minimum();
+
+        Double value = extremeValue(f, lowerX, upperX, false);
 
-        query += "//N"; // forces a numerical evaluation of the value
+        if (value != null) return value;
+
+        // //N forces a numerical evaluation of the value
+        Expr query = QueryBuilder.numeric(constructBasicMathematicaQuery("MinValue", f.toQuery(), lowerX, upperX, lowerX));
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        double result = LocalMathematicaCasInterface.getInstance().queryComplexNumber(query).getReal();
+        double result = CasInterface.getInstance().queryComplexNumber(query).getReal();
 
         System.out.println("Result: |" + result + "|");
 
@@ -124,90 +172,113 @@ public class ExtremeValues extends Analyzer
     }
 
     /**
-     * @param mathematicaF -- string-based mathematica function (procedure name)
-     * @param function -- string-based representation of f(x)
-     * @param lowerX -- domain restriction on f
-     * @param upperX -- domain restriction on f
-     * @param start -- where to start searching
-     * @return resulting String for Mathematica query
+     * @param f -- a function
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the (memoized) Chebyshev proxy of f on [lowerX, upperX]; null if the bounds are infinite or
+     *         f is not resolved (the CAS is queried instead)
      */
-    public String constructBasicMathematicaQuery(String mathematicaF, String function, double lowerX, double upperX, double start)
+    private static Chebyshev proxy(Bound f, double lowerX, double upperX)
     {
-        //
-        // Construct the query
-        // Example:         FindMaximum[{x Cos[x], 1 <= x <= 15}, {x, 7}]
-        //                             [{Function, Restriction}, start search]
-        // https://reference.wolfram.com/language/ref/FindMaximum.html
-        //
-        String query = "InputForm[";
-
-        query += mathematicaF;
-
-        query += "[";
+        if (Double.isInfinite(lowerX) || Double.isInfinite(upperX)) return null;
 
-        query += "{";
-
-        query += function;
-
-        query += ", ";
-
-        query += lowerX + " <= x <= " + upperX;
-
-        query += "}";
-
-        query += ", {";
-
-        query += "x";
-
-        query += "}";
-
-        query += "]";
-
-        query += "]";
-
-        return query;
+        return Chebyshev.proxy(f.toQuery(), QueryBuilder.X.toString(), lowerX, upperX);
     }
 
     /**
      * @param f -- a function
      * @param lowerX -- domain lower bound
      * @param upperX -- domain upper bound
-     * @return the x-values of extrema in the interval: found by solving f'(x) = 0 in the interval [lowerX, upperX]
+     * @param largest -- whether the largest (or the smallest) value is sought
+     * @return the largest (smallest) value of f over its finite bounds and critical points in [lowerX, upperX];
+     *         null if the critical points are not found in-process
      */
-    private Vector<Double> extremaQuery(Bound f, String restriction)
+    private Double extremeValue(BoundedFunction f, double lowerX, double upperX, boolean largest)
     {
-        String query = "InputForm[";
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
+
+        if (critical == null) return null;
 
-        query += "NSolve[{Factor[D[";
+        double extreme = largest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
 
-        query += f.toFullMathematicaString();
+        for (double y : critical.values()) extreme = largest ? Math.max(extreme, y) : Math.min(extreme, y);
 
-        query += ", x]] == 0,";
+        for (double x : new double[] { lowerX, upperX })
+        {
+            if (Double.isInfinite(x)) continue;
 
-        query += restriction;
+            double y = f.evaluateAtPoint(x).getReal();
 
-        query += "}";
+            extreme = largest ? Math.max(extreme, y) : Math.min(extreme, y);
+        }
 
-        query += ", {";
+        return extreme;
+    }
 
-        query += "x";
+    /**
+     * @param mathematicaF -- string-based mathematica function (procedure name)
+     * @param function -- expression tree of f(x)
+     * @param lowerX -- domain restriction on f
+     * @param upperX -- domain restriction on f
+     * @param start -- where to start searching
+     * @return resulting Mathematica query
+     */
+    public Expr constructBasicMathematicaQuery(String mathematicaF, Expr function, double lowerX, double upperX, double start)
+    {
+        //
+        // Construct the query
+        // Example:         FindMaximum[{x Cos[x], 1 <= x <= 15}, {x, 7}]
+        //                             [{Function, Restriction}, start search]
+        // https://reference.wolfram.com/language/ref/FindMaximum.html
+        //
+        Expr restriction = QueryBuilder.inclusive(lowerX, upperX);
+        Expr problem = restriction == null ? QueryBuilder.list(function) : QueryBuilder.list(function, restriction);
 
-        query += "}";
+        return QueryBuilder.inputForm(QueryBuilder.call(mathematicaF, problem, QueryBuilder.list(QueryBuilder.X)));
+    }
 
-        query += "]";
+    /**
+     * @param f -- a function
+     * @param restriction -- the interval of interest: lowerX < x < upperX
+     * @return the query for the x-values of extrema: solving f'(x) = 0 in the interval
+     */
+    private Expr constructExtremaQuery(Bound f, Expr restriction)
+    {
+        // The derivative is computed in-process when possible; the kernel differentiates otherwise
+        Expr fPrime = Derivatives.getInstance().nthDerivativeTree(f.toQuery(), 1);
+        if (fPrime == null) fPrime = QueryBuilder.call("D", f.toQuery(), QueryBuilder.X);
 
-        query += "]";
+        Expr derivative = QueryBuilder.call("Factor", fPrime);
 
-        query += "//N"; // forces a numerical evaluation of the value
+        // //N forces a numerical evaluation of the value
+        return QueryBuilder.numeric(QueryBuilder.inputForm(QueryBuilder.zeros(derivative, restriction)));
+    }
 
+    /**
+     * @param f -- a function
+     * @param restriction -- the interval of interest: lowerX < x < upperX
+     * @return the x-values of extrema in the interval: found by solving f'(x) = 0 in the interval
+     */
+    private Vector<Double> extremaQuery(Bound f, Expr restriction)
+    {
+        Expr query = constructExtremaQuery(f, restriction);
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        String result = LocalMathematicaCasInterface.getInstance().query(query);
+        String result = CasInterface.getInstance().query(query);
 
         System.out.println("|" + result + "|");
 
+        return parseExtrema(result);
+    }
+
+    /**
+     * @param result -- the result of an extrema query
+     * @return the x-values of extrema
+     */
+    private Vector<Double> parseExtrema(String result)
+    {
         //
         // Interpret the Mathematica result
         //
@@ -218,6 +289,25 @@ public class ExtremeValues extends Analyzer
         return xs;
     }
 
+    /**
+     * @param f -- a function
+     * @param lowerX -- domain lower bound
+     * @param upperX -- domain upper bound
+     * @return the (eventual) x-values of extrema in the interval (lowerX, upperX); the query is queued
+     */
+    public CompletableFuture<Vector<Double>> extremaAsync(Bound f, double lowerX, double upperX)
+    {
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
+
+        if (critical != null) return CompletableFuture.completedFuture(toVector(critical.exclusive(lowerX, upperX).xs()));
+
+        Expr query = constructExtremaQuery(f, QueryBuilder.exclusive(lowerX, upperX));
+
+        System.out.println("Query: |" + query + "|");
+
+        return CasInterface.getInstance().queryAsync(query).thenApply(this::parseExtrema);
+    }
+
     /**
      * @param f -- a function
      * @param lowerX -- domain lower bound
@@ -226,7 +316,11 @@ public class ExtremeValues extends Analyzer
      */
     public Vector<Double> extrema(Bound f, double lowerX, double upperX)
     {
-        return extremaQuery(f, lowerX + " < x < " + upperX);
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
+
+        if (critical != null) return toVector(critical.exclusive(lowerX, upperX).xs());
+
+        return extremaQuery(f, QueryBuilder.exclusive(lowerX, upperX));
     }
 
     /**
@@ -237,7 +331,11 @@ public class ExtremeValues extends Analyzer
      */
     public Vector<Double> exclusiveExtrema(Bound f, double lowerX, double upperX)
     {
-        return extremaQuery(f, lowerX + " < x < " + upperX);
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
+
+        if (critical != null) return toVector(critical.exclusive(lowerX, upperX).xs());
+
+        return extremaQuery(f, QueryBuilder.exclusive(lowerX, upperX));
     }
     
     /**
@@ -246,7 +344,11 @@ public class ExtremeValues extends Analyzer
      */
     public Vector<Double> extrema(Bound f)
     {
-        return extremaQuery(f, f.getDomain().getLowerBound() + " <= x <= " + f.getDomain().getUpperBound());
+        CriticalPoints critical = criticalPoints(f, f.getDomain().getLowerBound(), f.getDomain().getUpperBound());
+
+        if (critical != null) return toVector(critical.xs());
+
+        return extremaQuery(f, QueryBuilder.inclusive(f.getDomain().getLowerBound(), f.getDomain().getUpperBound()));
     }
 
     /**
@@ -255,6 +357,13 @@ public class ExtremeValues extends Analyzer
      */
     public Vector<Double> exclusiveExtrema(Bound f)
     {
-        return extremaQuery(f, f.getDomain().getLowerBound() + " < x < " + f.getDomain().getUpperBound());
+        double lowerX = f.getDomain().getLowerBound();
+        double upperX = f.getDomain().getUpperBound();
+
+        CriticalPoints critical = criticalPoints(f, lowerX, upperX);
+
+        if (critical != null) return toVector(critical.exclusive(lowerX, upperX).xs());
+
+        return extremaQuery(f, QueryBuilder.exclusive(f.getDomain().getLowerBound(), f.getDomain().getUpperBound()));
     }
 }
@@ -0,0 +1,447 @@
+package math.analysis.intersection;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+import math.numeric.ClosedFormRoots;
+import math.numeric.Polynomial;
+import math.numeric.RootIsolator;
+import representation.bounds.Bound;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.FunctionT;
+import representation.bounds.functions.VariableT;
+
+//
+//
+// Intersections of parametrized functions a f(b (x - h)) + k solved analytically:
+//     polynomial families (lines through quintics): the roots of f - g in closed form (degree 4 or less)
+//     sine and cosine of one frequency:             a single phase-shifted sinusoid R sin(b x + psi) = c
+//     exponentials of one rate, logarithms of one argument, and either against a constant
+//
+// Pairs without a closed form (string-based and composite functions) are left to root isolation or the CAS.
+//
+//
+public class ClosedFormIntersection
+{
+    // Roots within this distance of a bound are on the bound
+    private static final double BOUND_TOLERANCE = 1e-9;
+
+    // Relative agreement for two frequencies (or rates) to be one
+    private static final double PARAMETER_TOLERANCE = 1e-12;
+
+    private ClosedFormIntersection() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function (ignoring Domain)
+     * @param g -- a function (ignoring Domain)
+     * @param lower -- x-value such that lower <= upper
+     * @param upper
+     * @return the sorted x-values of intersection of f and g in [lower, upper] (none for identical functions);
+     *         null if the pair has no closed form
+     */
+    public static double[] intersections(Bound f, Bound g, double lower, double upper)
+    {
+        if (!isParametrized(f) || !isParametrized(g)) return null;
+
+        BoundedFunction bf = (BoundedFunction)f;
+        BoundedFunction bg = (BoundedFunction)g;
+
+        double[] xs = solve(bf, bg, lower, upper);
+
+        if (xs == null) return null;
+
+        DoubleUnaryOperator difference = x -> evaluate(bf, x) - evaluate(bg, x);
+
+        return restrict(xs, difference, lower, upper);
+    }
+
+    /**
+     * @return whether f is a (non-composite) function of x of the form a f(b (x - h)) + k
+     */
+    private static boolean isParametrized(Bound f)
+    {
+        if (!(f instanceof BoundedFunction)) return false;
+
+        BoundedFunction bf = (BoundedFunction)f;
+
+        if (bf.variableType() != VariableT.X) return false;
+
+        // Log[0 (x - h)] is nowhere defined
+        if (bf.functionType() == FunctionT.LOGARITHMIC && bf.getB() == 0) return false;
+
+        return bf.functionType() != FunctionT.STRING && bf.functionType() != FunctionT.COMPOSITE;
+    }
+
+    private static double evaluate(BoundedFunction f, double x)
+    {
+        return f.functionType().evaluate(f.getA(), f.getB(), f.getH(), f.getK(), x);
+    }
+
+    /**
+     * @return the x-values where f = g (possibly outside [lower, upper]); null without a closed form
+     */
+    private static double[] solve(BoundedFunction f, BoundedFunction g, double lower, double upper)
+    {
+        //
+        // A constant against a family: invert the family
+        //
+        if (isConstant(f) && isConstant(g)) return new double[0];
+
+        if (isConstant(g)) return level(f, constant(g), lower, upper);
+        if (isConstant(f)) return level(g, constant(f), lower, upper);
+
+        //
+        // One shape: a1 s(b (x - h)) + k1 = a2 s(b (x - h)) + k2 is the level k2 - k1 of (a1 - a2) s(b (x - h))
+        //
+        if (f.functionType() == g.functionType() && degree(f) > 0 && same(f.getB(), g.getB()) && same(f.getH(), g.getH()))
+        {
+            BoundedFunction combined = new BoundedFunction(f.functionType());
+            combined.stretch(f.getA() - g.getA(), f.getB());
+            combined.translate(f.getH(), 0);
+
+            return isConstant(combined) ? new double[0] : level(combined, g.getK() - f.getK(), lower, upper);
+        }
+
+        //
+        // Polynomials: expanded about the shift of f (y = x - h) so that a common shift is exact
+        //
+        double origin = f.getH();
+
+        Polynomial pf = polynomial(f, origin);
+        Polynomial pg = polynomial(g, origin);
+
+        if (pf != null && pg != null)
+        {
+            double[] ys = polynomialRoots(pf.subtract(pg), lower - origin, upper - origin);
+
+            for (int i = 0; i < ys.length; i++) ys[i] += origin;
+
+            return ys;
+        }
+
+        //
+        // Two members of one family
+        //
+        if (isSinusoid(f) && isSinusoid(g)) return sinusoids(f, g, lower, upper);
+
+        if (f.functionType() == FunctionT.EXPONENTIAL && g.functionType() == FunctionT.EXPONENTIAL) return exponentials(f, g);
+
+        if (f.functionType() == FunctionT.LOGARITHMIC && g.functionType() == FunctionT.LOGARITHMIC) return logarithms(f, g);
+
+        return null;
+    }
+
+    /**
+     * @return the roots of p (possibly outside [lower, upper])
+     */
+    private static double[] polynomialRoots(Polynomial p, double lower, double upper)
+    {
+        if (p.degree() <= 2) return ClosedFormRoots.solve(p);
+
+        // Rounding in the cubic and quartic formulas may split or lose a root of a badly-scaled polynomial:
+        // accept the closed form if it agrees with the (cheap, exact) Sturm count of distinct roots
+        if (p.degree() <= ClosedFormRoots.MAX_DEGREE)
+        {
+            double[] xs = ClosedFormRoots.solve(p);
+
+            if (within(xs, lower, upper) == p.countRoots(lower - BOUND_TOLERANCE, upper + BOUND_TOLERANCE)) return xs;
+        }
+
+        // Quintics: Sturm isolation of the roots in the interval
+        return RootIsolator.isolate(p, lower, upper).values();
+    }
+
+    /**
+     * @return the number of xs in (lower, upper] widened by the tolerance (as counted by a Sturm sequence)
+     */
+    private static int within(double[] xs, double lower, double upper)
+    {
+        int count = 0;
+        for (double x : xs)
+        {
+            if (x > lower - BOUND_TOLERANCE && x <= upper + BOUND_TOLERANCE) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * @return whether f takes one value everywhere (a horizontal line or a vanishing stretch)
+     */
+    private static boolean isConstant(BoundedFunction f)
+    {
+        switch (f.functionType())
+        {
+            case HORIZONTAL_LINE:
+                return true;
+
+            case LOGARITHMIC:
+                return f.getA() == 0 && f.getB() != 0;
+
+            default:
+                return f.getA() == 0 || f.getB() == 0;
+        }
+    }
+
+    /**
+     * @return the value of a constant f (a logarithm need not be defined at any particular x)
+     */
+    private static double constant(BoundedFunction f)
+    {
+        return f.functionType() == FunctionT.LOGARITHMIC ? f.getK() : evaluate(f, 0);
+    }
+
+    private static boolean isSinusoid(BoundedFunction f)
+    {
+        return f.functionType() == FunctionT.SINE || f.functionType() == FunctionT.COSINE;
+    }
+
+    /**
+     * @param origin -- the expansion point
+     * @return the coefficients of f in y = x - origin: a b^n (y - (h - origin))^n + k expanded binomially;
+     *         null if f is not a polynomial
+     */
+    private static Polynomial polynomial(BoundedFunction f, double origin)
+    {
+        if (isConstant(f)) return new Polynomial(constant(f));
+
+        int n = degree(f);
+
+        if (n <= 0) return null;
+
+        double[] coefficients = new double[n + 1];
+
+        // a b^n sum_i C(n, i) y^i (-shift)^(n - i)
+        double shift = f.getH() - origin;
+        double scale = f.getA() * Math.pow(f.getB(), n);
+        double binomial = 1;
+        for (int i = 0; i <= n; i++)
+        {
+            coefficients[i] = scale * binomial * Math.pow(-shift, n - i);
+            binomial = binomial * (n - i) / (i + 1);
+        }
+
+        coefficients[0] += f.getK();
+
+        return new Polynomial(coefficients);
+    }
+
+    /**
+     * @return the degree n of a polynomial family a (b (x - h))^n + k; -1 for other families
+     */
+    private static int degree(BoundedFunction f)
+    {
+        switch (f.functionType())
+        {
+            case HORIZONTAL_LINE:   return 0;
+            case LINEAR:            return 1;
+            case PARABOLA:          return 2;
+            case CUBIC:             return 3;
+            case QUARTIC:           return 4;
+            case QUINTIC:           return 5;
+
+            default: return -1;
+        }
+    }
+
+    /**
+     * @return the x-values where f = c; null without a closed form
+     */
+    private static double[] level(BoundedFunction f, double c, double lower, double upper)
+    {
+        double a = f.getA();
+        double b = f.getB();
+        double h = f.getH();
+        double k = f.getK();
+
+        switch (f.functionType())
+        {
+            // (b (x - h))^n = (c - k) / a: the real n-th roots (exact for repeated roots, unlike the expanded polynomial)
+            case LINEAR:
+            case PARABOLA:
+            case CUBIC:
+            case QUARTIC:
+            case QUINTIC:
+            {
+                int n = degree(f);
+                double v = (c - k) / a;
+
+                if (v == 0) return new double[] { h };
+
+                if (n % 2 == 1) return new double[] { h + Math.copySign(Math.pow(Math.abs(v), 1.0 / n), v) / b };
+
+                if (v < 0) return new double[0];
+
+                double t = Math.pow(v, 1.0 / n) / b;
+                return new double[] { h - t, h + t };
+            }
+
+            case SINE:
+            case COSINE:
+                return sinusoid(new double[] { a, b, h }, isCosine(f), new double[] { 0, 1, 0 }, false, c - k, lower, upper);
+
+            // e^(b (x - h)) = (c - k) / a
+            case EXPONENTIAL:
+            {
+                double v = (c - k) / a;
+                return v > 0 ? new double[] { h + Math.log(v) / b } : new double[0];
+            }
+
+            // b (x - h) = e^((c - k) / a)
+            case LOGARITHMIC:
+                return new double[] { h + Math.exp((c - k) / a) / b };
+
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isCosine(BoundedFunction f) { return f.functionType() == FunctionT.COSINE; }
+
+    /**
+     * @return the x-values where two sinusoids meet; null unless they share a frequency
+     */
+    private static double[] sinusoids(BoundedFunction f, BoundedFunction g, double lower, double upper)
+    {
+        if (!same(Math.abs(f.getB()), Math.abs(g.getB()))) return null;
+
+        return sinusoid(new double[] { f.getA(), f.getB(), f.getH() }, isCosine(f),
+                        new double[] { g.getA(), g.getB(), g.getH() }, isCosine(g), g.getK() - f.getK(), lower, upper);
+    }
+
+    /**
+     * Solves a1 s1(b1 (x - h1)) - a2 s2(b2 (x - h2)) = c where each s is Sin or Cos and |b1| = |b2|:
+     * the difference of the sinusoids is a single sinusoid R sin(|b| x + psi).
+     *
+     * @param first -- { a1, b1, h1 }
+     * @param firstCosine -- whether s1 is Cos
+     * @param second -- { a2, b2, h2 }
+     * @param secondCosine -- whether s2 is Cos
+     * @param c -- the level
+     * @return the solutions in [lower, upper] (up to tolerance); null over an infinite interval
+     */
+    private static double[] sinusoid(double[] first, boolean firstCosine, double[] second, boolean secondCosine, double c, double lower, double upper)
+    {
+        double frequency = Math.abs(first[1]);
+
+        // Each term as amplitude * sin(frequency x + phase)
+        double[] p = phase(first, firstCosine);
+        double[] q = phase(second, secondCosine);
+
+        double A = p[0] * Math.cos(p[1]) - q[0] * Math.cos(q[1]);
+        double B = p[0] * Math.sin(p[1]) - q[0] * Math.sin(q[1]);
+
+        double R = Math.hypot(A, B);
+        double scale = Math.max(1, Math.max(Math.abs(first[0]), Math.abs(second[0])));
+
+        // Identical sinusoids (or parallel ones that never meet)
+        if (R <= PARAMETER_TOLERANCE * scale) return new double[0];
+
+        if (Math.abs(c) > R * (1 + PARAMETER_TOLERANCE)) return new double[0];
+
+        if (Double.isInfinite(lower) || Double.isInfinite(upper)) return null;
+
+        double psi = Math.atan2(B, A);
+        double theta = Math.asin(Math.max(-1, Math.min(1, c / R)));
+
+        // frequency x + psi = theta + 2 Pi n  or  Pi - theta + 2 Pi n
+        double low = frequency * (lower - BOUND_TOLERANCE) + psi;
+        double high = frequency * (upper + BOUND_TOLERANCE) + psi;
+
+        double[] xs = new double[2 * (int)Math.min(Integer.MAX_VALUE / 2, 2 + (high - low) / (2 * Math.PI))];
+        int count = 0;
+        for (double branch : new double[] { theta, Math.PI - theta })
+        {
+            for (double n = Math.ceil((low - branch) / (2 * Math.PI)); branch + 2 * Math.PI * n <= high && count < xs.length; n++)
+            {
+                xs[count++] = (branch + 2 * Math.PI * n - psi) / frequency;
+            }
+        }
+
+        return Arrays.copyOf(xs, count);
+    }
+
+    /**
+     * @param coefficients -- { a, b, h } of a sin(b (x - h)) or a cos(b (x - h))
+     * @return { amplitude, phase } such that the function is amplitude * sin(|b| x + phase)
+     */
+    private static double[] phase(double[] coefficients, boolean cosine)
+    {
+        double a = coefficients[0];
+        double b = coefficients[1];
+        double h = coefficients[2];
+
+        // b x - b h = +-(|b| x - |b| h): cos is even and sin is odd (cos = sin shifted by Pi / 2)
+        double phase = -Math.abs(b) * h;
+
+        if (cosine) return new double[] { a, phase + Math.PI / 2 };
+
+        return new double[] { b < 0 ? -a : a, phase };
+    }
+
+    /**
+     * @return the x-values where two exponentials of one rate meet: (a1 e^(-b h1) - a2 e^(-b h2)) e^(b x) = k2 - k1
+     */
+    private static double[] exponentials(BoundedFunction f, BoundedFunction g)
+    {
+        double b = f.getB();
+
+        if (!same(b, g.getB())) return null;
+
+        double C = f.getA() * Math.exp(-b * f.getH()) - g.getA() * Math.exp(-b * g.getH());
+        double v = (g.getK() - f.getK()) / C;
+
+        // C = 0: identical (or vertically-shifted) exponentials
+        if (C == 0 || !(v > 0) || Double.isInfinite(v)) return new double[0];
+
+        return new double[] { Math.log(v) / b };
+    }
+
+    /**
+     * @return the x-values where two logarithms of one argument meet: (a1 - a2) ln(b (x - h)) = k2 - k1
+     */
+    private static double[] logarithms(BoundedFunction f, BoundedFunction g)
+    {
+        if (!same(f.getB(), g.getB()) || !same(f.getH(), g.getH())) return null;
+
+        double a = f.getA() - g.getA();
+
+        if (a == 0) return new double[0];
+
+        return new double[] { f.getH() + Math.exp((g.getK() - f.getK()) / a) / f.getB() };
+    }
+
+    private static boolean same(double u, double v)
+    {
+        return Math.abs(u - v) <= PARAMETER_TOLERANCE * Math.max(1, Math.max(Math.abs(u), Math.abs(v)));
+    }
+
+    /**
+     * @return the distinct xs in [lower, upper] (those within tolerance of a bound are on the bound),
+     *         each snapped to its simplest decimal representation
+     */
+    private static double[] restrict(double[] xs, DoubleUnaryOperator difference, double lower, double upper)
+    {
+        double[] restricted = new double[xs.length];
+        int count = 0;
+
+        for (double x : xs)
+        {
+            if (Double.isNaN(x) || x < lower - BOUND_TOLERANCE || x > upper + BOUND_TOLERANCE) continue;
+
+            restricted[count++] = RootIsolator.simplest(difference, Math.max(lower, Math.min(upper, x)));
+        }
+
+        restricted = Arrays.copyOf(restricted, count);
+        Arrays.sort(restricted);
+
+        // Distinct values (coincident branches of a sinusoid at an extremum)
+        count = 0;
+        for (int i = 0; i < restricted.length; i++)
+        {
+            if (count == 0 || restricted[i] - restricted[count - 1] > BOUND_TOLERANCE) restricted[count++] = restricted[i];
+        }
+
+        return Arrays.copyOf(restricted, count);
+    }
+}
@@ -2,9 +2,15 @@ package math.analysis.intersection;
 
 
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
+import globals.Constants;
 import math.analysis.Analyzer;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.expression.Expr;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
+import math.numeric.Rational;
+import math.numeric.RootIsolator;
 import representation.Point;
 import representation.bounds.Bound;
 import representation.bounds.functions.Domain;
@@ -61,6 +67,27 @@ public class Intersection extends Analyzer
         return allIntersections(f, leftX, rightX, g, leftX, rightX);
     }
     
+    /**
+     * @param f -- a function with a domain
+     * @param g -- a function with a domain
+     * @param leftX -- x-value such that leftX < rightX
+     * @param rightX
+     * @return the (eventual) set of all points (x, y) of intersection in the stated interval;
+     *         the query is queued so that many intersections may be submitted before joining any
+     */
+    public CompletableFuture<Vector<Point>> allIntersectionsAsync(Bound f, Bound g, double leftX, double rightX)
+    {
+        Vector<Point> points = isolateIntersections(f, leftX, rightX, g, leftX, rightX);
+
+        if (points != null) return CompletableFuture.completedFuture(exact(f, g, points));
+
+        Expr query = constructQuery(f, leftX, rightX, g, leftX, rightX);
+
+        System.out.println("Query: |" + query + "|");
+
+        return CasInterface.getInstance().queryAsync(query).thenApply(result -> exact(f, g, parsePoints(f, result)));
+    }
+
     /**
      * @param f -- a function (ignoring Domain)
      * @param lowerXf -- x-value such that lowerXf < upperXf 
@@ -72,22 +99,92 @@ public class Intersection extends Analyzer
      */
     private Vector<Point> allIntersections(Bound f, double lowerXf, double upperXf, Bound g, double lowerXg, double upperXg)
     {
+        Vector<Point> isolated = isolateIntersections(f, lowerXf, upperXf, g, lowerXg, upperXg);
+
+        if (isolated != null) return exact(f, g, isolated);
+
         //
         // Construct query, act on query, parse the results
         //
-        String query = constructQuery(f, lowerXf, upperXf, g, lowerXg, upperXg);
+        Expr query = constructQuery(f, lowerXf, upperXf, g, lowerXg, upperXg);
 
         System.out.println("Query: |" + query + "|");
 
-        String result = LocalMathematicaCasInterface.getInstance().query(query);
+        String result = CasInterface.getInstance().query(query);
 
         System.out.println("|" + result + "|");
 
         Vector<Point> points = parsePoints(f, result);
 
+        return exact(f, g, points);
+    }
+
+    /**
+     * @param f -- a function
+     * @param g -- a function
+     * @param points -- points of intersection of f and g
+     * @return the points, each replaced by an exact point when its x-value is recognized as a rational at which
+     *         f and g agree exactly (so the intersection is verified without tolerance)
+     */
+    private Vector<Point> exact(Bound f, Bound g, Vector<Point> points)
+    {
+        if (!Constants.EXACT_ARITHMETIC) return points;
+
+        for (int i = 0; i < points.size(); i++)
+        {
+            if (points.get(i).isExact()) continue;
+
+            Rational x = Rational.recognize(points.get(i).getX());
+
+            if (x == null) continue;
+
+            Rational y = f.evaluateExactly(x);
+
+            if (y != null && y.equals(g.evaluateExactly(x))) points.set(i, new Point(x, y));
+        }
+
         return points;
     }
 
+    /**
+     * @param f -- a function (ignoring Domain)
+     * @param lowerXf -- x-value such that lowerXf < upperXf 
+     * @param upperXf
+     * @param g -- a function (ignoring Domain)
+     * @param lowerXg -- x-value such that lowerXg < upperXg
+     * @param upperXg
+     * @return the set of all points (x, y) of intersection in the stated intervals: solved in closed form
+     *         for parametrized families, otherwise the roots of f - g isolated in-process; null if the roots cannot
+     *         be isolated natively (the CAS is then queried)
+     */
+    private Vector<Point> isolateIntersections(Bound f, double lowerXf, double upperXf, Bound g, double lowerXg, double upperXg)
+    {
+        Domain domainF = new Domain(lowerXf, upperXf);
+        Domain domainG = new Domain(lowerXg, upperXg);
+
+        if (!domainF.intersects(domainG)) return new Vector<Point>();
+
+        Domain domain = domainF.intersection(domainG);
+
+        // Parametrized families (lines, parabolas, sinusoids, ...) in closed form
+        double[] closedForm = ClosedFormIntersection.intersections(f, g, domain.getLowerBound(), domain.getUpperBound());
+
+        if (closedForm != null) return toPoints(f, closedForm);
+
+        try
+        {
+            Expr difference = Expr.minus(f.toExpr(), g.toExpr());
+
+            double[] xs = RootIsolator.isolate(difference, QueryBuilder.X.toString(), domain.getLowerBound(), domain.getUpperBound()).values();
+
+            return toPoints(f, xs);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
     /**
      * @param f -- a function with a domain
      * @param g -- a function with a domain
@@ -149,9 +246,9 @@ public class Intersection extends Analyzer
      * @param g -- a function (ignoring Domain)
      * @param lowerXg -- x-value such that lowerXg < upperXg
      * @param upperXg
-     * @return a String-based Mathematica query for intersections of two functions
+     * @return a Mathematica query for intersections of two functions
      */
-    private String constructQuery(Bound f, double lowerXf, double upperXf, Bound g, double lowerXg, double upperXg)
+    private Expr constructQuery(Bound f, double lowerXf, double upperXf, Bound g, double lowerXg, double upperXg)
     {
     	//Example of what we're trying to build:
     	//  Solve[Sin[2 x] == Cos[x] && -1.5 <= x <= 1.5, x, Reals]//N
@@ -169,49 +266,13 @@ public class Intersection extends Analyzer
         Domain intersection = domainF.intersection(domainG);
 
         //
-        // Construct
-        //
-        String query = "NSolve[";
-        query += f.toFullMathematicaString();
-        query += " == ";
-        query += g.toFullMathematicaString();
-        
-        //
-        // Finite domain
+        // Construct: the equation restricted to the (finite bounds of the) domain
         //
-        if (intersection.getLowerBound() != Double.NEGATIVE_INFINITY &&
-                intersection.getUpperBound() != Double.NEGATIVE_INFINITY)
-        {
-            query += " && " + intersection.getLowerBound() + " <= x <= " + intersection.getUpperBound();
-        }
-        //
-        // Half finite domain
-        //
-        else if (intersection.getLowerBound() == Double.NEGATIVE_INFINITY &&
-                intersection.getUpperBound() != Double.NEGATIVE_INFINITY)
-        {
-            query += " && " + " x <= " + intersection.getUpperBound();
-        }
-        //
-        // Half finite domain
-        //
-        else if (intersection.getLowerBound() != Double.NEGATIVE_INFINITY &&
-                intersection.getUpperBound() == Double.NEGATIVE_INFINITY)
-        {
-            query += " && " + intersection.getLowerBound() + " <= x ";
-        }
-        //
-        // All Reals
-        //
-        else if (intersection.getLowerBound() == Double.NEGATIVE_INFINITY &&
-                intersection.getUpperBound() == Double.NEGATIVE_INFINITY)
-        {
-            query += " && " + intersection.getLowerBound() + " <= x ";
-        } 
-        else System.err.println("Intersection::intersection : unexpected domain values.");
+        Expr system = QueryBuilder.equal(f.toQuery(), g.toQuery());
+
+        Expr restriction = QueryBuilder.inclusive(intersection.getLowerBound(), intersection.getUpperBound());
+        if (restriction != null) system = Expr.flatCall("And", system, restriction);
 
-        query += ", x, Reals]//N";
-        
-        return query;
+        return QueryBuilder.numeric(QueryBuilder.call("NSolve", system, QueryBuilder.X, Expr.symbol("Reals")));
     }
 }
@@ -4,7 +4,10 @@ package math.analysis.inverses;
 import java.util.Vector;
 
 import math.analysis.Analyzer;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.expression.Expr;
+import math.expression.TextExpr;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
 import representation.bounds.functions.Domain;
 import representation.bounds.functions.StringBasedFunction;
 import utilities.Utilities;
@@ -148,12 +151,12 @@ public class Inverses extends Analyzer
     private Vector<String> getInverses(StringBasedFunction function)
     {
         // Find the Mathematica-based inverse
-        String query = inverseQuery(function);
+        Expr query = inverseQuery(function);
 
         System.out.println("Query: |" + query + "|");
 
         // Query Mathematica
-        String result = LocalMathematicaCasInterface.getInstance().query(query);
+        String result = CasInterface.getInstance().query(query);
 
         return parseFunctions(result);
     }
@@ -302,14 +305,18 @@ public class Inverses extends Analyzer
         return Utilities.looseEqualDoubles( xComp, x ) ;
     }
     
-    private String inverseQuery(StringBasedFunction function)
+    /**
+     * @return InputForm[InverseFunction[f(#) &] @@ {x}]: the inverse applied to x
+     */
+    private Expr inverseQuery(StringBasedFunction function)
     {
-        String query = "InputForm[InverseFunction[";
+        Expr f = function.toQuery();
 
-        query += function.toFullMathematicaString().replaceAll( "x", "#" ) ;
+        // Text outside the parsed syntax is rewritten as written: every x becomes #
+        Expr body = f.isText() ? Expr.text(((TextExpr)f).getText().replaceAll("x", "#")) : f.substitute("x", Expr.call("Slot"));
 
-        query += " &]][x]" ;
+        Expr pure = Expr.call("Function", body);
 
-        return query;
+        return QueryBuilder.inputForm(Expr.call("Apply", Expr.call("InverseFunction", pure), QueryBuilder.list(QueryBuilder.X)));
     }
 }
@@ -0,0 +1,274 @@
+package math.analysis.inverses;
+
+import java.util.Vector;
+import java.util.function.DoubleUnaryOperator;
+
+import math.analysis.basics.Functions;
+import math.expression.Differentiator;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.numeric.Newton;
+import math.numeric.RootIsolator;
+
+/**
+ * The inverse of a function on a bounded domain evaluated in-process, without a closed form: the domain is split
+ * at the critical points of f into monotone pieces, and x = f^{-1}(y) on a piece is the zero of f(x) - y found
+ * by Newton's method safeguarded by bisection within the piece.
+ *
+ *     pieces:     lower = x_0 < x_1 < ... < x_n = upper, f monotone on each [x_i, x_(i+1)]
+ *     f^{-1}(y):  on the leftmost piece whose range [f(x_i), f(x_(i+1))] contains y
+ */
+public class NumericInverse
+{
+    // Values within this distance (relative to the range of f) of a piece's range are in its range
+    private static final double RANGE_TOLERANCE = 1e-12;
+
+    // The most doublings of the step beyond the domain when extrapolating
+    private static final int MAX_EXTRAPOLATION_STEPS = 64;
+
+    private final Expr _function;
+    private final DoubleUnaryOperator _f;
+    private final DoubleUnaryOperator _fPrime;
+
+    // The ends of the monotone pieces and the values of f there
+    private final double[] _xs;
+    private final double[] _ys;
+
+    private final double _tolerance;
+
+    private NumericInverse(Expr function, DoubleUnaryOperator f, DoubleUnaryOperator fPrime, double[] xs, double[] ys)
+    {
+        _function = function;
+        _f = f;
+        _fPrime = fPrime;
+        _xs = xs;
+        _ys = ys;
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double y : ys)
+        {
+            if (!Double.isFinite(y)) continue;
+
+            min = Math.min(min, y);
+            max = Math.max(max, y);
+        }
+
+        _tolerance = RANGE_TOLERANCE * Math.max(1, max - min);
+    }
+
+    /**
+     * @param f -- a function of x
+     * @param lower -- finite domain lower bound
+     * @param upper -- finite domain upper bound
+     * @return the numeric inverse of f on [lower, upper]; null if the domain is unbounded or empty, or f does not
+     *         compile or is undefined at a bound
+     */
+    public static NumericInverse of(Expr f, double lower, double upper)
+    {
+        if (!(lower < upper) || Double.isInfinite(lower) || Double.isInfinite(upper)) return null;
+
+        String x = "x";
+
+        DoubleUnaryOperator compiled;
+        Expr derivative;
+        DoubleUnaryOperator fPrime;
+        try
+        {
+            compiled = ExpressionCompiler.compile(f, x);
+            derivative = Differentiator.simplifiedDerivative(f, x, 1);
+            fPrime = ExpressionCompiler.compile(derivative, x);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Not compiled, or without a derivative (so the pieces are unknown)
+            return null;
+        }
+
+        // Split at the critical points: f' = 0 strictly within the domain
+        Vector<Double> critical = Functions.getInstance().zerosExclusive(derivative, lower, upper);
+
+        double[] xs = new double[critical.size() + 2];
+        double[] ys = new double[xs.length];
+
+        xs[0] = lower;
+        for (int i = 0; i < critical.size(); i++) xs[i + 1] = critical.get(i);
+        xs[xs.length - 1] = upper;
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            ys[i] = compiled.applyAsDouble(xs[i]);
+
+            if (Double.isNaN(ys[i])) return null;
+        }
+
+        return new NumericInverse(f, compiled, fPrime, xs, ys);
+    }
+
+    /**
+     * @return whether this inverts f on [lower, upper]
+     */
+    public boolean inverts(Expr f, double lower, double upper)
+    {
+        return _function == f && _xs[0] == lower && _xs[_xs.length - 1] == upper;
+    }
+
+    /**
+     * @return the number of monotone pieces
+     */
+    public int pieces() { return _xs.length - 1; }
+
+    /**
+     * @return the ends of the monotone pieces: the bounds of the domain and the critical points between
+     */
+    public double[] breakpoints() { return _xs.clone(); }
+
+    /**
+     * @return the smallest value of f on the domain
+     */
+    public double minimum()
+    {
+        double min = Double.POSITIVE_INFINITY;
+        for (double y : _ys) min = Math.min(min, y);
+
+        return min;
+    }
+
+    /**
+     * @return the largest value of f on the domain
+     */
+    public double maximum()
+    {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double y : _ys) max = Math.max(max, y);
+
+        return max;
+    }
+
+    /**
+     * @param y -- a value of f
+     * @return x = f^{-1}(y) on the leftmost monotone piece whose range contains y; NaN if y is not a value of f
+     */
+    public double evaluate(double y)
+    {
+        for (int piece = 0; piece < pieces(); piece++)
+        {
+            double x = evaluate(y, piece);
+
+            if (!Double.isNaN(x)) return x;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * @param y -- a value of f
+     * @param piece -- the index of a monotone piece
+     * @return x = f^{-1}(y) on the piece; NaN if y is not within its range
+     */
+    public double evaluate(double y, int piece)
+    {
+        double a = _xs[piece];
+        double b = _xs[piece + 1];
+        double ya = _ys[piece];
+        double yb = _ys[piece + 1];
+
+        if (y < Math.min(ya, yb) - _tolerance || y > Math.max(ya, yb) + _tolerance) return Double.NaN;
+
+        // At (or beyond, within tolerance) the ends of the piece
+        if (Math.abs(y - ya) <= _tolerance && Math.abs(y - ya) <= Math.abs(y - yb)) return a;
+        if (Math.abs(y - yb) <= _tolerance) return b;
+
+        DoubleUnaryOperator g = x -> _f.applyAsDouble(x) - y;
+
+        double x = Newton.root(g, _fPrime, a, ya - y, b, yb - y);
+
+        return RootIsolator.simplest(g, x);
+    }
+
+    /**
+     * The inverse beyond the range of f on the domain (as a closed-form inverse is evaluated): the first or last
+     * monotone piece is continued outside the domain (in steps doubling from the width of the piece) while f
+     * remains defined and monotone, until y is bracketed.
+     * @param y -- a value
+     * @return x = f^{-1}(y) on the domain, else on a continuation of its first or last piece; NaN if neither
+     *         reaches y
+     */
+    public double extrapolate(double y)
+    {
+        double x = evaluate(y);
+
+        if (!Double.isNaN(x)) return x;
+
+        int last = _xs.length - 1;
+
+        // Continue the last piece rightward if it moves towards y, else the first piece leftward
+        if (Math.signum(_ys[last] - _ys[last - 1]) == Math.signum(y - _ys[last]))
+        {
+            return continuation(y, _xs[last], _ys[last], _xs[last] - _xs[last - 1]);
+        }
+
+        if (Math.signum(_ys[0] - _ys[1]) == Math.signum(y - _ys[0]))
+        {
+            return continuation(y, _xs[0], _ys[0], _xs[0] - _xs[1]);
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * @param y -- a value beyond f(from)
+     * @param from -- an end of the domain
+     * @param fFrom -- f(from)
+     * @param step -- the first step (outward from the domain)
+     * @return the zero of f(x) - y in the direction of the step; NaN if f becomes undefined or turns before it
+     */
+    private double continuation(double y, double from, double fFrom, double step)
+    {
+        DoubleUnaryOperator g = x -> _f.applyAsDouble(x) - y;
+
+        double a = from;
+        double ga = fFrom - y;
+        for (int i = 0; i < MAX_EXTRAPOLATION_STEPS; i++, step *= 2)
+        {
+            double b = a + step;
+            double gb = g.applyAsDouble(b);
+
+            if (!Double.isFinite(gb) || Math.abs(gb) > Math.abs(ga) && Math.signum(gb) == Math.signum(ga)) return Double.NaN;
+
+            if (Math.signum(gb) != Math.signum(ga))
+            {
+                double x = a < b ? Newton.root(g, _fPrime, a, ga, b, gb) : Newton.root(g, _fPrime, b, gb, a, ga);
+
+                return RootIsolator.simplest(g, x);
+            }
+
+            a = b;
+            ga = gb;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * @param ys -- values of f
+     * @return x = f^{-1}(y) for all y in ys (NaN for values not of f)
+     */
+    public double[] evaluateAll(double[] ys)
+    {
+        double[] xs = new double[ys.length];
+
+        for (int i = 0; i < ys.length; i++)
+        {
+            xs[i] = evaluate(ys[i]);
+        }
+
+        return xs;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InverseFunction[" + _function + "] on " + pieces() + " monotone pieces";
+    }
+}
@@ -5,8 +5,11 @@ import java.util.Vector;
 import java.util.stream.Collectors;
 
 import math.analysis.Analyzer;
+import math.analysis.basics.Functions;
 import math.analysis.derivatives.Derivatives;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.external_interface.CasInterface;
+import math.external_interface.QueryBuilder;
+import math.numeric.Chebyshev;
 import representation.Point;
 import representation.bounds.Bound;
 import representation.bounds.functions.BoundedFunction;
@@ -76,6 +79,17 @@ public class Monotonicity extends Analyzer
     {
         // Special case
         if (f.isVertical()) return false;
+
+        // The signs of the derivative over the domain of f, computed once per function
+        SignMap signs = f instanceof BoundedFunction ? ((BoundedFunction)f).signMap() : null;
+
+        if (signs != null && signs.contains(lowerX, upperX)) return signs.isMonotone(lowerX, upperX);
+
+        // A smooth function resolved by its Chebyshev proxy: the zeros and signs of the derivative of the proxy
+        Chebyshev proxy = Double.isInfinite(lowerX) || Double.isInfinite(upperX) ? null
+                                                                                 : Chebyshev.proxy(f.toQuery(), QueryBuilder.X.toString(), lowerX, upperX);
+
+        if (proxy != null) return isMonotone(proxy.derivative());
         
         // Find where f'(x) = 0
         Vector<Double> zeros = Derivatives.getInstance().zeros(f, lowerX, upperX);
@@ -103,6 +117,32 @@ public class Monotonicity extends Analyzer
         return true;        
     }
     
+    /**
+     * @param fPrime -- the derivative of a proxy
+     * @return whether fPrime does not change sign between its zeros over the interval of the proxy
+     */
+    private boolean isMonotone(Chebyshev fPrime)
+    {
+        Vector<Double> zeros = new Vector<Double>();
+
+        zeros.add(fPrime.getLower());
+        for (double x : Functions.exclusive(fPrime.roots(), fPrime.getLower(), fPrime.getUpper())) zeros.add(x);
+        zeros.add(fPrime.getUpper());
+
+        double previous = 0;
+        for (double midpoint : midpoints(zeros))
+        {
+            double current = fPrime.evaluate(midpoint);
+
+            // Sign change between f'(x_1) and f'(x_2)?
+            if (previous * current < 0) return false;
+
+            if (current != 0) previous = current;
+        }
+
+        return true;
+    }
+
     /**
      * @param pts -- a set of x-values
      * @return
@@ -134,7 +174,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query(query);
+//        String result = CasInterface.getInstance().query(query);
 //
 //        System.out.println("Result: |" + result + "|");
 //
@@ -169,7 +209,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        double result = LocalMathematicaCasInterface.getInstance().queryComplexNumber(query).getReal();
+//        double result = CasInterface.getInstance().queryComplexNumber(query).getReal();
 //
 //        System.out.println("Result: |" + result + "|");
 //
@@ -203,7 +243,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        double result = LocalMathematicaCasInterface.getInstance().queryComplexNumber(query).getReal();
+//        double result = CasInterface.getInstance().queryComplexNumber(query).getReal();
 //
 //        System.out.println("Result: |" + result + "|");
 //
@@ -294,7 +334,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query(query);
+//        String result = CasInterface.getInstance().query(query);
 //
 //        System.out.println("|" + result + "|");
 //
@@ -359,7 +399,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query( query ) ;
+//        String result = CasInterface.getInstance().query( query ) ;
 //
 //        System.out.println( "|" + result + "|" ) ;
 //
@@ -382,7 +422,7 @@ public class Monotonicity extends Analyzer
 //        System.out.println("Query: |" + query + "|");
 //
 //        // Query Mathematica
-//        String result = LocalMathematicaCasInterface.getInstance().query( query ) ;
+//        String result = CasInterface.getInstance().query( query ) ;
 //
 //        System.out.println( "|" + result + "|" ) ;
 //
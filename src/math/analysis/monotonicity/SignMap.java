@@ -0,0 +1,259 @@
+package math.analysis.monotonicity;
+
+import java.util.Arrays;
+
+import math.analysis.basics.Functions;
+import math.expression.Differentiator;
+import math.expression.DualEvaluator;
+import math.expression.Expr;
+
+/**
+ * The signs of the derivative of a function over its domain, computed once: the zeros of f' split the domain
+ * into intervals on which f' has a single sign, so monotonicity on any subinterval is a lookup.
+ *
+ *     breakpoints:  lower = x_0 < x_1 < ... < x_n = upper (x_1, ..., x_(n-1) the zeros of f')
+ *     signs:        the sign of f' on (x_i, x_(i+1)): +1, -1, or 0 (f constant there)
+ *
+ * f is monotone on [a, b] if and only if f' is not positive on one interval overlapping (a, b) and negative on
+ * another; prefix counts of positive and negative intervals answer this after two binary searches.
+ */
+public class SignMap
+{
+    private final Expr _function;
+
+    private final double[] _xs;
+    private final byte[] _signs;
+
+    // The number of intervals before interval i on which f' is positive (negative)
+    private final int[] _positive;
+    private final int[] _negative;
+
+    // The number of sign reversals of f' (ignoring intervals where f' = 0) up to interval i
+    private final int[] _pieces;
+
+    private SignMap(Expr function, double[] xs, byte[] signs)
+    {
+        _function = function;
+        _xs = xs;
+        _signs = signs;
+
+        _positive = new int[signs.length + 1];
+        _negative = new int[signs.length + 1];
+        _pieces = new int[signs.length];
+
+        byte previous = 0;
+        for (int i = 0; i < signs.length; i++)
+        {
+            _positive[i + 1] = _positive[i] + (signs[i] > 0 ? 1 : 0);
+            _negative[i + 1] = _negative[i] + (signs[i] < 0 ? 1 : 0);
+
+            _pieces[i] = (i == 0 ? 0 : _pieces[i - 1]) + (previous * signs[i] < 0 ? 1 : 0);
+
+            if (signs[i] != 0) previous = signs[i];
+        }
+    }
+
+    /**
+     * @param f -- a function of x
+     * @param lower -- domain lower bound (infinite only for polynomials)
+     * @param upper -- domain upper bound (infinite only for polynomials)
+     * @return the sign map of f' over [lower, upper]; null if the domain is empty, f has no numeric derivative,
+     *         the zeros of f' are not found in-process, or f' is undefined between them
+     */
+    public static SignMap of(Expr f, double lower, double upper)
+    {
+        if (!(lower < upper)) return null;
+
+        String x = "x";
+
+        Expr derivative;
+        DualEvaluator fPrime;
+        try
+        {
+            derivative = Differentiator.simplifiedDerivative(f, x, 1);
+            fPrime = DualEvaluator.compile(f, x, 1);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        double[] zeros = Functions.nativeZeros(derivative, lower, upper);
+
+        if (zeros == null) return null;
+
+        zeros = Functions.exclusive(zeros, lower, upper);
+
+        double[] xs = new double[zeros.length + 2];
+        xs[0] = lower;
+        System.arraycopy(zeros, 0, xs, 1, zeros.length);
+        xs[xs.length - 1] = upper;
+
+        byte[] signs = new byte[xs.length - 1];
+        for (int i = 0; i < signs.length; i++)
+        {
+            double slope = fPrime.slope(probe(xs[i], xs[i + 1]));
+
+            if (Double.isNaN(slope)) return null;
+
+            signs[i] = (byte)Math.signum(slope);
+        }
+
+        return new SignMap(f, xs, signs);
+    }
+
+    /**
+     * @return a point strictly within (a, b) (a or b possibly infinite)
+     */
+    private static double probe(double a, double b)
+    {
+        if (Double.isInfinite(a) && Double.isInfinite(b)) return 0;
+
+        if (Double.isInfinite(a)) return b - Math.max(1, Math.abs(b));
+
+        if (Double.isInfinite(b)) return a + Math.max(1, Math.abs(a));
+
+        return a + (b - a) / 2;
+    }
+
+    /**
+     * @return whether this maps f over [lower, upper]
+     */
+    public boolean maps(Expr f, double lower, double upper)
+    {
+        return _function == f && _xs[0] == lower && _xs[_xs.length - 1] == upper;
+    }
+
+    /**
+     * @return whether [a, b] is within the mapped domain
+     */
+    public boolean contains(double a, double b)
+    {
+        return a >= _xs[0] && b <= _xs[_xs.length - 1];
+    }
+
+    /**
+     * @return the ends of the intervals of constant sign: the bounds of the domain and the zeros of f' between
+     */
+    public double[] breakpoints() { return _xs.clone(); }
+
+    /**
+     * @return the sign of f' on each interval (parallel to the breakpoints, less the last)
+     */
+    public byte[] signs() { return _signs.clone(); }
+
+    /**
+     * @param x -- an x-value in the domain
+     * @return the index of the interval containing x (at a breakpoint, the interval to its right, unless x is
+     *         the upper bound)
+     */
+    private int intervalFrom(double x)
+    {
+        int index = Arrays.binarySearch(_xs, snap(x));
+
+        // Insertion point minus one: the interval whose left end precedes x
+        if (index < 0) index = -index - 2;
+
+        return Math.max(0, Math.min(_signs.length - 1, index));
+    }
+
+    /**
+     * @param x -- an x-value in the domain
+     * @return the index of the interval containing x (at a breakpoint, the interval to its left, unless x is
+     *         the lower bound)
+     */
+    private int intervalTo(double x)
+    {
+        int index = Arrays.binarySearch(_xs, snap(x));
+
+        // At a breakpoint, the interval ending there; otherwise the interval whose left end precedes x
+        index = index < 0 ? -index - 2 : index - 1;
+
+        return Math.max(0, Math.min(_signs.length - 1, index));
+    }
+
+    /**
+     * @return x, or the breakpoint within Functions.EXCLUSIVE_TOLERANCE of x
+     */
+    private double snap(double x)
+    {
+        int index = Arrays.binarySearch(_xs, x);
+
+        if (index >= 0) return x;
+
+        int right = -index - 1;
+
+        if (right < _xs.length && _xs[right] - x <= Functions.EXCLUSIVE_TOLERANCE) return _xs[right];
+        if (right > 0 && x - _xs[right - 1] <= Functions.EXCLUSIVE_TOLERANCE) return _xs[right - 1];
+
+        return x;
+    }
+
+    /**
+     * @param a -- lower bound within the domain
+     * @param b -- upper bound within the domain
+     * @return whether f is nondecreasing or nonincreasing on [a, b]
+     */
+    public boolean isMonotone(double a, double b)
+    {
+        return !isIncreasingSomewhere(a, b) || !isDecreasingSomewhere(a, b);
+    }
+
+    /**
+     * @param a -- lower bound within the domain
+     * @param b -- upper bound within the domain
+     * @return whether f is nondecreasing on [a, b]
+     */
+    public boolean isNondecreasing(double a, double b) { return !isDecreasingSomewhere(a, b); }
+
+    /**
+     * @param a -- lower bound within the domain
+     * @param b -- upper bound within the domain
+     * @return whether f is nonincreasing on [a, b]
+     */
+    public boolean isNonincreasing(double a, double b) { return !isIncreasingSomewhere(a, b); }
+
+    private boolean isIncreasingSomewhere(double a, double b)
+    {
+        if (!(a < b)) return false;
+
+        return _positive[intervalTo(b) + 1] - _positive[intervalFrom(a)] > 0;
+    }
+
+    private boolean isDecreasingSomewhere(double a, double b)
+    {
+        if (!(a < b)) return false;
+
+        return _negative[intervalTo(b) + 1] - _negative[intervalFrom(a)] > 0;
+    }
+
+    /**
+     * @param x -- an x-value in the domain
+     * @return the sign of f' near x (to the right of a breakpoint)
+     */
+    public byte sign(double x) { return _signs[intervalFrom(x)]; }
+
+    /**
+     * @return the number of monotone pieces of f over the domain
+     */
+    public int pieces() { return _pieces[_pieces.length - 1] + 1; }
+
+    /**
+     * @param x -- an x-value in the domain
+     * @return the index of the monotone piece containing x (at a turning point, the piece to its right)
+     */
+    public int piece(double x) { return _pieces[intervalFrom(x)]; }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("D[" + _function + ", x]: ");
+
+        for (int i = 0; i < _signs.length; i++)
+        {
+            sb.append(_xs[i]).append(_signs[i] > 0 ? " (+) " : _signs[i] < 0 ? " (-) " : " (0) ");
+        }
+
+        return sb.append(_xs[_xs.length - 1]).toString();
+    }
+}
@@ -0,0 +1,170 @@
+package math.expression;
+
+/**
+ * Numeric semantics of the Mathematica functions that appear in our function language.
+ *
+ * Values follow Mathematica over the reals; a result that Mathematica would report as complex
+ * (Sqrt[-1], Log[-1]) is NaN.
+ */
+public final class Builtins
+{
+    private Builtins() {} // To ensure no instances of this class
+
+    /**
+     * @param head -- a Mathematica function name
+     * @return whether the function has numeric semantics in this class
+     */
+    public static boolean isNumericFunction(String head)
+    {
+        switch (head)
+        {
+            case "Plus": case "Times": case "Power":
+            case "Sqrt": case "Surd": case "CubeRoot": case "Exp": case "Log": case "Log10": case "Log2":
+            case "Sin": case "Cos": case "Tan": case "Cot": case "Sec": case "Csc":
+            case "ArcSin": case "ArcCos": case "ArcTan":
+            case "Sinh": case "Cosh": case "Tanh":
+            case "Abs": case "Sign": case "Floor": case "Ceiling": case "Round":
+            case "Max": case "Min":
+            case "N":
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param head -- a Mathematica function name
+     * @param args -- numeric arguments
+     * @return head[args] evaluated numerically
+     * @throws IllegalArgumentException for unknown functions or an incorrect number of arguments
+     */
+    public static double apply(String head, double[] args)
+    {
+        switch (head)
+        {
+            case "Plus":
+            {
+                double sum = 0;
+                for (double arg : args) sum += arg;
+                return sum;
+            }
+
+            case "Times":
+            {
+                double product = 1;
+                for (double arg : args) product *= arg;
+                return product;
+            }
+
+            case "Max":
+            {
+                double max = Double.NEGATIVE_INFINITY;
+                for (double arg : args) max = Math.max(max, arg);
+                return max;
+            }
+
+            case "Min":
+            {
+                double min = Double.POSITIVE_INFINITY;
+                for (double arg : args) min = Math.min(min, arg);
+                return min;
+            }
+
+            case "Power":
+                checkArity(head, args, 2);
+                return power(args[0], args[1]);
+
+            case "Surd":
+                checkArity(head, args, 2);
+                return surd(args[0], args[1]);
+
+            case "Log":
+                if (args.length == 2) return Math.log(args[1]) / Math.log(args[0]);
+                checkArity(head, args, 1);
+                return Math.log(args[0]);
+
+            case "ArcTan":
+                if (args.length == 2) return Math.atan2(args[1], args[0]);
+                checkArity(head, args, 1);
+                return Math.atan(args[0]);
+
+            default:
+                checkArity(head, args, 1);
+                return apply(head, args[0]);
+        }
+    }
+
+    /**
+     * @param head -- a unary Mathematica function name
+     * @param x -- the argument
+     * @return head[x] evaluated numerically
+     */
+    public static double apply(String head, double x)
+    {
+        switch (head)
+        {
+            case "N":        return x;
+            case "Sqrt":     return Math.sqrt(x);
+            case "CubeRoot": return Math.cbrt(x);
+            case "Exp":      return Math.exp(x);
+            case "Log":      return Math.log(x);
+            case "Log10":    return Math.log10(x);
+            case "Log2":     return Math.log(x) / Math.log(2);
+            case "Sin":      return Math.sin(x);
+            case "Cos":      return Math.cos(x);
+            case "Tan":      return Math.tan(x);
+            case "Cot":      return 1 / Math.tan(x);
+            case "Sec":      return 1 / Math.cos(x);
+            case "Csc":      return 1 / Math.sin(x);
+            case "ArcSin":   return Math.asin(x);
+            case "ArcCos":   return Math.acos(x);
+            case "ArcTan":   return Math.atan(x);
+            case "Sinh":     return Math.sinh(x);
+            case "Cosh":     return Math.cosh(x);
+            case "Tanh":     return Math.tanh(x);
+            case "Abs":      return Math.abs(x);
+            case "Sign":     return Math.signum(x);
+            case "Floor":    return Math.floor(x);
+            case "Ceiling":  return Math.ceil(x);
+            case "Round":    return Math.rint(x);
+
+            default:
+                throw new IllegalArgumentException("Function |" + head + "| has no numeric evaluation.");
+        }
+    }
+
+    /**
+     * @return base^exponent over the reals; integer powers of negative numbers are defined
+     */
+    public static double power(double base, double exponent)
+    {
+        // Avoid the cost of Math.pow for the common small powers
+        if (exponent == 2) return base * base;
+        if (exponent == 1) return base;
+        if (exponent == -1) return 1 / base;
+
+        return Math.pow(base, exponent);
+    }
+
+    /**
+     * @return the real-valued nth root of x: Surd[-8, 3] = -2
+     */
+    public static double surd(double x, double n)
+    {
+        if (x >= 0) return Math.pow(x, 1 / n);
+
+        // Odd roots of negative numbers are real
+        if (Math.rint(n) == n && ((long)n) % 2 != 0) return -Math.pow(-x, 1 / n);
+
+        return Double.NaN;
+    }
+
+    private static void checkArity(String head, double[] args, int expected)
+    {
+        if (args.length != expected)
+        {
+            throw new IllegalArgumentException(head + " called with " + args.length + " arguments; " + expected + " expected.");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package math.expression;
+
+/**
+ * A function application: Head[arg_1, ..., arg_n]
+ */
+public class CallExpr extends Expr
+{
+    protected final String _head;
+    protected final Expr[] _args;
+
+    // Computed once: the node is immutable
+    protected final int _hash;
+
+    protected CallExpr(String head, Expr[] args)
+    {
+        _head = head;
+        _args = args;
+
+        int hash = head.hashCode();
+        for (Expr arg : args) hash = 31 * hash + arg.hashCode();
+        _hash = hash;
+    }
+
+    @Override
+    public boolean isCall() { return true; }
+
+    @Override
+    public String head() { return _head; }
+
+    @Override
+    public int size() { return _args.length; }
+
+    @Override
+    public Expr arg(int index) { return _args[index]; }
+
+    /**
+     * @return a copy of the arguments
+     */
+    public Expr[] args() { return _args.clone(); }
+
+    @Override
+    public double evaluate(String variable, double value)
+    {
+        double[] values = new double[_args.length];
+
+        for (int a = 0; a < _args.length; a++)
+        {
+            values[a] = _args[a].evaluate(variable, value);
+        }
+
+        return Builtins.apply(_head, values);
+    }
+
+    @Override
+    public boolean contains(String symbol)
+    {
+        for (Expr arg : _args)
+        {
+            if (arg.contains(symbol)) return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Expr substitute(String symbol, Expr replacement)
+    {
+        Expr[] replaced = new Expr[_args.length];
+
+        boolean changed = false;
+        for (int a = 0; a < _args.length; a++)
+        {
+            replaced[a] = _args[a].substitute(symbol, replacement);
+            changed |= replaced[a] != _args[a];
+        }
+
+        return changed ? Expr.call(_head, replaced) : this;
+    }
+
+    @Override
+    public boolean isConstant()
+    {
+        if (!Builtins.isNumericFunction(_head)) return false;
+
+        for (Expr arg : _args)
+        {
+            if (!arg.isConstant()) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) return true;
+
+        if (!(obj instanceof CallExpr)) return false;
+
+        CallExpr that = (CallExpr)obj;
+
+        if (_hash != that._hash || _args.length != that._args.length || !_head.equals(that._head)) return false;
+
+        // Arguments are interned: equal arguments are identical
+        for (int a = 0; a < _args.length; a++)
+        {
+            if (_args[a] != that._args[a]) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() { return _hash; }
+}
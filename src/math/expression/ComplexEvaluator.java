@@ -0,0 +1,186 @@
+package math.expression;
+
+/**
+ * Evaluates a numeric expression tree over the complex numbers: the principal value, as Mathematica reports it,
+ * of an expression whose real evaluation is undefined (Sqrt[-1], Log[-2], (-8)^(1/3), ...).
+ *
+ * A complex number is the pair { real, imaginary }; the symbol I is the imaginary unit.
+ */
+public class ComplexEvaluator
+{
+    private static final int RE = 0;
+    private static final int IM = 1;
+
+    private ComplexEvaluator() {} // To ensure no instances of this class
+
+    /**
+     * @param e -- an expression without free symbols
+     * @return { real, imaginary } of the principal value of e
+     * @throws IllegalArgumentException if e contains an unknown symbol or a function without a complex extension
+     */
+    public static double[] evaluate(Expr e) { return evaluate(e, null, 0); }
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the free variable
+     * @param x -- a (real) value of the variable
+     * @return { real, imaginary } of the principal value of e(x)
+     * @throws IllegalArgumentException if e contains a symbol other than variable (and the constants)
+     *                                  or a function without a complex extension
+     */
+    public static double[] evaluate(Expr e, String variable, double x)
+    {
+        if (e.isNumber()) return real(((NumberExpr)e).getValue());
+
+        if (e.isSymbol())
+        {
+            if (((SymbolExpr)e).getName().equals("I")) return new double[] { 0, 1 };
+
+            return real(e.evaluate(variable, x));
+        }
+
+        switch (e.head())
+        {
+            case "Plus":
+            {
+                double[] sum = real(0);
+                for (int a = 0; a < e.size(); a++) sum = add(sum, evaluate(e.arg(a), variable, x));
+                return sum;
+            }
+
+            case "Times":
+            {
+                double[] product = real(1);
+                for (int a = 0; a < e.size(); a++) product = multiply(product, evaluate(e.arg(a), variable, x));
+                return product;
+            }
+
+            case "Power":    return power(evaluate(e.arg(0), variable, x), evaluate(e.arg(1), variable, x));
+
+            case "N":        return evaluate(e.arg(0), variable, x);
+            case "Sqrt":     return power(evaluate(e.arg(0), variable, x), real(0.5));
+            case "Exp":      return exp(evaluate(e.arg(0), variable, x));
+
+            case "Log":
+            {
+                // Log[b, u] = Log[u] / Log[b]
+                if (e.size() == 2) return divide(log(evaluate(e.arg(1), variable, x)), log(evaluate(e.arg(0), variable, x)));
+
+                return log(evaluate(e.arg(0), variable, x));
+            }
+
+            case "Log10":    return divide(log(evaluate(e.arg(0), variable, x)), real(Math.log(10)));
+            case "Log2":     return divide(log(evaluate(e.arg(0), variable, x)), real(Math.log(2)));
+
+            case "Abs":
+            {
+                double[] z = evaluate(e.arg(0), variable, x);
+                return real(Math.hypot(z[RE], z[IM]));
+            }
+
+            // sin(a + bi) = sin a cosh b + i cos a sinh b
+            case "Sin":
+            {
+                double[] z = evaluate(e.arg(0), variable, x);
+                return new double[] { Math.sin(z[RE]) * Math.cosh(z[IM]), Math.cos(z[RE]) * Math.sinh(z[IM]) };
+            }
+
+            // cos(a + bi) = cos a cosh b - i sin a sinh b
+            case "Cos":
+            {
+                double[] z = evaluate(e.arg(0), variable, x);
+                return new double[] { Math.cos(z[RE]) * Math.cosh(z[IM]), -Math.sin(z[RE]) * Math.sinh(z[IM]) };
+            }
+
+            // sinh(a + bi) = sinh a cos b + i cosh a sin b
+            case "Sinh":
+            {
+                double[] z = evaluate(e.arg(0), variable, x);
+                return new double[] { Math.sinh(z[RE]) * Math.cos(z[IM]), Math.cosh(z[RE]) * Math.sin(z[IM]) };
+            }
+
+            // cosh(a + bi) = cosh a cos b + i sinh a sin b
+            case "Cosh":
+            {
+                double[] z = evaluate(e.arg(0), variable, x);
+                return new double[] { Math.cosh(z[RE]) * Math.cos(z[IM]), Math.sinh(z[RE]) * Math.sin(z[IM]) };
+            }
+
+            default:
+            {
+                // Functions without a complex extension are defined on real arguments only
+                double[] values = new double[e.size()];
+                for (int a = 0; a < e.size(); a++)
+                {
+                    double[] z = evaluate(e.arg(a), variable, x);
+                    if (z[IM] != 0) throw new IllegalArgumentException("No complex extension of |" + e.head() + "| in |" + e + "|");
+                    values[a] = z[RE];
+                }
+
+                double value = Builtins.apply(e.head(), values);
+                if (Double.isNaN(value)) throw new IllegalArgumentException("No complex extension of |" + e.head() + "| in |" + e + "|");
+
+                return real(value);
+            }
+        }
+    }
+
+    private static double[] real(double value) { return new double[] { value, 0 }; }
+
+    private static double[] add(double[] u, double[] v) { return new double[] { u[RE] + v[RE], u[IM] + v[IM] }; }
+
+    private static double[] multiply(double[] u, double[] v)
+    {
+        // Real operands stay real (no 0 * Infinity = NaN imaginary parts)
+        if (u[IM] == 0 && v[IM] == 0) return real(u[RE] * v[RE]);
+
+        return new double[] { u[RE] * v[RE] - u[IM] * v[IM], u[RE] * v[IM] + u[IM] * v[RE] };
+    }
+
+    private static double[] divide(double[] u, double[] v)
+    {
+        if (u[IM] == 0 && v[IM] == 0) return real(u[RE] / v[RE]);
+
+        double denominator = v[RE] * v[RE] + v[IM] * v[IM];
+
+        return new double[] { (u[RE] * v[RE] + u[IM] * v[IM]) / denominator, (u[IM] * v[RE] - u[RE] * v[IM]) / denominator };
+    }
+
+    private static double[] exp(double[] z)
+    {
+        double modulus = Math.exp(z[RE]);
+
+        if (z[IM] == 0) return real(modulus);
+
+        return new double[] { modulus * Math.cos(z[IM]), modulus * Math.sin(z[IM]) };
+    }
+
+    /**
+     * The principal logarithm: Log|z| + i Arg(z), with Arg in (-Pi, Pi]
+     */
+    private static double[] log(double[] z)
+    {
+        if (z[IM] == 0 && z[RE] >= 0) return real(Math.log(z[RE]));
+
+        return new double[] { Math.log(Math.hypot(z[RE], z[IM])), Math.atan2(z[IM], z[RE]) };
+    }
+
+    /**
+     * The principal power u^v = Exp[v Log[u]]; real powers of non-negative reals, and integer powers of reals,
+     * are computed exactly as in real arithmetic
+     */
+    private static double[] power(double[] u, double[] v)
+    {
+        if (u[IM] == 0 && v[IM] == 0)
+        {
+            if (u[RE] >= 0 || v[RE] == Math.rint(v[RE])) return real(Math.pow(u[RE], v[RE]));
+        }
+
+        if (u[RE] == 0 && u[IM] == 0) return real(0);
+
+        // Sqrt of a negative real is exactly imaginary
+        if (u[IM] == 0 && v[IM] == 0 && v[RE] == 0.5) return new double[] { 0, Math.sqrt(-u[RE]) };
+
+        return exp(multiply(v, log(u)));
+    }
+}
@@ -0,0 +1,246 @@
+package math.expression;
+
+import utilities.LruCache;
+
+/**
+ * Symbolic differentiation of expression trees: the rules of a first calculus course
+ * (sum, product, power, exponential, logarithm, trigonometric, and chain rules).
+ *
+ * Simplified derivatives are memoized per function, variable, and order: the key D[f, {x, n}] is a
+ * hash-consed tree, so a lookup never walks f, and the nth derivative is computed from the memoized (n-1)st.
+ */
+public class Differentiator
+{
+    // The number of memoized derivatives
+    public static final int MEMO_CAPACITY = 4096;
+
+    // D[f, {x, n}] -> the simplified nth derivative of f
+    private static final LruCache<Expr, Expr> _memo = new LruCache<Expr, Expr>(MEMO_CAPACITY);
+
+    private Differentiator() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- an expression
+     * @param variable -- the variable of differentiation
+     * @param n -- the order of the derivative (n >= 0)
+     * @return d^n f / d variable^n simplified; the result is memoized
+     * @throws IllegalArgumentException if f contains a function without a known derivative
+     */
+    public static Expr simplifiedDerivative(Expr f, String variable, int n)
+    {
+        if (n == 0) return f;
+
+        Expr key = Expr.call("D", f, Expr.call(Expr.LIST, Expr.symbol(variable), Expr.number(n)));
+
+        return _memo.get(key, k -> Simplifier.simplify(derivative(simplifiedDerivative(f, variable, n - 1), variable)));
+    }
+
+    /**
+     * @return the memoized derivatives (for statistics)
+     */
+    public static LruCache<Expr, Expr> getMemo() { return _memo; }
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the variable of differentiation
+     * @param n -- the order of the derivative (n >= 0)
+     * @return d^n e / d variable^n
+     */
+    public static Expr nthDerivative(Expr e, String variable, int n)
+    {
+        Expr result = e;
+
+        for (int i = 0; i < n; i++)
+        {
+            result = derivative(result, variable);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the variable of differentiation
+     * @return d e / d variable
+     * @throws IllegalArgumentException if e contains a function without a known derivative
+     */
+    public static Expr derivative(Expr e, String variable)
+    {
+        if (!e.contains(variable)) return Expr.number(0);
+
+        if (e.isSymbol()) return Expr.number(1);
+
+        switch (e.head())
+        {
+            case "Plus":  return sumRule(e, variable);
+            case "Times": return productRule(e, variable);
+            case "Power": return powerRule(e.arg(0), e.arg(1), variable);
+            case "N":     return derivative(e.arg(0), variable);
+
+            case "Sqrt":
+                return powerRule(e.arg(0), Expr.number(0.5), variable);
+
+            case "CubeRoot":
+                return chain(Expr.divide(Expr.number(1), Expr.times(Expr.number(3), Expr.power(e, Expr.number(2)))), e.arg(0), variable);
+
+            case "Surd":
+            {
+                // d/dx Surd[u, n] = u' / (n Surd[u, n]^(n - 1))
+                Expr n = e.arg(1);
+                Expr denominator = Expr.times(n, Expr.power(e, Expr.minus(n, Expr.number(1))));
+                return chain(Expr.divide(Expr.number(1), denominator), e.arg(0), variable);
+            }
+
+            case "Exp":
+                return chain(e, e.arg(0), variable);
+
+            case "Log":
+            {
+                // Log[b, u] = Log[u] / Log[b]
+                if (e.size() == 2)
+                {
+                    Expr quotient = Expr.divide(Expr.call("Log", e.arg(1)), Expr.call("Log", e.arg(0)));
+                    return derivative(quotient, variable);
+                }
+
+                return chain(Expr.power(e.arg(0), Expr.number(-1)), e.arg(0), variable);
+            }
+
+            case "Log10":
+                return derivative(Expr.call("Log", Expr.number(10), e.arg(0)), variable);
+
+            case "Log2":
+                return derivative(Expr.call("Log", Expr.number(2), e.arg(0)), variable);
+
+            case "Sin":
+                return chain(Expr.call("Cos", e.arg(0)), e.arg(0), variable);
+
+            case "Cos":
+                return chain(Expr.negate(Expr.call("Sin", e.arg(0))), e.arg(0), variable);
+
+            case "Tan":
+                return chain(Expr.power(Expr.call("Sec", e.arg(0)), Expr.number(2)), e.arg(0), variable);
+
+            case "Cot":
+                return chain(Expr.negate(Expr.power(Expr.call("Csc", e.arg(0)), Expr.number(2))), e.arg(0), variable);
+
+            case "Sec":
+                return chain(Expr.times(e, Expr.call("Tan", e.arg(0))), e.arg(0), variable);
+
+            case "Csc":
+                return chain(Expr.negate(Expr.times(e, Expr.call("Cot", e.arg(0)))), e.arg(0), variable);
+
+            case "ArcSin":
+                return chain(Expr.power(oneMinusSquare(e.arg(0)), Expr.number(-0.5)), e.arg(0), variable);
+
+            case "ArcCos":
+                return chain(Expr.negate(Expr.power(oneMinusSquare(e.arg(0)), Expr.number(-0.5))), e.arg(0), variable);
+
+            case "ArcTan":
+            {
+                Expr onePlusSquare = Expr.plus(Expr.number(1), Expr.power(e.arg(0), Expr.number(2)));
+                return chain(Expr.power(onePlusSquare, Expr.number(-1)), e.arg(0), variable);
+            }
+
+            case "Sinh":
+                return chain(Expr.call("Cosh", e.arg(0)), e.arg(0), variable);
+
+            case "Cosh":
+                return chain(Expr.call("Sinh", e.arg(0)), e.arg(0), variable);
+
+            case "Tanh":
+                return chain(Expr.power(Expr.call("Cosh", e.arg(0)), Expr.number(-2)), e.arg(0), variable);
+
+            case "Abs":
+                return chain(Expr.call("Sign", e.arg(0)), e.arg(0), variable);
+
+            // Piecewise constant (away from its jumps)
+            case "Sign":
+                return Expr.number(0);
+
+            default:
+                throw new IllegalArgumentException("No derivative rule for |" + e.head() + "| in " + e);
+        }
+    }
+
+    /**
+     * (f + g)' = f' + g'
+     */
+    protected static Expr sumRule(Expr e, String variable)
+    {
+        Expr sum = Expr.number(0);
+
+        for (int a = 0; a < e.size(); a++)
+        {
+            sum = Expr.plus(sum, derivative(e.arg(a), variable));
+        }
+
+        return sum;
+    }
+
+    /**
+     * (f_1 f_2 ... f_n)' = sum_i f_1 ... f_i' ... f_n
+     */
+    protected static Expr productRule(Expr e, String variable)
+    {
+        Expr sum = Expr.number(0);
+
+        for (int i = 0; i < e.size(); i++)
+        {
+            Expr term = derivative(e.arg(i), variable);
+
+            for (int j = 0; j < e.size(); j++)
+            {
+                if (i != j) term = Expr.times(term, e.arg(j));
+            }
+
+            sum = Expr.plus(sum, term);
+        }
+
+        return sum;
+    }
+
+    /**
+     * (u^v)' in the three cases: constant exponent, constant base, and the general case
+     */
+    protected static Expr powerRule(Expr base, Expr exponent, String variable)
+    {
+        // d/dx u^n = n u^(n - 1) u'
+        if (!exponent.contains(variable))
+        {
+            Expr outer = Expr.times(exponent, Expr.power(base, Expr.minus(exponent, Expr.number(1))));
+            return chain(outer, base, variable);
+        }
+
+        // d/dx a^v = a^v Log[a] v'
+        if (!base.contains(variable))
+        {
+            Expr outer = Expr.power(base, exponent);
+            if (!isE(base)) outer = Expr.times(outer, Expr.call("Log", base));
+            return chain(outer, exponent, variable);
+        }
+
+        // d/dx u^v = u^v (v' Log[u] + v u' / u)
+        Expr logarithmic = Expr.times(derivative(exponent, variable), Expr.call("Log", base));
+        Expr polynomial = Expr.times(exponent, Expr.divide(derivative(base, variable), base));
+        return Expr.times(Expr.power(base, exponent), Expr.plus(logarithmic, polynomial));
+    }
+
+    /**
+     * @return outer * inner' (the chain rule)
+     */
+    protected static Expr chain(Expr outer, Expr inner, String variable)
+    {
+        return Expr.times(outer, derivative(inner, variable));
+    }
+
+    protected static Expr oneMinusSquare(Expr u)
+    {
+        return Expr.minus(Expr.number(1), Expr.power(u, Expr.number(2)));
+    }
+
+    protected static boolean isE(Expr e)
+    {
+        return e.isSymbol() && ((SymbolExpr)e).getName().equals("E");
+    }
+}
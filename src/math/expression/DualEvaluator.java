@@ -0,0 +1,434 @@
+package math.expression;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Forward-mode automatic differentiation of an expression tree of a single variable: the tree is compiled once
+ * into a straight-line program over dual numbers (value, slope) or hyper-dual numbers (value, slope, curvature),
+ * so a single evaluation yields f(x), f'(x), and f''(x) to rounding, without a symbolic derivative.
+ *
+ *     hyper-dual:  x + e1 + e2 (with e1^2 = e2^2 = 0) maps to f(x) + f'(x) e1 + f'(x) e2 + f''(x) e1 e2;
+ *                  the two equal slope parts are kept once: (value, slope, curvature)
+ *     dual:        the curvature is not propagated
+ *
+ * Each instruction writes its own registers (common subtrees are computed once, as trees are hash-consed), and
+ * evaluation does not allocate: an evaluator is therefore not shared between threads.
+ */
+public class DualEvaluator
+{
+    // Instructions
+    private static final int CONSTANT = 0;
+    private static final int VARIABLE = 1;
+    private static final int ADD = 2;
+    private static final int MULTIPLY = 3;
+    private static final int POWER = 4;
+    private static final int MAX = 5;
+    private static final int MIN = 6;
+    private static final int UNARY = 7;
+
+    private final int[] _instructions;
+    private final int[] _left;
+    private final int[] _right;
+    private final double[] _constants;
+    private final String[] _heads;
+
+    // The register holding the expression
+    private final int _result;
+
+    // Whether the curvature is propagated (hyper-dual) or not (dual)
+    private final boolean _second;
+
+    // Registers: the (value, slope, curvature) of each instruction
+    private final double[] _values;
+    private final double[] _slopes;
+    private final double[] _curvatures;
+
+    private DualEvaluator(Program program, int result, boolean second)
+    {
+        int n = program._instructions.size();
+
+        _instructions = new int[n];
+        _left = new int[n];
+        _right = new int[n];
+        _constants = new double[n];
+        _heads = new String[n];
+
+        for (int i = 0; i < n; i++)
+        {
+            _instructions[i] = program._instructions.get(i);
+            _left[i] = program._left.get(i);
+            _right[i] = program._right.get(i);
+            _constants[i] = program._constants.get(i);
+            _heads[i] = program._heads.get(i);
+        }
+
+        _result = result;
+        _second = second;
+
+        _values = new double[n];
+        _slopes = new double[n];
+        _curvatures = new double[n];
+    }
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the free variable
+     * @return a hyper-dual evaluator of e: value, slope, and curvature
+     * @throws IllegalArgumentException if e contains a symbol other than variable (and the constants) or a function
+     *         without a numeric derivative
+     */
+    public static DualEvaluator compile(Expr e, String variable) { return compile(e, variable, 2); }
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the free variable
+     * @param order -- 1 for dual numbers (value and slope), 2 for hyper-dual numbers (and curvature)
+     * @return an evaluator of e and its derivatives up to order
+     * @throws IllegalArgumentException if e contains a symbol other than variable (and the constants) or a function
+     *         without a numeric derivative
+     */
+    public static DualEvaluator compile(Expr e, String variable, int order)
+    {
+        if (order < 1 || order > 2) throw new IllegalArgumentException("Derivatives of order " + order + " are not propagated.");
+
+        Program program = new Program(variable);
+
+        int result = program.emit(e);
+
+        return new DualEvaluator(program, result, order == 2);
+    }
+
+    /**
+     * @param x -- a value of the variable
+     * @return e(x); the slope and curvature at x are then available
+     */
+    public double evaluate(double x)
+    {
+        for (int i = 0; i < _instructions.length; i++)
+        {
+            int l = _left[i];
+            int r = _right[i];
+
+            switch (_instructions[i])
+            {
+                case CONSTANT:
+                    _values[i] = _constants[i];
+                    _slopes[i] = 0;
+                    _curvatures[i] = 0;
+                    break;
+
+                case VARIABLE:
+                    _values[i] = x;
+                    _slopes[i] = 1;
+                    _curvatures[i] = 0;
+                    break;
+
+                case ADD:
+                    _values[i] = _values[l] + _values[r];
+                    _slopes[i] = _slopes[l] + _slopes[r];
+                    if (_second) _curvatures[i] = _curvatures[l] + _curvatures[r];
+                    break;
+
+                case MULTIPLY:
+                    _values[i] = _values[l] * _values[r];
+                    _slopes[i] = _slopes[l] * _values[r] + _values[l] * _slopes[r];
+                    if (_second) _curvatures[i] = _curvatures[l] * _values[r] + 2 * _slopes[l] * _slopes[r] + _values[l] * _curvatures[r];
+                    break;
+
+                case MAX:
+                case MIN:
+                {
+                    // The derivatives of the selected argument (one-sided where the arguments cross)
+                    boolean left = _instructions[i] == MAX ? _values[l] >= _values[r] : _values[l] <= _values[r];
+                    int selected = left ? l : r;
+                    _values[i] = _values[selected];
+                    _slopes[i] = _slopes[selected];
+                    _curvatures[i] = _curvatures[selected];
+                    break;
+                }
+
+                case POWER:
+                {
+                    double u = _values[l];
+                    double n = _constants[i];
+                    double value = Builtins.power(u, n);
+                    chain(i, l, value, n * Builtins.power(u, n - 1), n * (n - 1) * Builtins.power(u, n - 2));
+                    break;
+                }
+
+                default:
+                    unary(i, l, _heads[i]);
+                    break;
+            }
+        }
+
+        return value();
+    }
+
+    /**
+     * Sets register i to g(u) for register l holding u: g' and g'' composed by the chain rule
+     */
+    private void chain(int i, int l, double value, double gPrime, double gDoublePrime)
+    {
+        double slope = _slopes[l];
+
+        _values[i] = value;
+
+        // Undefined (Log[u] for u < 0, where 1 / u is still finite): so are the derivatives
+        if (Double.isNaN(value))
+        {
+            _slopes[i] = Double.NaN;
+            if (_second) _curvatures[i] = Double.NaN;
+            return;
+        }
+
+        _slopes[i] = gPrime * slope;
+
+        // g'' u'^2 + g' u'' (the first term vanishes with u', so infinities there do not leak)
+        if (_second) _curvatures[i] = (slope == 0 ? 0 : gDoublePrime * slope * slope) + gPrime * _curvatures[l];
+    }
+
+    private void unary(int i, int l, String head)
+    {
+        double u = _values[l];
+
+        switch (head)
+        {
+            case "Sqrt":
+            {
+                double v = Math.sqrt(u);
+                chain(i, l, v, 0.5 / v, -0.25 / (v * u));
+                return;
+            }
+
+            case "CubeRoot":
+            case "Surd":
+            {
+                double n = head.equals("Surd") ? _constants[i] : 3;
+                double v = Builtins.surd(u, n);
+                chain(i, l, v, v / (n * u), v * (1 - n) / (n * n * u * u));
+                return;
+            }
+
+            case "Exp":
+            {
+                double v = Math.exp(u);
+                chain(i, l, v, v, v);
+                return;
+            }
+
+            case "Log":   chain(i, l, Math.log(u), 1 / u, -1 / (u * u)); return;
+            case "Log10": chain(i, l, Math.log10(u), 1 / (u * Math.log(10)), -1 / (u * u * Math.log(10))); return;
+            case "Log2":  chain(i, l, Math.log(u) / Math.log(2), 1 / (u * Math.log(2)), -1 / (u * u * Math.log(2))); return;
+
+            case "Sin": chain(i, l, Math.sin(u), Math.cos(u), -Math.sin(u)); return;
+            case "Cos": chain(i, l, Math.cos(u), -Math.sin(u), -Math.cos(u)); return;
+
+            case "Tan":
+            {
+                double t = Math.tan(u);
+                chain(i, l, t, 1 + t * t, 2 * t * (1 + t * t));
+                return;
+            }
+
+            case "Cot":
+            {
+                double c = 1 / Math.tan(u);
+                chain(i, l, c, -(1 + c * c), 2 * c * (1 + c * c));
+                return;
+            }
+
+            case "Sec":
+            {
+                double s = 1 / Math.cos(u);
+                double t = Math.tan(u);
+                chain(i, l, s, s * t, s * (t * t + s * s));
+                return;
+            }
+
+            case "Csc":
+            {
+                double c = 1 / Math.sin(u);
+                double k = 1 / Math.tan(u);
+                chain(i, l, c, -c * k, c * (k * k + c * c));
+                return;
+            }
+
+            case "ArcSin":
+            {
+                double w = 1 - u * u;
+                chain(i, l, Math.asin(u), 1 / Math.sqrt(w), u / (w * Math.sqrt(w)));
+                return;
+            }
+
+            case "ArcCos":
+            {
+                double w = 1 - u * u;
+                chain(i, l, Math.acos(u), -1 / Math.sqrt(w), -u / (w * Math.sqrt(w)));
+                return;
+            }
+
+            case "ArcTan":
+            {
+                double w = 1 + u * u;
+                chain(i, l, Math.atan(u), 1 / w, -2 * u / (w * w));
+                return;
+            }
+
+            case "Sinh": chain(i, l, Math.sinh(u), Math.cosh(u), Math.sinh(u)); return;
+            case "Cosh": chain(i, l, Math.cosh(u), Math.sinh(u), Math.cosh(u)); return;
+
+            case "Tanh":
+            {
+                double t = Math.tanh(u);
+                chain(i, l, t, 1 - t * t, -2 * t * (1 - t * t));
+                return;
+            }
+
+            case "Abs": chain(i, l, Math.abs(u), Math.signum(u), 0); return;
+
+            // Piecewise constant
+            default:
+                chain(i, l, Builtins.apply(head, u), 0, 0);
+                return;
+        }
+    }
+
+    /**
+     * @return e(x) for the last evaluated x
+     */
+    public double value() { return _values[_result]; }
+
+    /**
+     * @return e'(x) for the last evaluated x
+     */
+    public double slope() { return _slopes[_result]; }
+
+    /**
+     * @return e''(x) for the last evaluated x (0 for a dual evaluator)
+     */
+    public double curvature() { return _curvatures[_result]; }
+
+    /**
+     * @param x -- a value of the variable
+     * @return e'(x)
+     */
+    public double slope(double x)
+    {
+        evaluate(x);
+
+        return slope();
+    }
+
+    /**
+     * @param x -- a value of the variable
+     * @return e''(x)
+     */
+    public double curvature(double x)
+    {
+        evaluate(x);
+
+        return curvature();
+    }
+
+    /**
+     * The instructions of a program under construction
+     */
+    private static class Program
+    {
+        private final String _variable;
+
+        private final ArrayList<Integer> _instructions = new ArrayList<Integer>();
+        private final ArrayList<Integer> _left = new ArrayList<Integer>();
+        private final ArrayList<Integer> _right = new ArrayList<Integer>();
+        private final ArrayList<Double> _constants = new ArrayList<Double>();
+        private final ArrayList<String> _heads = new ArrayList<String>();
+
+        // Hash-consed subtree -> the register holding it
+        private final IdentityHashMap<Expr, Integer> _registers = new IdentityHashMap<Expr, Integer>();
+
+        private Program(String variable) { _variable = variable; }
+
+        private int add(int instruction, int left, int right, double constant, String head)
+        {
+            _instructions.add(instruction);
+            _left.add(left);
+            _right.add(right);
+            _constants.add(constant);
+            _heads.add(head);
+
+            return _instructions.size() - 1;
+        }
+
+        /**
+         * @return the register holding e
+         */
+        private int emit(Expr e)
+        {
+            Integer register = _registers.get(e);
+
+            if (register != null) return register;
+
+            register = compile(e);
+
+            _registers.put(e, register);
+
+            return register;
+        }
+
+        private int compile(Expr e)
+        {
+            // Constant subtrees
+            if (!e.contains(_variable)) return add(CONSTANT, -1, -1, e.evaluate(_variable, 0), null);
+
+            if (e.isSymbol()) return add(VARIABLE, -1, -1, 0, null);
+
+            if (!Builtins.isNumericFunction(e.head()))
+            {
+                throw new IllegalArgumentException("Function |" + e.head() + "| has no numeric evaluation.");
+            }
+
+            switch (e.head())
+            {
+                case "Plus":  return fold(ADD, e);
+                case "Times": return fold(MULTIPLY, e);
+                case "Max":   return fold(MAX, e);
+                case "Min":   return fold(MIN, e);
+                case "N":     return emit(e.arg(0));
+
+                case "Power":
+                    // Variable exponent: u^w = Exp[w Log[u]]
+                    if (e.arg(1).contains(_variable)) return emit(Expr.call("Exp", Expr.times(e.arg(1), Expr.call("Log", e.arg(0)))));
+
+                    return add(POWER, emit(e.arg(0)), -1, e.arg(1).evaluate(_variable, 0), null);
+
+                case "Surd":
+                    if (e.arg(1).contains(_variable)) throw new IllegalArgumentException("Surd with a variable index has no derivative evaluation.");
+
+                    return add(UNARY, emit(e.arg(0)), -1, e.arg(1).evaluate(_variable, 0), "Surd");
+
+                case "Log":
+                    // Log[b, u] = Log[u] / Log[b]
+                    if (e.size() == 2) return emit(Expr.divide(Expr.call("Log", e.arg(1)), Expr.call("Log", e.arg(0))));
+                    break;
+            }
+
+            if (e.size() != 1) throw new IllegalArgumentException(e.head() + " with " + e.size() + " arguments has no derivative evaluation.");
+
+            return add(UNARY, emit(e.arg(0)), -1, 0, e.head());
+        }
+
+        /**
+         * @return the register holding the left fold of the binary instruction over the arguments of e
+         */
+        private int fold(int instruction, Expr e)
+        {
+            int register = emit(e.arg(0));
+
+            for (int a = 1; a < e.size(); a++) register = add(instruction, register, emit(e.arg(a)), 0, null);
+
+            return register;
+        }
+    }
+}
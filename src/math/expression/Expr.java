@@ -0,0 +1,231 @@
+package math.expression;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An immutable node of a Mathematica-style expression tree.
+ *
+ * Following Mathematica's FullForm, every expression is one of
+ *     (1) a number:  2.5
+ *     (2) a symbol:  x, Pi, E
+ *     (3) a call:    Head[arg_1, ..., arg_n]
+ * Operators are calls with the standard Mathematica heads: x + 1 is Plus[x, 1], x^2 is Power[x, 2], etc.
+ *
+ * Expressions are hash-consed: the factories return the one shared instance of each distinct tree, so
+ * structurally equal expressions are identical (==) and equality and hashing never walk a tree.
+ */
+public abstract class Expr
+{
+    //
+    // Standard heads used by the parser, the evaluator, and the writer
+    //
+    public static final String PLUS = "Plus";
+    public static final String TIMES = "Times";
+    public static final String POWER = "Power";
+    public static final String LIST = "List";
+    public static final String RULE = "Rule";
+
+    public boolean isNumber() { return false; }
+    public boolean isSymbol() { return false; }
+    public boolean isCall() { return false; }
+    public boolean isText() { return false; }
+
+    /**
+     * @return the head of this expression: the function name of a call; "Symbol" or "Real" for atoms
+     */
+    public abstract String head();
+
+    /**
+     * @return the number of arguments (0 for atoms)
+     */
+    public int size() { return 0; }
+
+    /**
+     * @param index -- argument index
+     * @return the argument at the given index
+     */
+    public Expr arg(int index) { throw new IndexOutOfBoundsException(this + " has no arguments"); }
+
+    /**
+     * @param head -- a head name
+     * @return whether this is a call with the given head
+     */
+    public boolean hasHead(String head) { return isCall() && head().equals(head); }
+
+    /**
+     * @param variable -- the name of the free variable
+     * @param value -- the value of the free variable
+     * @return the numeric value of this expression
+     * @throws IllegalArgumentException for unknown symbols or functions
+     */
+    public abstract double evaluate(String variable, double value);
+
+    /**
+     * @param symbol -- a symbol name
+     * @return whether this expression refers to the given symbol
+     */
+    public abstract boolean contains(String symbol);
+
+    /**
+     * @param symbol -- a symbol name
+     * @param replacement -- an expression
+     * @return this expression with every occurrence of symbol replaced (ReplaceAll)
+     */
+    public abstract Expr substitute(String symbol, Expr replacement);
+
+    /**
+     * @return whether this expression is free of all symbols except the numeric constants (Pi, E, ...)
+     */
+    public abstract boolean isConstant();
+
+    /**
+     * @return the InputForm of this expression: a String Mathematica (and our parser) can read back
+     */
+    @Override
+    public String toString()
+    {
+        return InputFormWriter.write(this);
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////// Factories /////////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    public static Expr number(double value) { return intern(new NumberExpr(value)); }
+
+    public static Expr symbol(String name) { return intern(new SymbolExpr(name)); }
+
+    public static Expr call(String head, Expr... args) { return intern(new CallExpr(head, args)); }
+
+    /**
+     * @param text -- Mathematica input outside the parsed syntax
+     * @return the text as written (for a kernel to read); not evaluated in-process
+     */
+    public static Expr text(String text) { return intern(new TextExpr(text)); }
+
+    //
+    // The shared instance of each live expression; entries are dropped once no tree refers to them
+    //
+    private static final Map<Expr, WeakReference<Expr>> _interned = new WeakHashMap<Expr, WeakReference<Expr>>();
+
+    /**
+     * @param e -- a newly constructed expression (whose arguments are interned)
+     * @return the shared instance structurally equal to e
+     */
+    private static Expr intern(Expr e)
+    {
+        synchronized (_interned)
+        {
+            WeakReference<Expr> reference = _interned.get(e);
+            Expr shared = reference == null ? null : reference.get();
+
+            if (shared != null) return shared;
+
+            _interned.put(e, new WeakReference<Expr>(e));
+
+            return e;
+        }
+    }
+
+    /**
+     * @return the number of distinct live expressions
+     */
+    public static int internedCount()
+    {
+        synchronized (_interned) { return _interned.size(); }
+    }
+
+    /**
+     * @return a + b with numeric folding and additive identities removed
+     */
+    public static Expr plus(Expr a, Expr b)
+    {
+        if (a.isNumber() && b.isNumber()) return number(a.evaluate(null, 0) + b.evaluate(null, 0));
+
+        if (isZero(a)) return b;
+        if (isZero(b)) return a;
+
+        return flatCall(PLUS, a, b);
+    }
+
+    /**
+     * @return a - b
+     */
+    public static Expr minus(Expr a, Expr b) { return plus(a, negate(b)); }
+
+    /**
+     * @return -a
+     */
+    public static Expr negate(Expr a) { return times(number(-1), a); }
+
+    /**
+     * @return a * b with numeric folding and multiplicative identities removed
+     */
+    public static Expr times(Expr a, Expr b)
+    {
+        if (a.isNumber() && b.isNumber()) return number(a.evaluate(null, 0) * b.evaluate(null, 0));
+
+        if (isZero(a) || isZero(b)) return number(0);
+        if (isOne(a)) return b;
+        if (isOne(b)) return a;
+
+        // Numeric coefficients lead the product: x*2 is 2*x
+        if (b.isNumber()) return times(b, a);
+
+        // Numeric coefficients are combined: 2*(3*x) is 6*x
+        if (a.isNumber() && b.hasHead(TIMES) && b.arg(0).isNumber())
+        {
+            Expr[] rest = new Expr[b.size() - 1];
+            for (int i = 1; i < b.size(); i++) rest[i - 1] = b.arg(i);
+
+            Expr coefficient = number(a.evaluate(null, 0) * b.arg(0).evaluate(null, 0));
+            return times(coefficient, rest.length == 1 ? rest[0] : call(TIMES, rest));
+        }
+
+        return flatCall(TIMES, a, b);
+    }
+
+    /**
+     * @return a / b
+     */
+    public static Expr divide(Expr a, Expr b) { return times(a, power(b, number(-1))); }
+
+    /**
+     * @return base ^ exponent with numeric folding and trivial exponents removed
+     */
+    public static Expr power(Expr base, Expr exponent)
+    {
+        if (base.isNumber() && exponent.isNumber())
+        {
+            return number(Math.pow(base.evaluate(null, 0), exponent.evaluate(null, 0)));
+        }
+
+        if (isZero(exponent)) return number(1);
+        if (isOne(exponent)) return base;
+
+        return call(POWER, base, exponent);
+    }
+
+    /**
+     * @param head -- an associative head (Plus, Times, And, Or)
+     * @return head[a, b] with nested calls of the same head spliced in: Plus[Plus[a, b], c] is Plus[a, b, c]
+     */
+    public static Expr flatCall(String head, Expr a, Expr b)
+    {
+        int sizeA = a.hasHead(head) ? a.size() : 1;
+        int sizeB = b.hasHead(head) ? b.size() : 1;
+
+        Expr[] args = new Expr[sizeA + sizeB];
+
+        for (int i = 0; i < sizeA; i++) args[i] = a.hasHead(head) ? a.arg(i) : a;
+        for (int i = 0; i < sizeB; i++) args[sizeA + i] = b.hasHead(head) ? b.arg(i) : b;
+
+        return call(head, args);
+    }
+
+    public static boolean isZero(Expr e) { return e.isNumber() && e.evaluate(null, 0) == 0; }
+
+    public static boolean isOne(Expr e) { return e.isNumber() && e.evaluate(null, 0) == 1; }
+}
@@ -0,0 +1,148 @@
+package math.expression;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compiles an expression tree of a single variable into a tree of closures.
+ *
+ * Compilation is performed once; evaluation then avoids the name-based dispatch (and array
+ * allocation) of Expr.evaluate: constant subtrees are folded, and the common shapes
+ * (binary sums and products, small integer powers, unary functions) receive specialized closures.
+ */
+public class ExpressionCompiler
+{
+    private ExpressionCompiler() {} // To ensure no instances of this class
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the free variable
+     * @return an evaluator: x -> e(x)
+     * @throws IllegalArgumentException if e contains a symbol other than variable (and the constants) or a non-numeric function
+     */
+    public static DoubleUnaryOperator compile(Expr e, String variable)
+    {
+        // Fold constant subtrees
+        if (!e.contains(variable))
+        {
+            final double value = e.evaluate(variable, 0);
+            return x -> value;
+        }
+
+        if (e.isSymbol()) return x -> x;
+
+        if (!Builtins.isNumericFunction(e.head()))
+        {
+            throw new IllegalArgumentException("Function |" + e.head() + "| has no numeric evaluation.");
+        }
+
+        switch (e.head())
+        {
+            case "Plus":  return compilePlus(e, variable);
+            case "Times": return compileTimes(e, variable);
+            case "Power": return compilePower(e, variable);
+        }
+
+        if (e.size() == 1) return compileUnary(e.head(), compile(e.arg(0), variable));
+
+        // General case: Surd, Log[b, x], ArcTan[x, y], Max, Min
+        final String head = e.head();
+        final DoubleUnaryOperator[] args = compileArguments(e, variable);
+        return x ->
+        {
+            double[] values = new double[args.length];
+            for (int a = 0; a < args.length; a++) values[a] = args[a].applyAsDouble(x);
+            return Builtins.apply(head, values);
+        };
+    }
+
+    protected static DoubleUnaryOperator[] compileArguments(Expr e, String variable)
+    {
+        DoubleUnaryOperator[] args = new DoubleUnaryOperator[e.size()];
+
+        for (int a = 0; a < e.size(); a++) args[a] = compile(e.arg(a), variable);
+
+        return args;
+    }
+
+    protected static DoubleUnaryOperator compilePlus(Expr e, String variable)
+    {
+        final DoubleUnaryOperator[] args = compileArguments(e, variable);
+
+        if (args.length == 2)
+        {
+            final DoubleUnaryOperator left = args[0];
+            final DoubleUnaryOperator right = args[1];
+            return x -> left.applyAsDouble(x) + right.applyAsDouble(x);
+        }
+
+        return x ->
+        {
+            double sum = 0;
+            for (DoubleUnaryOperator arg : args) sum += arg.applyAsDouble(x);
+            return sum;
+        };
+    }
+
+    protected static DoubleUnaryOperator compileTimes(Expr e, String variable)
+    {
+        final DoubleUnaryOperator[] args = compileArguments(e, variable);
+
+        if (args.length == 2)
+        {
+            final DoubleUnaryOperator left = args[0];
+            final DoubleUnaryOperator right = args[1];
+            return x -> left.applyAsDouble(x) * right.applyAsDouble(x);
+        }
+
+        return x ->
+        {
+            double product = 1;
+            for (DoubleUnaryOperator arg : args) product *= arg.applyAsDouble(x);
+            return product;
+        };
+    }
+
+    protected static DoubleUnaryOperator compilePower(Expr e, String variable)
+    {
+        final DoubleUnaryOperator base = compile(e.arg(0), variable);
+
+        // Variable exponent: 2^x
+        if (e.arg(1).contains(variable))
+        {
+            final DoubleUnaryOperator exponent = compile(e.arg(1), variable);
+            return x -> Builtins.power(base.applyAsDouble(x), exponent.applyAsDouble(x));
+        }
+
+        final double n = e.arg(1).evaluate(variable, 0);
+
+        // Small integer powers by multiplication
+        if (n == 1) return base;
+        if (n == 2) return x -> { double b = base.applyAsDouble(x); return b * b; };
+        if (n == 3) return x -> { double b = base.applyAsDouble(x); return b * b * b; };
+        if (n == 4) return x -> { double b = base.applyAsDouble(x); b *= b; return b * b; };
+        if (n == -1) return x -> 1 / base.applyAsDouble(x);
+        if (n == 0.5) return x -> Math.sqrt(base.applyAsDouble(x));
+
+        return x -> Builtins.power(base.applyAsDouble(x), n);
+    }
+
+    protected static DoubleUnaryOperator compileUnary(String head, final DoubleUnaryOperator arg)
+    {
+        switch (head)
+        {
+            case "N":
+            case "Max":
+            case "Min":    return arg;
+            case "Sqrt":   return x -> Math.sqrt(arg.applyAsDouble(x));
+            case "Exp":    return x -> Math.exp(arg.applyAsDouble(x));
+            case "Log":    return x -> Math.log(arg.applyAsDouble(x));
+            case "Sin":    return x -> Math.sin(arg.applyAsDouble(x));
+            case "Cos":    return x -> Math.cos(arg.applyAsDouble(x));
+            case "Tan":    return x -> Math.tan(arg.applyAsDouble(x));
+            case "Abs":    return x -> Math.abs(arg.applyAsDouble(x));
+
+            default:
+                return x -> Builtins.apply(head, arg.applyAsDouble(x));
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package math.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import exceptions.ParseException;
+
+/**
+ * A recursive-descent parser for the subset of Mathematica InputForm used by our functions and queries.
+ *
+ * Supported (lowest to highest precedence):
+ *     a ; b                       CompoundExpression
+ *     a = b, a := b               Set, SetDelayed
+ *     a // f                      postfix application: f[a]
+ *     body &                      Function (with # slots)
+ *     a /. rules                  ReplaceAll
+ *     a -> b                      Rule
+ *     a || b, a && b, !a          Or, And, Not
+ *     a == b, a <= x <= b, ...    relations (chains become And of binary relations)
+ *     a + b, a - b                Plus
+ *     a * b, a / b, a b, 2x       Times (including implicit multiplication)
+ *     -a                          unary minus
+ *     a ^ b                       Power (right associative)
+ *     f[a, b], {a, b}, (a), x_    calls, lists, grouping, patterns
+ * Numbers may use Mathematica exponent notation: 1.6653345369377348*^-16
+ */
+public class ExpressionParser
+{
+    protected final String _input;
+    protected int _pos;
+
+    protected ExpressionParser(String input)
+    {
+        _input = input;
+        _pos = 0;
+    }
+
+    /**
+     * @param input -- a String-based Mathematica expression
+     * @return the corresponding expression tree
+     * @throws ParseException when the input is not in the supported subset
+     */
+    public static Expr parse(String input) throws ParseException
+    {
+        ExpressionParser parser = new ExpressionParser(input);
+
+        Expr e = parser.parseCompound();
+
+        parser.skipWhitespace();
+        if (!parser.atEnd()) throw parser.error("Unexpected trailing input");
+
+        return e;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////// Grammar Levels //////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    protected Expr parseCompound() throws ParseException
+    {
+        List<Expr> statements = new ArrayList<Expr>();
+
+        statements.add(parseSet());
+        while (accept(";"))
+        {
+            // A trailing semicolon (a; b;) results in Null
+            if (atEndOfGroup()) statements.add(Expr.symbol("Null"));
+            else statements.add(parseSet());
+        }
+
+        if (statements.size() == 1) return statements.get(0);
+
+        return Expr.call("CompoundExpression", statements.toArray(new Expr[0]));
+    }
+
+    protected Expr parseSet() throws ParseException
+    {
+        Expr lhs = parsePostfix();
+
+        if (accept(":=")) return Expr.call("SetDelayed", lhs, parseSet());
+
+        // '=' but not '=='
+        if (peek("=") && !peek("=="))
+        {
+            _pos++;
+            return Expr.call("Set", lhs, parseSet());
+        }
+
+        return lhs;
+    }
+
+    protected Expr parsePostfix() throws ParseException
+    {
+        Expr e = parseFunction();
+
+        while (accept("//"))
+        {
+            Expr f = parseFunction();
+
+            // a // f is f[a]; a // N is N[a]
+            if (f.isSymbol()) e = Expr.call(((SymbolExpr)f).getName(), e);
+            else throw error("Only symbol heads are supported in postfix application");
+        }
+
+        return e;
+    }
+
+    protected Expr parseFunction() throws ParseException
+    {
+        Expr e = parseReplace();
+
+        // '&' but not '&&'
+        while (peek("&") && !peek("&&"))
+        {
+            _pos++;
+            e = Expr.call("Function", e);
+        }
+
+        return e;
+    }
+
+    protected Expr parseReplace() throws ParseException
+    {
+        Expr e = parseRule();
+
+        while (accept("/.")) e = Expr.call("ReplaceAll", e, parseRule());
+
+        return e;
+    }
+
+    protected Expr parseRule() throws ParseException
+    {
+        Expr lhs = parseOr();
+
+        if (accept("->")) return Expr.call(Expr.RULE, lhs, parseRule());
+
+        return lhs;
+    }
+
+    protected Expr parseOr() throws ParseException
+    {
+        Expr e = parseAnd();
+
+        while (accept("||")) e = Expr.flatCall("Or", e, parseAnd());
+
+        return e;
+    }
+
+    protected Expr parseAnd() throws ParseException
+    {
+        Expr e = parseNot();
+
+        while (accept("&&")) e = Expr.flatCall("And", e, parseNot());
+
+        return e;
+    }
+
+    protected Expr parseNot() throws ParseException
+    {
+        if (peek("!") && !peek("!="))
+        {
+            _pos++;
+            return Expr.call("Not", parseNot());
+        }
+
+        return parseRelation();
+    }
+
+    protected Expr parseRelation() throws ParseException
+    {
+        Expr left = parsePlus();
+
+        Expr result = null;
+        String op;
+        while ((op = relationalOperator()) != null)
+        {
+            Expr right = parsePlus();
+            Expr relation = Expr.call(op, left, right);
+
+            // Chains a <= x <= b are the conjunction of the binary relations
+            result = result == null ? relation : Expr.flatCall("And", result, relation);
+            left = right;
+        }
+
+        return result == null ? left : result;
+    }
+
+    protected Expr parsePlus() throws ParseException
+    {
+        Expr e = parseTimes();
+
+        while (true)
+        {
+            if (accept("+")) e = Expr.flatCall(Expr.PLUS, e, parseTimes());
+
+            // '-' but not '->'
+            else if (peek("-") && !peek("->"))
+            {
+                _pos++;
+                e = Expr.flatCall(Expr.PLUS, e, negate(parseTimes()));
+            }
+            else return e;
+        }
+    }
+
+    protected Expr parseTimes() throws ParseException
+    {
+        Expr e = parseUnary();
+
+        while (true)
+        {
+            if (accept("*")) e = Expr.flatCall(Expr.TIMES, e, parseUnary());
+
+            // '/' but not '//' or '/.'
+            else if (peek("/") && !peek("//") && !peek("/."))
+            {
+                _pos++;
+                e = Expr.flatCall(Expr.TIMES, e, Expr.call(Expr.POWER, parseUnary(), Expr.number(-1)));
+            }
+
+            // Implicit multiplication: 2x, x (x - 1), Pi x
+            else if (startsPrimary()) e = Expr.flatCall(Expr.TIMES, e, parsePower());
+
+            else return e;
+        }
+    }
+
+    protected Expr parseUnary() throws ParseException
+    {
+        if (peek("-") && !peek("->"))
+        {
+            _pos++;
+            return negate(parseUnary());
+        }
+
+        if (accept("+")) return parseUnary();
+
+        return parsePower();
+    }
+
+    protected Expr parsePower() throws ParseException
+    {
+        Expr base = parsePrimary();
+
+        // Right associative; the exponent may carry a unary sign: E^-x
+        if (accept("^")) return Expr.call(Expr.POWER, base, parseUnary());
+
+        return base;
+    }
+
+    protected Expr parsePrimary() throws ParseException
+    {
+        skipWhitespace();
+
+        if (atEnd()) throw error("Unexpected end of input");
+
+        char c = _input.charAt(_pos);
+
+        if (Character.isDigit(c) || (c == '.' && _pos + 1 < _input.length() && Character.isDigit(_input.charAt(_pos + 1))))
+        {
+            return parseNumber();
+        }
+
+        if (Character.isLetter(c) || c == '$') return parseSymbolOrCall();
+
+        if (c == '(')
+        {
+            _pos++;
+            Expr e = parseCompound();
+            expect(")");
+            return e;
+        }
+
+        if (c == '{')
+        {
+            _pos++;
+            return Expr.call(Expr.LIST, parseSequence("}"));
+        }
+
+        if (c == '#')
+        {
+            _pos++;
+
+            // #1 is the same as #
+            while (!atEnd() && Character.isDigit(_input.charAt(_pos))) _pos++;
+
+            return Expr.call("Slot");
+        }
+
+        throw error("Unexpected character '" + c + "'");
+    }
+
+    protected Expr parseSymbolOrCall() throws ParseException
+    {
+        int start = _pos;
+        while (!atEnd() && (Character.isLetterOrDigit(_input.charAt(_pos)) || _input.charAt(_pos) == '$')) _pos++;
+
+        String name = _input.substring(start, _pos);
+
+        // Pattern: x_
+        if (!atEnd() && _input.charAt(_pos) == '_')
+        {
+            _pos++;
+            return Expr.call("Pattern", Expr.symbol(name));
+        }
+
+        // Call: f[a, b] (Mathematica permits whitespace before the bracket: Exp [ x ])
+        if (accept("["))
+        {
+            return Expr.call(name, parseSequence("]"));
+        }
+
+        return Expr.symbol(name);
+    }
+
+    /**
+     * @param close -- the closing delimiter
+     * @return the comma-separated expressions up to (and including) the closing delimiter
+     */
+    protected Expr[] parseSequence(String close) throws ParseException
+    {
+        List<Expr> args = new ArrayList<Expr>();
+
+        if (accept(close)) return new Expr[0];
+
+        do
+        {
+            args.add(parseCompound());
+        }
+        while (accept(","));
+
+        expect(close);
+
+        return args.toArray(new Expr[0]);
+    }
+
+    protected Expr parseNumber() throws ParseException
+    {
+        int start = _pos;
+        while (!atEnd() && (Character.isDigit(_input.charAt(_pos)) || _input.charAt(_pos) == '.')) _pos++;
+
+        String mantissa = _input.substring(start, _pos);
+
+        // Mathematica precision marks: 1.5`16
+        if (!atEnd() && _input.charAt(_pos) == '`')
+        {
+            _pos++;
+            while (!atEnd() && (Character.isDigit(_input.charAt(_pos)) || _input.charAt(_pos) == '.')) _pos++;
+        }
+
+        // Mathematica exponent notation: 1.5*^-16
+        String exponent = "";
+        if (_input.startsWith("*^", _pos))
+        {
+            _pos += 2;
+            int expStart = _pos;
+            if (!atEnd() && (_input.charAt(_pos) == '-' || _input.charAt(_pos) == '+')) _pos++;
+            while (!atEnd() && Character.isDigit(_input.charAt(_pos))) _pos++;
+            exponent = "E" + _input.substring(expStart, _pos);
+        }
+
+        try
+        {
+            return Expr.number(Double.parseDouble(mantissa + exponent));
+        }
+        catch (NumberFormatException e)
+        {
+            throw error("Malformed number |" + mantissa + "|");
+        }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////// Utilities /////////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return -e with numbers folded: -(2) is the number -2
+     */
+    protected static Expr negate(Expr e)
+    {
+        if (e.isNumber()) return Expr.number(-((NumberExpr)e).getValue());
+
+        return Expr.call(Expr.TIMES, Expr.number(-1), e);
+    }
+
+    /**
+     * @return the head of the relational operator at the cursor (consumed); null if there is none
+     */
+    protected String relationalOperator()
+    {
+        if (accept("==")) return "Equal";
+        if (accept("!=")) return "Unequal";
+        if (accept("<=")) return "LessEqual";
+        if (accept(">=")) return "GreaterEqual";
+        if (accept("<")) return "Less";
+        if (accept(">")) return "Greater";
+
+        return null;
+    }
+
+    /**
+     * @return whether the next token begins a primary expression (for implicit multiplication)
+     */
+    protected boolean startsPrimary()
+    {
+        skipWhitespace();
+
+        if (atEnd()) return false;
+
+        char c = _input.charAt(_pos);
+
+        return Character.isLetterOrDigit(c) || c == '(' || c == '$' || c == '#' ||
+               (c == '.' && _pos + 1 < _input.length() && Character.isDigit(_input.charAt(_pos + 1)));
+    }
+
+    protected boolean atEndOfGroup()
+    {
+        skipWhitespace();
+
+        return atEnd() || peek(")") || peek("]") || peek("}") || peek(",");
+    }
+
+    protected boolean peek(String token)
+    {
+        skipWhitespace();
+
+        return _input.startsWith(token, _pos);
+    }
+
+    protected boolean accept(String token)
+    {
+        if (!peek(token)) return false;
+
+        _pos += token.length();
+
+        return true;
+    }
+
+    protected void expect(String token) throws ParseException
+    {
+        if (!accept(token)) throw error("Expected '" + token + "'");
+    }
+
+    protected void skipWhitespace()
+    {
+        while (!atEnd() && Character.isWhitespace(_input.charAt(_pos))) _pos++;
+    }
+
+    protected boolean atEnd() { return _pos >= _input.length(); }
+
+    protected ParseException error(String message)
+    {
+        return new ParseException(message + " at position " + _pos + " in |" + _input + "|");
+    }
+}
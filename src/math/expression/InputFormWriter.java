@@ -0,0 +1,390 @@
+package math.expression;
+
+import java.math.BigDecimal;
+
+/**
+ * Serializes expression trees to Mathematica InputForm.
+ *
+ * The output is readable by both Mathematica and the ExpressionParser; parentheses are emitted
+ * only where operator precedence requires them.
+ *
+ * Each thread reuses a single writer (and its builder) for all of its serializations.
+ */
+public class InputFormWriter
+{
+    //
+    // Mathematica operator precedences (a subset): larger binds tighter
+    //
+    protected static final int PREC_COMPOUND = 10;
+    protected static final int PREC_SET = 40;
+    protected static final int PREC_FUNCTION = 90;
+    protected static final int PREC_REPLACE = 110;
+    protected static final int PREC_RULE = 120;
+    protected static final int PREC_OR = 215;
+    protected static final int PREC_AND = 220;
+    protected static final int PREC_NOT = 230;
+    protected static final int PREC_RELATION = 290;
+    protected static final int PREC_PLUS = 310;
+    protected static final int PREC_TIMES = 400;
+    protected static final int PREC_UNARY_MINUS = 480;
+    protected static final int PREC_POWER = 590;
+    protected static final int PREC_ATOM = 1000;
+
+    // A reused builder larger than this is released after use (rather than retained by the thread)
+    protected static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    protected StringBuilder _builder;
+
+    // Whether the writer is serializing (a reused writer is not reentrant)
+    protected boolean _busy;
+
+    protected InputFormWriter()
+    {
+        this(new StringBuilder());
+    }
+
+    protected InputFormWriter(StringBuilder builder)
+    {
+        _builder = builder;
+        _busy = false;
+    }
+
+    private static final ThreadLocal<InputFormWriter> _writer = ThreadLocal.withInitial(InputFormWriter::new);
+
+    /**
+     * @param e -- an expression
+     * @return the InputForm of the expression
+     */
+    public static String write(Expr e)
+    {
+        InputFormWriter writer = _writer.get();
+
+        // Nested serialization (toString() while writing) takes a private writer
+        if (writer._busy) writer = new InputFormWriter();
+
+        writer._busy = true;
+        try
+        {
+            writer._builder.setLength(0);
+            writer.append(e);
+
+            return writer._builder.toString();
+        }
+        finally
+        {
+            if (writer._builder.capacity() > MAX_RETAINED_CAPACITY) writer._builder = new StringBuilder();
+            writer._busy = false;
+        }
+    }
+
+    /**
+     * @param e -- an expression
+     * @param builder -- the builder receiving the InputForm of the expression
+     */
+    public static void write(Expr e, StringBuilder builder)
+    {
+        new InputFormWriter(builder).append(e);
+    }
+
+    /**
+     * @param value -- a real number
+     * @return a String-based representation without exponent notation (which Mathematica would misread)
+     */
+    public static String formatNumber(double value)
+    {
+        if (Double.isNaN(value)) return "Indeterminate";
+
+        if (value == Double.POSITIVE_INFINITY) return "Infinity";
+        if (value == Double.NEGATIVE_INFINITY) return "-Infinity";
+
+        // Integral values print without a fractional part (and without a negative zero)
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long)value);
+
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+
+    /**
+     * @param e -- an expression
+     * @return the precedence of the outermost operator of e
+     */
+    protected static int precedence(Expr e)
+    {
+        if (e.isNumber()) return ((NumberExpr)e).getValue() < 0 ? PREC_UNARY_MINUS : PREC_ATOM;
+
+        if (!e.isCall()) return PREC_ATOM;
+
+        switch (e.head())
+        {
+            case "CompoundExpression": return PREC_COMPOUND;
+            case "Set":
+            case "SetDelayed":         return PREC_SET;
+            case "Function":           return PREC_FUNCTION;
+            case "ReplaceAll":         return PREC_REPLACE;
+            case "Rule":               return PREC_RULE;
+            case "Or":                 return PREC_OR;
+            case "And":                return PREC_AND;
+            case "Not":                return PREC_NOT;
+            case "Equal":
+            case "Unequal":
+            case "Less":
+            case "LessEqual":
+            case "Greater":
+            case "GreaterEqual":       return PREC_RELATION;
+            case "Plus":               return PREC_PLUS;
+            case "Times":              return isNegativeTerm(e) ? PREC_UNARY_MINUS : PREC_TIMES;
+            case "Power":              return PREC_POWER;
+
+            default:
+                return PREC_ATOM;
+        }
+    }
+
+    /**
+     * @param e -- an expression
+     * @param minimum -- the smallest precedence not requiring parentheses
+     */
+    protected void append(Expr e, int minimum)
+    {
+        if (precedence(e) < minimum)
+        {
+            _builder.append('(');
+            append(e);
+            _builder.append(')');
+        }
+        else append(e);
+    }
+
+    protected void append(Expr e)
+    {
+        if (e.isNumber())
+        {
+            _builder.append(formatNumber(((NumberExpr)e).getValue()));
+            return;
+        }
+
+        if (e.isSymbol())
+        {
+            _builder.append(((SymbolExpr)e).getName());
+            return;
+        }
+
+        // Unparsed input, as written; parenthesized since its precedence is unknown
+        if (e.isText())
+        {
+            _builder.append('(');
+            _builder.append(((TextExpr)e).getText());
+            _builder.append(')');
+            return;
+        }
+
+        switch (e.head())
+        {
+            case "Plus":               appendPlus(e); return;
+            case "Times":              appendTimes(e); return;
+            case "Power":              appendPower(e); return;
+            case "List":               appendList(e); return;
+            case "Pattern":            append(e.arg(0)); _builder.append('_'); return;
+            case "Slot":               _builder.append('#'); return;
+            case "Function":           append(e.arg(0), PREC_FUNCTION + 1); _builder.append(" &"); return;
+            case "Not":                _builder.append('!'); append(e.arg(0), PREC_NOT); return;
+            case "CompoundExpression": appendInfix(e, "; ", PREC_COMPOUND); return;
+            case "Set":                appendInfix(e, " = ", PREC_SET); return;
+            case "SetDelayed":         appendInfix(e, " := ", PREC_SET); return;
+            case "ReplaceAll":         appendInfix(e, " /. ", PREC_REPLACE); return;
+            case "Rule":               appendInfix(e, " -> ", PREC_RULE); return;
+            case "Or":                 appendInfix(e, " || ", PREC_OR); return;
+            case "And":                appendInfix(e, " && ", PREC_AND); return;
+            case "Equal":              appendInfix(e, " == ", PREC_RELATION); return;
+            case "Unequal":            appendInfix(e, " != ", PREC_RELATION); return;
+            case "Less":               appendInfix(e, " < ", PREC_RELATION); return;
+            case "LessEqual":          appendInfix(e, " <= ", PREC_RELATION); return;
+            case "Greater":            appendInfix(e, " > ", PREC_RELATION); return;
+            case "GreaterEqual":       appendInfix(e, " >= ", PREC_RELATION); return;
+
+            default:
+                appendCall(e);
+        }
+    }
+
+    /**
+     * Head[arg_1, ..., arg_n]
+     */
+    protected void appendCall(Expr e)
+    {
+        _builder.append(e.head());
+        _builder.append('[');
+        appendSequence(e);
+        _builder.append(']');
+    }
+
+    /**
+     * {arg_1, ..., arg_n}
+     */
+    protected void appendList(Expr e)
+    {
+        _builder.append('{');
+        appendSequence(e);
+        _builder.append('}');
+    }
+
+    protected void appendSequence(Expr e)
+    {
+        for (int a = 0; a < e.size(); a++)
+        {
+            if (a > 0) _builder.append(", ");
+            append(e.arg(a));
+        }
+    }
+
+    /**
+     * arg_1 op arg_2 op ... op arg_n (operands parenthesized when they bind looser than the operator)
+     */
+    protected void appendInfix(Expr e, String operator, int prec)
+    {
+        for (int a = 0; a < e.size(); a++)
+        {
+            if (a > 0) _builder.append(operator);
+            append(e.arg(a), prec + 1);
+        }
+    }
+
+    /**
+     * a + b - c: negative terms are written with subtraction
+     */
+    protected void appendPlus(Expr e)
+    {
+        for (int a = 0; a < e.size(); a++)
+        {
+            Expr term = e.arg(a);
+
+            if (a > 0 && isNegativeTerm(term))
+            {
+                _builder.append(" - ");
+                append(negateTerm(term), PREC_TIMES);
+            }
+            else
+            {
+                if (a > 0) _builder.append(" + ");
+                append(term, PREC_PLUS + 1);
+            }
+        }
+    }
+
+    /**
+     * a*b/(c*d): factors with negative numeric exponents are written as denominators
+     */
+    protected void appendTimes(Expr e)
+    {
+        int start = 0;
+
+        // Leading -1 becomes unary minus
+        if (e.arg(0).isNumber() && ((NumberExpr)e.arg(0)).getValue() == -1 && e.size() > 1)
+        {
+            _builder.append('-');
+            start = 1;
+        }
+
+        int numerators = 0;
+        int denominators = 0;
+        for (int a = start; a < e.size(); a++)
+        {
+            if (isReciprocal(e.arg(a))) denominators++;
+            else if (!Expr.isOne(e.arg(a))) numerators++;
+        }
+
+        //
+        // Numerator
+        //
+        if (numerators == 0) _builder.append('1');
+
+        boolean first = true;
+        for (int a = start; a < e.size(); a++)
+        {
+            // A literal 1 (1/2 x) is implied by the remaining factors
+            if (isReciprocal(e.arg(a)) || Expr.isOne(e.arg(a))) continue;
+
+            if (!first) _builder.append('*');
+            append(e.arg(a), first && start == 0 ? PREC_TIMES : PREC_TIMES + 1);
+            first = false;
+        }
+
+        if (denominators == 0) return;
+
+        //
+        // Denominator
+        //
+        _builder.append('/');
+        if (denominators > 1) _builder.append('(');
+
+        first = true;
+        for (int a = start; a < e.size(); a++)
+        {
+            if (!isReciprocal(e.arg(a))) continue;
+
+            if (!first) _builder.append('*');
+            append(reciprocal(e.arg(a)), denominators > 1 ? PREC_TIMES + 1 : PREC_POWER);
+            first = false;
+        }
+
+        if (denominators > 1) _builder.append(')');
+    }
+
+    /**
+     * base^exponent (right associative)
+     */
+    protected void appendPower(Expr e)
+    {
+        append(e.arg(0), PREC_POWER + 1);
+        _builder.append('^');
+        append(e.arg(1), PREC_POWER);
+    }
+
+    /**
+     * @return whether e is Power[b, -n]
+     */
+    protected static boolean isReciprocal(Expr e)
+    {
+        return e.hasHead(Expr.POWER) && e.arg(1).isNumber() && ((NumberExpr)e.arg(1)).getValue() < 0;
+    }
+
+    /**
+     * @return b^n given b^-n
+     */
+    protected static Expr reciprocal(Expr e)
+    {
+        return Expr.power(e.arg(0), Expr.number(-((NumberExpr)e.arg(1)).getValue()));
+    }
+
+    /**
+     * @return whether e is a negative number or a product with a negative numeric coefficient
+     */
+    protected static boolean isNegativeTerm(Expr e)
+    {
+        if (e.isNumber()) return ((NumberExpr)e).getValue() < 0;
+
+        return e.hasHead(Expr.TIMES) && e.arg(0).isNumber() && ((NumberExpr)e.arg(0)).getValue() < 0;
+    }
+
+    /**
+     * @return -e for a negative term
+     */
+    protected static Expr negateTerm(Expr e)
+    {
+        if (e.isNumber()) return Expr.number(-((NumberExpr)e).getValue());
+
+        Expr[] args = ((CallExpr)e).args();
+        args[0] = Expr.number(-((NumberExpr)args[0]).getValue());
+
+        // Drop a coefficient of 1
+        if (Expr.isOne(args[0]))
+        {
+            if (args.length == 2) return args[1];
+
+            Expr[] rest = new Expr[args.length - 1];
+            System.arraycopy(args, 1, rest, 0, rest.length);
+            return Expr.call(Expr.TIMES, rest);
+        }
+
+        return Expr.call(Expr.TIMES, args);
+    }
+}
@@ -0,0 +1,125 @@
+package math.expression;
+
+import math.numeric.Interval;
+
+/**
+ * Evaluates an expression tree of a single variable over an interval: the result encloses e(x) for every
+ * (real-valued) x in the interval. Functions without an interval extension (Tan, Floor, ...) are
+ * enclosed by the entire real line, which is always correct if never informative.
+ */
+public class IntervalEvaluator
+{
+    private IntervalEvaluator() {} // To ensure no instances of this class
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the free variable
+     * @param x -- an interval of values of the variable
+     * @return an enclosure of { e(t) : t in x }
+     * @throws IllegalArgumentException if e contains a symbol other than variable (and the constants)
+     */
+    public static Interval evaluate(Expr e, String variable, Interval x)
+    {
+        if (e.isNumber()) return Interval.point(((NumberExpr)e).getValue());
+
+        if (e.isSymbol()) return ((SymbolExpr)e).getName().equals(variable) ? x : Interval.point(e.evaluate(variable, 0));
+
+        // Constant subtrees are points
+        if (!e.contains(variable)) return Interval.point(e.evaluate(variable, 0));
+
+        switch (e.head())
+        {
+            case "Plus":
+            {
+                Interval sum = Interval.point(0);
+                for (int a = 0; a < e.size(); a++) sum = sum.add(evaluate(e.arg(a), variable, x));
+                return sum;
+            }
+
+            case "Times":
+            {
+                Interval product = Interval.point(1);
+                for (int a = 0; a < e.size(); a++) product = product.multiply(evaluate(e.arg(a), variable, x));
+                return product;
+            }
+
+            case "Power":
+                return power(e, variable, x);
+
+            case "N":        return evaluate(e.arg(0), variable, x);
+            case "Sqrt":     return evaluate(e.arg(0), variable, x).sqrt();
+            case "Exp":      return evaluate(e.arg(0), variable, x).exp();
+            case "Sin":      return evaluate(e.arg(0), variable, x).sin();
+            case "Cos":      return evaluate(e.arg(0), variable, x).cos();
+            case "Abs":      return evaluate(e.arg(0), variable, x).abs();
+
+            case "Log":
+            {
+                // Log[b, u] = Log[u] / Log[b]
+                if (e.size() == 2) return evaluate(e.arg(1), variable, x).log().multiply(evaluate(e.arg(0), variable, x).log().reciprocal());
+
+                return evaluate(e.arg(0), variable, x).log();
+            }
+
+            case "Log10":    return evaluate(e.arg(0), variable, x).log().multiply(Interval.point(1 / Math.log(10)));
+            case "Log2":     return evaluate(e.arg(0), variable, x).log().multiply(Interval.point(1 / Math.log(2)));
+
+            // Increasing functions
+            case "CubeRoot":
+            case "ArcTan":
+            case "Sinh":
+            case "Tanh":
+                if (e.size() == 1) return increasing(e.head(), evaluate(e.arg(0), variable, x), Interval.ENTIRE);
+                return Interval.ENTIRE;
+
+            case "ArcSin":
+                return increasing("ArcSin", evaluate(e.arg(0), variable, x), Interval.of(-1, 1));
+
+            case "ArcCos":
+                return increasing("ArcSin", evaluate(e.arg(0), variable, x), Interval.of(-1, 1)).negate().add(Interval.point(Math.PI / 2));
+
+            case "Cosh":
+            {
+                Interval magnitude = evaluate(e.arg(0), variable, x).abs();
+                if (magnitude.isEmpty()) return Interval.EMPTY;
+                return Interval.of(Math.nextDown(Math.cosh(magnitude.getLower())), Math.nextUp(Math.cosh(magnitude.getUpper())));
+            }
+
+            default:
+                return Interval.ENTIRE;
+        }
+    }
+
+    /**
+     * u^v with a constant exponent; a variable exponent as Exp[v Log[u]] (or E^v)
+     */
+    private static Interval power(Expr e, String variable, Interval x)
+    {
+        Interval base = evaluate(e.arg(0), variable, x);
+
+        if (!e.arg(1).contains(variable)) return base.power(e.arg(1).evaluate(variable, 0));
+
+        Interval exponent = evaluate(e.arg(1), variable, x);
+
+        if (Differentiator.isE(e.arg(0))) return exponent.exp();
+
+        return exponent.multiply(base.log()).exp();
+    }
+
+    /**
+     * @param head -- an increasing function
+     * @param arg -- the enclosure of its argument
+     * @param domain -- the real domain of the function
+     * @return the enclosure of head over arg
+     */
+    private static Interval increasing(String head, Interval arg, Interval domain)
+    {
+        Interval restricted = arg.intersect(domain);
+        if (restricted.isEmpty()) return Interval.EMPTY;
+
+        double lower = Builtins.apply(head, restricted.getLower());
+        double upper = Builtins.apply(head, restricted.getUpper());
+
+        return Interval.of(Math.nextDown(lower), Math.nextUp(upper));
+    }
+}
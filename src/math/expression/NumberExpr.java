@@ -0,0 +1,44 @@
+package math.expression;
+
+/**
+ * A real (machine precision) numeric constant.
+ */
+public class NumberExpr extends Expr
+{
+    protected final double _value;
+    public double getValue() { return _value; }
+
+    protected NumberExpr(double value)
+    {
+        _value = value;
+    }
+
+    @Override
+    public boolean isNumber() { return true; }
+
+    @Override
+    public String head() { return "Real"; }
+
+    @Override
+    public double evaluate(String variable, double value) { return _value; }
+
+    @Override
+    public boolean contains(String symbol) { return false; }
+
+    @Override
+    public Expr substitute(String symbol, Expr replacement) { return this; }
+
+    @Override
+    public boolean isConstant() { return true; }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof NumberExpr)) return false;
+
+        return Double.compare(_value, ((NumberExpr)obj)._value) == 0;
+    }
+
+    @Override
+    public int hashCode() { return Double.hashCode(_value); }
+}
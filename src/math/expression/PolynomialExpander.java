@@ -0,0 +1,113 @@
+package math.expression;
+
+/**
+ * Expands an expression tree that is a polynomial in a variable into its coefficients:
+ *     a * (b * (x - h))^2 + k     is     { a b^2 h^2 + k, -2 a b^2 h, a b^2 }
+ * Sums, products, and non-negative integral powers of polynomials are polynomials; subtrees
+ * without the variable are (numeric) coefficients.
+ */
+public class PolynomialExpander
+{
+    // The largest degree expanded (beyond it, numeric root-finding is preferable to an expansion)
+    public static final int MAX_DEGREE = 32;
+
+    private PolynomialExpander() {} // To ensure no instances of this class
+
+    /**
+     * @param e -- an expression
+     * @param variable -- the name of the variable
+     * @return the coefficients c_0, c_1, ..., c_n of e as a polynomial in variable; null if e is not a polynomial
+     */
+    public static double[] coefficients(Expr e, String variable)
+    {
+        try
+        {
+            return expand(e, variable);
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // A symbol other than the variable
+            return null;
+        }
+    }
+
+    private static double[] expand(Expr e, String variable)
+    {
+        if (!e.contains(variable)) return new double[] { e.evaluate(variable, 0) };
+
+        if (e.isSymbol()) return new double[] { 0, 1 };
+
+        switch (e.head())
+        {
+            case "N":
+                return expand(e.arg(0), variable);
+
+            case "Plus":
+            {
+                double[] sum = { 0 };
+                for (int a = 0; a < e.size(); a++)
+                {
+                    double[] term = expand(e.arg(a), variable);
+                    if (term == null) return null;
+
+                    sum = add(sum, term);
+                }
+                return sum;
+            }
+
+            case "Times":
+            {
+                double[] product = { 1 };
+                for (int a = 0; a < e.size(); a++)
+                {
+                    double[] factor = expand(e.arg(a), variable);
+                    if (factor == null) return null;
+
+                    product = multiply(product, factor);
+                    if (product.length - 1 > MAX_DEGREE) return null;
+                }
+                return product;
+            }
+
+            case "Power":
+            {
+                if (e.arg(1).contains(variable)) return null;
+
+                double n = e.arg(1).evaluate(variable, 0);
+                if (n < 0 || n != Math.rint(n)) return null;
+
+                double[] base = expand(e.arg(0), variable);
+                if (base == null || (base.length - 1) * n > MAX_DEGREE) return null;
+
+                double[] power = { 1 };
+                for (int i = 0; i < (int)n; i++) power = multiply(power, base);
+                return power;
+            }
+
+            default:
+                return null;
+        }
+    }
+
+    private static double[] add(double[] p, double[] q)
+    {
+        double[] sum = new double[Math.max(p.length, q.length)];
+
+        for (int i = 0; i < p.length; i++) sum[i] += p[i];
+        for (int i = 0; i < q.length; i++) sum[i] += q[i];
+
+        return sum;
+    }
+
+    private static double[] multiply(double[] p, double[] q)
+    {
+        double[] product = new double[p.length + q.length - 1];
+
+        for (int i = 0; i < p.length; i++)
+        {
+            for (int j = 0; j < q.length; j++) product[i + j] += p[i] * q[j];
+        }
+
+        return product;
+    }
+}
@@ -0,0 +1,274 @@
+package math.expression;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Algebraic simplification of expression trees (bottom-up):
+ *     sums:        nested sums are flattened, numbers are added, and like terms are collected: 2 x + 3 x is 5 x
+ *     products:    nested products are flattened, numbers are multiplied, powers of a base are combined (x x^2 is x^3),
+ *                  and factors are in a canonical order (Sin[x] Cos[x] and Cos[x] Sin[x] are one term)
+ *     powers:      numeric powers are folded, (x^a)^n is x^(a n), and (a b)^n is a^n b^n (integral n)
+ *     functions:   calls with numeric arguments and an integral value are folded: Cos[0] is 1
+ *
+ * Like terms and bases are identified by identity (expressions are hash-consed).
+ */
+public class Simplifier
+{
+    //
+    // Canonical order of the factors of a product: symbols, then sums, then functions (each by InputForm)
+    //
+    private static final Comparator<Expr> FACTOR_ORDER = Comparator.comparingInt((Expr f) -> rank(base(f)))
+                                                                   .thenComparing(f -> base(f).toString())
+                                                                   .thenComparing(f -> f.toString());
+
+    private Simplifier() {} // To ensure no instances of this class
+
+    /**
+     * @param e -- an expression
+     * @return an equivalent, simplified expression
+     */
+    public static Expr simplify(Expr e)
+    {
+        if (!e.isCall()) return e;
+
+        Expr[] args = new Expr[e.size()];
+        for (int a = 0; a < args.length; a++) args[a] = simplify(e.arg(a));
+
+        switch (e.head())
+        {
+            case Expr.PLUS:  return plus(args);
+            case Expr.TIMES: return times(args);
+            case Expr.POWER: return power(args[0], args[1]);
+
+            default:
+                return fold(Expr.call(e.head(), args));
+        }
+    }
+
+    /**
+     * @return the sum of the (simplified) terms with like terms collected
+     */
+    protected static Expr plus(Expr[] terms)
+    {
+        // Term (without its numeric coefficient) -> coefficient; in order of appearance
+        Map<Expr, Double> coefficients = new LinkedHashMap<Expr, Double>();
+
+        double constant = collectTerms(terms, 1, coefficients);
+
+        // The constant keeps its place: 1 - x^2 (rather than -x^2 + 1)
+        boolean leadingConstant = terms[0].isNumber();
+
+        List<Expr> sum = new ArrayList<Expr>();
+        for (Map.Entry<Expr, Double> term : coefficients.entrySet())
+        {
+            if (term.getValue() != 0) sum.add(Expr.times(Expr.number(term.getValue()), term.getKey()));
+        }
+
+        if (constant != 0 || sum.isEmpty()) sum.add(leadingConstant ? 0 : sum.size(), Expr.number(constant));
+
+        return sum.size() == 1 ? sum.get(0) : Expr.call(Expr.PLUS, sum.toArray(new Expr[0]));
+    }
+
+    /**
+     * @param terms -- terms of a sum
+     * @param scale -- the coefficient of the sum
+     * @param coefficients -- term -> coefficient (updated)
+     * @return the numeric part of the sum
+     */
+    private static double collectTerms(Expr[] terms, double scale, Map<Expr, Double> coefficients)
+    {
+        double constant = 0;
+
+        for (Expr term : terms)
+        {
+            double coefficient = scale;
+            Expr rest = term;
+
+            // c (a + b) is c a + c b
+            if (rest.hasHead(Expr.TIMES) && rest.size() == 2 && rest.arg(0).isNumber() && rest.arg(1).hasHead(Expr.PLUS))
+            {
+                constant += collectTerms(((CallExpr)rest.arg(1)).args(), scale * value(rest.arg(0)), coefficients);
+                continue;
+            }
+
+            if (rest.hasHead(Expr.PLUS))
+            {
+                constant += collectTerms(((CallExpr)rest).args(), scale, coefficients);
+                continue;
+            }
+
+            if (rest.isNumber())
+            {
+                constant += scale * value(rest);
+                continue;
+            }
+
+            // c t: split the numeric coefficient from the term
+            if (rest.hasHead(Expr.TIMES) && rest.arg(0).isNumber())
+            {
+                coefficient *= value(rest.arg(0));
+                rest = withoutFirst(rest);
+            }
+
+            coefficients.merge(rest, coefficient, Double::sum);
+        }
+
+        return constant;
+    }
+
+    /**
+     * @return the product of the (simplified) factors with powers of a base combined
+     */
+    protected static Expr times(Expr[] factors)
+    {
+        // Base -> exponent; in order of appearance
+        Map<Expr, Expr> exponents = new LinkedHashMap<Expr, Expr>();
+
+        double coefficient = collectFactors(factors, exponents);
+
+        if (coefficient == 0) return Expr.number(0);
+
+        List<Expr> product = new ArrayList<Expr>();
+        for (Map.Entry<Expr, Expr> factor : exponents.entrySet())
+        {
+            Expr f = power(factor.getKey(), simplify(factor.getValue()));
+
+            if (f.isNumber()) coefficient *= value(f);
+            else if (f.hasHead(Expr.TIMES))
+            {
+                // (a b)^n distributed
+                for (int a = 0; a < f.size(); a++)
+                {
+                    if (f.arg(a).isNumber()) coefficient *= value(f.arg(a));
+                    else product.add(f.arg(a));
+                }
+            }
+            else product.add(f);
+        }
+
+        if (product.isEmpty()) return Expr.number(coefficient);
+
+        product.sort(FACTOR_ORDER);
+
+        if (coefficient != 1) product.add(0, Expr.number(coefficient));
+
+        return product.size() == 1 ? product.get(0) : Expr.call(Expr.TIMES, product.toArray(new Expr[0]));
+    }
+
+    /**
+     * @param factors -- factors of a product
+     * @param exponents -- base -> exponent (updated)
+     * @return the numeric part of the product
+     */
+    private static double collectFactors(Expr[] factors, Map<Expr, Expr> exponents)
+    {
+        double coefficient = 1;
+
+        for (Expr factor : factors)
+        {
+            if (factor.isNumber()) coefficient *= value(factor);
+
+            else if (factor.hasHead(Expr.TIMES)) coefficient *= collectFactors(((CallExpr)factor).args(), exponents);
+
+            else
+            {
+                Expr base = base(factor);
+                Expr exponent = factor.hasHead(Expr.POWER) ? factor.arg(1) : Expr.number(1);
+
+                exponents.merge(base, exponent, Expr::plus);
+            }
+        }
+
+        return coefficient;
+    }
+
+    /**
+     * @return base^exponent simplified
+     */
+    protected static Expr power(Expr base, Expr exponent)
+    {
+        if (Expr.isZero(exponent)) return Expr.number(1);
+        if (Expr.isOne(exponent)) return base;
+        if (Expr.isOne(base)) return Expr.number(1);
+
+        if (base.isNumber() && exponent.isNumber())
+        {
+            double folded = Builtins.power(value(base), value(exponent));
+
+            // Leave complex (and infinite) values symbolic: (-8)^(1/3)
+            if (Double.isFinite(folded)) return Expr.number(folded);
+        }
+
+        if (exponent.isNumber() && isIntegral(value(exponent)))
+        {
+            // (x^a)^n is x^(a n)
+            if (base.hasHead(Expr.POWER)) return power(base.arg(0), simplify(Expr.times(base.arg(1), exponent)));
+
+            // (a b)^n is a^n b^n
+            if (base.hasHead(Expr.TIMES))
+            {
+                Expr[] factors = new Expr[base.size()];
+                for (int a = 0; a < factors.length; a++) factors[a] = power(base.arg(a), exponent);
+
+                return times(factors);
+            }
+        }
+
+        return Expr.call(Expr.POWER, base, exponent);
+    }
+
+    /**
+     * @return a call with numeric arguments replaced by its value when the value is integral (Sin[0] is 0)
+     */
+    protected static Expr fold(Expr call)
+    {
+        if (!Builtins.isNumericFunction(call.head())) return call;
+
+        double[] values = new double[call.size()];
+        for (int a = 0; a < values.length; a++)
+        {
+            if (!call.arg(a).isNumber()) return call;
+            values[a] = value(call.arg(a));
+        }
+
+        try
+        {
+            double folded = Builtins.apply(call.head(), values);
+
+            if (Double.isFinite(folded) && isIntegral(folded)) return Expr.number(folded);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Not applicable to these arguments
+        }
+
+        return call;
+    }
+
+    private static Expr base(Expr factor) { return factor.hasHead(Expr.POWER) ? factor.arg(0) : factor; }
+
+    private static int rank(Expr base)
+    {
+        if (base.isSymbol()) return 0;
+
+        return base.hasHead(Expr.PLUS) ? 1 : 2;
+    }
+
+    private static Expr withoutFirst(Expr product)
+    {
+        if (product.size() == 2) return product.arg(1);
+
+        Expr[] rest = new Expr[product.size() - 1];
+        for (int a = 1; a < product.size(); a++) rest[a - 1] = product.arg(a);
+
+        return Expr.call(Expr.TIMES, rest);
+    }
+
+    private static double value(Expr number) { return ((NumberExpr)number).getValue(); }
+
+    private static boolean isIntegral(double x) { return x == Math.rint(x); }
+}
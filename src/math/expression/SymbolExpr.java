@@ -0,0 +1,84 @@
+package math.expression;
+
+/**
+ * A named symbol: a variable (x, y) or a built-in constant (Pi, E, Degree, Infinity).
+ */
+public class SymbolExpr extends Expr
+{
+    protected final String _name;
+    public String getName() { return _name; }
+
+    protected SymbolExpr(String name)
+    {
+        _name = name;
+    }
+
+    @Override
+    public boolean isSymbol() { return true; }
+
+    @Override
+    public String head() { return "Symbol"; }
+
+    /**
+     * @param name -- a symbol name
+     * @return whether the symbol names a built-in numeric constant
+     */
+    public static boolean isNumericConstant(String name)
+    {
+        return constantValue(name) != null;
+    }
+
+    /**
+     * @param name -- a symbol name
+     * @return the value of the built-in numeric constant; null if the symbol is not a constant
+     */
+    public static Double constantValue(String name)
+    {
+        switch (name)
+        {
+            case "Pi":          return Math.PI;
+            case "E":           return Math.E;
+            case "Degree":      return Math.PI / 180;
+            case "GoldenRatio": return (1 + Math.sqrt(5)) / 2;
+            case "Infinity":    return Double.POSITIVE_INFINITY;
+
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public double evaluate(String variable, double value)
+    {
+        if (_name.equals(variable)) return value;
+
+        Double constant = constantValue(_name);
+
+        if (constant == null) throw new IllegalArgumentException("Unknown symbol |" + _name + "| in numeric evaluation.");
+
+        return constant;
+    }
+
+    @Override
+    public boolean contains(String symbol) { return _name.equals(symbol); }
+
+    @Override
+    public Expr substitute(String symbol, Expr replacement)
+    {
+        return _name.equals(symbol) ? replacement : this;
+    }
+
+    @Override
+    public boolean isConstant() { return isNumericConstant(_name); }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof SymbolExpr)) return false;
+
+        return _name.equals(((SymbolExpr)obj)._name);
+    }
+
+    @Override
+    public int hashCode() { return _name.hashCode(); }
+}
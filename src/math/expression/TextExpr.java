@@ -0,0 +1,53 @@
+package math.expression;
+
+/**
+ * Mathematica input outside the parsed syntax (x!, f'[x]), kept as written: the writer emits the text unchanged
+ * (parenthesized) so that a kernel still reads it, while every in-process evaluation rejects it.
+ *
+ * The text may mention any symbol, so it is never a constant with respect to a variable.
+ */
+public class TextExpr extends Expr
+{
+    protected final String _text;
+    public String getText() { return _text; }
+
+    protected TextExpr(String text)
+    {
+        _text = text;
+    }
+
+    @Override
+    public boolean isText() { return true; }
+
+    @Override
+    public String head() { return "Text"; }
+
+    @Override
+    public double evaluate(String variable, double value)
+    {
+        throw new IllegalArgumentException("|" + _text + "| is outside the parsed syntax; no numeric evaluation.");
+    }
+
+    @Override
+    public boolean contains(String symbol) { return true; }
+
+    @Override
+    public Expr substitute(String symbol, Expr replacement)
+    {
+        throw new IllegalArgumentException("|" + _text + "| is outside the parsed syntax; no substitution for |" + symbol + "|.");
+    }
+
+    @Override
+    public boolean isConstant() { return false; }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof TextExpr)) return false;
+
+        return _text.equals(((TextExpr)obj)._text);
+    }
+
+    @Override
+    public int hashCode() { return _text.hashCode(); }
+}
@@ -0,0 +1,172 @@
+package math.external_interface;
+
+import math.expression.Expr;
+import math.expression.InputFormWriter;
+import representation.ComplexNumber;
+import representation.Point;
+import representation.bounds.functions.BoundedFunction;
+import utilities.LruCache;
+
+//
+// Memoizes the queries of another CAS backend.
+//
+// Each query is evaluated in a cleared context, so its result depends only on the query text; results
+// are cached under a normalized form of that text in bounded LRU caches.
+//
+public class CachingCasInterface extends CasInterface
+{
+    protected final CasInterface _backend;
+
+    protected final LruCache<String, String> _queries;
+    protected final LruCache<String, ComplexNumber> _numbers;
+
+    /**
+     * @param backend -- the CAS answering queries not found in the cache
+     * @param capacity -- the maximum number of cached results (of each kind: String and numeric)
+     */
+    public CachingCasInterface(CasInterface backend, int capacity)
+    {
+        _backend = backend;
+        _queries = new LruCache<String, String>(capacity);
+        _numbers = new LruCache<String, ComplexNumber>(capacity);
+    }
+
+    public CasInterface getBackend() { return _backend; }
+
+    public LruCache<String, String> getQueryCache() { return _queries; }
+    public LruCache<String, ComplexNumber> getNumberCache() { return _numbers; }
+
+    @Override
+    public String query(String q)
+    {
+        return _queries.get(normalize(q), key -> _backend.query(q));
+    }
+
+    @Override
+    public ComplexNumber queryComplexNumber(String q)
+    {
+        return _numbers.get(normalize(q), key -> _backend.queryComplexNumber(q));
+    }
+
+    /**
+     * Query expressions are cached under their (canonical) InputForm and passed to the backend as trees.
+     */
+    @Override
+    public String query(Expr q)
+    {
+        return _queries.get(normalize(InputFormWriter.write(q)), key -> _backend.query(q));
+    }
+
+    @Override
+    public ComplexNumber queryComplexNumber(Expr q)
+    {
+        return _numbers.get(normalize(InputFormWriter.write(q)), key -> _backend.queryComplexNumber(q));
+    }
+
+    @Override
+    public ComplexNumber querySequence(String[] queries)
+    {
+        // A sequence is equivalent to the compound query: q_1 ; q_2 ; ...
+        return _numbers.get(normalize(String.join(" ; ", queries)), key -> _backend.querySequence(queries));
+    }
+
+    @Override
+    public ComplexNumber evaluateAtPoint(String function, double x)
+    {
+        return _backend.evaluateAtPoint(function, x);
+    }
+
+    @Override
+    public int concurrency() { return _backend.concurrency(); }
+
+    @Override
+    public double[] evaluateAll(String function, double[] xs)
+    {
+        return _backend.evaluateAll(function, xs);
+    }
+
+    @Override
+    public String getIntersection(BoundedFunction func1, BoundedFunction func2)
+    {
+        return _backend.getIntersection(func1, func2);
+    }
+
+    @Override
+    public String getLagrangePolynomial(Point[] points)
+    {
+        return _backend.getLagrangePolynomial(points);
+    }
+
+    @Override
+    public boolean connection()
+    {
+        return _backend.connection();
+    }
+
+    /**
+     * Whitespace is only significant between two operands (x y is x*y; xy is a symbol) and between
+     * two operator characters (a / .5 is not a /. 5), so it is otherwise removed; runs are collapsed to a single space.
+     * 
+     * @param q -- a String-based query
+     * @return the normalized query: "NSolve[ x^2  ==  4 , x ]" is "NSolve[x^2==4,x]"
+     */
+    public static String normalize(String q)
+    {
+        StringBuilder normalized = new StringBuilder(q.length());
+
+        boolean pendingSpace = false;
+        for (int i = 0; i < q.length(); i++)
+        {
+            char c = q.charAt(i);
+
+            if (Character.isWhitespace(c))
+            {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+
+            if (pendingSpace && isSignificantSpace(normalized.charAt(normalized.length() - 1), c))
+            {
+                normalized.append(' ');
+            }
+
+            normalized.append(c);
+            pendingSpace = false;
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * @return whether whitespace between characters left and right affects the meaning of the query
+     */
+    private static boolean isSignificantSpace(char left, char right)
+    {
+        if (isOperand(left) && isOperand(right)) return true;
+
+        // Operators must not fuse: - - is not --, / . is not /.
+        return isOperator(left) && (isOperator(right) || right == '.');
+    }
+
+    /**
+     * @return whether c may end or begin an operand (juxtaposed operands are multiplied)
+     */
+    private static boolean isOperand(char c)
+    {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '$' || c == '_' || c == '#';
+    }
+
+    /**
+     * @return whether c is an operator character (not an operand, bracket, or separator)
+     */
+    private static boolean isOperator(char c)
+    {
+        return !isOperand(c) && "()[]{},;".indexOf(c) == -1;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Query " + _queries + "; Numeric " + _numbers;
+    }
+}
@@ -0,0 +1,58 @@
+package math.external_interface;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+//
+// Pipelines asynchronous requests to a CAS: submissions are queued and answered by a fixed number of
+// dispatcher threads (one per query the CAS can answer concurrently; a kernel link answers one at a time).
+// Callers submit all of their (independent) requests first and join afterwards, so request construction,
+// result parsing, and CAS evaluation overlap.
+//
+public class CasDispatcher
+{
+    protected final CasInterface _cas;
+    protected final ThreadPoolExecutor _dispatchers;
+
+    /**
+     * @param cas -- the CAS answering the requests
+     * @param workers -- the number of requests answered concurrently
+     */
+    public CasDispatcher(CasInterface cas, int workers)
+    {
+        _cas = cas;
+        _dispatchers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<Runnable>(),
+                                              runnable ->
+                                              {
+                                                  // Outstanding requests do not keep the JVM alive
+                                                  Thread thread = new Thread(runnable, "cas-dispatcher");
+                                                  thread.setDaemon(true);
+                                                  return thread;
+                                              });
+    }
+
+    /**
+     * @param request -- a computation using the CAS
+     * @return the (eventual) result of the request
+     */
+    public <T> CompletableFuture<T> submit(Function<CasInterface, T> request)
+    {
+        return CompletableFuture.supplyAsync(() -> request.apply(_cas), _dispatchers);
+    }
+
+    /**
+     * @return the number of requests waiting for a dispatcher
+     */
+    public int pending() { return _dispatchers.getQueue().size(); }
+
+    public int workers() { return _dispatchers.getMaximumPoolSize(); }
+
+    /**
+     * Completes the queued requests; no further requests are accepted.
+     */
+    public void shutdown() { _dispatchers.shutdown(); }
+}
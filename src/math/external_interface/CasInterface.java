@@ -1,10 +1,182 @@
 package math.external_interface;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import globals.Constants;
+import math.expression.Expr;
+import math.expression.InputFormWriter;
+import representation.ComplexNumber;
 import representation.Point;
 import representation.bounds.functions.BoundedFunction;
 
 public abstract class CasInterface
 {
+    //
+    // The backend answering all queries; selected once at startup (defaults to Constants.CAS_BACKEND)
+    //
+    private static CasInterface _theBackend;
+
+    /**
+     * @param backend -- the CAS to answer all subsequent queries
+     */
+    public static synchronized void initialize(CasT backend)
+    {
+        CasInterface cas = null;
+        switch (backend)
+        {
+            case MATHEMATICA:
+                // Several kernels answer queries in parallel
+                if (Constants.CAS_POOL_SIZE > 1) cas = new CasPool(LocalMathematicaCasInterface::launch, Constants.CAS_POOL_SIZE);
+                else cas = LocalMathematicaCasInterface.getInstance();
+                break;
+
+            case NATIVE:
+                cas = NativeCasInterface.getInstance();
+                break;
+        }
+
+        initialize(cas);
+    }
+
+    /**
+     * @param cas -- the CAS to answer all subsequent queries (a simulated kernel, for example)
+     */
+    public static synchronized void initialize(CasInterface cas)
+    {
+        // Memoize the (repeated) queries of the backend
+        _theBackend = Constants.CAS_CACHE_CAPACITY > 0 ? new CachingCasInterface(cas, Constants.CAS_CACHE_CAPACITY) : cas;
+    }
+
+    /**
+     * @return the selected backend
+     */
+    public static synchronized CasInterface getInstance()
+    {
+        if (_theBackend == null) initialize(Constants.CAS_BACKEND);
+
+        return _theBackend;
+    }
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax
+     * @return the (OutputForm) result of the query; user is responsible for parsing
+     */
+    public abstract String query(String q);
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax resulting in a number
+     * @return the numeric result of the query
+     */
+    public abstract ComplexNumber queryComplexNumber(String q);
+
+    /**
+     * @param q -- a query expression (see QueryBuilder)
+     * @return the (OutputForm) result of the query: by default, the query of its InputForm
+     */
+    public String query(Expr q) { return query(InputFormWriter.write(q)); }
+
+    /**
+     * @param q -- a query expression (see QueryBuilder) resulting in a number
+     * @return the numeric result of the query: by default, the query of its InputForm
+     */
+    public ComplexNumber queryComplexNumber(Expr q) { return queryComplexNumber(InputFormWriter.write(q)); }
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax
+     * @return the (eventual) OutputForm result of the query; queued behind previously submitted queries
+     */
+    public CompletableFuture<String> queryAsync(String q)
+    {
+        return dispatcher().submit(cas -> cas.query(q));
+    }
+
+    /**
+     * @param q -- a query expression (see QueryBuilder)
+     * @return the (eventual) OutputForm result of the query; queued behind previously submitted queries
+     */
+    public CompletableFuture<String> queryAsync(Expr q)
+    {
+        return dispatcher().submit(cas -> cas.query(q));
+    }
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax resulting in a number
+     * @return the (eventual) numeric result of the query; queued behind previously submitted queries
+     */
+    public CompletableFuture<ComplexNumber> queryComplexNumberAsync(String q)
+    {
+        return dispatcher().submit(cas -> cas.queryComplexNumber(q));
+    }
+
+    //
+    // The queue of asynchronous requests (created on demand)
+    //
+    private CasDispatcher _dispatcher;
+
+    public synchronized CasDispatcher dispatcher()
+    {
+        if (_dispatcher == null) _dispatcher = new CasDispatcher(this, concurrency());
+
+        return _dispatcher;
+    }
+
+    /**
+     * @return the number of queries this CAS can answer at the same time; a kernel link answers one at a time
+     */
+    public int concurrency() { return 1; }
+
+    /**
+     * @param queries -- a sequence of String queries where the last query returns a number
+     * @return the result of performing q[0] followed by q[1] in sequence, etc.
+     */
+    public abstract ComplexNumber querySequence(String[] queries);
+
+    /**
+     * @param function -- a String-based function of x (or y)
+     * @param x -- a value to evaluate
+     * @return f(x)
+     */
+    public abstract ComplexNumber evaluateAtPoint(String function, double x);
+
+    /**
+     * @param function -- a String-based function of x (or y)
+     * @param xs -- values to evaluate
+     * @return the real parts of f(x) for all x in xs (NaN where f is undefined), computed with a single query:
+     *         InputForm[N[Table[f, {x, {x_0, x_1, ...}}]]]
+     */
+    public double[] evaluateAll(String function, double[] xs)
+    {
+        if (xs.length == 0) return new double[0];
+
+        Expr variable = Expr.symbol(function.contains("y") ? "y" : "x");
+
+        Expr table = QueryBuilder.call("Table", QueryBuilder.parseOrText(function), QueryBuilder.list(variable, QueryBuilder.list(xs)));
+
+        return parseRealList(query(QueryBuilder.inputForm(QueryBuilder.numeric(table))), xs.length);
+    }
+
+    /**
+     * @param list -- a Mathematica list of numbers: {1., 2.5 + 1.*I, Indeterminate}
+     * @param expected -- the expected length of the list
+     * @return the real parts of the elements (NaN for non-numeric elements)
+     */
+    protected static double[] parseRealList(String list, int expected)
+    {
+        double[] values = new double[expected];
+
+        int count = ReplyParser.parseRealParts(list, values);
+
+        if (count != expected)
+        {
+            if (count == -1) System.err.println("Unexpected list of values |" + list + "|");
+
+            Arrays.fill(values, Double.NaN);
+        }
+
+        return values;
+    }
+
     // Returns a String-based representation of the two given functions
     public abstract String getIntersection(BoundedFunction func1, BoundedFunction func2);
     
@@ -12,4 +184,9 @@ public abstract class CasInterface
 
     // Can we establish the CAS connection?
     public abstract boolean connection();
-}
\ No newline at end of file
+
+    /**
+     * Releases the resources (a kernel, for example) of this CAS.
+     */
+    public void close() { }
+}
@@ -0,0 +1,303 @@
+package math.external_interface;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import math.expression.Expr;
+import representation.ComplexNumber;
+import representation.Point;
+import representation.bounds.functions.BoundedFunction;
+
+//
+// A pool of CAS links (kernels) answering queries in parallel: each query checks out an idle link,
+// launching one if fewer than the pool size exist, and returns it when answered.
+//
+// Health: a link idle longer than the health check interval is verified with connection() before use;
+// a link that fails a query and then fails connection() is closed and replaced (relaunched), and the
+// query is retried once on another link.
+//
+// Waiting: a caller blocks (on the pool) while every link is checked out; it is woken when a link is checked in
+// and when a link is discarded or fails to launch (freeing a launch for the caller).
+//
+public class CasPool extends CasInterface
+{
+    // Links idle longer than this are verified before use
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = 60000;
+
+    protected final Supplier<CasInterface> _launcher;
+    protected final int _size;
+    protected final long _healthCheckIntervalMillis;
+
+    // Links ready for use; guarded by this
+    protected final Deque<CasInterface> _idle;
+
+    // Link -> time (ms) at which it was last known to be healthy; guarded by this
+    protected final Map<CasInterface, Long> _verified;
+
+    // Number of live links (idle or checked out); guarded by this
+    protected int _launched;
+
+    // Number of links replaced after failing a health check; guarded by this
+    protected int _relaunches;
+
+    /**
+     * @param launcher -- creates a new link (a kernel, for example)
+     * @param size -- the maximum number of links
+     */
+    public CasPool(Supplier<CasInterface> launcher, int size)
+    {
+        this(launcher, size, DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param launcher -- creates a new link (a kernel, for example)
+     * @param size -- the maximum number of links
+     * @param healthCheckIntervalMillis -- links idle longer than this are verified before use
+     */
+    public CasPool(Supplier<CasInterface> launcher, int size, long healthCheckIntervalMillis)
+    {
+        if (size < 1) throw new IllegalArgumentException("Pool size must be positive: " + size);
+
+        _launcher = launcher;
+        _size = size;
+        _healthCheckIntervalMillis = healthCheckIntervalMillis;
+        _idle = new ArrayDeque<CasInterface>();
+        _verified = new IdentityHashMap<CasInterface, Long>();
+        _launched = 0;
+        _relaunches = 0;
+    }
+
+    public int size() { return _size; }
+    public synchronized int launched() { return _launched; }
+    public synchronized int relaunches() { return _relaunches; }
+    public synchronized int idle() { return _idle.size(); }
+
+    @Override
+    public int concurrency() { return _size; }
+
+    /**
+     * @return a healthy link for the exclusive use of the caller (blocks while all links are busy)
+     */
+    public CasInterface checkout()
+    {
+        while (true)
+        {
+            CasInterface cas = awaitIdle();
+
+            // A launch was reserved
+            if (cas == null) return launch();
+
+            if (!needsHealthCheck(cas) || verify(cas)) return cas;
+
+            // Dead: replace it
+            discard(cas);
+        }
+    }
+
+    /**
+     * @param cas -- a link previously checked out
+     */
+    public synchronized void checkin(CasInterface cas)
+    {
+        _idle.add(cas);
+
+        notifyAll();
+    }
+
+    /**
+     * @return an idle link; null if a new link may be launched instead (counted as launched)
+     */
+    protected synchronized CasInterface awaitIdle()
+    {
+        while (_idle.isEmpty() && _launched >= _size)
+        {
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for a CAS link", e);
+            }
+        }
+
+        if (!_idle.isEmpty()) return _idle.poll();
+
+        _launched++;
+
+        return null;
+    }
+
+    /**
+     * Closes all idle links.
+     */
+    @Override
+    public void close()
+    {
+        CasInterface cas;
+        while ((cas = pollIdle()) != null)
+        {
+            forget(cas);
+            cas.close();
+        }
+    }
+
+    protected synchronized CasInterface pollIdle() { return _idle.poll(); }
+
+    /**
+     * @param request -- a computation using a single link
+     * @return the result of the request on a checked-out link; retried once if the link was dead
+     */
+    protected <T> T borrow(Function<CasInterface, T> request)
+    {
+        for (int attempt = 0; ; attempt++)
+        {
+            CasInterface cas = checkout();
+
+            try
+            {
+                T result = request.apply(cas);
+                checkin(cas);
+                return result;
+            }
+            catch (RuntimeException e)
+            {
+                // A failing query on a healthy link is the query's failure
+                if (verify(cas))
+                {
+                    checkin(cas);
+                    throw e;
+                }
+
+                discard(cas);
+
+                if (attempt > 0) throw e;
+
+                System.err.println("CAS link failed; relaunching: " + e.getMessage());
+            }
+        }
+    }
+
+    protected CasInterface launch()
+    {
+        try
+        {
+            CasInterface cas = _launcher.get();
+
+            synchronized (this) { _verified.put(cas, System.currentTimeMillis()); }
+
+            return cas;
+        }
+        catch (RuntimeException e)
+        {
+            // The launch is free again: a waiting caller may retry it
+            synchronized (this)
+            {
+                _launched--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    protected synchronized boolean needsHealthCheck(CasInterface cas)
+    {
+        Long verified = _verified.get(cas);
+
+        return verified == null || System.currentTimeMillis() - verified >= _healthCheckIntervalMillis;
+    }
+
+    /**
+     * @return whether the link answers a simple query (reusing connection())
+     */
+    protected boolean verify(CasInterface cas)
+    {
+        boolean healthy;
+        try
+        {
+            healthy = cas.connection();
+        }
+        catch (RuntimeException e)
+        {
+            healthy = false;
+        }
+
+        if (healthy)
+        {
+            synchronized (this) { _verified.put(cas, System.currentTimeMillis()); }
+        }
+
+        return healthy;
+    }
+
+    /**
+     * Closes a dead link; its replacement is launched on demand (by a waiting caller, if any).
+     */
+    protected void discard(CasInterface cas)
+    {
+        synchronized (this)
+        {
+            forget(cas);
+            _launched--;
+            _relaunches++;
+
+            notifyAll();
+        }
+
+        try
+        {
+            cas.close();
+        }
+        catch (RuntimeException e)
+        {
+            // Already dead
+        }
+    }
+
+    protected synchronized void forget(CasInterface cas) { _verified.remove(cas); }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////// Pooled queries //////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public String query(String q) { return borrow(cas -> cas.query(q)); }
+
+    @Override
+    public ComplexNumber queryComplexNumber(String q) { return borrow(cas -> cas.queryComplexNumber(q)); }
+
+    @Override
+    public String query(Expr q) { return borrow(cas -> cas.query(q)); }
+
+    @Override
+    public ComplexNumber queryComplexNumber(Expr q) { return borrow(cas -> cas.queryComplexNumber(q)); }
+
+    @Override
+    public ComplexNumber querySequence(String[] queries) { return borrow(cas -> cas.querySequence(queries)); }
+
+    @Override
+    public ComplexNumber evaluateAtPoint(String function, double x) { return borrow(cas -> cas.evaluateAtPoint(function, x)); }
+
+    @Override
+    public double[] evaluateAll(String function, double[] xs) { return borrow(cas -> cas.evaluateAll(function, xs)); }
+
+    @Override
+    public String getIntersection(BoundedFunction func1, BoundedFunction func2) { return borrow(cas -> cas.getIntersection(func1, func2)); }
+
+    @Override
+    public String getLagrangePolynomial(Point[] points) { return borrow(cas -> cas.getLagrangePolynomial(points)); }
+
+    @Override
+    public boolean connection() { return borrow(cas -> cas.connection()); }
+
+    @Override
+    public String toString()
+    {
+        return "CasPool(size " + _size + ", launched " + launched() + ", idle " + idle() + ", relaunches " + relaunches() + ")";
+    }
+}
@@ -0,0 +1,29 @@
+package math.external_interface;
+
+/**
+ * The computer algebra backends that may answer our String-based Mathematica queries.
+ */
+public enum CasT
+{
+    MATHEMATICA(0), // A local Mathematica kernel via JLink
+    NATIVE(1);      // The in-process interpreter (no kernel round-trips)
+
+    private final int value;
+    private CasT(int value) { this.value = value; }
+    public int getValue() { return value; }
+
+    @Override
+    public String toString()
+    {
+        switch (this)
+        {
+            case MATHEMATICA:
+                return "Mathematica";
+
+            case NATIVE:
+                return "Native";
+        }
+
+        return "Unknown CAS";
+    }
+}
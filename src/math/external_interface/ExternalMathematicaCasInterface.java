@@ -3,6 +3,7 @@ package math.external_interface;
 //import frontend.Options;
 //import globals.Constants;
 //import utilities.Utilities;
+import representation.ComplexNumber;
 import representation.Point;
 import representation.bounds.functions.BoundedFunction;
 
@@ -28,6 +29,30 @@ public class ExternalMathematicaCasInterface extends CasInterface
         return null;
     }
 
+    @Override
+    public String query(String q)
+    {
+        return null;
+    }
+
+    @Override
+    public ComplexNumber queryComplexNumber(String q)
+    {
+        return null;
+    }
+
+    @Override
+    public ComplexNumber querySequence(String[] queries)
+    {
+        return null;
+    }
+
+    @Override
+    public ComplexNumber evaluateAtPoint(String function, double x)
+    {
+        return null;
+    }
+
     //
     // CTA 9-30-16
     //
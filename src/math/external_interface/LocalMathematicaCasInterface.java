@@ -1,10 +1,17 @@
 package math.external_interface;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import com.wolfram.jlink.*;
 import globals.Constants;
+import math.expression.Expr;
 import representation.ComplexNumber;
 import representation.Point;
 import representation.bounds.functions.BoundedFunction;
@@ -19,6 +26,15 @@ public class LocalMathematicaCasInterface extends CasInterface
     //
     private LocalMathematicaCasInterface(String path)
     {
+    }
+
+    //
+    // The kernel is launched on the first query not answered by the persistent store
+    //
+    private KernelLink link()
+    {
+        if (_mathematicaLink != null) return _mathematicaLink;
+
         //
         // Open the mathematica link.
         //
@@ -50,13 +66,37 @@ public class LocalMathematicaCasInterface extends CasInterface
             System.out.println("Fatal error opening Mathlink in Synthesizer: " + e.getMessage());
             e.printStackTrace();
         }
+
+        validatedStore();
+
+        return _mathematicaLink;
     }
 
     //
-    // The main object-based link to local software
+    // The main object-based link to local software; a link evaluates one query at a time,
+    // so all of its uses are synchronized (asynchronous queries arrive on the dispatcher thread)
     //
     private KernelLink _mathematicaLink;
 
+    // The store validated against the kernel version of this link
+    private PersistentQueryStore _validatedStore;
+
+    //
+    // Results of previous runs (null if disabled)
+    //
+    // Stored results are invalidated when
+    //   (1) the format of our queries changes: bump QUERY_FORMAT_VERSION,
+    //   (2) the kernel changes: the kernel path is part of the store tag, and the kernel $Version
+    //       is compared against the stored one when the kernel is launched.
+    //
+    // Shared by all links (see launch()); opened on first use, so that a path set after this class is
+    // loaded (-store=, parsed after -pool= has launched a kernel) is honored
+    //
+    private static PersistentQueryStore _store;
+    private static String _storePath;
+    public static final int QUERY_FORMAT_VERSION = 1;
+    private static final String VERSION_QUERY = "$Version";
+
     // Singleton instance
     private static LocalMathematicaCasInterface _theInstance;
 
@@ -70,7 +110,7 @@ public class LocalMathematicaCasInterface extends CasInterface
         _theInstance = new LocalMathematicaCasInterface(path);
     }
 
-    public static LocalMathematicaCasInterface getInstance()
+    public static synchronized LocalMathematicaCasInterface getInstance()
     {
         if (_theInstance != null) return _theInstance;
 
@@ -79,15 +119,33 @@ public class LocalMathematicaCasInterface extends CasInterface
         return _theInstance;
     }
 
+    /**
+     * @return a new link to its own kernel (for a pool of kernels); the persistent store is shared
+     */
+    public static LocalMathematicaCasInterface launch()
+    {
+        return new LocalMathematicaCasInterface(Constants.MATHEMATICA_PATH);
+    }
+
     /**
      * @param q -- a String-based query for mathematica
      * @return the Mathematica result of the query; user is responsible for parsing
      */
-    public String query(String q)
+    public synchronized String query(String q)
     {
-        clear();
-        
-        String result = _mathematicaLink.evaluateToOutputForm(q, 0);
+        String stored = lookup(q);
+        if (stored != null) return stored;
+
+        String result;
+        if (Constants.CAS_SCOPED_EVALUATION) result = link().evaluateToOutputForm(scope(q), 0);
+        else
+        {
+            clear();
+
+            result = link().evaluateToOutputForm(q, 0);
+        }
+
+        record(q, result);
 
         return result;
     }
@@ -96,11 +154,13 @@ public class LocalMathematicaCasInterface extends CasInterface
      * @param q -- a String-based query for mathematica
      * @return the Mathematica result of the query; user is responsible for parsing
      */
-    public ComplexNumber queryComplexNumber(String q)
+    public synchronized ComplexNumber queryComplexNumber(String q)
     {
         System.out.println("Query: \"" + q + "\"");
 
-        String result = _mathematicaLink.evaluateToOutputForm(q, 0);
+        String result = lookup(q);
+        boolean stored = result != null;
+        if (!stored) result = link().evaluateToOutputForm(Constants.CAS_SCOPED_EVALUATION ? scope(q) : q, 0);
 
         System.out.println("|" + result + "|");
 
@@ -108,21 +168,184 @@ public class LocalMathematicaCasInterface extends CasInterface
         ComplexNumber cn = ComplexNumberParser.simplify(result);
         
         System.out.println("|" + cn + "|");
+
+        // Only replies that parse as numbers are persisted
+        if (!stored) record(q, result);
         
         return cn ;
     }
 
+    //
+    // The symbols our queries define; a query must not observe the definitions of a previous query
+    //
+    private static final String[] LOCAL_SYMBOLS = { "x", "y", "fLocal" };
+    private static final String SCOPE_PREFIX = "Block[{" + String.join(", ", LOCAL_SYMBOLS) + "}, ";
+
+    /*
+     * @return the query evaluated with the local symbols localized (one packet instead of a Clear per symbol):
+     *         Block[{x, y, fLocal}, q]
+     *         Block (rather than Module) keeps the symbol names in the result: 3 x^2, not 3 x$12^2
+     */
+    private static String scope(String q)
+    {
+        return SCOPE_PREFIX + q + "]";
+    }
+
     /*
      * Clears mathematica variables
      */
     private void clear()
     {
-        final String[] valuesToClear = { "x", "y", "fLocal" };
+        for (String toClear : LOCAL_SYMBOLS)
+        {
+            link().evaluateToOutputForm("Clear[" + toClear + "]", 0);   
+        }
+    }
+
+    /*
+     * @return the persistent store of query results at Constants.CAS_STORE_PATH (reopened if the path changed);
+     *         null if disabled or unavailable
+     */
+    private static synchronized PersistentQueryStore store()
+    {
+        if (Objects.equals(_storePath, Constants.CAS_STORE_PATH)) return _store;
+
+        if (_store != null)
+        {
+            try
+            {
+                _store.close();
+            }
+            catch (IOException e)
+            {
+                // Only the handle is lost
+            }
+        }
+
+        _storePath = Constants.CAS_STORE_PATH;
+        _store = openStore();
+
+        return _store;
+    }
+
+    /*
+     * Opens the persistent store of query results at Constants.CAS_STORE_PATH
+     */
+    private static PersistentQueryStore openStore()
+    {
+        if (Constants.CAS_STORE_PATH == null) return null;
+
+        String tag = "Mathematica|" + Constants.MATHEMATICA_PATH + "|" + QUERY_FORMAT_VERSION;
+
+        try
+        {
+            return new PersistentQueryStore(new File(Constants.CAS_STORE_PATH), tag);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Query store " + Constants.CAS_STORE_PATH + " unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+     * @return the store of query results, validated against the kernel version on first use by this link;
+     *         null if disabled
+     */
+    private PersistentQueryStore validatedStore()
+    {
+        PersistentQueryStore store = store();
+
+        if (store != null && store != _validatedStore && _mathematicaLink != null)
+        {
+            validateStore(store);
+            _validatedStore = store;
+        }
+
+        return store;
+    }
+
+    /*
+     * Discards the stored results if they were computed by a different kernel version
+     */
+    private void validateStore(PersistentQueryStore store)
+    {
+        String version = _mathematicaLink.evaluateToOutputForm(VERSION_QUERY, 0);
+        if (version == null) return;
+
+        String storedVersion = store.get(VERSION_QUERY);
+        if (version.equals(storedVersion)) return;
+
+        if (storedVersion != null)
+        {
+            System.out.println("Kernel version changed from |" + storedVersion + "| to |" + version + "|; discarding stored query results.");
+            store.invalidate();
+        }
+
+        store.put(VERSION_QUERY, version);
+    }
+
+    /*
+     * @return the stored result of the query; null if none
+     */
+    private String lookup(String q)
+    {
+        PersistentQueryStore store = validatedStore();
+
+        return store == null ? null : store.get(CachingCasInterface.normalize(q));
+    }
+
+    private void record(String q, String result)
+    {
+        PersistentQueryStore store = validatedStore();
+        if (store == null || !isResult(result)) return;
+
+        store.put(CachingCasInterface.normalize(q), result);
+    }
+
+    // Operations the kernel returns unevaluated when it cannot carry them out: NSolve[...] for an NSolve query
+    private static final Set<String> SYMBOLIC_OPERATIONS = new HashSet<String>(Arrays.asList(
+        "Solve", "NSolve", "Reduce", "FindRoot", "D", "Integrate", "NIntegrate", "Limit", "InverseFunction",
+        "InterpolatingPolynomial", "Maximize", "Minimize", "NMaximize", "NMinimize"));
+
+    /**
+     * @param reply -- the reply of the kernel to a query
+     * @return whether the reply is a result worth persisting: it parses, and it is neither a failure, a message,
+     *         nor an operation of the query returned unevaluated
+     */
+    static boolean isResult(String reply)
+    {
+        if (reply == null || reply.isEmpty() || reply.contains("$Failed") || reply.contains("::")) return false;
+
+        Expr result;
+        try
+        {
+            result = QueryBuilder.parse(reply);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return false;
+        }
+
+        for (String operation : SYMBOLIC_OPERATIONS)
+        {
+            if (containsHead(result, operation)) return false;
+        }
+
+        return true;
+    }
+
+    private static boolean containsHead(Expr e, String head)
+    {
+        if (!e.isCall()) return false;
+        if (e.head().equals(head)) return true;
 
-        for (String toClear : valuesToClear)
+        for (int i = 0; i < e.size(); i++)
         {
-            _mathematicaLink.evaluateToOutputForm("Clear[" + toClear + "]", 0);   
+            if (containsHead(e.arg(i), head)) return true;
         }
+
+        return false;
     }
     
     /**
@@ -136,107 +359,67 @@ public class LocalMathematicaCasInterface extends CasInterface
      */
     public ComplexNumber querySequence(String[] queries)
     {
-        String overallQuery = "";
-
-        for (int q = 0; q < queries.length - 1; q++)
-        {
-            overallQuery += queries[q] + " ; ";
-        }
-        
-        overallQuery += queries[queries.length - 1];
-        
-//        //
-//        // Call all of the queries in sequence (and later evaluate the last query to return a value) 
-//        //
-//        for (int q = 0; q < queries.length - 1; q++)
-//        {
-//            try
-//            {
-//                System.err.println("Evaluating: " + queries[q]);
-//                
-//                // Evaluate the queries: 0 to n-1
-//                _mathematicaLink.evaluate(queries[q]);
-//            }
-//            catch (MathLinkException e)
-//            {
-//                e.printStackTrace();
-//            }
-//        }
-//
-//        //
-//        // Enact / evaluate the second query
-//        //
-
-        //System.err.println("Evaluating: " + overallQuery);
-        
-        return queryComplexNumber(overallQuery);
+        // A single packet: q_1 ; q_2 ; ...
+        return queryComplexNumber(String.join(" ; ", queries));
     }
 
     /**
      * @param function -- a String-based function
-     * @param q2 -- a value to evalute
-     * @return the result of performing q1 followed by q2 in sequence
+     * @param x -- a value to evalute
+     * @return f(x): the function is defined and evaluated in a single compound query
      * 
-     * Example: Evaluating f(k) given f(x) and k:
-     *          q1: f[x_]:=x^2
-     *          q2: f[4]
+     * Example: Evaluating f(4) given f(x) = x^2:
+     *          fLocal[x_] := x^2 ; NumberForm[fLocal[4], Infinity, ExponentFunction -> (Null &)]
      *          results in 16
      */
     public ComplexNumber evaluateAtPoint(String function, double x)
     {
         final String fName = "fLocal";
-        List<String> queries = new ArrayList<String>();
+        List<Expr> queries = new ArrayList<Expr>();
         
         // Determine the variable of the function
-        char variable = function.contains("y") ? 'y' : 'x';
+        Expr variable = Expr.symbol(function.contains("y") ? "y" : "x");
         
         //
-        // Clear (function and variable)
+        // Clear (function and variable); scoped evaluation localizes both
         //
-        queries.add("Clear[" + fName + "]");
-        queries.add("Clear[" + variable + "]");
+        if (!Constants.CAS_SCOPED_EVALUATION)
+        {
+            queries.add(Expr.call("Clear", Expr.symbol(fName)));
+            queries.add(Expr.call("Clear", variable));
+        }
         
         //
-        // Define the function
+        // Define the function: fLocal[x_] := function
         //
-        String query = fName + "[" + variable + "_]";
-
-        query += ":=";
-        
-        query += function;
+        Expr definition = Expr.call(fName, Expr.call("Pattern", variable));
 
-        queries.add(query);
+        queries.add(Expr.call("SetDelayed", definition, QueryBuilder.parseOrText(function)));
         
         //
         // Evaluative expression: f(x)
         //
         // NumberForm Forces a decimal evaluation:
         // https://mathematica.stackexchange.com/questions/24208/how-do-i-get-mathematica-to-show-a-number-in-non-exponential-form
-        query = "NumberForm[";
-        
-        query += fName + "[" + x + "]";
-        
-        query += ", Infinity, ExponentFunction -> (Null &)]";
-        
-        queries.add(query);
+        Expr exponentFunction = Expr.call(Expr.RULE, Expr.symbol("ExponentFunction"), Expr.call("Function", Expr.symbol("Null")));
+
+        queries.add(Expr.call("NumberForm", Expr.call(fName, Expr.number(x)), Expr.symbol("Infinity"), exponentFunction));
         
-        String[] strArray = new String[queries.size()];
-        strArray = queries.toArray(strArray);
-        return querySequence(strArray);
+        return queryComplexNumber(Expr.call("CompoundExpression", queries.toArray(new Expr[0])));
     }
 
     //
     // Returns a String-based representation of the two given functions
     //
-    public String getIntersection(BoundedFunction func1, BoundedFunction func2)
+    public synchronized String getIntersection(BoundedFunction func1, BoundedFunction func2)
     {
         try
         {
-            _mathematicaLink.discardAnswer();
+            link().discardAnswer();
             String func1Str = func1.toFullMathematicaString();
             String func2Str = func2.toFullMathematicaString();
 
-            String result = _mathematicaLink.evaluateToOutputForm("NSolve[" + func1Str + "==" + func2Str + ",x]", 0);
+            String result = link().evaluateToOutputForm("NSolve[" + func1Str + "==" + func2Str + ",x]", 0);
             return result;
 
         }
@@ -251,16 +434,16 @@ public class LocalMathematicaCasInterface extends CasInterface
     //
     // Can we establish the CAS connection with installed Mathematica?
     //
-    public boolean connection()
+    public synchronized boolean connection()
     {
         try
         {
-            _mathematicaLink.discardAnswer();
+            link().discardAnswer();
 
-            String result = _mathematicaLink.evaluateToOutputForm("2 * 3", 0);
+            String result = link().evaluateToOutputForm("2 * 3", 0);
             String expected = "6";
 
-            if (result != expected)
+            if (!expected.equals(result))
             {
                 System.err.println("In simple query, expected result of " + expected + "; acquired |" + result + "|");
                 return false;
@@ -277,6 +460,18 @@ public class LocalMathematicaCasInterface extends CasInterface
     }
 
 
+    /**
+     * Closes the kernel link (the kernel is relaunched on demand)
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (_mathematicaLink == null) return;
+
+        _mathematicaLink.close();
+        _mathematicaLink = null;
+    }
+
     //
     //  Example usage of Mathematica
     //
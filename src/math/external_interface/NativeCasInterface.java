@@ -0,0 +1,875 @@
+package math.external_interface;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import exceptions.ParseException;
+import math.expression.Builtins;
+import math.expression.ComplexEvaluator;
+import math.expression.Differentiator;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.expression.ExpressionParser;
+import math.expression.NumberExpr;
+import math.expression.SymbolExpr;
+import math.numeric.GaussKronrod;
+import math.numeric.GoldenSection;
+import math.numeric.RootIsolator;
+import math.numeric.RootScanner;
+import representation.ComplexNumber;
+import representation.Point;
+import representation.bounds.functions.BoundedFunction;
+
+//
+// An in-process CAS: interprets the String-based Mathematica queries constructed by the analyzers
+// (derivatives, zeros, intersections, extrema, integrals, and point evaluation) without a kernel.
+//
+// Implements a singleton pattern
+//
+public class NativeCasInterface extends CasInterface
+{
+    // Search window for equations whose bounds are infinite (or absent)
+    public static final double DEFAULT_LOWER_BOUND = -25;
+    public static final double DEFAULT_UPPER_BOUND = 25;
+
+    // Number of samples used when locating global extrema
+    public static final int EXTREMA_SAMPLES = 2000;
+
+    // Significant digits of reals displayed in (Mathematica) OutputForm
+    public static final int OUTPUT_FORM_DIGITS = 6;
+
+    // Roots within this distance of an exclusive bound are considered on the bound
+    public static final double EXCLUSIVE_TOLERANCE = 1e-9;
+
+    //
+    // No public instances allowed
+    //
+    private NativeCasInterface() {}
+
+    // Singleton instance
+    private static NativeCasInterface _theInstance;
+
+    public static NativeCasInterface getInstance()
+    {
+        if (_theInstance != null) return _theInstance;
+
+        _theInstance = new NativeCasInterface();
+
+        return _theInstance;
+    }
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax
+     * @return the InputForm of the result of the query; user is responsible for parsing
+     * @throws IllegalArgumentException if the query uses a function the native CAS does not implement
+     */
+    @Override
+    public String query(String q) { return query(parse(q)); }
+
+    /**
+     * @param q -- a query expression; evaluated directly (without writing and reparsing it)
+     * @return the InputForm of the result of the query
+     */
+    @Override
+    public String query(Expr q)
+    {
+        return toOutputForm(q, new Session().evaluate(q)).toString();
+    }
+
+    /**
+     * @param q -- a String-based query in Mathematica syntax resulting in a number
+     * @return the numeric result of the query
+     */
+    @Override
+    public ComplexNumber queryComplexNumber(String q) { return queryComplexNumber(parse(q)); }
+
+    /**
+     * @param q -- a query expression resulting in a number; evaluated directly
+     * @return the numeric result of the query
+     */
+    @Override
+    public ComplexNumber queryComplexNumber(Expr q)
+    {
+        return complexValue(q, toComplexNumber(toOutputForm(q, new Session().evaluate(q))));
+    }
+
+    /**
+     * @param queries -- a sequence of String queries where the last query returns a number
+     * @return the result of performing q[0] followed by q[1] in sequence, etc.
+     */
+    @Override
+    public ComplexNumber querySequence(String[] queries)
+    {
+        Session session = new Session();
+
+        Expr query = null;
+        Expr result = null;
+        for (String q : queries)
+        {
+            query = parse(q);
+            result = session.evaluate(query);
+        }
+
+        return toComplexNumber(toOutputForm(query, result));
+    }
+
+    /**
+     * @param function -- a String-based function of x (or y)
+     * @param x -- a value to evaluate
+     * @return f(x)
+     */
+    @Override
+    public ComplexNumber evaluateAtPoint(String function, double x)
+    {
+        String variable = function.contains("y") ? "y" : "x";
+
+        // Equivalent to fLocal[variable_] := function ; NumberForm[fLocal[x], ...]
+        Expr point = parse(function).substitute(variable, Expr.number(x));
+
+        return complexValue(point, toComplexNumber(new Session().evaluate(point)));
+    }
+
+    /**
+     * @return the number of queries answered at the same time: each query is evaluated in its own session
+     */
+    @Override
+    public int concurrency() { return Runtime.getRuntime().availableProcessors(); }
+
+    /**
+     * @param function -- a String-based function of x (or y)
+     * @param xs -- values to evaluate
+     * @return the real parts of f(x) for all x in xs: a compiled loop when the function compiles
+     */
+    @Override
+    public double[] evaluateAll(String function, double[] xs)
+    {
+        double[] ys = new double[xs.length];
+
+        String variable = function.contains("y") ? "y" : "x";
+
+        DoubleUnaryOperator f = null;
+        try
+        {
+            f = ExpressionCompiler.compile(parse(function), variable);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Not numeric as written (x = 3, for example): evaluate point by point
+        }
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            double y = f == null ? Double.NaN : f.applyAsDouble(xs[i]);
+
+            // Complex values (Sqrt[-1]) take the slower, complete path
+            if (Double.isNaN(y)) y = evaluateAtPoint(function, xs[i]).getReal();
+
+            ys[i] = y;
+        }
+
+        return ys;
+    }
+
+    //
+    // Returns a String-based representation of the solutions of func1 == func2
+    //
+    @Override
+    public String getIntersection(BoundedFunction func1, BoundedFunction func2)
+    {
+        return query("NSolve[" + func1.toFullMathematicaString() + "==" + func2.toFullMathematicaString() + ",x]");
+    }
+
+    @Override
+    public String getLagrangePolynomial(Point[] points)
+    {
+        String str = "InterpolatingPolynomial[{";
+        for (Point p : points)
+        {
+            str += "{" + p.getX() + "," + p.getY() + "},";
+        }
+        str = str.substring(0, str.length() - 1); // Remove last character because of an extra comma.
+        str += "}, x]";
+
+        return query(str);
+    }
+
+    //
+    // There is no external connection to establish
+    //
+    @Override
+    public boolean connection()
+    {
+        return true;
+    }
+
+    /**
+     * @param q -- a String-based query
+     * @return the corresponding expression tree
+     */
+    protected static Expr parse(String q)
+    {
+        try
+        {
+            return ExpressionParser.parse(q);
+        }
+        catch (ParseException e)
+        {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * Mathematica displays machine reals in OutputForm with 6 significant digits; only InputForm,
+     * FullForm, and NumberForm results carry full precision. We mimic this so both backends agree.
+     * 
+     * @param query -- a query
+     * @param result -- the evaluated query
+     * @return the result as it would be reported by the kernel
+     */
+    protected static Expr toOutputForm(Expr query, Expr result)
+    {
+        // The last statement of a compound (or scoped) query determines its form; postfix //N does not
+        while (query.hasHead("CompoundExpression") || query.hasHead("N") || query.hasHead("Block") || query.hasHead("Module"))
+        {
+            query = query.arg(query.size() - 1);
+            if (query.hasHead("N")) query = query.arg(0);
+        }
+
+        if (query.hasHead("InputForm") || query.hasHead("FullForm") || query.hasHead("NumberForm")) return result;
+
+        return roundNumbers(result);
+    }
+
+    /**
+     * @return the expression with each number rounded to OUTPUT_FORM_DIGITS significant digits
+     */
+    protected static Expr roundNumbers(Expr e)
+    {
+        if (e.isNumber())
+        {
+            double value = ((NumberExpr)e).getValue();
+
+            if (Double.isNaN(value) || Double.isInfinite(value) || value == 0) return e;
+
+            return Expr.number(new BigDecimal(value).round(new MathContext(OUTPUT_FORM_DIGITS)).doubleValue());
+        }
+
+        if (!e.isCall()) return e;
+
+        Expr[] args = new Expr[e.size()];
+        for (int a = 0; a < e.size(); a++) args[a] = roundNumbers(e.arg(a));
+
+        return Expr.call(e.head(), args);
+    }
+
+    /**
+     * @param e -- an evaluated expression
+     * @return the number described by the expression; an infinite complex number for infinite values
+     */
+    protected static ComplexNumber toComplexNumber(Expr e)
+    {
+        if (!e.isNumber())
+        {
+            throw new IllegalArgumentException("Expected a numeric result; acquired |" + e + "|");
+        }
+
+        double value = ((NumberExpr)e).getValue();
+
+        if (Double.isInfinite(value)) return new ComplexNumber();
+
+        return new ComplexNumber(value);
+    }
+
+    /**
+     * @param e -- a numeric expression
+     * @param value -- the real value of the expression
+     * @return value; the principal complex value of e (as Mathematica reports it) when the real value is undefined
+     * @throws IllegalArgumentException if e has no real value and no complex value the native CAS can compute
+     */
+    protected static ComplexNumber complexValue(Expr e, ComplexNumber value)
+    {
+        if (!Double.isNaN(value.getReal())) return value;
+
+        double[] z = ComplexEvaluator.evaluate(e);
+
+        return new ComplexNumber(z[0], z[1]);
+    }
+
+    /**
+     * The state of a single query: Set variables and SetDelayed functions.
+     * Each query begins with a fresh session, so no Clear[] round-trips are required.
+     */
+    protected static class Session
+    {
+        protected Map<String, Expr> _values;
+        protected Map<String, Expr[]> _definitions; // name -> { parameter, body }
+
+        protected Session()
+        {
+            _values = new HashMap<String, Expr>();
+            _definitions = new HashMap<String, Expr[]>();
+        }
+
+        /**
+         * @param e -- an expression
+         * @return the value of the expression
+         */
+        protected Expr evaluate(Expr e)
+        {
+            if (e.isNumber()) return e;
+
+            if (e.isSymbol())
+            {
+                String name = ((SymbolExpr)e).getName();
+
+                if (_values.containsKey(name)) return _values.get(name);
+
+                Double constant = SymbolExpr.constantValue(name);
+
+                return constant == null ? e : Expr.number(constant);
+            }
+
+            switch (e.head())
+            {
+                case "CompoundExpression":
+                {
+                    Expr result = Expr.symbol("Null");
+                    for (int a = 0; a < e.size(); a++) result = evaluate(e.arg(a));
+                    return result;
+                }
+
+                case "Set":        return set(e);
+                case "SetDelayed": return setDelayed(e);
+
+                case "Block":
+                case "Module":     return scoped(e);
+
+                case "Clear":
+                {
+                    for (int a = 0; a < e.size(); a++)
+                    {
+                        _values.remove(e.arg(a).toString());
+                        _definitions.remove(e.arg(a).toString());
+                    }
+                    return Expr.symbol("Null");
+                }
+
+                // Formatting and simplification wrappers: the argument is the result
+                case "InputForm":
+                case "FullForm":
+                case "NumberForm":
+                case "Factor":
+                case "Simplify":
+                case "FullSimplify":
+                case "Expand":
+                case "N":
+                    return evaluate(e.arg(0));
+
+                case "D":             return derivative(e);
+                case "NSolve":
+                case "Solve":
+                case "Reduce":        return solve(e);
+                case "Integrate":
+                case "NIntegrate":    return integrate(e);
+                case "ReplaceAll":    return replaceAll(e);
+                case "MaxValue":      return extremeValue(e, true);
+                case "MinValue":      return extremeValue(e, false);
+                case "FindMaximum":   return findExtremum(e, true);
+                case "FindMinimum":   return findExtremum(e, false);
+                case "InterpolatingPolynomial": return interpolatingPolynomial(e);
+
+                case "List":
+                case "Rule":
+                case "And":
+                case "Or":
+                case "Equal":
+                case "Unequal":
+                case "Less":
+                case "LessEqual":
+                case "Greater":
+                case "GreaterEqual":
+                    return evaluateArguments(e);
+            }
+
+            // User-defined function: fLocal[2.0]
+            Expr[] definition = _definitions.get(e.head());
+            if (definition != null)
+            {
+                if (e.size() != 1) throw new IllegalArgumentException("Expected a single argument to |" + e.head() + "|");
+
+                return evaluate(definition[1].substitute(definition[0].toString(), evaluate(e.arg(0))));
+            }
+
+            if (Builtins.isNumericFunction(e.head())) return arithmetic(e);
+
+            throw new IllegalArgumentException("The native CAS does not support |" + e.head() + "| in |" + e + "|");
+        }
+
+        /**
+         * @return the call with each argument evaluated
+         */
+        protected Expr evaluateArguments(Expr e)
+        {
+            Expr[] args = new Expr[e.size()];
+
+            for (int a = 0; a < e.size(); a++) args[a] = evaluate(e.arg(a));
+
+            return Expr.call(e.head(), args);
+        }
+
+        /**
+         * Numeric functions: fold to a number when all arguments are numeric; otherwise simplify structurally
+         */
+        protected Expr arithmetic(Expr e)
+        {
+            Expr[] args = new Expr[e.size()];
+            double[] values = new double[e.size()];
+
+            boolean numeric = true;
+            for (int a = 0; a < e.size(); a++)
+            {
+                args[a] = evaluate(e.arg(a));
+
+                if (args[a].isNumber()) values[a] = ((NumberExpr)args[a]).getValue();
+                else numeric = false;
+            }
+
+            if (numeric) return Expr.number(Builtins.apply(e.head(), values));
+
+            switch (e.head())
+            {
+                case "Plus":
+                {
+                    Expr sum = args[0];
+                    for (int a = 1; a < args.length; a++) sum = Expr.plus(sum, args[a]);
+                    return sum;
+                }
+
+                case "Times":
+                {
+                    Expr product = args[0];
+                    for (int a = 1; a < args.length; a++) product = Expr.times(product, args[a]);
+                    return product;
+                }
+
+                case "Power":
+                    return Expr.power(args[0], args[1]);
+
+                case "N":
+                    return args[0];
+
+                default:
+                    return Expr.call(e.head(), args);
+            }
+        }
+
+        /**
+         * Block[{x, y = 1, ...}, body]: evaluates body with the listed symbols localized (their values and
+         * definitions outside the scope are neither visible nor modified)
+         */
+        protected Expr scoped(Expr e)
+        {
+            Expr locals = e.arg(0);
+
+            Map<String, Expr> values = new HashMap<String, Expr>();
+            Map<String, Expr[]> definitions = new HashMap<String, Expr[]>();
+            for (int a = 0; a < locals.size(); a++)
+            {
+                Expr local = locals.arg(a);
+                String name = (local.hasHead("Set") ? local.arg(0) : local).toString();
+
+                values.put(name, _values.remove(name));
+                definitions.put(name, _definitions.remove(name));
+            }
+
+            try
+            {
+                for (int a = 0; a < locals.size(); a++)
+                {
+                    if (locals.arg(a).hasHead("Set")) set(locals.arg(a));
+                }
+
+                return evaluate(e.arg(e.size() - 1));
+            }
+            finally
+            {
+                for (String name : values.keySet())
+                {
+                    _values.remove(name);
+                    _definitions.remove(name);
+
+                    if (values.get(name) != null) _values.put(name, values.get(name));
+                    if (definitions.get(name) != null) _definitions.put(name, definitions.get(name));
+                }
+            }
+        }
+
+        /**
+         * x = 3 (returns the value)
+         */
+        protected Expr set(Expr e)
+        {
+            Expr value = evaluate(e.arg(1));
+
+            if (e.arg(0).isSymbol()) _values.put(e.arg(0).toString(), value);
+
+            // f[x_] = body
+            else if (e.arg(0).isCall()) defineFunction(e.arg(0), value);
+
+            // Assigning to a number (3 = 4) fails in Mathematica, but the value is still returned
+
+            return value;
+        }
+
+        /**
+         * f[x_] := body
+         */
+        protected Expr setDelayed(Expr e)
+        {
+            defineFunction(e.arg(0), e.arg(1));
+
+            return Expr.symbol("Null");
+        }
+
+        protected void defineFunction(Expr lhs, Expr body)
+        {
+            if (!lhs.isCall() || lhs.size() != 1 || !lhs.arg(0).hasHead("Pattern"))
+            {
+                throw new IllegalArgumentException("Only definitions of the form f[x_] are supported: |" + lhs + "|");
+            }
+
+            _definitions.put(lhs.head(), new Expr[] { lhs.arg(0).arg(0), body });
+        }
+
+        /**
+         * D[f, x] and D[f, {x, n}]
+         */
+        protected Expr derivative(Expr e)
+        {
+            Expr f = evaluate(e.arg(0));
+
+            String variable;
+            int order = 1;
+            if (e.arg(1).hasHead(Expr.LIST))
+            {
+                variable = e.arg(1).arg(0).toString();
+                order = (int)((NumberExpr)evaluate(e.arg(1).arg(1))).getValue();
+            }
+            else variable = e.arg(1).toString();
+
+            return evaluate(Differentiator.simplifiedDerivative(f, variable, order));
+        }
+
+        /**
+         * NSolve[{f == g, a < x < b}, {x}] and NSolve[f == g && a <= x <= b, x, Reals]
+         * @return the real solutions as a list of rules: {{x -> r_1}, {x -> r_2}, ...}
+         */
+        protected Expr solve(Expr e)
+        {
+            String variable = variableOf(e.arg(1));
+
+            Constraints constraints = new Constraints(variable);
+            constraints.collect(e.arg(0));
+
+            if (constraints._equation == null)
+            {
+                throw new IllegalArgumentException("No equation to solve in |" + e + "|");
+            }
+
+            final Expr equation = constraints._equation;
+
+            // Isolate every root (interval arithmetic and Sturm sequences); sample when isolation is not possible
+            double[] roots;
+            try
+            {
+                roots = RootIsolator.isolate(equation, variable, constraints.lower(), constraints.upper()).values();
+            }
+            catch (IllegalArgumentException ex)
+            {
+                roots = RootScanner.roots(x -> equation.evaluate(variable, x), constraints.lower(), constraints.upper());
+            }
+
+            List<Expr> solutions = new ArrayList<Expr>();
+            for (double root : roots)
+            {
+                if (constraints.admits(root))
+                {
+                    solutions.add(Expr.call(Expr.LIST, Expr.call(Expr.RULE, Expr.symbol(variable), Expr.number(root))));
+                }
+            }
+
+            return Expr.call(Expr.LIST, solutions.toArray(new Expr[0]));
+        }
+
+        /**
+         * Integrate[f, {x, a, b}]
+         */
+        protected Expr integrate(Expr e)
+        {
+            if (!e.arg(1).hasHead(Expr.LIST) || e.arg(1).size() != 3)
+            {
+                throw new IllegalArgumentException("Only definite integrals are supported: |" + e + "|");
+            }
+
+            final Expr f = evaluate(e.arg(0));
+            final String variable = e.arg(1).arg(0).toString();
+            double a = numericValue(e.arg(1).arg(1));
+            double b = numericValue(e.arg(1).arg(2));
+
+            return Expr.number(GaussKronrod.integrate(x -> f.evaluate(variable, x), a, b));
+        }
+
+        /**
+         * f /. x -> 2, f /. x -> {1, 2}, f /. {x -> 2}, f /. {{x -> 1}, {x -> 2}}
+         */
+        protected Expr replaceAll(Expr e)
+        {
+            return replace(e.arg(0), evaluate(e.arg(1)));
+        }
+
+        protected Expr replace(Expr target, Expr rules)
+        {
+            if (rules.hasHead(Expr.RULE))
+            {
+                String variable = rules.arg(0).toString();
+
+                // x -> {1, 2} results in {f(1), f(2)}
+                if (rules.arg(1).hasHead(Expr.LIST))
+                {
+                    Expr[] values = new Expr[rules.arg(1).size()];
+                    for (int v = 0; v < values.length; v++)
+                    {
+                        values[v] = evaluate(target.substitute(variable, rules.arg(1).arg(v)));
+                    }
+                    return Expr.call(Expr.LIST, values);
+                }
+
+                return evaluate(target.substitute(variable, rules.arg(1)));
+            }
+
+            if (rules.hasHead(Expr.LIST))
+            {
+                // {{x -> 1}, {x -> 2}} results in a list of replacements
+                if (rules.size() > 0 && rules.arg(0).hasHead(Expr.LIST))
+                {
+                    Expr[] values = new Expr[rules.size()];
+                    for (int r = 0; r < values.length; r++) values[r] = replace(target, rules.arg(r));
+                    return Expr.call(Expr.LIST, values);
+                }
+
+                // {x -> 1, y -> 2} applies all rules
+                Expr result = target;
+                for (int r = 0; r < rules.size(); r++) result = replace(result, rules.arg(r));
+                return result;
+            }
+
+            throw new IllegalArgumentException("Unexpected replacement rules |" + rules + "|");
+        }
+
+        /**
+         * MaxValue[{f, a <= x <= b}, {x}] and MinValue[{f, a <= x <= b}, {x}]
+         */
+        protected Expr extremeValue(Expr e, boolean maximum)
+        {
+            double[] extremum = extremum(e, maximum);
+
+            return Expr.number(extremum[1]);
+        }
+
+        /**
+         * FindMaximum[{f, a <= x <= b}, {x}]
+         * @return {f(x*), {x -> x*}}
+         */
+        protected Expr findExtremum(Expr e, boolean maximum)
+        {
+            double[] extremum = extremum(e, maximum);
+
+            Expr rule = Expr.call(Expr.RULE, Expr.symbol(variableOf(e.arg(1))), Expr.number(extremum[0]));
+
+            return Expr.call(Expr.LIST, Expr.number(extremum[1]), Expr.call(Expr.LIST, rule));
+        }
+
+        /**
+         * @return { x*, f(x*) } for the global maximum (minimum) of f on the constraint interval
+         */
+        protected double[] extremum(Expr e, boolean maximum)
+        {
+            final String variable = variableOf(e.arg(1));
+
+            Expr objective = e.arg(0);
+            Constraints constraints = new Constraints(variable);
+            if (objective.hasHead(Expr.LIST))
+            {
+                for (int a = 1; a < objective.size(); a++) constraints.collect(objective.arg(a));
+                objective = objective.arg(0);
+            }
+
+            final Expr f = evaluate(objective);
+            final double sign = maximum ? -1 : 1;
+
+            double x = GoldenSection.globalMinimize(t -> sign * f.evaluate(variable, t),
+                                                    constraints.lower(), constraints.upper(), EXTREMA_SAMPLES);
+
+            return new double[] { x, f.evaluate(variable, x) };
+        }
+
+        /**
+         * InterpolatingPolynomial[{{x_0, y_0}, ..., {x_n, y_n}}, x] in Newton form:
+         *     c_0 + (x - x_0)(c_1 + (x - x_1)(c_2 + ...))
+         */
+        protected Expr interpolatingPolynomial(Expr e)
+        {
+            Expr points = evaluate(e.arg(0));
+            Expr variable = e.arg(1);
+
+            int n = points.size();
+            double[] xs = new double[n];
+            double[] coefficients = new double[n];
+            for (int p = 0; p < n; p++)
+            {
+                xs[p] = numericValue(points.arg(p).arg(0));
+                coefficients[p] = numericValue(points.arg(p).arg(1));
+            }
+
+            // Divided differences (in place)
+            for (int level = 1; level < n; level++)
+            {
+                for (int p = n - 1; p >= level; p--)
+                {
+                    coefficients[p] = (coefficients[p] - coefficients[p - 1]) / (xs[p] - xs[p - level]);
+                }
+            }
+
+            Expr polynomial = Expr.number(coefficients[n - 1]);
+            for (int p = n - 2; p >= 0; p--)
+            {
+                Expr factor = Expr.minus(variable, Expr.number(xs[p]));
+                polynomial = Expr.plus(Expr.number(coefficients[p]), Expr.times(factor, polynomial));
+            }
+
+            return polynomial;
+        }
+
+        /**
+         * @return the numeric value of the expression
+         */
+        protected double numericValue(Expr e)
+        {
+            Expr value = evaluate(e);
+
+            if (!value.isNumber()) throw new IllegalArgumentException("Expected a numeric value; acquired |" + value + "|");
+
+            return ((NumberExpr)value).getValue();
+        }
+
+        /**
+         * @param e -- x or {x}
+         * @return the name of the variable
+         */
+        protected String variableOf(Expr e)
+        {
+            if (e.hasHead(Expr.LIST)) return e.arg(0).toString();
+
+            return e.toString();
+        }
+
+        /**
+         * The equation and interval restriction of a solve / optimization query
+         */
+        protected class Constraints
+        {
+            protected final String _variable;
+
+            protected Expr _equation;  // lhs - rhs of the (last) equation
+            protected double _lower;
+            protected double _upper;
+            protected boolean _lowerInclusive;
+            protected boolean _upperInclusive;
+
+            protected Constraints(String variable)
+            {
+                _variable = variable;
+                _equation = null;
+                _lower = Double.NEGATIVE_INFINITY;
+                _upper = Double.POSITIVE_INFINITY;
+                _lowerInclusive = true;
+                _upperInclusive = true;
+            }
+
+            protected double lower() { return Double.isInfinite(_lower) ? Math.min(DEFAULT_LOWER_BOUND, _upper) : _lower; }
+            protected double upper() { return Double.isInfinite(_upper) ? Math.max(DEFAULT_UPPER_BOUND, _lower) : _upper; }
+
+            /**
+             * @param x -- a candidate value
+             * @return whether x satisfies the (exclusive) bounds
+             */
+            protected boolean admits(double x)
+            {
+                if (!_lowerInclusive && x <= _lower + EXCLUSIVE_TOLERANCE) return false;
+                if (!_upperInclusive && x >= _upper - EXCLUSIVE_TOLERANCE) return false;
+
+                return true;
+            }
+
+            /**
+             * @param condition -- a relation, a conjunction, or a list of conditions
+             */
+            protected void collect(Expr condition)
+            {
+                if (condition.hasHead(Expr.LIST) || condition.hasHead("And"))
+                {
+                    for (int a = 0; a < condition.size(); a++) collect(condition.arg(a));
+                    return;
+                }
+
+                if (condition.hasHead("Equal"))
+                {
+                    _equation = evaluate(Expr.minus(condition.arg(0), condition.arg(1)));
+                    return;
+                }
+
+                boolean isLess = condition.hasHead("Less") || condition.hasHead("LessEqual");
+                boolean isGreater = condition.hasHead("Greater") || condition.hasHead("GreaterEqual");
+                if (!isLess && !isGreater)
+                {
+                    throw new IllegalArgumentException("Unsupported condition |" + condition + "|");
+                }
+
+                boolean inclusive = condition.hasHead("LessEqual") || condition.hasHead("GreaterEqual");
+
+                // Orient as: small < large
+                Expr small = isLess ? condition.arg(0) : condition.arg(1);
+                Expr large = isLess ? condition.arg(1) : condition.arg(0);
+
+                // a < x: lower bound
+                if (large.isSymbol() && large.toString().equals(_variable))
+                {
+                    double value = numericValue(small);
+                    if (value >= _lower)
+                    {
+                        _lower = value;
+                        _lowerInclusive = inclusive;
+                    }
+                }
+
+                // x < b: upper bound
+                else if (small.isSymbol() && small.toString().equals(_variable))
+                {
+                    double value = numericValue(large);
+                    if (value <= _upper)
+                    {
+                        _upper = value;
+                        _upperInclusive = inclusive;
+                    }
+                }
+
+                else throw new IllegalArgumentException("Unsupported condition |" + condition + "|");
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package math.external_interface;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+//
+// A durable, append-only store of query -> result pairs reused across runs.
+//
+// File layout (big-endian):
+//     header:  int MAGIC, int FORMAT_VERSION, int generation, int tag length, tag (UTF-8)
+//     records: long hash, int query length, query (UTF-8), int result length, result (UTF-8)
+//
+// The tag identifies the producer of the results (for example, the kernel and the query format version);
+// a store with a different tag (or format) is invalidated on open. Records are indexed in memory by a
+// 64-bit hash of the query and read with positional reads (not a memory map: some platforms cannot truncate
+// a mapped file, as invalidation does). A torn final record (from an interrupted run) is discarded.
+//
+// Several processes may share a store: every operation holds an exclusive lock on the file, first indexing
+// the records other processes appended since, so each append lands at the current end of the file. Each
+// invalidation increments the generation; a process that observes a new generation indexes the file anew.
+//
+public class PersistentQueryStore
+{
+    public static final int MAGIC = 0x43415351; // "CASQ"
+    public static final int FORMAT_VERSION = 2;
+
+    // The size of the header preceding the tag
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    // The offset of the generation in the header
+    private static final int GENERATION_OFFSET = 2 * Integer.BYTES;
+
+    protected final File _file;
+    protected final String _tag;
+
+    protected RandomAccessFile _raf;
+    protected FileChannel _channel;
+
+    // Query hash -> offset of the most recent record with that hash
+    protected final Map<Long, Integer> _index;
+
+    // Offset at which the next record is appended
+    protected int _end;
+
+    // The generation of the file indexed
+    protected int _generation;
+
+    /**
+     * @param file -- the backing file (created if needed)
+     * @param tag -- identifies the producer of the stored results; a mismatch invalidates the store
+     * @throws IOException if the file cannot be opened
+     */
+    public PersistentQueryStore(File file, String tag) throws IOException
+    {
+        _file = file;
+        _tag = tag;
+        _index = new HashMap<Long, Integer>();
+
+        _raf = new RandomAccessFile(file, "rw");
+        _channel = _raf.getChannel();
+
+        locked(() ->
+        {
+            if (!readHeader()) reset();
+            else loadIndex();
+
+            return null;
+        });
+    }
+
+    /**
+     * An operation on the file (with the file locked)
+     */
+    protected interface LockedOperation<T>
+    {
+        T run() throws IOException;
+    }
+
+    /**
+     * @return the result of the operation, performed holding an exclusive lock on the file (and, since file locks
+     *         are held per process, the lock of the class against the other stores of this process)
+     */
+    protected <T> T locked(LockedOperation<T> operation) throws IOException
+    {
+        synchronized (PersistentQueryStore.class)
+        {
+            FileLock lock = _channel.lock();
+            try
+            {
+                return operation.run();
+            }
+            finally
+            {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * @param query -- a (normalized) query
+     * @return the stored result; null if the query has not been stored
+     */
+    public synchronized String get(String query)
+    {
+        try
+        {
+            return locked(() ->
+            {
+                synchronize();
+
+                return find(query);
+            });
+        }
+        catch (IOException e)
+        {
+            // The store is an optimization: a failed read only costs a kernel query
+            System.err.println("Failed to read the query store " + _file + ": " + e.getMessage());
+
+            return null;
+        }
+    }
+
+    /**
+     * @return the stored result of the query (within the indexed records); null if none
+     */
+    protected String find(String query) throws IOException
+    {
+        Integer offset = _index.get(hash(query));
+
+        if (offset == null) return null;
+
+        byte[] stored = readField(offset + Long.BYTES);
+
+        // Hash collisions are resolved in favor of the most recent record; other queries miss
+        if (!query.equals(new String(stored, StandardCharsets.UTF_8))) return null;
+
+        return new String(readField(offset + Long.BYTES + Integer.BYTES + stored.length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param query -- a (normalized) query
+     * @param result -- the result of the query
+     */
+    public synchronized void put(String query, String result)
+    {
+        byte[] q = query.getBytes(StandardCharsets.UTF_8);
+        byte[] r = result.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer record = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + q.length + Integer.BYTES + r.length);
+        long hash = hash(query);
+        record.putLong(hash);
+        record.putInt(q.length).put(q);
+        record.putInt(r.length).put(r);
+        record.flip();
+
+        try
+        {
+            locked(() ->
+            {
+                synchronize();
+
+                append(hash, record);
+
+                return null;
+            });
+        }
+        catch (IOException e)
+        {
+            // The store is an optimization: a failed append only costs a future kernel query
+            System.err.println("Failed to append to the query store " + _file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the record at the end of the file (with the file locked).
+     */
+    protected void append(long hash, ByteBuffer record) throws IOException
+    {
+        int offset = _end;
+        while (record.hasRemaining()) _channel.write(record, _end + record.position());
+
+        _end += record.limit();
+        _index.put(hash, offset);
+    }
+
+    /**
+     * Brings the index up to date with the file (with the file locked): records appended by other processes are
+     * indexed; if the file was invalidated (or replaced) by another process, it is indexed from its header.
+     */
+    protected void synchronize() throws IOException
+    {
+        if (_channel.size() < _end || readGeneration() != _generation)
+        {
+            _index.clear();
+
+            if (!readHeader()) reset();
+        }
+
+        loadIndex();
+    }
+
+
+    /**
+     * @return the number of indexed queries
+     */
+    public synchronized int size() { return _index.size(); }
+
+    public String getTag() { return _tag; }
+
+    /**
+     * Discards all stored results.
+     */
+    public synchronized void invalidate()
+    {
+        try
+        {
+            locked(() ->
+            {
+                reset();
+
+                return null;
+            });
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to invalidate the query store " + _file + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() throws IOException
+    {
+        _channel.close();
+        _raf.close();
+    }
+
+    /**
+     * @param position -- the offset of a length-prefixed field of a record
+     * @return the bytes of the field
+     */
+    protected byte[] readField(long position) throws IOException
+    {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length, position);
+
+        ByteBuffer bytes = ByteBuffer.allocate(length.getInt(0));
+        readFully(bytes, position + Integer.BYTES);
+
+        return bytes.array();
+    }
+
+    /**
+     * Fills the buffer from the file starting at position.
+     */
+    protected void readFully(ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (_channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of " + _file);
+        }
+    }
+
+    /**
+     * @return whether the file has a header of the current format with our tag
+     */
+    protected boolean readHeader() throws IOException
+    {
+        if (_channel.size() < HEADER_BYTES) return false;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        _channel.read(header, 0);
+        header.flip();
+
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) return false;
+
+        int generation = header.getInt();
+        int tagLength = header.getInt();
+        if (tagLength < 0 || HEADER_BYTES + tagLength > _channel.size()) return false;
+
+        ByteBuffer tag = ByteBuffer.allocate(tagLength);
+        _channel.read(tag, HEADER_BYTES);
+
+        if (!_tag.equals(new String(tag.array(), StandardCharsets.UTF_8))) return false;
+
+        _generation = generation;
+        _end = HEADER_BYTES + tagLength;
+
+        return true;
+    }
+
+    /**
+     * @return the generation in the header of the file; -1 if there is no header
+     */
+    protected int readGeneration() throws IOException
+    {
+        if (_channel.size() < HEADER_BYTES) return -1;
+
+        ByteBuffer generation = ByteBuffer.allocate(Integer.BYTES);
+        _channel.read(generation, GENERATION_OFFSET);
+        generation.flip();
+
+        return generation.getInt();
+    }
+
+    /**
+     * Truncates the file to a fresh header (of a new generation).
+     */
+    protected void reset() throws IOException
+    {
+        _index.clear();
+        _generation = Math.max(_generation, readGeneration()) + 1;
+
+        byte[] tag = _tag.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + tag.length);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(_generation).putInt(tag.length).put(tag);
+        header.flip();
+
+        _channel.truncate(0);
+        while (header.hasRemaining()) _channel.write(header, header.position());
+
+        _end = header.limit();
+    }
+
+    /**
+     * Indexes the records following _end; a torn final record is truncated (with the file locked, no other
+     * process is in the middle of an append).
+     */
+    protected void loadIndex() throws IOException
+    {
+        int size = (int)Math.min(_channel.size(), Integer.MAX_VALUE);
+        if (size <= _end) return;
+
+        ByteBuffer view = ByteBuffer.allocate(size - _end);
+        readFully(view, _end);
+
+        int offset = 0;
+        while (offset < view.capacity())
+        {
+            int next = nextRecord(view, offset, view.capacity());
+
+            if (next < 0) break;
+
+            view.position(offset);
+            _index.put(view.getLong(), _end + offset);
+            offset = next;
+        }
+
+        _end += offset;
+        if (_end < size) _channel.truncate(_end);
+    }
+
+    /**
+     * @return the offset following the record at offset; -1 if the record is incomplete
+     */
+    protected static int nextRecord(ByteBuffer view, int offset, int size)
+    {
+        long position = (long)offset + Long.BYTES;
+
+        for (int field = 0; field < 2; field++)
+        {
+            if (position + Integer.BYTES > size) return -1;
+
+            int length = view.getInt((int)position);
+            if (length < 0) return -1;
+
+            position += Integer.BYTES + (long)length;
+        }
+
+        return position > size ? -1 : (int)position;
+    }
+
+    /**
+     * @return the 64-bit FNV-1a hash of the UTF-16 code units of s
+     */
+    public static long hash(String s)
+    {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < s.length(); i++)
+        {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,144 @@
+package math.external_interface;
+
+import exceptions.ParseException;
+import math.expression.Expr;
+import math.expression.ExpressionParser;
+
+//
+// Constructs CAS queries as expression trees (rather than by String concatenation).
+//
+// A query tree is the one representation shared by all backends: the native CAS evaluates it directly
+// and a kernel receives its InputForm; since trees are hash-consed and written canonically, equal queries
+// have equal cache keys regardless of how they were assembled.
+//
+// Example:     NSolve[{Factor[f] == 0, -1 < x && x < 1}, {x}]
+//              QueryBuilder.zeros(QueryBuilder.call("Factor", f), QueryBuilder.exclusive(-1, 1))
+//
+public class QueryBuilder
+{
+    // The free variable of functions
+    public static final Expr X = Expr.symbol("x");
+
+    // No instances: a collection of factories
+    private QueryBuilder() {}
+
+    /**
+     * @param text -- a String-based expression in Mathematica syntax
+     * @return the expression tree
+     * @throws IllegalArgumentException when the text is outside the supported syntax
+     */
+    public static Expr parse(String text)
+    {
+        try
+        {
+            return ExpressionParser.parse(text);
+        }
+        catch (ParseException e)
+        {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * @param text -- a String-based expression in Mathematica syntax
+     * @return the expression tree; the text as written (Expr.text) when outside the supported syntax, so that
+     *         a kernel still reads it
+     */
+    public static Expr parseOrText(String text)
+    {
+        try
+        {
+            return parse(text);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return Expr.text(text);
+        }
+    }
+
+    public static Expr call(String head, Expr... args) { return Expr.call(head, args); }
+
+    public static Expr list(Expr... elements) { return Expr.call(Expr.LIST, elements); }
+
+    /**
+     * @param values -- real numbers
+     * @return {v_0, v_1, ...}
+     */
+    public static Expr list(double[] values)
+    {
+        Expr[] elements = new Expr[values.length];
+
+        for (int i = 0; i < values.length; i++) elements[i] = Expr.number(values[i]);
+
+        return list(elements);
+    }
+
+    public static Expr number(double value) { return Expr.number(value); }
+
+    public static Expr equal(Expr left, Expr right) { return Expr.call("Equal", left, right); }
+
+    /**
+     * @return InputForm[e]: the result with full precision
+     */
+    public static Expr inputForm(Expr e) { return Expr.call("InputForm", e); }
+
+    /**
+     * @return N[e]: a numerical evaluation (the postfix e //N)
+     */
+    public static Expr numeric(Expr e) { return Expr.call("N", e); }
+
+    /**
+     * @return lower <= x && x <= upper; infinite bounds are omitted (null if both are infinite)
+     */
+    public static Expr inclusive(double lower, double upper) { return interval(lower, upper, "LessEqual"); }
+
+    /**
+     * @return lower < x && x < upper; infinite bounds are omitted (null if both are infinite)
+     */
+    public static Expr exclusive(double lower, double upper) { return interval(lower, upper, "Less"); }
+
+    private static Expr interval(double lower, double upper, String relation)
+    {
+        Expr restriction = null;
+
+        if (lower != Double.NEGATIVE_INFINITY) restriction = Expr.call(relation, Expr.number(lower), X);
+
+        if (upper != Double.POSITIVE_INFINITY)
+        {
+            Expr bound = Expr.call(relation, X, Expr.number(upper));
+            restriction = restriction == null ? bound : Expr.flatCall("And", restriction, bound);
+        }
+
+        return restriction;
+    }
+
+    /**
+     * @param equation -- an equation in x
+     * @param restriction -- a restriction on x (null for none)
+     * @return the real solutions: NSolve[{equation, restriction}, {x}]
+     */
+    public static Expr nsolve(Expr equation, Expr restriction)
+    {
+        Expr system = restriction == null ? list(equation) : list(equation, restriction);
+
+        return Expr.call("NSolve", system, list(X));
+    }
+
+    /**
+     * @param f -- an expression in x
+     * @param restriction -- a restriction on x (null for none)
+     * @return the real zeros of f: NSolve[{f == 0, restriction}, {x}]
+     */
+    public static Expr zeros(Expr f, Expr restriction)
+    {
+        return nsolve(equal(f, Expr.number(0)), restriction);
+    }
+
+    /**
+     * @return the nth derivative of f: D[f, {x, n}]
+     */
+    public static Expr derivative(Expr f, int n)
+    {
+        return Expr.call("D", f, list(X, Expr.number(n)));
+    }
+}
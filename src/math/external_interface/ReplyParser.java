@@ -0,0 +1,460 @@
+package math.external_interface;
+
+import java.util.Arrays;
+
+/**
+ * A single-pass, cursor-based reader of the numeric replies of a CAS:
+ *     numbers:            2.5, -3., 1.6653345369377348*^-16
+ *     complex numbers:    0.7937005259840998 - 3.3306690738754696*^-16*I, 2. I
+ *     rule lists:         {{x -> -2.}, {x -> 2.}}
+ *     (nested) lists:     {1., 2.5 + 1.*I, Indeterminate}
+ *
+ * Values are written into primitive double[] buffers; the reply is neither split, trimmed, nor copied.
+ * Numbers are converted without allocation when their decimal mantissa (below 2^53) and exponent allow
+ * an exact conversion; longer numbers are delegated to Double.parseDouble.
+ */
+public class ReplyParser
+{
+    // Powers of ten exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                                    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    // Mantissas below this are exact doubles: 2^53
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    // The number of decimal digits a long mantissa holds
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    protected CharSequence _reply;
+    protected int _pos;
+    protected int _length;
+
+    // The last number read
+    protected double _value;
+
+    // The last complex number read: _real + _imaginary I
+    protected double _real;
+    protected double _imaginary;
+
+    // The values of the last list read (grown on demand and reused)
+    protected double[] _buffer;
+
+    public ReplyParser()
+    {
+        _buffer = new double[16];
+    }
+
+    /**
+     * @param reply -- the reply to read from its beginning
+     */
+    public ReplyParser reset(CharSequence reply)
+    {
+        _reply = reply;
+        _pos = 0;
+        _length = reply.length();
+
+        return this;
+    }
+
+    private static final ThreadLocal<ReplyParser> _parser = ThreadLocal.withInitial(ReplyParser::new);
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////// Entry points //////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param reply -- a (rule) list of real values: {{x -> 5}, {x -> 2.}} or {5, 2.}
+     * @param into -- the buffer receiving the values
+     * @return the number of values in the reply (only the first into.length are stored);
+     *         non-numeric and non-real elements are skipped
+     */
+    public static int parseValues(CharSequence reply, double[] into)
+    {
+        return _parser.get().reset(reply).readValues(into);
+    }
+
+    /**
+     * @param reply -- a (rule) list of real values: {{x -> 5}, {x -> 2.}} or {5, 2.}
+     * @return the values; non-numeric and non-real elements are skipped
+     */
+    public static double[] parseValues(CharSequence reply)
+    {
+        ReplyParser parser = _parser.get();
+
+        int count = parser.reset(reply).readValues(parser._buffer);
+
+        if (count > parser._buffer.length)
+        {
+            parser._buffer = new double[Integer.highestOneBit(count) << 1];
+            count = parser.reset(reply).readValues(parser._buffer);
+        }
+
+        return Arrays.copyOf(parser._buffer, count);
+    }
+
+    /**
+     * @param reply -- a list of numbers: {1., 2.5 + 1.*I, Indeterminate}
+     * @param into -- the buffer receiving the real parts of the elements (NaN for non-numeric elements)
+     * @return the number of elements of the list (only the first into.length are stored); -1 if the reply is not a list
+     */
+    public static int parseRealParts(CharSequence reply, double[] into)
+    {
+        return _parser.get().reset(reply).readRealParts(into);
+    }
+
+    /**
+     * @param reply -- a complex number: a, b I, a + b I, a - b*I
+     * @param into -- the buffer receiving { real part, imaginary part }
+     * @return whether the reply is a complex number
+     */
+    public static boolean parseComplex(CharSequence reply, double[] into)
+    {
+        ReplyParser parser = _parser.get().reset(reply);
+
+        if (!parser.readComplex() || parser.skipWhitespace() < parser._length) return false;
+
+        into[0] = parser._real;
+        into[1] = parser._imaginary;
+
+        return true;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////// Readers //////////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads every element of a (nested, rule) list: elements are delimited by braces and commas.
+     */
+    protected int readValues(double[] into)
+    {
+        int count = 0;
+
+        while (skipWhitespace() < _length)
+        {
+            if (isDelimiter(_reply.charAt(_pos)))
+            {
+                _pos++;
+                continue;
+            }
+
+            skipRuleLeftSide();
+
+            if (readComplex() && isElementEnd() && _imaginary == 0)
+            {
+                if (count < into.length) into[count] = _real;
+                count++;
+            }
+
+            skipElement();
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads the elements of a flat list: {e_1, ..., e_n}
+     */
+    protected int readRealParts(double[] into)
+    {
+        if (skipWhitespace() == _length || _reply.charAt(_pos) != '{') return -1;
+        _pos++;
+
+        // {}
+        if (skipWhitespace() < _length && _reply.charAt(_pos) == '}') return 0;
+
+        int count = 0;
+        while (_pos < _length)
+        {
+            double value = readComplex() && isElementEnd() ? _real : Double.NaN;
+
+            if (count < into.length) into[count] = value;
+            count++;
+
+            skipElement();
+
+            if (_pos == _length) return -1;
+
+            if (_reply.charAt(_pos++) == '}') return count;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Skips a rule's left side at the cursor (x -> ...); otherwise the cursor is unchanged.
+     */
+    protected void skipRuleLeftSide()
+    {
+        int start = _pos;
+
+        while (_pos < _length && Character.isLetterOrDigit(_reply.charAt(_pos))) _pos++;
+
+        if (_pos > start && skipWhitespace() + 1 < _length && _reply.charAt(_pos) == '-' && _reply.charAt(_pos + 1) == '>')
+        {
+            _pos += 2;
+            return;
+        }
+
+        _pos = start;
+    }
+
+    /**
+     * Reads a complex number at the cursor: a sum of real and imaginary terms (a + b I, -I, 2.*I)
+     * @return whether a number was read; its value is _real + _imaginary I
+     */
+    protected boolean readComplex()
+    {
+        _real = 0;
+        _imaginary = 0;
+
+        boolean first = true;
+        while (true)
+        {
+            //
+            // Sign(s)
+            //
+            double sign = 1;
+            boolean signed = false;
+            while (skipWhitespace() < _length && (_reply.charAt(_pos) == '+' || _reply.charAt(_pos) == '-'))
+            {
+                if (_reply.charAt(_pos++) == '-') sign = -sign;
+                signed = true;
+            }
+
+            // Terms after the first are joined by a sign
+            if (!first && !signed) return false;
+
+            if (_pos == _length) return false;
+
+            //
+            // Term: I, number, number I, number*I
+            //
+            if (isImaginaryUnit())
+            {
+                _pos++;
+                _imaginary += sign;
+            }
+            else
+            {
+                if (!readNumber()) return false;
+
+                int afterNumber = _pos;
+                skipWhitespace();
+
+                boolean times = _pos < _length && _reply.charAt(_pos) == '*';
+                if (times)
+                {
+                    _pos++;
+                    skipWhitespace();
+                }
+
+                if (isImaginaryUnit())
+                {
+                    _pos++;
+                    _imaginary += sign * _value;
+                }
+                else
+                {
+                    if (times) return false;
+
+                    _pos = afterNumber;
+                    _real += sign * _value;
+                }
+            }
+
+            first = false;
+
+            // Another term?
+            if (skipWhitespace() == _length) return true;
+
+            char c = _reply.charAt(_pos);
+            if (c != '+' && c != '-') return true;
+
+            // Not a rule arrow
+            if (_pos + 1 < _length && _reply.charAt(_pos + 1) == '>') return true;
+        }
+    }
+
+    /**
+     * Reads a real number at the cursor: digits, a fractional part, and an exponent (*^-16 or E-16)
+     * @return whether a number was read; its value is _value
+     */
+    protected boolean readNumber()
+    {
+        int start = _pos;
+
+        long mantissa = 0;
+        int digits = 0;      // significant digits in the mantissa
+        int exponent = 0;    // decimal exponent of the mantissa
+        boolean any = false;
+        boolean inexact = false;
+
+        // Integral part
+        while (_pos < _length && isDigit(_reply.charAt(_pos)))
+        {
+            int d = _reply.charAt(_pos++) - '0';
+            any = true;
+
+            if (mantissa == 0 && d == 0) continue;
+
+            if (digits < MAX_MANTISSA_DIGITS)
+            {
+                mantissa = 10 * mantissa + d;
+                digits++;
+            }
+            else
+            {
+                exponent++;
+                inexact = true;
+            }
+        }
+
+        // Fractional part
+        if (_pos < _length && _reply.charAt(_pos) == '.')
+        {
+            _pos++;
+            while (_pos < _length && isDigit(_reply.charAt(_pos)))
+            {
+                int d = _reply.charAt(_pos++) - '0';
+                any = true;
+
+                if (mantissa == 0 && d == 0)
+                {
+                    exponent--;
+                    continue;
+                }
+
+                if (digits < MAX_MANTISSA_DIGITS)
+                {
+                    mantissa = 10 * mantissa + d;
+                    digits++;
+                    exponent--;
+                }
+                else inexact = true;
+            }
+        }
+
+        if (!any)
+        {
+            _pos = start;
+            return false;
+        }
+
+        // Precision mark: 1.5`16.
+        if (_pos < _length && _reply.charAt(_pos) == '`')
+        {
+            _pos++;
+            while (_pos < _length && (isDigit(_reply.charAt(_pos)) || _reply.charAt(_pos) == '.')) _pos++;
+        }
+
+        int mantissaEnd = _pos;
+
+        // Exponent: *^-16 (Mathematica) or E-16
+        int exponentStart = -1;
+        if (_pos + 1 < _length && _reply.charAt(_pos) == '*' && _reply.charAt(_pos + 1) == '^') exponentStart = _pos + 2;
+        else if (_pos < _length && (_reply.charAt(_pos) == 'E' || _reply.charAt(_pos) == 'e')) exponentStart = _pos + 1;
+
+        if (exponentStart != -1)
+        {
+            int p = exponentStart;
+            boolean negative = false;
+            if (p < _length && (_reply.charAt(p) == '-' || _reply.charAt(p) == '+')) negative = _reply.charAt(p++) == '-';
+
+            if (p < _length && isDigit(_reply.charAt(p)))
+            {
+                int e = 0;
+                while (p < _length && isDigit(_reply.charAt(p)))
+                {
+                    e = Math.min(10 * e + _reply.charAt(p++) - '0', 100000);
+                }
+
+                exponent += negative ? -e : e;
+                _pos = p;
+            }
+        }
+
+        //
+        // Exact conversion: an exact mantissa scaled by an exact power of ten
+        //
+        if (mantissa == 0) _value = 0;
+        else if (!inexact && mantissa < MAX_EXACT_MANTISSA && Math.abs(exponent) < POWERS_OF_TEN.length)
+        {
+            _value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        }
+        else _value = parseDouble(start, mantissaEnd, exponentStart);
+
+        return true;
+    }
+
+    /**
+     * The conversion of numbers whose mantissa or exponent is too large for an exact conversion
+     */
+    private double parseDouble(int start, int mantissaEnd, int exponentStart)
+    {
+        StringBuilder number = new StringBuilder(_pos - start + 1);
+
+        for (int p = start; p < mantissaEnd && _reply.charAt(p) != '`'; p++) number.append(_reply.charAt(p));
+
+        if (exponentStart != -1)
+        {
+            number.append('E');
+            for (int p = exponentStart; p < _pos; p++) number.append(_reply.charAt(p));
+        }
+
+        return Double.parseDouble(number.toString());
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////// Utilities ////////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the cursor after any whitespace
+     */
+    protected int skipWhitespace()
+    {
+        while (_pos < _length && Character.isWhitespace(_reply.charAt(_pos))) _pos++;
+
+        return _pos;
+    }
+
+    /**
+     * Moves the cursor to the delimiter ending the current element (skipping nested brackets and braces).
+     */
+    protected void skipElement()
+    {
+        int depth = 0;
+
+        for (; _pos < _length; _pos++)
+        {
+            char c = _reply.charAt(_pos);
+
+            if (c == '[' || c == '(') depth++;
+            else if ((c == ']' || c == ')') && depth > 0) depth--;
+            else if (depth == 0 && isDelimiter(c)) return;
+        }
+    }
+
+    /**
+     * @return whether the cursor is at the end of an element: a delimiter or the end of the reply
+     */
+    protected boolean isElementEnd()
+    {
+        return skipWhitespace() == _length || isDelimiter(_reply.charAt(_pos));
+    }
+
+    /**
+     * @return whether the cursor is at the symbol I (and not a longer name such as Infinity)
+     */
+    protected boolean isImaginaryUnit()
+    {
+        if (_pos >= _length || _reply.charAt(_pos) != 'I') return false;
+
+        return _pos + 1 == _length || !Character.isLetterOrDigit(_reply.charAt(_pos + 1));
+    }
+
+    protected static boolean isDelimiter(char c) { return c == '{' || c == '}' || c == ','; }
+
+    protected static boolean isDigit(char c) { return c >= '0' && c <= '9'; }
+}
@@ -0,0 +1,219 @@
+package math.external_interface;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import math.expression.Expr;
+import representation.ComplexNumber;
+import representation.Point;
+import representation.bounds.functions.BoundedFunction;
+
+//
+// A stand-in for a local kernel: answers queries with another CAS (by default, the native one) after a
+// configurable latency, with a bounded number of queries in flight (one per simulated kernel).
+// Used to observe query pipelining without a Mathematica installation: the number of queries in flight is
+// tracked, and queries can be held on their kernels (closeGate()) until released (openGate()).
+//
+public class SimulatedKernelCasInterface extends CasInterface
+{
+    protected final CasInterface _backend;
+    protected final long _latencyMillis;
+    protected final int _kernels;
+
+    // One permit per simulated kernel
+    protected final Semaphore _available;
+
+    // Number of queries answered
+    protected final AtomicInteger _queries;
+
+    // Number of queries occupying a kernel, and the most at any time (guarded by this)
+    protected int _inFlight;
+    protected int _peakInFlight;
+
+    // While set, queries wait on their kernels until it is opened
+    protected volatile CountDownLatch _gate;
+
+    /**
+     * @param latencyMillis -- the time each query occupies a kernel
+     * @param kernels -- the number of queries evaluated at the same time
+     */
+    public SimulatedKernelCasInterface(long latencyMillis, int kernels)
+    {
+        this(NativeCasInterface.getInstance(), latencyMillis, kernels);
+    }
+
+    /**
+     * @param backend -- the CAS computing the answers
+     * @param latencyMillis -- the time each query occupies a kernel
+     * @param kernels -- the number of queries evaluated at the same time
+     */
+    public SimulatedKernelCasInterface(CasInterface backend, long latencyMillis, int kernels)
+    {
+        _backend = backend;
+        _latencyMillis = latencyMillis;
+        _kernels = kernels;
+        _available = new Semaphore(kernels, true);
+        _queries = new AtomicInteger();
+    }
+
+    public int getQueryCount() { return _queries.get(); }
+
+    public synchronized int getInFlight() { return _inFlight; }
+
+    /**
+     * @return the most queries that have occupied kernels at the same time
+     */
+    public synchronized int getPeakInFlight() { return _peakInFlight; }
+
+    /**
+     * Holds subsequent queries on their kernels until openGate().
+     */
+    public void closeGate() { _gate = new CountDownLatch(1); }
+
+    /**
+     * Releases the held queries.
+     */
+    public void openGate()
+    {
+        CountDownLatch gate = _gate;
+        _gate = null;
+
+        if (gate != null) gate.countDown();
+    }
+
+    /**
+     * @param queries -- a number of queries
+     * @param timeoutMillis -- the longest wait
+     * @return whether that many queries were in flight at the same time (within the timeout)
+     */
+    public synchronized boolean awaitInFlight(int queries, long timeoutMillis) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        while (_inFlight < queries)
+        {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) return false;
+
+            wait(remaining);
+        }
+
+        return true;
+    }
+
+    private synchronized void enter()
+    {
+        _inFlight++;
+        _peakInFlight = Math.max(_peakInFlight, _inFlight);
+
+        notifyAll();
+    }
+
+    private synchronized void leave() { _inFlight--; }
+
+    @Override
+    public int concurrency() { return _kernels; }
+
+    /**
+     * Occupies a kernel for the latency of one query.
+     */
+    protected void evaluate()
+    {
+        _available.acquireUninterruptibly();
+        enter();
+        try
+        {
+            _queries.incrementAndGet();
+
+            CountDownLatch gate = _gate;
+            if (gate != null) gate.await();
+
+            Thread.sleep(_latencyMillis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            leave();
+            _available.release();
+        }
+    }
+
+    @Override
+    public String query(String q)
+    {
+        evaluate();
+
+        return _backend.query(q);
+    }
+
+    @Override
+    public ComplexNumber queryComplexNumber(String q)
+    {
+        evaluate();
+
+        return _backend.queryComplexNumber(q);
+    }
+
+    @Override
+    public String query(Expr q)
+    {
+        evaluate();
+
+        return _backend.query(q);
+    }
+
+    @Override
+    public ComplexNumber queryComplexNumber(Expr q)
+    {
+        evaluate();
+
+        return _backend.queryComplexNumber(q);
+    }
+
+    @Override
+    public ComplexNumber querySequence(String[] queries)
+    {
+        evaluate();
+
+        return _backend.querySequence(queries);
+    }
+
+    @Override
+    public ComplexNumber evaluateAtPoint(String function, double x)
+    {
+        evaluate();
+
+        return _backend.evaluateAtPoint(function, x);
+    }
+
+    @Override
+    public double[] evaluateAll(String function, double[] xs)
+    {
+        evaluate();
+
+        return _backend.evaluateAll(function, xs);
+    }
+
+    @Override
+    public String getIntersection(BoundedFunction func1, BoundedFunction func2)
+    {
+        evaluate();
+
+        return _backend.getIntersection(func1, func2);
+    }
+
+    @Override
+    public String getLagrangePolynomial(Point[] points)
+    {
+        evaluate();
+
+        return _backend.getLagrangePolynomial(points);
+    }
+
+    @Override
+    public boolean connection() { return _backend.connection(); }
+}
@@ -1,7 +1,14 @@
 package math.integral;
 
+import java.util.function.DoubleUnaryOperator;
+
 import exceptions.DomainException;
-import math.external_interface.LocalMathematicaCasInterface;
+import globals.Constants;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.external_interface.CasInterface;
+import math.numeric.Chebyshev;
+import math.numeric.GaussKronrod;
 import representation.bounds.functions.BoundedFunction;
 import representation.bounds.functions.VariableT;
 
@@ -49,14 +56,99 @@ public class DefiniteIntegral extends IntegralExpression
         if (_upperBound == DEFAULT_VALUE) throw new DomainException("Cannot handle +\\inf as upper bound.");
 
         //
-        // Evaluate via Mathematica: Call Mathematica to evaluate the area represented by the integral
+        // Evaluate in-process by quadrature; the CAS evaluates integrands without a (real, finite) numeric evaluation
         //
-        String query = toMathematicaString();
-        
-        _memoizedEvaluation = LocalMathematicaCasInterface.getInstance().queryComplexNumber(query).getReal();
-        
+        _memoizedEvaluation = evaluateNatively();
+
+        if (!Double.isFinite(_memoizedEvaluation)) _memoizedEvaluation = evaluateByCas();
+
+        else if (Constants.INTEGRAL_CAS_CROSS_CHECK) crossCheck(_memoizedEvaluation);
+
         return _memoizedEvaluation;
     }
+
+    /**
+     * @return the value of this integral: exactly that of the Chebyshev proxy of a smooth integrand, by adaptive
+     *         Gauss-Kronrod quadrature of the compiled integrand (or its evaluator) otherwise; NaN if the integrand
+     *         does not evaluate in-process, or is undefined (complex) or infinite at a quadrature node within the bounds
+     */
+    protected double evaluateNatively()
+    {
+        try
+        {
+            Expr integrand = _function.toExpr();
+
+            Chebyshev proxy = Chebyshev.proxy(integrand, _varWRT.toString(), Math.min(_lowerBound, _upperBound), Math.max(_lowerBound, _upperBound));
+
+            if (proxy != null) return _lowerBound <= _upperBound ? proxy.integral() : -proxy.integral();
+
+            DoubleUnaryOperator f = ExpressionCompiler.compile(integrand, _varWRT.toString());
+
+            return GaussKronrod.integrate(f, _lowerBound, _upperBound, Constants.INTEGRAL_TOLERANCE, hasEndpointSingularities(integrand));
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Without an expression: the function may still evaluate in-process (a numeric inverse, for example)
+        }
+
+        DoubleUnaryOperator f = _function.evaluator();
+
+        if (f == null) return Double.NaN;
+
+        // Inverses are singular (infinite slope) at the turning points of the inverted function
+        return GaussKronrod.integrate(f, _lowerBound, _upperBound, Constants.INTEGRAL_TOLERANCE, true);
+    }
+
+    /**
+     * @return the value of this integral computed by the CAS
+     */
+    protected double evaluateByCas()
+    {
+        String query = toMathematicaString();
+
+        return CasInterface.getInstance().queryComplexNumber(query).getReal();
+    }
+
+    /**
+     * Reports a disagreement between the in-process value of this integral and the CAS (whose value is retained)
+     */
+    private void crossCheck(double value)
+    {
+        double expected = evaluateByCas();
+
+        if (Math.abs(value - expected) > Math.sqrt(Constants.INTEGRAL_TOLERANCE) * Math.max(1, Math.abs(expected)))
+        {
+            System.err.println("Quadrature of " + this + " (" + value + ") disagrees with the CAS (" + expected + ")");
+
+            _memoizedEvaluation = expected;
+        }
+    }
+
+    /**
+     * @param e -- an integrand
+     * @return whether e involves a function with a possibly-singular derivative at a finite point (square roots
+     *         and other fractional powers, logarithms): the inverses of polynomials, for example
+     */
+    private static boolean hasEndpointSingularities(Expr e)
+    {
+        if (!e.isCall()) return false;
+
+        if (e.hasHead("Sqrt") || e.hasHead("Log") || e.hasHead("CubeRoot") || e.hasHead("Surd")) return true;
+
+        if (e.hasHead(Expr.POWER))
+        {
+            Expr exponent = e.arg(1);
+
+            if (!exponent.isNumber() || exponent.evaluate(null, 0) != Math.rint(exponent.evaluate(null, 0))) return true;
+        }
+
+        for (int i = 0; i < e.size(); i++)
+        {
+            if (hasEndpointSingularities(e.arg(i))) return true;
+        }
+
+        return false;
+    }
     
     /**
      * @return a String representing the integral from lowerBound to upperBound of function f with respect to a variable
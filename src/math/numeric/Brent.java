@@ -0,0 +1,111 @@
+package math.numeric;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Brent's method for a zero of a function with a sign change on an interval: inverse quadratic
+ * interpolation and secant steps, safeguarded by bisection (convergence is never slower than bisection).
+ */
+public class Brent
+{
+    private static final int MAX_ITERATIONS = 200;
+
+    private Brent() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function continuous on [a, b]
+     * @param a -- lower bound
+     * @param fa -- f(a)
+     * @param b -- upper bound
+     * @param fb -- f(b) with a sign opposite to fa
+     * @return a zero of f in [a, b] to machine precision
+     */
+    public static double root(DoubleUnaryOperator f, double a, double fa, double b, double fb)
+    {
+        if (fa == 0) return a;
+        if (fb == 0) return b;
+
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+        {
+            // Keep b as the best estimate and [b, c] as the bracket
+            if ((fb < 0) == (fc < 0))
+            {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+
+            if (Math.abs(fc) < Math.abs(fb))
+            {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+
+            double tolerance = 2 * Math.ulp(b) + 0.5e-15 * Math.abs(b);
+            double m = (c - b) / 2;
+
+            if (Math.abs(m) <= tolerance || fb == 0) return b;
+
+            if (Math.abs(e) >= tolerance && Math.abs(fa) > Math.abs(fb))
+            {
+                // Interpolation
+                double s = fb / fa;
+                double p;
+                double q;
+
+                if (a == c)
+                {
+                    // Secant
+                    p = 2 * m * s;
+                    q = 1 - s;
+                }
+                else
+                {
+                    // Inverse quadratic
+                    double r = fb / fc;
+                    double t = fa / fc;
+                    p = s * (2 * m * t * (t - r) - (b - a) * (r - 1));
+                    q = (t - 1) * (r - 1) * (s - 1);
+                }
+
+                if (p > 0) q = -q;
+                else p = -p;
+
+                // Accept the interpolation only if it falls well within the bracket
+                if (2 * p < Math.min(3 * m * q - Math.abs(tolerance * q), Math.abs(e * q)))
+                {
+                    e = d;
+                    d = p / q;
+                }
+                else
+                {
+                    d = m;
+                    e = m;
+                }
+            }
+            else
+            {
+                // Bisection
+                d = m;
+                e = m;
+            }
+
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, m);
+            fb = f.applyAsDouble(b);
+        }
+
+        return b;
+    }
+}
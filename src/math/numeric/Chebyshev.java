@@ -0,0 +1,743 @@
+package math.numeric;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import utilities.LruCache;
+
+/**
+ * A Chebyshev interpolant p(x) = sum_k c_k T_k(t) of a function on [lower, upper] (t maps [lower, upper] to [-1, 1]):
+ * a proxy for a smooth function adaptively sized until its coefficients decay to machine precision.
+ *
+ *     evaluation:     Clenshaw's recurrence, O(n)
+ *     calculus:       derivatives and antiderivatives are recurrences on the coefficients; the integral is exact
+ *     roots:          eigenvalues of the colleague matrix (the companion matrix in the Chebyshev basis),
+ *                     after subdividing the interval while the degree is large
+ *
+ * Functions that are not smooth on the interval (a singular derivative, a pole, undefined values) are not
+ * resolved by any degree up to MAX_DEGREE: fit() then returns null and callers use the function itself.
+ */
+public class Chebyshev
+{
+    // Coefficients relatively smaller than this are negligible
+    public static final double TOLERANCE = 1e-14;
+
+    // The largest degree attempted (a power of 2)
+    public static final int MAX_DEGREE = 1 << 12;
+
+    private static final int MIN_DEGREE = 16;
+
+    // Root-finding subdivides intervals until the degree is at most this
+    private static final int MAX_COLLEAGUE_DEGREE = 50;
+
+    // Subdivisions of the interval beyond which the colleague matrix is used regardless of the degree
+    private static final int MAX_SUBDIVISIONS = 16;
+
+    // Eigenvalues with an imaginary part (relative to [-1, 1]) smaller than this are real: a double root perturbs
+    // into a complex pair of about the square root of the precision
+    private static final double IMAGINARY_TOLERANCE = 1e-6;
+
+    // Roots closer than this (relative to the width of the interval) are one root
+    private static final double DISTINCT_TOLERANCE = 1e-6;
+
+    // The largest |p| (relative to the scale of p) at an accepted root
+    private static final double ROOT_TOLERANCE = 1e-9;
+
+    public static final int MEMO_CAPACITY = 1024;
+
+    private static final LruCache<Expr, Chebyshev> _memo = new LruCache<Expr, Chebyshev>(MEMO_CAPACITY);
+
+    // Cached for functions without a resolved proxy (the cache holds no nulls)
+    private static final Chebyshev UNRESOLVED = new Chebyshev(new double[] { Double.NaN }, 0, 0, 0);
+
+    private final double[] _coefficients;
+    private final double _lower;
+    private final double _upper;
+
+    // The largest sampled |f|: the scale of the tolerances
+    private final double _scale;
+
+    public double getLower() { return _lower; }
+    public double getUpper() { return _upper; }
+
+    private Chebyshev(double[] coefficients, double lower, double upper, double scale)
+    {
+        _coefficients = coefficients;
+        _lower = lower;
+        _upper = upper;
+        _scale = scale;
+    }
+
+    /**
+     * @return the degree of the interpolant
+     */
+    public int degree() { return _coefficients.length - 1; }
+
+    /**
+     * @return the Chebyshev coefficients (lowest degree first)
+     */
+    public double[] coefficients() { return _coefficients.clone(); }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////// Construction //////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param f -- a function of variable
+     * @param variable -- the name of the variable
+     * @param lower -- finite lower bound
+     * @param upper -- finite upper bound
+     * @return the (memoized) proxy of f on [lower, upper]; null if f does not compile or is not resolved
+     */
+    public static Chebyshev proxy(Expr f, String variable, double lower, double upper)
+    {
+        Expr key = Expr.call(Expr.LIST, f, Expr.symbol(variable), Expr.number(lower), Expr.number(upper));
+
+        Chebyshev proxy = _memo.get(key, k -> {
+            try
+            {
+                Chebyshev fitted = fit(ExpressionCompiler.compile(f, variable), lower, upper);
+
+                return fitted == null ? UNRESOLVED : fitted;
+            }
+            catch (IllegalArgumentException e)
+            {
+                return UNRESOLVED;
+            }
+        });
+
+        return proxy == UNRESOLVED ? null : proxy;
+    }
+
+    public static LruCache<Expr, Chebyshev> getMemo() { return _memo; }
+
+    /**
+     * @param f -- a function
+     * @param lower -- finite lower bound (lower < upper)
+     * @param upper -- finite upper bound
+     * @return the interpolant of f on [lower, upper] resolved to TOLERANCE; null if f is undefined at a sample
+     *         or is not resolved by MAX_DEGREE
+     */
+    public static Chebyshev fit(DoubleUnaryOperator f, double lower, double upper)
+    {
+        if (!(lower < upper) || Double.isInfinite(lower) || Double.isInfinite(upper)) return null;
+
+        for (int n = MIN_DEGREE; n <= MAX_DEGREE; n *= 2)
+        {
+            double[] values = new double[n + 1];
+            double scale = 0;
+
+            for (int j = 0; j <= n; j++)
+            {
+                values[j] = f.applyAsDouble(point(j, n, lower, upper));
+
+                if (Double.isNaN(values[j]) || Double.isInfinite(values[j])) return null;
+
+                scale = Math.max(scale, Math.abs(values[j]));
+            }
+
+            double[] coefficients = coefficients(values);
+
+            int length = chop(coefficients, scale);
+
+            if (length > 0) return new Chebyshev(Arrays.copyOf(coefficients, length), lower, upper, scale);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the j-th of the n + 1 Chebyshev points (of the second kind) on [lower, upper], from upper to lower
+     */
+    private static double point(int j, int n, double lower, double upper)
+    {
+        // Endpoints exactly; interior points symmetric about the center
+        if (j == 0) return upper;
+        if (j == n) return lower;
+
+        return lower + (upper - lower) * (1 + Math.sin(Math.PI * (n - 2 * j) / (2 * n))) / 2;
+    }
+
+    /**
+     * @param values -- f at the n + 1 Chebyshev points cos(pi j / n)
+     * @return the coefficients of the interpolant: a discrete cosine transform computed by a length-2n FFT
+     */
+    private static double[] coefficients(double[] values)
+    {
+        int n = values.length - 1;
+
+        // The even extension [v_0, ..., v_n, v_(n-1), ..., v_1]
+        double[] re = new double[2 * n];
+        double[] im = new double[2 * n];
+        for (int j = 0; j <= n; j++) re[j] = values[j];
+        for (int j = 1; j < n; j++) re[2 * n - j] = values[j];
+
+        fft(re, im);
+
+        double[] coefficients = new double[n + 1];
+        for (int k = 0; k <= n; k++) coefficients[k] = re[k] / n;
+
+        coefficients[0] /= 2;
+        coefficients[n] /= 2;
+
+        return coefficients;
+    }
+
+    /**
+     * In-place radix-2 FFT (the length is a power of 2)
+     */
+    private static void fft(double[] re, double[] im)
+    {
+        int n = re.length;
+
+        // Bit-reversal permutation
+        for (int i = 1, j = 0; i < n; i++)
+        {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+            j ^= bit;
+
+            if (i < j)
+            {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+
+        for (int length = 2; length <= n; length <<= 1)
+        {
+            double angle = -2 * Math.PI / length;
+            for (int start = 0; start < n; start += length)
+            {
+                for (int k = 0; k < length / 2; k++)
+                {
+                    double wr = Math.cos(angle * k);
+                    double wi = Math.sin(angle * k);
+
+                    int a = start + k;
+                    int b = a + length / 2;
+
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of coefficients retained: those through the last non-negligible one, provided
+     *         the trailing quarter (a plateau of at least 8 coefficients) is negligible; 0 if unresolved
+     */
+    private static int chop(double[] coefficients, double scale)
+    {
+        double threshold = TOLERANCE * Math.max(scale, Double.MIN_NORMAL);
+
+        int n = coefficients.length - 1;
+        int tail = Math.max(8, n / 4);
+
+        for (int k = n - tail + 1; k <= n; k++)
+        {
+            if (Math.abs(coefficients[k]) > threshold) return 0;
+        }
+
+        int length = n + 1;
+        while (length > 1 && Math.abs(coefficients[length - 1]) <= threshold) length--;
+
+        return length;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////// Evaluation ///////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return p(x) by Clenshaw's recurrence
+     */
+    public double evaluate(double x)
+    {
+        double t = (2 * x - _lower - _upper) / (_upper - _lower);
+
+        double b1 = 0;
+        double b2 = 0;
+        for (int k = _coefficients.length - 1; k >= 1; k--)
+        {
+            double b = 2 * t * b1 - b2 + _coefficients[k];
+            b2 = b1;
+            b1 = b;
+        }
+
+        return t * b1 - b2 + _coefficients[0];
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////// Calculus ////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return p' (of one degree less)
+     */
+    public Chebyshev derivative()
+    {
+        int n = degree();
+
+        if (n == 0) return new Chebyshev(new double[] { 0 }, _lower, _upper, _scale);
+
+        // c'_(k-1) = c'_(k+1) + 2 k c_k, scaled by dt/dx
+        double[] derivative = new double[n + 1];
+        for (int k = n; k >= 1; k--)
+        {
+            derivative[k - 1] = (k + 1 <= n ? derivative[k + 1] : 0) + 2 * k * _coefficients[k];
+        }
+        derivative[0] /= 2;
+
+        double chain = 2 / (_upper - _lower);
+        for (int k = 0; k < n; k++) derivative[k] *= chain;
+
+        derivative = Arrays.copyOf(derivative, n);
+
+        return new Chebyshev(derivative, _lower, _upper, bound(derivative));
+    }
+
+    /**
+     * @return the antiderivative P of p with P(lower) = 0 (of one degree more)
+     */
+    public Chebyshev antiderivative()
+    {
+        int n = degree();
+
+        double[] c = Arrays.copyOf(_coefficients, n + 3);
+        double[] integral = new double[n + 2];
+
+        // C_k = (c_(k-1) - c_(k+1)) / (2k) for k >= 1 (with c_0 doubled in the recurrence)
+        for (int k = 1; k <= n + 1; k++)
+        {
+            double previous = k == 1 ? 2 * c[0] : c[k - 1];
+            integral[k] = (previous - c[k + 1]) / (2 * k);
+        }
+
+        double half = (_upper - _lower) / 2;
+        for (int k = 1; k <= n + 1; k++) integral[k] *= half;
+
+        // P(lower) = 0: T_k(-1) = (-1)^k
+        double atLower = 0;
+        for (int k = 1; k <= n + 1; k++) atLower += k % 2 == 0 ? integral[k] : -integral[k];
+        integral[0] = -atLower;
+
+        return new Chebyshev(integral, _lower, _upper, bound(integral));
+    }
+
+    /**
+     * @return sum_k |c_k|: a bound on |p| over the interval (|T_k| <= 1), the scale of a derived interpolant
+     */
+    private static double bound(double[] coefficients)
+    {
+        double sum = 0;
+        for (double c : coefficients) sum += Math.abs(c);
+
+        return sum;
+    }
+
+    /**
+     * @return the integral of p over [lower, upper] (exact for the interpolant)
+     */
+    public double integral()
+    {
+        // The integral of T_k over [-1, 1] is 2 / (1 - k^2) for even k (0 for odd k)
+        double sum = 0;
+        for (int k = 0; k < _coefficients.length; k += 2) sum += _coefficients[k] * 2 / (1 - (double)k * k);
+
+        return sum * (_upper - _lower) / 2;
+    }
+
+    /**
+     * @return the integral of p over [a, b] within [lower, upper]
+     */
+    public double integral(double a, double b)
+    {
+        Chebyshev antiderivative = antiderivative();
+
+        return antiderivative.evaluate(b) - antiderivative.evaluate(a);
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////// Roots /////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the sorted, distinct real roots of p in [lower, upper]; none if p vanishes identically
+     */
+    public double[] roots()
+    {
+        double[] roots = roots(_coefficients, _lower, _upper, 0);
+
+        Arrays.sort(roots);
+
+        // Distinct roots: a double root may appear twice (each perturbed by about the square root of the
+        // precision, symmetrically) and subintervals share their endpoints; a cluster is replaced by its mean
+        double separation = DISTINCT_TOLERANCE * (_upper - _lower);
+
+        int count = 0;
+        for (int i = 0; i < roots.length; )
+        {
+            int j = i + 1;
+            double sum = roots[i];
+            while (j < roots.length && roots[j] - roots[j - 1] <= separation) sum += roots[j++];
+
+            roots[count++] = sum / (j - i);
+            i = j;
+        }
+
+        return Arrays.copyOf(roots, count);
+    }
+
+    /**
+     * @return the largest value of p over [lower, upper]: at a bound or a root of p'
+     */
+    public double maximum()
+    {
+        double max = Math.max(evaluate(_lower), evaluate(_upper));
+
+        for (double x : derivative().roots()) max = Math.max(max, evaluate(x));
+
+        return max;
+    }
+
+    /**
+     * @return the smallest value of p over [lower, upper]: at a bound or a root of p'
+     */
+    public double minimum()
+    {
+        double min = Math.min(evaluate(_lower), evaluate(_upper));
+
+        for (double x : derivative().roots()) min = Math.min(min, evaluate(x));
+
+        return min;
+    }
+
+    /**
+     * @param depth -- the number of subdivisions so far
+     * @return the (unsorted) roots of the interpolant with the given coefficients on [lower, upper]
+     */
+    private double[] roots(double[] coefficients, double lower, double upper, int depth)
+    {
+        // Trailing coefficients at the rounding level of the evaluation (restricted interpolants carry
+        // the rounding of Clenshaw's recurrence, proportional to the degree) are negligible
+        int n = coefficients.length - 1;
+        double noise = Math.max(TOLERANCE, 4 * n * Math.ulp(1.0)) * _scale;
+        while (n > 0 && Math.abs(coefficients[n]) <= noise) n--;
+
+        if (n == 0) return new double[0];
+
+        // Subdivide (slightly off-center so that a root at the center is not on a boundary of both halves)
+        if (n > MAX_COLLEAGUE_DEGREE && depth < MAX_SUBDIVISIONS)
+        {
+            Chebyshev whole = new Chebyshev(Arrays.copyOf(coefficients, n + 1), lower, upper, _scale);
+            double middle = lower + (upper - lower) * 0.5004;
+
+            double[] left = roots(restrict(whole, lower, middle), lower, middle, depth + 1);
+            double[] right = roots(restrict(whole, middle, upper), middle, upper, depth + 1);
+
+            double[] both = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, both, left.length, right.length);
+
+            return both;
+        }
+
+        double[] ts = colleagueRoots(coefficients, n);
+
+        Chebyshev p = new Chebyshev(Arrays.copyOf(coefficients, n + 1), lower, upper, _scale);
+        Chebyshev derivative = p.derivative();
+
+        double[] roots = new double[ts.length];
+        int count = 0;
+        for (double t : ts)
+        {
+            double x = newton(p, derivative, lower + (t + 1) * (upper - lower) / 2);
+
+            if (Math.abs(p.evaluate(x)) <= ROOT_TOLERANCE * Math.max(_scale, Double.MIN_NORMAL)) roots[count++] = x;
+        }
+
+        return Arrays.copyOf(roots, count);
+    }
+
+    /**
+     * @return the coefficients of p restricted to [a, b]: p is a polynomial, so its interpolant there is exact
+     *         (to rounding; the restriction of a smooth function needs fewer coefficients than the whole)
+     */
+    private static double[] restrict(Chebyshev p, double a, double b)
+    {
+        int n = p.degree();
+
+        // The smallest power of 2 at least the degree
+        int m = Math.max(MIN_DEGREE, Integer.highestOneBit(Math.max(1, n - 1)) << 1);
+
+        double[] values = new double[m + 1];
+        for (int j = 0; j <= m; j++) values[j] = p.evaluate(point(j, m, a, b));
+
+        return coefficients(values);
+    }
+
+    /**
+     * @return x refined by Newton's method on p, kept within [lower, upper]
+     */
+    private static double newton(Chebyshev p, Chebyshev derivative, double x)
+    {
+        x = Math.max(p._lower, Math.min(p._upper, x));
+
+        for (int step = 0; step < 3; step++)
+        {
+            double y = p.evaluate(x);
+            double slope = derivative.evaluate(x);
+
+            if (y == 0 || slope == 0) break;
+
+            double next = Math.max(p._lower, Math.min(p._upper, x - y / slope));
+            if (!(Math.abs(p.evaluate(next)) < Math.abs(y))) break;
+
+            x = next;
+        }
+
+        return x;
+    }
+
+    /**
+     * @param coefficients -- c_0, ..., c_n with c_n != 0
+     * @return the real eigenvalues in [-1, 1] of the colleague matrix of sum_k c_k T_k: the real roots in [-1, 1]
+     */
+    private static double[] colleagueRoots(double[] coefficients, int n)
+    {
+        if (n == 1)
+        {
+            double t = -coefficients[0] / coefficients[1];
+            return Math.abs(t) <= 1 + IMAGINARY_TOLERANCE ? new double[] { t } : new double[0];
+        }
+
+        //
+        // x T_0 = T_1; x T_k = (T_(k-1) + T_(k+1)) / 2; at a root T_n = -sum_(k<n) c_k T_k / c_n.
+        // The transpose (upper Hessenberg) has the same eigenvalues.
+        //
+        double[][] h = new double[n][n];
+        h[1][0] = 1;
+        for (int k = 1; k < n - 1; k++)
+        {
+            h[k - 1][k] = 0.5;
+            h[k + 1][k] = 0.5;
+        }
+        h[n - 2][n - 1] += 0.5;
+        for (int j = 0; j < n; j++) h[j][n - 1] -= coefficients[j] / (2 * coefficients[n]);
+
+        double[][] eigenvalues = hessenbergEigenvalues(h);
+
+        double[] ts = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++)
+        {
+            double re = eigenvalues[0][i];
+            double im = eigenvalues[1][i];
+
+            if (Math.abs(im) <= IMAGINARY_TOLERANCE && Math.abs(re) <= 1 + IMAGINARY_TOLERANCE) ts[count++] = re;
+        }
+
+        return Arrays.copyOf(ts, count);
+    }
+
+    /**
+     * The Francis double-shift QR algorithm (EISPACK's hqr)
+     *
+     * @param a -- an upper Hessenberg matrix (overwritten)
+     * @return { real parts, imaginary parts } of the eigenvalues
+     */
+    private static double[][] hessenbergEigenvalues(double[][] a)
+    {
+        int n = a.length;
+        double[] wr = new double[n];
+        double[] wi = new double[n];
+
+        double norm = 0;
+        for (int i = 0; i < n; i++)
+        {
+            for (int j = Math.max(i - 1, 0); j < n; j++) norm += Math.abs(a[i][j]);
+        }
+
+        int nn = n - 1;
+        double t = 0;
+        double p = 0, q = 0, r = 0, s, w, x, y, z = 0;
+
+        while (nn >= 0)
+        {
+            int its = 0;
+            int l;
+            do
+            {
+                // A small subdiagonal element splits the matrix
+                for (l = nn; l >= 1; l--)
+                {
+                    s = Math.abs(a[l - 1][l - 1]) + Math.abs(a[l][l]);
+                    if (s == 0) s = norm;
+                    if (Math.abs(a[l][l - 1]) + s == s)
+                    {
+                        a[l][l - 1] = 0;
+                        break;
+                    }
+                }
+
+                x = a[nn][nn];
+
+                // One root found
+                if (l == nn)
+                {
+                    wr[nn] = x + t;
+                    wi[nn--] = 0;
+                }
+                else
+                {
+                    y = a[nn - 1][nn - 1];
+                    w = a[nn][nn - 1] * a[nn - 1][nn];
+
+                    // Two roots found
+                    if (l == nn - 1)
+                    {
+                        p = 0.5 * (y - x);
+                        q = p * p + w;
+                        z = Math.sqrt(Math.abs(q));
+                        x += t;
+
+                        if (q >= 0)
+                        {
+                            z = p + Math.copySign(z, p);
+                            wr[nn - 1] = wr[nn] = x + z;
+                            if (z != 0) wr[nn] = x - w / z;
+                            wi[nn - 1] = wi[nn] = 0;
+                        }
+                        else
+                        {
+                            wr[nn - 1] = wr[nn] = x + p;
+                            wi[nn - 1] = -(wi[nn] = z);
+                        }
+
+                        nn -= 2;
+                    }
+                    else
+                    {
+                        if (its == 60) throw new ArithmeticException("No convergence of the QR iteration");
+
+                        // Exceptional shifts
+                        if (its == 10 || its == 20)
+                        {
+                            t += x;
+                            for (int i = 0; i <= nn; i++) a[i][i] -= x;
+
+                            s = Math.abs(a[nn][nn - 1]) + Math.abs(a[nn - 1][nn - 2]);
+                            y = x = 0.75 * s;
+                            w = -0.4375 * s * s;
+                        }
+
+                        ++its;
+
+                        // Two consecutive small subdiagonal elements
+                        int m;
+                        for (m = nn - 2; m >= l; m--)
+                        {
+                            z = a[m][m];
+                            r = x - z;
+                            s = y - z;
+                            p = (r * s - w) / a[m + 1][m] + a[m][m + 1];
+                            q = a[m + 1][m + 1] - z - r - s;
+                            r = a[m + 2][m + 1];
+                            s = Math.abs(p) + Math.abs(q) + Math.abs(r);
+                            p /= s;
+                            q /= s;
+                            r /= s;
+
+                            if (m == l) break;
+
+                            double u = Math.abs(a[m][m - 1]) * (Math.abs(q) + Math.abs(r));
+                            double v = Math.abs(p) * (Math.abs(a[m - 1][m - 1]) + Math.abs(z) + Math.abs(a[m + 1][m + 1]));
+                            if (u + v == v) break;
+                        }
+
+                        for (int i = m + 2; i <= nn; i++)
+                        {
+                            a[i][i - 2] = 0;
+                            if (i != m + 2) a[i][i - 3] = 0;
+                        }
+
+                        // Double QR step on rows l..nn and columns m..nn
+                        for (int k = m; k <= nn - 1; k++)
+                        {
+                            if (k != m)
+                            {
+                                p = a[k][k - 1];
+                                q = a[k + 1][k - 1];
+                                r = k != nn - 1 ? a[k + 2][k - 1] : 0;
+
+                                if ((x = Math.abs(p) + Math.abs(q) + Math.abs(r)) != 0)
+                                {
+                                    p /= x;
+                                    q /= x;
+                                    r /= x;
+                                }
+                            }
+
+                            if ((s = Math.copySign(Math.sqrt(p * p + q * q + r * r), p)) != 0)
+                            {
+                                if (k == m)
+                                {
+                                    if (l != m) a[k][k - 1] = -a[k][k - 1];
+                                }
+                                else a[k][k - 1] = -s * x;
+
+                                p += s;
+                                x = p / s;
+                                y = q / s;
+                                z = r / s;
+                                q /= p;
+                                r /= p;
+
+                                for (int j = k; j <= nn; j++)
+                                {
+                                    p = a[k][j] + q * a[k + 1][j];
+                                    if (k != nn - 1)
+                                    {
+                                        p += r * a[k + 2][j];
+                                        a[k + 2][j] -= p * z;
+                                    }
+                                    a[k + 1][j] -= p * y;
+                                    a[k][j] -= p * x;
+                                }
+
+                                int last = Math.min(nn, k + 3);
+                                for (int i = l; i <= last; i++)
+                                {
+                                    p = x * a[i][k] + y * a[i][k + 1];
+                                    if (k != nn - 1)
+                                    {
+                                        p += z * a[i][k + 2];
+                                        a[i][k + 2] -= p * r;
+                                    }
+                                    a[i][k + 1] -= p * q;
+                                    a[i][k] -= p;
+                                }
+                            }
+                        }
+                    }
+                }
+            } while (l < nn - 1);
+        }
+
+        return new double[][] { wr, wi };
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Chebyshev[degree " + degree() + " on [" + _lower + ", " + _upper + "]]";
+    }
+}
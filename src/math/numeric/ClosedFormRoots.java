@@ -0,0 +1,220 @@
+package math.numeric;
+
+import java.util.Arrays;
+
+/**
+ * The real roots of polynomials of degree at most 4 in closed form:
+ *     linear and quadratic:   the (cancellation-free) quadratic formula
+ *     cubic:                  Cardano's formula (one real root) or the trigonometric form (three real roots)
+ *     quartic:                Ferrari's method (a root of the resolvent cubic splits the quartic into two quadratics)
+ *
+ * Each root is refined by Newton steps on the original polynomial; repeated roots are reported once.
+ */
+public class ClosedFormRoots
+{
+    public static final int MAX_DEGREE = 4;
+
+    // Discriminants relatively smaller than this are zero (repeated roots)
+    private static final double DISCRIMINANT_TOLERANCE = 1e-12;
+
+    // Roots closer than this are one (repeated) root: a double root is determined to about the square root of the precision
+    private static final double DISTINCT_TOLERANCE = 1e-7;
+
+    // A resolvent root relatively smaller than this loses the precision of Ferrari's split
+    private static final double RESOLVENT_TOLERANCE = 1e-8;
+
+    private static final int NEWTON_STEPS = 8;
+
+    private ClosedFormRoots() {} // To ensure no instances of this class
+
+    /**
+     * @param p -- a polynomial of degree at most MAX_DEGREE
+     * @return the sorted, distinct real roots of p; none for the zero polynomial
+     * @throws IllegalArgumentException if the degree of p exceeds MAX_DEGREE
+     */
+    public static double[] solve(Polynomial p)
+    {
+        // Leading coefficients within rounding of zero lower the degree
+        Polynomial q = p.trim(p.norm());
+
+        double[] roots;
+        switch (q.degree())
+        {
+            case -1:
+            case 0: return new double[0];
+
+            case 1: roots = new double[] { -q.coefficient(0) / q.coefficient(1) }; break;
+
+            case 2: roots = quadratic(q.coefficient(2), q.coefficient(1), q.coefficient(0)); break;
+
+            case 3:
+            {
+                double lead = q.coefficient(3);
+                roots = cubic(q.coefficient(2) / lead, q.coefficient(1) / lead, q.coefficient(0) / lead);
+                break;
+            }
+
+            case 4:
+            {
+                double lead = q.coefficient(4);
+                roots = quartic(q.coefficient(3) / lead, q.coefficient(2) / lead, q.coefficient(1) / lead, q.coefficient(0) / lead);
+                break;
+            }
+
+            default:
+                throw new IllegalArgumentException("No closed form for the roots of degree " + q.degree() + " polynomials.");
+        }
+
+        Polynomial derivative = q.derivative();
+        for (int i = 0; i < roots.length; i++) roots[i] = newton(q, derivative, roots[i]);
+
+        return distinct(roots);
+    }
+
+    /**
+     * @return the real roots of a x^2 + b x + c (a != 0)
+     */
+    protected static double[] quadratic(double a, double b, double c)
+    {
+        double discriminant = b * b - 4 * a * c;
+
+        if (Math.abs(discriminant) <= DISCRIMINANT_TOLERANCE * Math.max(b * b, Math.abs(4 * a * c))) return new double[] { -b / (2 * a) };
+
+        if (discriminant < 0) return new double[0];
+
+        // q = -(b + sign(b) sqrt(D)) / 2 avoids cancellation: the roots are q / a and c / q
+        double q = -(b + Math.copySign(Math.sqrt(discriminant), b)) / 2;
+
+        return q == 0 ? new double[] { 0 } : new double[] { q / a, c / q };
+    }
+
+    /**
+     * @return the real roots of x^3 + a x^2 + b x + c
+     */
+    protected static double[] cubic(double a, double b, double c)
+    {
+        // Depressed: x = t - a/3 gives t^3 + p t + q
+        double shift = a / 3;
+        double p = b - a * a / 3;
+        double q = 2 * a * a * a / 27 - a * b / 3 + c;
+
+        double halfQ = q / 2;
+        double thirdP = p / 3;
+        double discriminant = halfQ * halfQ + thirdP * thirdP * thirdP;
+        double scale = Math.max(halfQ * halfQ, Math.abs(thirdP * thirdP * thirdP));
+
+        // A repeated root: t = 3q/p (simple) and -3q/(2p) (double); a triple root at t = 0
+        if (Math.abs(discriminant) <= DISCRIMINANT_TOLERANCE * scale || scale == 0)
+        {
+            if (p == 0) return new double[] { -shift };
+
+            return new double[] { 3 * q / p - shift, -3 * q / (2 * p) - shift };
+        }
+
+        // One real root (Cardano)
+        if (discriminant > 0)
+        {
+            double sqrt = Math.sqrt(discriminant);
+            return new double[] { Math.cbrt(-halfQ + sqrt) + Math.cbrt(-halfQ - sqrt) - shift };
+        }
+
+        // Three real roots (trigonometric form)
+        double radius = 2 * Math.sqrt(-thirdP);
+        double angle = Math.acos(Math.max(-1, Math.min(1, 3 * q / (p * radius)))) / 3;
+
+        double[] roots = new double[3];
+        for (int k = 0; k < 3; k++) roots[k] = radius * Math.cos(angle - 2 * Math.PI * k / 3) - shift;
+
+        return roots;
+    }
+
+    /**
+     * @return the real roots of x^4 + a x^3 + b x^2 + c x + d
+     */
+    protected static double[] quartic(double a, double b, double c, double d)
+    {
+        // Depressed: x = y - a/4 gives y^4 + p y^2 + q y + r
+        double shift = a / 4;
+        double a2 = a * a;
+        double p = b - 3 * a2 / 8;
+        double q = a2 * a / 8 - a * b / 2 + c;
+        double r = -3 * a2 * a2 / 256 + a2 * b / 16 - a * c / 4 + d;
+
+        double scale = Math.max(1, Math.max(Math.abs(p), Math.max(Math.abs(q), Math.abs(r))));
+
+        // Ferrari: the largest root m > 0 of the resolvent m^3 + p m^2 + (p^2/4 - r) m - q^2/8
+        double m = Double.NEGATIVE_INFINITY;
+        if (Math.abs(q) > DISCRIMINANT_TOLERANCE * scale)
+        {
+            for (double candidate : cubic(p, p * p / 4 - r, -q * q / 8)) m = Math.max(m, candidate);
+        }
+
+        // Biquadratic (q = 0, or m = 0 to within rounding so that q ~ sqrt(m) is negligible): z = y^2 solves z^2 + p z + r
+        if (!(m > RESOLVENT_TOLERANCE * scale))
+        {
+            double[] zs = quadratic(1, p, r);
+
+            double[] roots = new double[2 * zs.length];
+            int count = 0;
+            for (double z : zs)
+            {
+                if (z < -DISCRIMINANT_TOLERANCE * scale) continue;
+
+                double y = Math.sqrt(Math.max(0, z));
+                roots[count++] = y - shift;
+                roots[count++] = -y - shift;
+            }
+
+            return Arrays.copyOf(roots, count);
+        }
+
+        // (y^2 + p/2 + m)^2 = 2m (y - q/(4m))^2 splits into y^2 -+ s y + (p/2 + m +- s q/(4m)) with s = sqrt(2m)
+        double s = Math.sqrt(2 * m);
+        double t = q / (4 * m);
+
+        double[] first = quadratic(1, -s, p / 2 + m + s * t);
+        double[] second = quadratic(1, s, p / 2 + m - s * t);
+
+        double[] roots = new double[first.length + second.length];
+        for (int i = 0; i < first.length; i++) roots[i] = first[i] - shift;
+        for (int i = 0; i < second.length; i++) roots[first.length + i] = second[i] - shift;
+
+        return roots;
+    }
+
+    /**
+     * @return x refined by Newton's method on p (the unrefined x if a step does not reduce |p|)
+     */
+    private static double newton(Polynomial p, Polynomial derivative, double x)
+    {
+        for (int step = 0; step < NEWTON_STEPS; step++)
+        {
+            double y = p.evaluate(x);
+            double slope = derivative.evaluate(x);
+
+            if (y == 0 || slope == 0) break;
+
+            double next = x - y / slope;
+            if (!(Math.abs(p.evaluate(next)) < Math.abs(y))) break;
+
+            x = next;
+        }
+
+        return x;
+    }
+
+    private static double[] distinct(double[] roots)
+    {
+        Arrays.sort(roots);
+
+        int count = 0;
+        for (int i = 0; i < roots.length; i++)
+        {
+            if (Double.isNaN(roots[i])) continue;
+
+            if (count == 0 || roots[i] - roots[count - 1] > DISTINCT_TOLERANCE * Math.max(1, Math.abs(roots[i]))) roots[count++] = roots[i];
+        }
+
+        return Arrays.copyOf(roots, count);
+    }
+}
@@ -0,0 +1,87 @@
+package math.numeric;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Golden-section search for the extremum of a unimodal function on an interval.
+ */
+public class GoldenSection
+{
+    private static final double INVERSE_PHI = (Math.sqrt(5) - 1) / 2;
+    private static final double TOLERANCE = 1e-12;
+
+    private GoldenSection() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function unimodal on [a, b]
+     * @return the x-value in [a, b] minimizing f
+     */
+    public static double minimize(DoubleUnaryOperator f, double a, double b)
+    {
+        double c = b - INVERSE_PHI * (b - a);
+        double d = a + INVERSE_PHI * (b - a);
+        double fc = f.applyAsDouble(c);
+        double fd = f.applyAsDouble(d);
+
+        while (Math.abs(b - a) > TOLERANCE * (1 + Math.abs(a) + Math.abs(b)))
+        {
+            if (fc < fd)
+            {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - INVERSE_PHI * (b - a);
+                fc = f.applyAsDouble(c);
+            }
+            else
+            {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + INVERSE_PHI * (b - a);
+                fd = f.applyAsDouble(d);
+            }
+        }
+
+        return (a + b) / 2;
+    }
+
+    /**
+     * @param f -- a function unimodal on [a, b]
+     * @return the x-value in [a, b] maximizing f
+     */
+    public static double maximize(DoubleUnaryOperator f, double a, double b)
+    {
+        return minimize(x -> -f.applyAsDouble(x), a, b);
+    }
+
+    /**
+     * @param f -- a continuous function on [a, b] (not necessarily unimodal)
+     * @param samples -- number of sampled subintervals used to locate the global candidate
+     * @return the x-value in [a, b] minimizing f (endpoints included)
+     */
+    public static double globalMinimize(DoubleUnaryOperator f, double a, double b, int samples)
+    {
+        int best = 0;
+        double bestY = Double.POSITIVE_INFINITY;
+        for (int i = 0; i <= samples; i++)
+        {
+            double y = f.applyAsDouble(a + (b - a) * i / samples);
+
+            if (y < bestY)
+            {
+                bestY = y;
+                best = i;
+            }
+        }
+
+        // Refine within the neighboring subintervals
+        double left = a + (b - a) * Math.max(0, best - 1) / samples;
+        double right = a + (b - a) * Math.min(samples, best + 1) / samples;
+        double x = minimize(f, left, right);
+
+        // Keep the sampled candidate if refinement did not improve upon it
+        double sampled = a + (b - a) * best / samples;
+        return f.applyAsDouble(x) <= bestY ? x : sampled;
+    }
+}
@@ -0,0 +1,233 @@
+package math.numeric;
+
+/**
+ * A closed interval [lower, upper] of reals with outward-rounded arithmetic: the result of an operation
+ * encloses every value of the operation over its operands (the basis of guaranteed root exclusion).
+ *
+ * The empty interval (no real values, such as Log of a negative interval) contains nothing; an operation
+ * on an empty interval is empty.
+ */
+public class Interval
+{
+    public static final Interval EMPTY = new Interval(Double.NaN, Double.NaN);
+    public static final Interval ENTIRE = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private final double _lower;
+    private final double _upper;
+
+    public double getLower() { return _lower; }
+    public double getUpper() { return _upper; }
+
+    private Interval(double lower, double upper)
+    {
+        _lower = lower;
+        _upper = upper;
+    }
+
+    /**
+     * @return [lower, upper]; empty if lower > upper
+     */
+    public static Interval of(double lower, double upper)
+    {
+        if (Double.isNaN(lower) || Double.isNaN(upper) || lower > upper) return EMPTY;
+
+        return new Interval(lower, upper);
+    }
+
+    /**
+     * @return [x, x]
+     */
+    public static Interval point(double x) { return of(x, x); }
+
+    /**
+     * @return [lower, upper] widened by one unit in the last place on each side
+     */
+    private static Interval outward(double lower, double upper)
+    {
+        if (Double.isNaN(lower) || Double.isNaN(upper)) return ENTIRE;
+
+        return of(Math.nextDown(lower), Math.nextUp(upper));
+    }
+
+    public boolean isEmpty() { return Double.isNaN(_lower); }
+
+    public boolean contains(double x) { return !isEmpty() && _lower <= x && x <= _upper; }
+
+    public double width() { return _upper - _lower; }
+
+    public double midpoint() { return _lower + (_upper - _lower) / 2; }
+
+    /**
+     * @return the intersection of this and that
+     */
+    public Interval intersect(Interval that)
+    {
+        if (isEmpty() || that.isEmpty()) return EMPTY;
+
+        return of(Math.max(_lower, that._lower), Math.min(_upper, that._upper));
+    }
+
+    /**
+     * @return the smallest interval containing this and that
+     */
+    public Interval hull(Interval that)
+    {
+        if (isEmpty()) return that;
+        if (that.isEmpty()) return this;
+
+        return of(Math.min(_lower, that._lower), Math.max(_upper, that._upper));
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////// Arithmetic /////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    public Interval add(Interval that)
+    {
+        if (isEmpty() || that.isEmpty()) return EMPTY;
+
+        return outward(_lower + that._lower, _upper + that._upper);
+    }
+
+    public Interval negate()
+    {
+        if (isEmpty()) return EMPTY;
+
+        return of(-_upper, -_lower);
+    }
+
+    public Interval multiply(Interval that)
+    {
+        if (isEmpty() || that.isEmpty()) return EMPTY;
+
+        double p1 = product(_lower, that._lower);
+        double p2 = product(_lower, that._upper);
+        double p3 = product(_upper, that._lower);
+        double p4 = product(_upper, that._upper);
+
+        return outward(Math.min(Math.min(p1, p2), Math.min(p3, p4)), Math.max(Math.max(p1, p2), Math.max(p3, p4)));
+    }
+
+    // 0 * infinity is 0 for enclosures (the infinite endpoint is never attained)
+    private static double product(double a, double b) { return a == 0 || b == 0 ? 0 : a * b; }
+
+    /**
+     * @return 1 / this; the entire line if this contains 0 in its interior
+     */
+    public Interval reciprocal()
+    {
+        if (isEmpty()) return EMPTY;
+
+        if (_lower > 0 || _upper < 0) return outward(1 / _upper, 1 / _lower);
+
+        if (_lower == 0 && _upper > 0) return outward(1 / _upper, Double.POSITIVE_INFINITY);
+        if (_upper == 0 && _lower < 0) return outward(Double.NEGATIVE_INFINITY, 1 / _lower);
+
+        return _lower == 0 && _upper == 0 ? EMPTY : ENTIRE;
+    }
+
+    /**
+     * @return this^n for an integer n
+     */
+    public Interval power(int n)
+    {
+        if (isEmpty()) return EMPTY;
+
+        if (n == 0) return point(1);
+        if (n < 0) return power(-n).reciprocal();
+
+        double a = Math.pow(_lower, n);
+        double b = Math.pow(_upper, n);
+
+        // Odd powers are monotone
+        if (n % 2 == 1) return outward(a, b);
+
+        // Even powers: the minimum is 0 when the interval straddles 0
+        if (_lower >= 0) return outward(a, b);
+        if (_upper <= 0) return outward(b, a);
+
+        return outward(0, Math.max(a, b)).intersect(of(0, Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * @return this^r for a real r, restricted to the non-negative part of this (the real domain)
+     */
+    public Interval power(double r)
+    {
+        if (r == Math.rint(r) && Math.abs(r) < Integer.MAX_VALUE) return power((int)r);
+
+        Interval base = intersect(of(0, Double.POSITIVE_INFINITY));
+        if (base.isEmpty()) return EMPTY;
+
+        double a = Math.pow(base._lower, r);
+        double b = Math.pow(base._upper, r);
+
+        return r > 0 ? outward(a, b) : outward(b, a);
+    }
+
+    public Interval sqrt() { return power(0.5); }
+
+    public Interval exp()
+    {
+        if (isEmpty()) return EMPTY;
+
+        return outward(Math.exp(_lower), Math.exp(_upper)).intersect(of(0, Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * @return the natural logarithm over the positive part of this
+     */
+    public Interval log()
+    {
+        Interval positive = intersect(of(0, Double.POSITIVE_INFINITY));
+        if (positive.isEmpty() || positive._upper == 0) return EMPTY;
+
+        return outward(Math.log(positive._lower), Math.log(positive._upper));
+    }
+
+    public Interval abs()
+    {
+        if (isEmpty()) return EMPTY;
+
+        if (_lower >= 0) return this;
+        if (_upper <= 0) return negate();
+
+        return of(0, Math.max(-_lower, _upper));
+    }
+
+    public Interval sin() { return add(point(-Math.PI / 2)).cos(); }
+
+    public Interval cos()
+    {
+        if (isEmpty()) return EMPTY;
+
+        if (width() >= 2 * Math.PI || Double.isInfinite(width())) return of(-1, 1);
+
+        double a = Math.cos(_lower);
+        double b = Math.cos(_upper);
+        double lower = Math.min(a, b);
+        double upper = Math.max(a, b);
+
+        // Extrema of cosine in the interval: maxima at 2 k Pi, minima at (2 k + 1) Pi
+        if (containsMultipleOf(0)) upper = 1;
+        if (containsMultipleOf(Math.PI)) lower = -1;
+
+        return outward(lower, upper).intersect(of(-1, 1));
+    }
+
+    /**
+     * @return whether this (conservatively) contains offset + 2 k Pi for some integer k
+     */
+    private boolean containsMultipleOf(double offset)
+    {
+        double k = Math.ceil((Math.nextDown(_lower) - offset) / (2 * Math.PI));
+
+        return offset + 2 * Math.PI * k <= Math.nextUp(_upper) + 1e-12;
+    }
+
+    @Override
+    public String toString()
+    {
+        return isEmpty() ? "[]" : "[" + _lower + ", " + _upper + "]";
+    }
+}
@@ -0,0 +1,68 @@
+package math.numeric;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Newton's method safeguarded by bisection for a zero of a function with a sign change on an interval:
+ * the bracket shrinks with every step, and a Newton step leaving the bracket (or not halving the residual)
+ * is replaced by a bisection step (convergence is quadratic near a simple zero and never slower than bisection).
+ */
+public class Newton
+{
+    private static final int MAX_ITERATIONS = 200;
+
+    private Newton() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function continuous on [a, b]
+     * @param fPrime -- the derivative of f; null if unavailable (Brent's method is used instead)
+     * @param a -- lower bound
+     * @param fa -- f(a)
+     * @param b -- upper bound
+     * @param fb -- f(b) with a sign opposite to fa
+     * @return a zero of f in [a, b] to machine precision
+     */
+    public static double root(DoubleUnaryOperator f, DoubleUnaryOperator fPrime, double a, double fa, double b, double fb)
+    {
+        if (fa == 0) return a;
+        if (fb == 0) return b;
+
+        if (fPrime == null) return Brent.root(f, a, fa, b, fb);
+
+        // Orient the bracket so that f(low) < 0 < f(high)
+        double low = fa < 0 ? a : b;
+        double high = fa < 0 ? b : a;
+
+        // Start at the secant estimate when the values are finite (the midpoint otherwise)
+        double x = Double.isInfinite(fa) || Double.isInfinite(fb) ? a + (b - a) / 2 : a - fa * (b - a) / (fb - fa);
+        double previous = Double.POSITIVE_INFINITY;
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+        {
+            double fx = f.applyAsDouble(x);
+
+            if (fx == 0) return x;
+
+            if (fx < 0) low = x;
+            else if (fx > 0) high = x;
+
+            double tolerance = 2 * Math.ulp(x) + 0.5e-15 * Math.abs(x);
+            if (Math.abs(high - low) <= tolerance) return x;
+
+            // Newton step; bisect when it leaves the bracket, is undefined, or converges slowly
+            double next = x - fx / fPrime.applyAsDouble(x);
+            double min = Math.min(low, high);
+            double max = Math.max(low, high);
+
+            if (!(next > min && next < max) || Math.abs(fx) > previous / 2) next = low + (high - low) / 2;
+
+            if (Math.abs(next - x) <= tolerance) return next;
+
+            // A NaN value (outside the domain of f) is treated as a failed Newton step
+            previous = Double.isNaN(fx) ? Double.POSITIVE_INFINITY : Math.abs(fx);
+            x = next;
+        }
+
+        return x;
+    }
+}
@@ -0,0 +1,301 @@
+package math.numeric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable polynomial with real coefficients: c_0 + c_1 x + ... + c_n x^n.
+ *
+ * Besides evaluation and arithmetic, a polynomial counts its distinct real roots in an interval exactly
+ * (up to the rounding of its coefficients) with its Sturm sequence: p_0 = p, p_1 = p', p_{i+1} = -(p_{i-1} mod p_i).
+ * The number of distinct roots in (a, b] is V(a) - V(b), where V(t) is the number of sign changes of p_i(t).
+ */
+public class Polynomial
+{
+    // Coefficients relatively smaller than this (with respect to the largest) are rounding noise
+    public static final double COEFFICIENT_TOLERANCE = 1e-10;
+
+    // c_0, c_1, ..., c_n with c_n != 0 (the zero polynomial has no coefficients)
+    private final double[] _coefficients;
+
+    // Computed on demand
+    private Polynomial[] _sturm;
+
+    /**
+     * @param coefficients -- c_0, c_1, ..., c_n (trailing zeros are removed)
+     */
+    public Polynomial(double... coefficients)
+    {
+        int n = coefficients.length;
+        while (n > 0 && coefficients[n - 1] == 0) n--;
+
+        _coefficients = Arrays.copyOf(coefficients, n);
+    }
+
+    /**
+     * @return the degree; -1 for the zero polynomial
+     */
+    public int degree() { return _coefficients.length - 1; }
+
+    public boolean isZero() { return _coefficients.length == 0; }
+
+    /**
+     * @return the coefficient of x^i
+     */
+    public double coefficient(int i) { return i < _coefficients.length ? _coefficients[i] : 0; }
+
+    public double[] coefficients() { return _coefficients.clone(); }
+
+    /**
+     * @return p(x) by Horner's rule
+     */
+    public double evaluate(double x)
+    {
+        double value = 0;
+
+        for (int i = _coefficients.length - 1; i >= 0; i--) value = value * x + _coefficients[i];
+
+        return value;
+    }
+
+    /**
+     * @return p'
+     */
+    public Polynomial derivative()
+    {
+        if (_coefficients.length <= 1) return new Polynomial();
+
+        double[] d = new double[_coefficients.length - 1];
+        for (int i = 1; i < _coefficients.length; i++) d[i - 1] = i * _coefficients[i];
+
+        return new Polynomial(d);
+    }
+
+    /**
+     * @return the largest magnitude of a coefficient
+     */
+    public double norm()
+    {
+        double norm = 0;
+
+        for (double c : _coefficients) norm = Math.max(norm, Math.abs(c));
+
+        return norm;
+    }
+
+    /**
+     * @param scale -- the magnitude of the computation (the norm of the polynomial it derives from)
+     * @return this with coefficients below COEFFICIENT_TOLERANCE (relative to scale) set to zero
+     */
+    public Polynomial trim(double scale)
+    {
+        double[] c = coefficients();
+        for (int i = 0; i < c.length; i++)
+        {
+            if (Math.abs(c[i]) <= COEFFICIENT_TOLERANCE * scale) c[i] = 0;
+        }
+
+        return new Polynomial(c);
+    }
+
+    /**
+     * @return this + that
+     */
+    public Polynomial add(Polynomial that)
+    {
+        double[] sum = new double[Math.max(_coefficients.length, that._coefficients.length)];
+
+        for (int i = 0; i < _coefficients.length; i++) sum[i] += _coefficients[i];
+        for (int i = 0; i < that._coefficients.length; i++) sum[i] += that._coefficients[i];
+
+        return new Polynomial(sum);
+    }
+
+    /**
+     * @return this - that
+     */
+    public Polynomial subtract(Polynomial that) { return add(that.scale(-1)); }
+
+    /**
+     * @return this * s
+     */
+    public Polynomial scale(double s)
+    {
+        double[] c = coefficients();
+        for (int i = 0; i < c.length; i++) c[i] *= s;
+
+        return new Polynomial(c);
+    }
+
+    /**
+     * @param divisor -- a non-zero polynomial
+     * @return { quotient, remainder } of this / divisor
+     */
+    public Polynomial[] divide(Polynomial divisor)
+    {
+        if (divisor.isZero()) throw new ArithmeticException("Division by the zero polynomial");
+
+        double[] remainder = coefficients();
+        int dn = divisor.degree();
+
+        if (degree() < dn) return new Polynomial[] { new Polynomial(), this };
+
+        double[] quotient = new double[degree() - dn + 1];
+        double lead = divisor._coefficients[dn];
+
+        for (int i = degree() - dn; i >= 0; i--)
+        {
+            double q = remainder[i + dn] / lead;
+            quotient[i] = q;
+
+            for (int j = 0; j <= dn; j++) remainder[i + j] -= q * divisor._coefficients[j];
+
+            remainder[i + dn] = 0;
+        }
+
+        return new Polynomial[] { new Polynomial(quotient), new Polynomial(Arrays.copyOf(remainder, dn)) };
+    }
+
+    /**
+     * @return the (monic) greatest common divisor of this and that; remainders within rounding of zero end the Euclidean algorithm
+     */
+    public Polynomial gcd(Polynomial that)
+    {
+        double scale = Math.max(norm(), that.norm());
+
+        Polynomial a = this;
+        Polynomial b = that.trim(scale);
+
+        while (!b.isZero())
+        {
+            Polynomial r = a.divide(b)[1].trim(scale);
+            a = b;
+            b = r;
+        }
+
+        return a.isZero() ? a : a.scale(1 / a._coefficients[a.degree()]);
+    }
+
+    /**
+     * @return this / gcd(this, this'): the polynomial with the same roots, each simple
+     */
+    public Polynomial squareFree()
+    {
+        if (degree() <= 1) return this;
+
+        Polynomial g = gcd(derivative());
+
+        return g.degree() <= 0 ? this : divide(g)[0];
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////// Sturm sequences //////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the Sturm sequence p, p', -rem(p, p'), ...
+     */
+    public Polynomial[] sturmSequence()
+    {
+        if (_sturm != null) return _sturm;
+
+        double scale = norm();
+
+        List<Polynomial> sequence = new ArrayList<Polynomial>();
+        sequence.add(this);
+
+        Polynomial previous = this;
+        Polynomial current = derivative().trim(scale);
+
+        while (!current.isZero())
+        {
+            sequence.add(current);
+
+            Polynomial next = previous.divide(current)[1].scale(-1).trim(scale);
+            previous = current;
+            current = next;
+        }
+
+        _sturm = sequence.toArray(new Polynomial[0]);
+
+        return _sturm;
+    }
+
+    /**
+     * @return the number of sign changes of the Sturm sequence at x (zeros are skipped)
+     */
+    public int signChanges(double x)
+    {
+        int changes = 0;
+        double previous = 0;
+
+        for (Polynomial p : sturmSequence())
+        {
+            double value = Double.isInfinite(x) ? p.limit(x) : p.evaluate(x);
+
+            if (value == 0) continue;
+
+            if (previous != 0 && (value < 0) != (previous < 0)) changes++;
+
+            previous = value;
+        }
+
+        return changes;
+    }
+
+    /**
+     * @return the sign of p(x) as x tends to +/- infinity
+     */
+    private double limit(double infinity)
+    {
+        if (isZero()) return 0;
+
+        double lead = _coefficients[degree()];
+
+        return infinity > 0 || degree() % 2 == 0 ? Math.signum(lead) : -Math.signum(lead);
+    }
+
+    /**
+     * @return the number of distinct real roots in (a, b]
+     */
+    public int countRoots(double a, double b)
+    {
+        if (isZero()) throw new ArithmeticException("The zero polynomial has infinitely many roots");
+
+        return Math.max(0, signChanges(a) - signChanges(b));
+    }
+
+    /**
+     * @return a bound B on the magnitude of every root: |r| <= B (Cauchy)
+     */
+    public double rootBound()
+    {
+        if (degree() <= 0) return 0;
+
+        double lead = Math.abs(_coefficients[degree()]);
+        double max = 0;
+        for (int i = 0; i < degree(); i++) max = Math.max(max, Math.abs(_coefficients[i]) / lead);
+
+        return 1 + max;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = degree(); i >= 0; i--)
+        {
+            if (_coefficients[i] == 0) continue;
+
+            if (sb.length() > 0) sb.append(_coefficients[i] < 0 ? " - " : " + ");
+            else if (_coefficients[i] < 0) sb.append("-");
+
+            sb.append(Math.abs(_coefficients[i]));
+            if (i > 0) sb.append(i == 1 ? " x" : " x^" + i);
+        }
+
+        return sb.length() == 0 ? "0" : sb.toString();
+    }
+}
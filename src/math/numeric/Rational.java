@@ -0,0 +1,356 @@
+package math.numeric;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * An exact rational number p / q in lowest terms (q > 0). Numerators and denominators are longs; an operation
+ * that overflows a long is carried out with BigIntegers (and the result returns to longs when it fits), so the
+ * arithmetic is exact regardless of magnitude.
+ *
+ * Equal rationals have the same representation, so equality and hashing are exact (no tolerance).
+ */
+public final class Rational extends Number implements Comparable<Rational>, Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    public static final Rational ZERO = new Rational(0, 1);
+    public static final Rational ONE = new Rational(1, 1);
+
+    // The largest denominator of a rational recognized from a double
+    public static final long MAX_RECOGNIZED_DENOMINATOR = 1000000;
+
+    // A double within this relative distance (a few ulps) of a simple rational is recognized as it; looser
+    // tolerances admit accidental convergents of irrationals (Pi is within 1e-12 of 1146408/364913)
+    private static final double RECOGNITION_TOLERANCE = 1e-14;
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    // Small values; _bigNumerator and _bigDenominator are null unless the value does not fit in longs
+    private final long _numerator;
+    private final long _denominator;
+
+    private final BigInteger _bigNumerator;
+    private final BigInteger _bigDenominator;
+
+    private Rational(long numerator, long denominator)
+    {
+        _numerator = numerator;
+        _denominator = denominator;
+        _bigNumerator = null;
+        _bigDenominator = null;
+    }
+
+    private Rational(BigInteger numerator, BigInteger denominator)
+    {
+        _numerator = 0;
+        _denominator = 1;
+        _bigNumerator = numerator;
+        _bigDenominator = denominator;
+    }
+
+    /**
+     * @return n / 1
+     */
+    public static Rational valueOf(long n) { return new Rational(n, 1); }
+
+    /**
+     * @return p / q in lowest terms
+     * @throws ArithmeticException if q = 0
+     */
+    public static Rational valueOf(long p, long q)
+    {
+        if (q == 0) throw new ArithmeticException("Zero denominator");
+
+        // Negating Long.MIN_VALUE overflows
+        if (p == Long.MIN_VALUE || q == Long.MIN_VALUE) return valueOf(BigInteger.valueOf(p), BigInteger.valueOf(q));
+
+        if (q < 0)
+        {
+            p = -p;
+            q = -q;
+        }
+
+        long gcd = gcd(Math.abs(p), q);
+
+        return new Rational(p / gcd, q / gcd);
+    }
+
+    /**
+     * @return p / q in lowest terms (as longs if they fit)
+     * @throws ArithmeticException if q = 0
+     */
+    public static Rational valueOf(BigInteger p, BigInteger q)
+    {
+        if (q.signum() == 0) throw new ArithmeticException("Zero denominator");
+
+        if (q.signum() < 0)
+        {
+            p = p.negate();
+            q = q.negate();
+        }
+
+        BigInteger gcd = p.gcd(q);
+
+        if (!gcd.equals(BigInteger.ONE))
+        {
+            p = p.divide(gcd);
+            q = q.divide(gcd);
+        }
+
+        if (fitsLong(p) && fitsLong(q)) return new Rational(p.longValue(), q.longValue());
+
+        return new Rational(p, q);
+    }
+
+    /**
+     * @param x -- a finite double
+     * @return the value of x exactly (a dyadic rational)
+     * @throws ArithmeticException if x is infinite or NaN
+     */
+    public static Rational exact(double x)
+    {
+        if (Double.isNaN(x) || Double.isInfinite(x)) throw new ArithmeticException(x + " is not rational");
+
+        if (x == Math.rint(x) && Math.abs(x) < 0x1p62) return valueOf((long)x);
+
+        BigDecimal decimal = new BigDecimal(x);
+
+        return decimal.scale() <= 0 ? valueOf(decimal.toBigInteger(), BigInteger.ONE)
+                                    : valueOf(decimal.unscaledValue(), BigInteger.TEN.pow(decimal.scale()));
+    }
+
+    /**
+     * @param x -- a double computed from rational data
+     * @return the rational with the smallest denominator (at most MAX_RECOGNIZED_DENOMINATOR) within rounding of x
+     *         (best approximations by continued fractions); null if there is none (x is likely irrational)
+     */
+    public static Rational recognize(double x)
+    {
+        if (Double.isNaN(x) || Double.isInfinite(x)) return null;
+
+        if (x == Math.rint(x) && Math.abs(x) < 0x1p53) return valueOf((long)x);
+
+        double tolerance = RECOGNITION_TOLERANCE * Math.max(1, Math.abs(x));
+
+        // Convergents h / k of the continued fraction of x
+        long h = 1, previousH = 0;
+        long k = 0, previousK = 1;
+        double remainder = x;
+
+        while (true)
+        {
+            double floor = Math.floor(remainder);
+
+            if (Math.abs(floor) > Long.MAX_VALUE / 2) return null;
+
+            long a = (long)floor;
+
+            long nextH;
+            long nextK;
+            try
+            {
+                nextH = Math.addExact(Math.multiplyExact(a, h), previousH);
+                nextK = Math.addExact(Math.multiplyExact(a, k), previousK);
+            }
+            catch (ArithmeticException e)
+            {
+                return null;
+            }
+
+            if (nextK > MAX_RECOGNIZED_DENOMINATOR) return null;
+
+            previousH = h;
+            previousK = k;
+            h = nextH;
+            k = nextK;
+
+            if (Math.abs(x - (double)h / k) <= tolerance) return valueOf(h, k);
+
+            double fraction = remainder - floor;
+
+            if (fraction == 0) return null;
+
+            remainder = 1 / fraction;
+        }
+    }
+
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a == 0 ? 1 : a;
+    }
+
+    private static boolean fitsLong(BigInteger n) { return n.compareTo(LONG_MIN) > 0 && n.compareTo(LONG_MAX) <= 0; }
+
+    private boolean isBig() { return _bigNumerator != null; }
+
+    public BigInteger numerator() { return isBig() ? _bigNumerator : BigInteger.valueOf(_numerator); }
+
+    public BigInteger denominator() { return isBig() ? _bigDenominator : BigInteger.valueOf(_denominator); }
+
+    public boolean isInteger() { return isBig() ? _bigDenominator.equals(BigInteger.ONE) : _denominator == 1; }
+
+    public int signum() { return isBig() ? _bigNumerator.signum() : Long.signum(_numerator); }
+
+    public Rational negate()
+    {
+        if (isBig() || _numerator == Long.MIN_VALUE) return valueOf(numerator().negate(), denominator());
+
+        return new Rational(-_numerator, _denominator);
+    }
+
+    public Rational add(Rational that)
+    {
+        if (!this.isBig() && !that.isBig())
+        {
+            try
+            {
+                long p = Math.addExact(Math.multiplyExact(this._numerator, that._denominator), Math.multiplyExact(that._numerator, this._denominator));
+                return valueOf(p, Math.multiplyExact(this._denominator, that._denominator));
+            }
+            catch (ArithmeticException e)
+            {
+                // Overflow: exact below
+            }
+        }
+
+        return valueOf(this.numerator().multiply(that.denominator()).add(that.numerator().multiply(this.denominator())),
+                       this.denominator().multiply(that.denominator()));
+    }
+
+    public Rational subtract(Rational that) { return add(that.negate()); }
+
+    public Rational multiply(Rational that)
+    {
+        if (!this.isBig() && !that.isBig())
+        {
+            try
+            {
+                return valueOf(Math.multiplyExact(this._numerator, that._numerator), Math.multiplyExact(this._denominator, that._denominator));
+            }
+            catch (ArithmeticException e)
+            {
+                // Overflow: exact below
+            }
+        }
+
+        return valueOf(this.numerator().multiply(that.numerator()), this.denominator().multiply(that.denominator()));
+    }
+
+    /**
+     * @throws ArithmeticException if that is zero
+     */
+    public Rational divide(Rational that)
+    {
+        if (that.signum() == 0) throw new ArithmeticException("Division by zero");
+
+        if (!this.isBig() && !that.isBig())
+        {
+            try
+            {
+                return valueOf(Math.multiplyExact(this._numerator, that._denominator), Math.multiplyExact(this._denominator, that._numerator));
+            }
+            catch (ArithmeticException e)
+            {
+                // Overflow: exact below
+            }
+        }
+
+        return valueOf(this.numerator().multiply(that.denominator()), this.denominator().multiply(that.numerator()));
+    }
+
+    /**
+     * @param n -- a nonnegative exponent
+     * @return this^n
+     */
+    public Rational pow(int n)
+    {
+        if (n < 0) throw new ArithmeticException("Negative exponent " + n);
+
+        Rational result = ONE;
+        for (int i = 0; i < n; i++) result = result.multiply(this);
+
+        return result;
+    }
+
+    @Override
+    public int compareTo(Rational that)
+    {
+        if (!this.isBig() && !that.isBig())
+        {
+            try
+            {
+                return Long.compare(Math.multiplyExact(this._numerator, that._denominator), Math.multiplyExact(that._numerator, this._denominator));
+            }
+            catch (ArithmeticException e)
+            {
+                // Overflow: exact below
+            }
+        }
+
+        return this.numerator().multiply(that.denominator()).compareTo(that.numerator().multiply(this.denominator()));
+    }
+
+    @Override
+    public double doubleValue()
+    {
+        if (!isBig()) return (double)_numerator / _denominator;
+
+        return new BigDecimal(_bigNumerator).divide(new BigDecimal(_bigDenominator), MathContext.DECIMAL64).doubleValue();
+    }
+
+    @Override
+    public float floatValue() { return (float)doubleValue(); }
+
+    @Override
+    public long longValue() { return (long)doubleValue(); }
+
+    @Override
+    public int intValue() { return (int)doubleValue(); }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) return true;
+
+        if (!(obj instanceof Rational)) return false;
+
+        Rational that = (Rational)obj;
+
+        // Lowest terms: equal values have equal representations
+        if (this.isBig() != that.isBig()) return false;
+
+        if (isBig()) return this._bigNumerator.equals(that._bigNumerator) && this._bigDenominator.equals(that._bigDenominator);
+
+        return this._numerator == that._numerator && this._denominator == that._denominator;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (isBig()) return 31 * _bigNumerator.hashCode() + _bigDenominator.hashCode();
+
+        return 31 * Long.hashCode(_numerator) + Long.hashCode(_denominator);
+    }
+
+    /**
+     * @return p/q (or p for integers) as in Mathematica
+     */
+    @Override
+    public String toString()
+    {
+        if (isInteger()) return numerator().toString();
+
+        return numerator() + "/" + denominator();
+    }
+}
@@ -0,0 +1,420 @@
+package math.numeric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+import math.expression.Differentiator;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.expression.IntervalEvaluator;
+import math.expression.PolynomialExpander;
+
+/**
+ * Isolates every real root of a function on a closed interval (rather than those a sampling happens to see):
+ *
+ *     polynomials:    Sturm sequences count the distinct roots of each subinterval exactly; bisection
+ *                     continues until each subinterval holds one root, which Brent's method polishes
+ *                     (on the square-free part, where every root is a sign change)
+ *
+ *     otherwise:      interval arithmetic excludes subintervals where f (its enclosure) cannot vanish;
+ *                     subintervals where f' cannot vanish are monotone (at most one root: a sign change
+ *                     polished by Brent's method); the remaining subintervals are bisected to a
+ *                     resolution at which tangencies (roots without a sign change) are recognized
+ *
+ * Multiplicities follow from the derivatives at each root (the gcd chain p, gcd(p, p'), ... of a polynomial).
+ */
+public class RootIsolator
+{
+    // The width (relative to the magnitude of x) of the smallest subinterval bisected
+    public static final double RESOLUTION = 1e-10;
+
+    // Largest |f| accepted at a root without a sign change (a tangency)
+    public static final double TANGENCY_TOLERANCE = 1e-9;
+
+    // Roots closer than this are one root
+    public static final double DISTINCT_TOLERANCE = 1e-7;
+
+    // Largest |f^(k)| at a root considered vanishing (for multiplicities)
+    public static final double MULTIPLICITY_TOLERANCE = 1e-6;
+    public static final int MAX_MULTIPLICITY = 8;
+
+    // The number of subintervals examined before isolation is abandoned (Tan[x], for example, has no enclosure)
+    public static final int MAX_SUBINTERVALS = 1 << 16;
+
+    private RootIsolator() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function of variable
+     * @param variable -- the name of the variable
+     * @param lower -- lower bound (infinite only for polynomials)
+     * @param upper -- upper bound (infinite only for polynomials)
+     * @return the roots of f in [lower, upper]
+     * @throws IllegalArgumentException if the roots of f cannot be isolated natively: f has no numeric evaluation,
+     *         the interval is infinite for a non-polynomial, or f has no informative enclosure
+     */
+    public static Roots isolate(Expr f, String variable, double lower, double upper)
+    {
+        if (lower > upper) return Roots.NONE;
+
+        double[] coefficients = PolynomialExpander.coefficients(f, variable);
+
+        if (coefficients != null) return isolate(new Polynomial(coefficients), lower, upper);
+
+        if (Double.isInfinite(lower) || Double.isInfinite(upper))
+        {
+            throw new IllegalArgumentException("Roots of |" + f + "| cannot be isolated on an infinite interval.");
+        }
+
+        return new Bisection(f, variable).isolate(lower, upper);
+    }
+
+    /**
+     * @return the width below which [a, b] is not bisected
+     */
+    private static double resolution(double a, double b)
+    {
+        return RESOLUTION * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+    }
+
+    /**
+     * @param f -- a function
+     * @param root -- a polished root of f
+     * @return the shortest decimal within the resolution of root at which |f| is no larger: 2 rather than
+     *         1.9999999999999998 (so that equal intersections computed by different routes are identical)
+     */
+    public static double simplest(DoubleUnaryOperator f, double root)
+    {
+        double residual = Math.abs(f.applyAsDouble(root));
+        double resolution = resolution(root, root);
+
+        double scale = 1;
+        for (int digits = 0; digits <= 12; digits++, scale *= 10)
+        {
+            double candidate = Math.rint(root * scale) / scale + 0.0; // + 0.0 normalizes -0.0
+
+            if (Math.abs(candidate - root) <= resolution && Math.abs(f.applyAsDouble(candidate)) <= residual) return candidate;
+        }
+
+        return root;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////// Polynomials ////////////////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param p -- a polynomial
+     * @param lower -- lower bound
+     * @param upper -- upper bound
+     * @return the roots of p in [lower, upper]; none for the zero polynomial (p = 0 everywhere has no isolated roots)
+     */
+    public static Roots isolate(Polynomial p, double lower, double upper)
+    {
+        if (p.degree() <= 0 || lower > upper) return Roots.NONE;
+
+        // Every root lies within the Cauchy bound
+        double bound = p.rootBound();
+        double a = Math.max(lower, -bound);
+        double b = Math.min(upper, bound);
+        if (a > b) return Roots.NONE;
+
+        // Sturm counts roots in (a, b]: widen the interval so a root at a is counted
+        double from = a - resolution(a, b);
+
+        Polynomial simple = p.squareFree();
+
+        List<Double> found = new ArrayList<Double>();
+        isolate(p, simple, from, p.signChanges(from), b, p.signChanges(b), found);
+
+        // Keep the roots in [lower, upper] (those found in the widened margin are on the bound)
+        double[] values = new double[found.size()];
+        int count = 0;
+        for (double root : found)
+        {
+            if (root < a - resolution(a, b)) continue;
+
+            double x = simplest(p::evaluate, Math.max(a, Math.min(b, root)));
+            if (count == 0 || x - values[count - 1] > DISTINCT_TOLERANCE) values[count++] = x;
+        }
+
+        double[] roots = Arrays.copyOf(values, count);
+        int[] multiplicities = new int[count];
+
+        Polynomial[] chain = gcdChain(p);
+        for (int i = 0; i < count; i++) multiplicities[i] = multiplicity(chain, roots[i]);
+
+        return new Roots(roots, multiplicities);
+    }
+
+    /**
+     * Bisect (a, b] until each subinterval contains one distinct root
+     */
+    private static void isolate(Polynomial p, Polynomial simple, double a, int va, double b, int vb, List<Double> found)
+    {
+        int count = va - vb;
+
+        if (count <= 0) return;
+
+        if (count == 1 || b - a <= resolution(a, b))
+        {
+            found.add(polish(p, simple, a, b));
+            return;
+        }
+
+        double mid = a + (b - a) / 2;
+        int vm = p.signChanges(mid);
+
+        isolate(p, simple, a, va, mid, vm, found);
+        isolate(p, simple, mid, vm, b, vb, found);
+    }
+
+    /**
+     * @return the root of p in the isolating interval (a, b]
+     */
+    private static double polish(Polynomial p, Polynomial simple, double a, double b)
+    {
+        double qa = simple.evaluate(a);
+        double qb = simple.evaluate(b);
+        if (qb == 0) return b;
+        if ((qa < 0) != (qb < 0)) return Brent.root(simple::evaluate, a, qa, b, qb);
+
+        double pa = p.evaluate(a);
+        double pb = p.evaluate(b);
+        if (pb == 0) return b;
+        if ((pa < 0) != (pb < 0)) return Brent.root(p::evaluate, a, pa, b, pb);
+
+        // Rounding in the square-free part: the root is the minimum of |p|
+        return GoldenSection.minimize(x -> Math.abs(p.evaluate(x)), a, b);
+    }
+
+    /**
+     * @return p, gcd(p, p'), gcd(g, g'), ... (while non-constant): a root of multiplicity m is a root of the first m
+     */
+    private static Polynomial[] gcdChain(Polynomial p)
+    {
+        List<Polynomial> chain = new ArrayList<Polynomial>();
+
+        Polynomial g = p;
+        while (g.degree() >= 1 && chain.size() < MAX_MULTIPLICITY)
+        {
+            chain.add(g);
+            g = g.gcd(g.derivative());
+        }
+
+        return chain.toArray(new Polynomial[0]);
+    }
+
+    private static int multiplicity(Polynomial[] chain, double root)
+    {
+        double neighborhood = Math.sqrt(RESOLUTION) * Math.max(1, Math.abs(root));
+
+        int m = 1;
+        while (m < chain.length && chain[m].countRoots(root - neighborhood, root + neighborhood) > 0) m++;
+
+        return m;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////// General (interval) functions /////////////////////////
+    /////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Interval bisection of a single function
+     */
+    private static class Bisection
+    {
+        private final Expr _f;
+        private final Expr _fPrime; // null if f has no derivative in-process
+        private final String _variable;
+        private final DoubleUnaryOperator _evaluator;
+
+        // Candidate roots in increasing order; a multiplicity of 0 is not yet known
+        private final List<double[]> _candidates;
+        private int _subintervals;
+
+        private Bisection(Expr f, String variable)
+        {
+            _f = f;
+            _variable = variable;
+            _evaluator = ExpressionCompiler.compile(f, variable);
+            _fPrime = derivative(f, variable, 1);
+            _candidates = new ArrayList<double[]>();
+            _subintervals = 0;
+        }
+
+        private Roots isolate(double lower, double upper)
+        {
+            bisect(lower, _evaluator.applyAsDouble(lower), upper, _evaluator.applyAsDouble(upper));
+
+            //
+            // Merge candidates of the same root (adjacent subintervals of a tangency, a root on a midpoint)
+            //
+            List<double[]> roots = new ArrayList<double[]>();
+            for (double[] candidate : _candidates)
+            {
+                double[] last = roots.isEmpty() ? null : roots.get(roots.size() - 1);
+
+                if (last == null || candidate[0] - last[0] > DISTINCT_TOLERANCE) roots.add(candidate);
+
+                else if (Math.abs(_evaluator.applyAsDouble(candidate[0])) < Math.abs(_evaluator.applyAsDouble(last[0])))
+                {
+                    roots.set(roots.size() - 1, candidate);
+                }
+            }
+
+            double[] values = new double[roots.size()];
+            int[] multiplicities = new int[roots.size()];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = simplest(_evaluator, roots.get(i)[0]);
+                multiplicities[i] = roots.get(i)[1] > 0 ? (int)roots.get(i)[1] : multiplicity(values[i]);
+            }
+
+            return new Roots(values, multiplicities);
+        }
+
+        private void bisect(double a, double fa, double b, double fb)
+        {
+            if (++_subintervals > MAX_SUBINTERVALS)
+            {
+                throw new IllegalArgumentException("Roots of |" + _f + "| could not be isolated within " + MAX_SUBINTERVALS + " subintervals.");
+            }
+
+            Interval x = Interval.of(a, b);
+            Interval y = IntervalEvaluator.evaluate(_f, _variable, x);
+
+            // f cannot vanish
+            if (!y.contains(0)) return;
+
+            // A bounded enclosure excludes poles: f is continuous on [a, b]
+            boolean continuous = !Double.isNaN(fa) && !Double.isNaN(fb) && !Double.isInfinite(y.width());
+
+            // Monotone: a root is a sign change (and simple unless f' vanishes on the boundary of the subinterval)
+            if (continuous && _fPrime != null && !IntervalEvaluator.evaluate(_fPrime, _variable, x).contains(0))
+            {
+                if (fa == 0) add(a, 0);
+                else if (fb == 0) add(b, 0);
+                else if ((fa < 0) != (fb < 0)) add(Brent.root(_evaluator, a, fa, b, fb), 1);
+
+                return;
+            }
+
+            if (b - a <= resolution(a, b))
+            {
+                leaf(a, fa, b, fb);
+                return;
+            }
+
+            double mid = a + (b - a) / 2;
+            double fm = _evaluator.applyAsDouble(mid);
+
+            bisect(a, fa, mid, fm);
+            bisect(mid, fm, b, fb);
+        }
+
+        /**
+         * A subinterval at the resolution in which f may vanish
+         */
+        private void leaf(double a, double fa, double b, double fb)
+        {
+            if (!Double.isNaN(fa) && !Double.isNaN(fb) && fa != 0 && fb != 0 && (fa < 0) != (fb < 0))
+            {
+                double root = Brent.root(_evaluator, a, fa, b, fb);
+
+                // A sign change across a pole (1/x) converges to the pole: |f| grows rather than vanishes
+                if (Math.abs(_evaluator.applyAsDouble(root)) <= Math.min(Math.abs(fa), Math.abs(fb))) add(root, 0);
+
+                return;
+            }
+
+            // The boundary of the real domain (Sqrt[x - 1] at 1): f vanishes at the edge, where it becomes complex
+            if (Double.isNaN(fa) != Double.isNaN(fb))
+            {
+                double edge = simplest(_evaluator, Double.isNaN(fa) ? domainEdge(b, a) : domainEdge(a, b));
+
+                if (Math.abs(_evaluator.applyAsDouble(edge)) <= TANGENCY_TOLERANCE)
+                {
+                    add(edge, 0);
+                    return;
+                }
+            }
+
+            // A tangency: the smallest |f| in the subinterval
+            double mid = a + (b - a) / 2;
+            double best = Double.NaN;
+            double bestY = Double.POSITIVE_INFINITY;
+            for (double t : new double[] { a, mid, b })
+            {
+                double y = Math.abs(t == a ? fa : t == b ? fb : _evaluator.applyAsDouble(t));
+
+                if (y < bestY)
+                {
+                    best = t;
+                    bestY = y;
+                }
+            }
+
+            if (bestY <= TANGENCY_TOLERANCE) add(best, 0);
+        }
+
+        /**
+         * @param real -- a point at which f is real
+         * @param complex -- a point at which f is not
+         * @return the point nearest complex at which f is real (to machine precision)
+         */
+        private double domainEdge(double real, double complex)
+        {
+            for (int iteration = 0; iteration < 200; iteration++)
+            {
+                double mid = real + (complex - real) / 2;
+
+                // No further representable midpoint
+                if (mid == real || mid == complex) break;
+
+                if (Double.isNaN(_evaluator.applyAsDouble(mid))) complex = mid;
+                else real = mid;
+            }
+
+            return real;
+        }
+
+        private void add(double root, int multiplicity)
+        {
+            _candidates.add(new double[] { root, multiplicity });
+        }
+
+        /**
+         * @return the order of the first derivative not vanishing at the root
+         */
+        private int multiplicity(double root)
+        {
+            for (int k = 1; k < MAX_MULTIPLICITY; k++)
+            {
+                Expr derivative = derivative(_f, _variable, k);
+                if (derivative == null) return k;
+
+                double value = derivative.evaluate(_variable, root);
+                if (Double.isNaN(value) || Math.abs(value) > MULTIPLICITY_TOLERANCE) return k;
+            }
+
+            return MAX_MULTIPLICITY;
+        }
+    }
+
+    /**
+     * @return the (memoized) kth derivative of f; null if f has no derivative in-process
+     */
+    private static Expr derivative(Expr f, String variable, int k)
+    {
+        try
+        {
+            return Differentiator.simplifiedDerivative(f, variable, k);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+}
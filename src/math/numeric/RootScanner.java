@@ -0,0 +1,140 @@
+package math.numeric;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Locates the real zeros of a continuous function on a closed interval by sampling:
+ *     (1) sign changes between adjacent samples are refined by bisection (discarding poles)
+ *     (2) local minima of |f| that do not change sign (tangencies) are refined by golden-section search
+ */
+public class RootScanner
+{
+    // Number of sampled subintervals per unit of x (bounded below by MIN_SAMPLES)
+    public static final int SAMPLES_PER_UNIT = 40;
+    public static final int MIN_SAMPLES = 400;
+
+    // Tolerances for accepting tangential roots and distinguishing nearby roots
+    public static final double TANGENCY_TOLERANCE = 1e-9;
+    public static final double DISTINCT_TOLERANCE = 1e-7;
+
+    private RootScanner() {} // To ensure no instances of this class
+
+    /**
+     * @param f -- a function continuous on [lower, upper]
+     * @param lower -- finite lower bound
+     * @param upper -- finite upper bound
+     * @return the sorted zeros of f in [lower, upper]
+     */
+    public static double[] roots(DoubleUnaryOperator f, double lower, double upper)
+    {
+        int n = Math.max(MIN_SAMPLES, (int)Math.ceil((upper - lower) * SAMPLES_PER_UNIT));
+
+        double[] xs = new double[n + 1];
+        double[] ys = new double[n + 1];
+        for (int i = 0; i <= n; i++)
+        {
+            xs[i] = i == n ? upper : lower + (upper - lower) * i / n;
+            ys[i] = f.applyAsDouble(xs[i]);
+        }
+
+        // An identically zero function has no isolated roots
+        boolean allZero = true;
+        for (double y : ys) allZero &= Math.abs(y) < TANGENCY_TOLERANCE;
+        if (allZero) return new double[0];
+
+        double[] found = new double[n + 1];
+        int count = 0;
+
+        for (int i = 0; i <= n; i++)
+        {
+            if (Double.isNaN(ys[i])) continue;
+
+            // Exact hit on a sample
+            if (ys[i] == 0)
+            {
+                found[count++] = xs[i];
+                continue;
+            }
+
+            // Sign change on [x_i, x_{i+1}]
+            if (i < n && !Double.isNaN(ys[i + 1]) && ys[i + 1] != 0 && (ys[i] < 0) != (ys[i + 1] < 0))
+            {
+                double x = bisect(f, xs[i], ys[i], xs[i + 1]);
+
+                // A sign change across a pole (Tan[x], 1/x) converges to the pole: |f| grows rather than vanishes
+                if (Math.abs(f.applyAsDouble(x)) <= Math.min(Math.abs(ys[i]), Math.abs(ys[i + 1]))) found[count++] = x;
+
+                continue;
+            }
+
+            // Tangency: a local minimum of |f| without a sign change
+            if (i > 0 && i < n && isLocalMinimum(ys[i - 1], ys[i], ys[i + 1]))
+            {
+                double x = GoldenSection.minimize(t -> Math.abs(f.applyAsDouble(t)), xs[i - 1], xs[i + 1]);
+
+                if (Math.abs(f.applyAsDouble(x)) < TANGENCY_TOLERANCE) found[count++] = x;
+            }
+        }
+
+        return distinct(Arrays.copyOf(found, count));
+    }
+
+    /**
+     * @return whether |y| is a local minimum of |prev|, |y|, |next| and all three share a sign
+     */
+    protected static boolean isLocalMinimum(double prev, double y, double next)
+    {
+        if (Double.isNaN(prev) || Double.isNaN(next)) return false;
+
+        if ((prev < 0) != (y < 0) || (next < 0) != (y < 0)) return false;
+
+        return Math.abs(y) <= Math.abs(prev) && Math.abs(y) <= Math.abs(next);
+    }
+
+    /**
+     * @param f -- a function with a sign change on [a, b]
+     * @param fa -- f(a)
+     * @return a zero of f in [a, b] to machine precision
+     */
+    protected static double bisect(DoubleUnaryOperator f, double a, double fa, double b)
+    {
+        for (int iteration = 0; iteration < 200; iteration++)
+        {
+            double mid = a + (b - a) / 2;
+
+            // No further representable midpoint
+            if (mid <= a || mid >= b) break;
+
+            double fm = f.applyAsDouble(mid);
+
+            if (fm == 0) return mid;
+
+            if ((fm < 0) == (fa < 0))
+            {
+                a = mid;
+                fa = fm;
+            }
+            else b = mid;
+        }
+
+        return a + (b - a) / 2;
+    }
+
+    /**
+     * @param sorted -- sorted values
+     * @return the values with near-duplicates (within DISTINCT_TOLERANCE) removed
+     */
+    protected static double[] distinct(double[] sorted)
+    {
+        Arrays.sort(sorted);
+
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            if (count == 0 || sorted[i] - sorted[count - 1] > DISTINCT_TOLERANCE) sorted[count++] = sorted[i];
+        }
+
+        return Arrays.copyOf(sorted, count);
+    }
+}
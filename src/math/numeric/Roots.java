@@ -0,0 +1,80 @@
+package math.numeric;
+
+import java.util.Arrays;
+
+/**
+ * The real roots of a function on an interval: sorted, distinct values, each with its multiplicity
+ * (1 for a simple root; 2 for a tangency such as x^2 at 0; etc.).
+ */
+public class Roots
+{
+    public static final Roots NONE = new Roots(new double[0], new int[0]);
+
+    private final double[] _values;
+    private final int[] _multiplicities;
+
+    /**
+     * @param values -- sorted, distinct roots
+     * @param multiplicities -- the multiplicity of each root
+     */
+    public Roots(double[] values, int[] multiplicities)
+    {
+        if (values.length != multiplicities.length) throw new IllegalArgumentException("Each root requires a multiplicity");
+
+        _values = values;
+        _multiplicities = multiplicities;
+    }
+
+    public int size() { return _values.length; }
+
+    public boolean isEmpty() { return _values.length == 0; }
+
+    public double get(int i) { return _values[i]; }
+
+    public int multiplicity(int i) { return _multiplicities[i]; }
+
+    /**
+     * @return the sorted roots
+     */
+    public double[] values() { return _values.clone(); }
+
+    /**
+     * @return the multiplicity of each root (parallel to values())
+     */
+    public int[] multiplicities() { return _multiplicities.clone(); }
+
+    /**
+     * @param lower -- lower bound
+     * @param upper -- upper bound
+     * @param tolerance -- roots within tolerance of an exclusive bound are on the bound
+     * @return the roots strictly within (lower, upper)
+     */
+    public Roots exclusive(double lower, double upper, double tolerance)
+    {
+        int from = 0;
+        while (from < _values.length && _values[from] <= lower + tolerance) from++;
+
+        int to = _values.length;
+        while (to > from && _values[to - 1] >= upper - tolerance) to--;
+
+        if (from == 0 && to == _values.length) return this;
+
+        return new Roots(Arrays.copyOfRange(_values, from, to), Arrays.copyOfRange(_multiplicities, from, to));
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("{");
+
+        for (int i = 0; i < _values.length; i++)
+        {
+            if (i > 0) sb.append(", ");
+
+            sb.append(_values[i]);
+            if (_multiplicities[i] > 1) sb.append(" (x").append(_multiplicities[i]).append(")");
+        }
+
+        return sb.append("}").toString();
+    }
+}
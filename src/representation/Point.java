@@ -1,6 +1,7 @@
 package representation;
 import java.io.Serializable;
 
+import math.numeric.Rational;
 import utilities.Utilities;
 
 public class Point implements Comparable<Point>, Serializable
@@ -8,6 +9,10 @@ public class Point implements Comparable<Point>, Serializable
 	private static final long serialVersionUID = -1459271016405991323L;
 	protected double x;
     protected double y;
+
+    // The exact rational coordinates; null if the point is only known approximately
+    protected Rational exactX;
+    protected Rational exactY;
     
     public Point()
     {
@@ -20,11 +25,24 @@ public class Point implements Comparable<Point>, Serializable
         x = argX;
         y = argY;
     }
+
+    /**
+     * An exact point: compared and hashed by its rational coordinates
+     */
+    public Point(Rational argX, Rational argY)
+    {
+        x = argX.doubleValue();
+        y = argY.doubleValue();
+        exactX = argX;
+        exactY = argY;
+    }
     
     public Point(Point that)
     {
         x = that.x;
         y = that.y;
+        exactX = that.exactX;
+        exactY = that.exactY;
     }
 
     public static final Point ORIGIN = new Point();
@@ -32,6 +50,10 @@ public class Point implements Comparable<Point>, Serializable
     public double getX() { return x; }
     public double getY() { return y; }
 
+    public boolean isExact() { return exactX != null; }
+    public Rational getExactX() { return exactX; }
+    public Rational getExactY() { return exactY; }
+
     //
     // Evaluating f(x)
     //
@@ -79,11 +101,14 @@ public class Point implements Comparable<Point>, Serializable
     	if (!(obj instanceof Point)) return false;
 
     	Point that = (Point)obj;
+
+    	// Exact points are equal only if they are the same point
+    	if (this.isExact() && that.isExact()) return this.exactX.equals(that.exactX) && this.exactY.equals(that.exactY);
     	
         return Utilities.equalDoubles(this.x, that.x) && Utilities.equalDoubles(this.y, that.y);
     }
     
-    public Point clone() { return new Point(this.x, this.y); }
+    public Point clone() { return new Point(this); }
 
     public boolean notEquals(Point that)
     {
@@ -93,6 +118,8 @@ public class Point implements Comparable<Point>, Serializable
     // Lexicographic Ordering
     public boolean lessThan(Point that)
     {
+        if (this.isExact() && that.isExact()) return exactOrdering(that) < 0;
+
         // Equal x, Compare y
         if (Utilities.equalDoubles(this.x, that.x)) return this.y < that.y;
 
@@ -109,6 +136,8 @@ public class Point implements Comparable<Point>, Serializable
     // Lexicographic Ordering
     public boolean greaterThan(Point that)
     {
+        if (this.isExact() && that.isExact()) return exactOrdering(that) > 0;
+
         // Equal x, Compare y
         if (Utilities.equalDoubles(this.x, that.x)) return this.y > that.y;
 
@@ -122,11 +151,23 @@ public class Point implements Comparable<Point>, Serializable
         return this.equals(that) || this.greaterThan(that);
     }
 
+    /**
+     * @param that -- an exact point
+     * @return the lexicographic ordering of this exact point and that
+     */
+    private int exactOrdering(Point that)
+    {
+        int comparison = this.exactX.compareTo(that.exactX);
+
+        return comparison != 0 ? comparison : this.exactY.compareTo(that.exactY);
+    }
+
     public String toString()
     {
         return "(" + this.x + ", " + this.y + ")";
     }
 
+    // Exact points equal as rationals have the same (nearest) double coordinates, so they hash alike
     @Override
     public int hashCode()
     {
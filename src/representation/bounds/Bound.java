@@ -2,6 +2,11 @@ package representation.bounds;
 
 import java.io.Serializable;
 import exceptions.DomainException;
+import exceptions.ParseException;
+import globals.Constants;
+import math.expression.Expr;
+import math.expression.ExpressionParser;
+import math.numeric.Rational;
 import representation.ComplexNumber;
 import representation.Point;
 import representation.bounds.functions.Domain;
@@ -38,6 +43,49 @@ public abstract class Bound implements Serializable
      */
     public abstract ComplexNumber evaluateAtPoint(double x);
 
+    /**
+     * @param xs -- x-values
+     * @return the real parts of f(x) for all x in xs
+     */
+    public double[] evaluateAll(double[] xs)
+    {
+        double[] ys = new double[xs.length];
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            ys[i] = evaluateAtPoint(xs[i]).getReal();
+        }
+
+        return ys;
+    }
+
+    /**
+     * @param x -- an exact x-value
+     * @return f(x) exactly; null if f is not known exactly (only polynomials with rational coefficients are)
+     */
+    public Rational evaluateExactly(Rational x) { return null; }
+
+    /**
+     * @param x -- an x-value
+     * @return the point (x, f(x)); exact if x is rational (an exact endpoint of the domain or recognized as a
+     *         simple rational) and f(x) can be evaluated exactly
+     */
+    public Point pointAt(double x)
+    {
+        if (Constants.EXACT_ARITHMETIC)
+        {
+            Rational exactX = _domain.exactEndpoint(x);
+
+            if (exactX == null) exactX = Rational.recognize(x);
+
+            Rational exactY = exactX == null ? null : evaluateExactly(exactX);
+
+            if (exactY != null) return new Point(exactX, exactY);
+        }
+
+        return new Point(x, evaluateAtPoint(x).getReal());
+    }
+
     /**
      * @param y
      * @return x = f(y)  OR y = f^{-1}(x) assuming we have a 1-1 piece of a function
@@ -170,6 +218,38 @@ public abstract class Bound implements Serializable
      */
     public abstract String toFullMathematicaString();
 
+    /**
+     * @return the expression tree of this function (for constructing queries)
+     * @throws IllegalArgumentException when the function is outside the supported syntax
+     */
+    public Expr toExpr()
+    {
+        try
+        {
+            return ExpressionParser.parse(toFullMathematicaString());
+        }
+        catch (ParseException e)
+        {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the expression tree of this function for a CAS query: the text as written (Expr.text) when the
+     *         function is outside the supported syntax (x!, f'[x]), so that a kernel still reads it
+     */
+    public Expr toQuery()
+    {
+        try
+        {
+            return toExpr();
+        }
+        catch (IllegalArgumentException e)
+        {
+            return Expr.text(toFullMathematicaString());
+        }
+    }
+
     /**
      * @return a string-based representation with identity-based information omitted (1 with multiplication and 0 with addition)
      */
@@ -1,7 +1,14 @@
 package representation.bounds.functions;
 
 import java.io.Serializable;
-
+import java.util.function.DoubleUnaryOperator;
+
+import math.analysis.inverses.NumericInverse;
+import math.analysis.monotonicity.SignMap;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.expression.PolynomialExpander;
+import math.numeric.Rational;
 import representation.ComplexNumber;
 import representation.Point;
 import representation.bounds.Bound;
@@ -33,6 +40,16 @@ public class BoundedFunction extends Bound implements Serializable
     // Variable: x or y
     protected VariableT _variable;
     public VariableT variableType() { return _variable; }
+
+    // The on-demand computed numeric inverse (for the function and domain it was computed for)
+    protected transient NumericInverse _numericInverse;
+
+    // The on-demand computed signs of the derivative (for the function and domain they were computed for)
+    protected transient SignMap _signMap;
+
+    // The on-demand recognized rational coefficients c_0, ..., c_n (for the function they were recognized for)
+    protected transient Expr _exactFunction;
+    protected transient Rational[] _exactCoefficients;
     
 
     /**
@@ -187,15 +204,174 @@ public class BoundedFunction extends Bound implements Serializable
     	return new ComplexNumber(_fType.evaluate(a, b, h, k, x));
     }
 
+    /**
+     * @param xs -- x-values
+     * @return f(x) for all x in xs
+     */
+    @Override
+    public double[] evaluateAll(double[] xs)
+    {
+        double[] ys = new double[xs.length];
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            ys[i] = _fType.evaluate(a, b, h, k, xs[i]);
+        }
+
+        return ys;
+    }
+
+    /**
+     * @return a compiled evaluator of this function (of its variable); null if the function is not compilable
+     */
+    public DoubleUnaryOperator evaluator()
+    {
+        try
+        {
+            return ExpressionCompiler.compile(toExpr(), _variable.toString());
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return the numeric inverse of this function on its (bounded) domain; null if this is not a function of x
+     *         on a bounded domain or is not compilable
+     */
+    public NumericInverse numericInverse()
+    {
+        if (_variable != VariableT.X || _domain == null || !_domain.isBounded()) return null;
+
+        Expr f;
+        try
+        {
+            f = toExpr();
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        double lower = _domain.getLowerBound();
+        double upper = _domain.getUpperBound();
+
+        // Recomputed only when the function (a transformation) or its domain has changed
+        if (_numericInverse == null || !_numericInverse.inverts(f, lower, upper)) _numericInverse = NumericInverse.of(f, lower, upper);
+
+        return _numericInverse;
+    }
+
+    /**
+     * @return the signs of the derivative of this function over its domain; null if this is not a function of x,
+     *         has no domain, or the zeros of its derivative are not found in-process
+     */
+    public SignMap signMap()
+    {
+        if (_variable != VariableT.X || _domain == null) return null;
+
+        Expr f;
+        try
+        {
+            f = toExpr();
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        double lower = _domain.getLowerBound();
+        double upper = _domain.getUpperBound();
+
+        // Recomputed only when the function (a transformation) or its domain has changed
+        if (_signMap == null || !_signMap.maps(f, lower, upper)) _signMap = SignMap.of(f, lower, upper);
+
+        return _signMap;
+    }
+
+    /**
+     * @return the coefficients c_0, ..., c_n of this function as a polynomial in x with rational coefficients; null
+     *         if this is not a polynomial of x or a coefficient is not recognized as a simple rational
+     */
+    public Rational[] exactCoefficients()
+    {
+        if (_variable != VariableT.X) return null;
+
+        Expr f;
+        try
+        {
+            f = toExpr();
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+
+        // Recognized again only when the function (a transformation) has changed
+        if (_exactFunction == f) return _exactCoefficients;
+
+        double[] coefficients = PolynomialExpander.coefficients(f, _variable.toString());
+
+        Rational[] exact = coefficients == null ? null : new Rational[coefficients.length];
+        for (int i = 0; exact != null && i < coefficients.length; i++)
+        {
+            exact[i] = Rational.recognize(coefficients[i]);
+
+            if (exact[i] == null) exact = null;
+        }
+
+        _exactFunction = f;
+        _exactCoefficients = exact;
+
+        return exact;
+    }
+
+    /**
+     * @param x -- an exact x-value
+     * @return f(x) exactly (by Horner's rule); null if this is not a polynomial with rational coefficients
+     */
+    @Override
+    public Rational evaluateExactly(Rational x)
+    {
+        Rational[] coefficients = exactCoefficients();
+
+        if (coefficients == null) return null;
+
+        Rational value = Rational.ZERO;
+        for (int i = coefficients.length - 1; i >= 0; i--)
+        {
+            value = value.multiply(x).add(coefficients[i]);
+        }
+
+        return value;
+    }
+
+    /**
+     * @return the inverse of this function evaluated numerically; null if there is no numeric inverse
+     */
     @Override
     public Bound inverse()
     {
-        throw new RuntimeException( "BoundedFunction.inverse is not implemented yet!" ) ;
+        NumericInverse inverse = numericInverse();
+
+        return inverse == null ? null : new InverseFunction(this, inverse);
     }
 
+    /**
+     * @param y -- a y-value
+     * @return x = f^{-1}(y) evaluated numerically on a 1-1 piece of this function; null if there is no numeric
+     *         inverse or y is not a value of this function
+     */
     @Override
     public ComplexNumber evaluateAtPointByY(double y)
     {
-        throw new RuntimeException( "BoundedFunction.evaluateAtPointByY is not implemented yet!" ) ;
+        NumericInverse inverse = numericInverse();
+
+        if (inverse == null) return null;
+
+        double x = inverse.evaluate(y);
+
+        return Double.isNaN(x) ? null : new ComplexNumber(x);
     }
 }
@@ -1,5 +1,7 @@
 package representation.bounds.functions;
 
+import java.util.function.DoubleUnaryOperator;
+
 import exceptions.DomainException;
 import representation.ComplexNumber;
 
@@ -53,6 +55,31 @@ public class DifferenceBoundedFunction extends BoundedFunction
     {
         return _left.evaluateAtPoint(x).subtract( _right.evaluateAtPoint(x) ) ;
     }
+
+    @Override
+    public double[] evaluateAll(double[] xs)
+    {
+        double[] ys = _left.evaluateAll(xs);
+        double[] right = _right.evaluateAll(xs);
+
+        for (int i = 0; i < ys.length; i++)
+        {
+            ys[i] -= right[i];
+        }
+
+        return ys;
+    }
+    
+    @Override
+    public DoubleUnaryOperator evaluator()
+    {
+        DoubleUnaryOperator left = _left.evaluator();
+        DoubleUnaryOperator right = _right.evaluator();
+
+        if (left == null || right == null) return null;
+
+        return x -> left.applyAsDouble(x) - right.applyAsDouble(x);
+    }
     
     @Override
     public boolean equals(Object obj)
@@ -1,5 +1,6 @@
 package representation.bounds.functions;
 
+import math.numeric.Rational;
 import utilities.Utilities;
 
 //
@@ -15,19 +16,41 @@ public class Domain
     private double _left;
     private double _right;
 
+    // The exact rational endpoints; null if an endpoint is only known approximately (or infinite)
+    private Rational _exactLeft;
+    private Rational _exactRight;
+
     public Domain()
     {
         _left = Double.NEGATIVE_INFINITY;
         _right = Double.POSITIVE_INFINITY;
     }
 
-    public Domain(Domain that) { this(that._left, that._right); }
+    public Domain(Domain that)
+    {
+        this(that._left, that._right);
+
+        _exactLeft = that._exactLeft;
+        _exactRight = that._exactRight;
+    }
+
     public Domain(double left, double right)
     {
         _left = left;
         _right = right;
     }
 
+    /**
+     * An exact domain: endpoints are compared without tolerance
+     */
+    public Domain(Rational left, Rational right)
+    {
+        this(left.doubleValue(), right.doubleValue());
+
+        _exactLeft = left;
+        _exactRight = right;
+    }
+
     /**
      * @param right -- an x-value
      */
@@ -36,6 +59,17 @@ public class Domain
         if (right < _left) System.err.println("Problem with new domain upper bound: (" + right + ") < (" + right + ")");
 
         this._right = right;        
+        this._exactRight = null;
+    }
+
+    /**
+     * @param right -- an exact x-value
+     */
+    public void setDomainUpperBound(Rational right)
+    {
+        setDomainUpperBound(right.doubleValue());
+
+        this._exactRight = right;
     }
 
     /**
@@ -57,6 +91,22 @@ public class Domain
     public double getLowerBound() { return _left; }
     public double getUpperBound() { return _right; }
 
+    public boolean isExact() { return _exactLeft != null && _exactRight != null; }
+    public Rational getExactLowerBound() { return _exactLeft; }
+    public Rational getExactUpperBound() { return _exactRight; }
+
+    /**
+     * @param x -- an x-value
+     * @return the exact endpoint whose value is x; null if x is not an exact endpoint
+     */
+    public Rational exactEndpoint(double x)
+    {
+        if (_exactLeft != null && x == _left) return _exactLeft;
+        if (_exactRight != null && x == _right) return _exactRight;
+
+        return null;
+    }
+
     public boolean withinBounds(double x)
     {
         //
@@ -97,22 +147,32 @@ public class Domain
         //
         // Check overlap
         //
-        double left = Double.NEGATIVE_INFINITY;
-        double right = Double.NEGATIVE_INFINITY;
+        Domain overlap = new Domain(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
         // Given: a------b    and c-----d
         // Intersections may look like: a----c--b-----d
         //
         // Left endpoint
-        if (this.withinBounds(that._left)) left = that._left;
-        else if (that.withinBounds(this._left)) left = this._left;
+        if (this.withinBounds(that._left)) overlap.setLeft(that._left, that._exactLeft);
+        else if (that.withinBounds(this._left)) overlap.setLeft(this._left, this._exactLeft);
 
         // Right endpoint
-        if (this.withinBounds(that._right)) right = that._right;
-        else if (that.withinBounds(this._right)) right = this._right;
+        if (this.withinBounds(that._right)) overlap.setRight(that._right, that._exactRight);
+        else if (that.withinBounds(this._right)) overlap.setRight(this._right, this._exactRight);
         
-        return new Domain(left, right);
+        return overlap;
     }
     
+    private void setLeft(double left, Rational exactLeft)
+    {
+        _left = left;
+        _exactLeft = exactLeft;
+    }
+
+    private void setRight(double right, Rational exactRight)
+    {
+        _right = right;
+        _exactRight = exactRight;
+    }
 
     /**
      * @param that -- a domain
@@ -216,6 +276,9 @@ public class Domain
 
         Domain that = (Domain) o;
 
+        // Exact domains are equal only if they are the same interval
+        if (this.isExact() && that.isExact()) return _exactLeft.equals(that._exactLeft) && _exactRight.equals(that._exactRight);
+
         return utilities.Utilities.equalDoubles(_left, that._left) &&
                 utilities.Utilities.equalDoubles(_right, that._right);
     }
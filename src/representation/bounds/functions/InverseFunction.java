@@ -0,0 +1,103 @@
+package representation.bounds.functions;
+
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+import math.analysis.inverses.NumericInverse;
+import representation.ComplexNumber;
+import representation.bounds.Bound;
+
+/**
+ * Represents the inverse of a function without a closed-form inverse: x = f^{-1}(y), evaluated numerically
+ * (on the leftmost monotone piece of f whose range contains y). The domain is the range of f.
+ *
+ * As the (symbolic) inverses computed by Inverses, the inverse is written as a function of x.
+ */
+public class InverseFunction extends BoundedFunction
+{
+    private static final long serialVersionUID = 1L;
+
+    // The inverted function (of x)
+    protected BoundedFunction _function;
+
+    protected transient NumericInverse _inverse;
+
+    public InverseFunction(BoundedFunction function, NumericInverse inverse)
+    {
+        super(FunctionT.COMPOSITE);
+
+        _function = function;
+        _inverse = inverse;
+
+        setDomain(inverse.minimum(), inverse.maximum());
+    }
+
+    /**
+     * To satisfy inheritance from the BoundedFunction class
+     */
+    public InverseFunction clone() { return new InverseFunction(_function, _inverse); }
+
+    /**
+     * @param y -- a value of f
+     * @return f^{-1}(y); NaN if y is not in the range of f
+     */
+    @Override
+    public ComplexNumber evaluateAtPoint(double y)
+    {
+        return new ComplexNumber(_inverse.evaluate(y));
+    }
+
+    @Override
+    public double[] evaluateAll(double[] ys)
+    {
+        return _inverse.evaluateAll(ys);
+    }
+
+    @Override
+    public DoubleUnaryOperator evaluator() { return _inverse::evaluate; }
+
+    /**
+     * @param x -- an x-value
+     * @return f(x): the inverse of this inverse
+     */
+    @Override
+    public ComplexNumber evaluateAtPointByY(double x)
+    {
+        return _function.evaluateAtPoint(x);
+    }
+
+    @Override
+    public Bound inverse() { return _function; }
+
+    /**
+     * @return InverseFunction[Function[{x}, f]][x]
+     */
+    @Override
+    public String toFullMathematicaString() { return "InverseFunction[Function[{x}, " + _function.toFullMathematicaString() + "]][x]"; }
+
+    @Override
+    public String toCompactLatexString() { return "(" + _function.toCompactLatexString() + ")^{-1}(x)"; }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj == null) return false;
+
+        if (!(obj instanceof InverseFunction)) return false;
+
+        InverseFunction that = (InverseFunction)obj;
+
+        if (!this._function.equals(that._function)) return false;
+
+        if (!this._domain.equals(that._domain)) return false;
+
+        return true;
+    }
+
+    /**
+     * Consistent with equals: the function and the domain are compared within epsilon (and have no hash codes of
+     * their own), so only the type of the function, which equal functions share, is hashed.
+     */
+    @Override
+    public int hashCode() { return Objects.hash(InverseFunction.class, _function.functionType()); }
+}
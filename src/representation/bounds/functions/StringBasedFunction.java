@@ -1,8 +1,15 @@
 package representation.bounds.functions;
 
+import java.util.function.DoubleUnaryOperator;
+
+import exceptions.ParseException;
 import math.analysis.inverses.Inverses;
+import math.analysis.inverses.NumericInverse;
 import math.analysis.monotonicity.Monotonicity;
-import math.external_interface.LocalMathematicaCasInterface;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import math.expression.ExpressionParser;
+import math.external_interface.CasInterface;
 import representation.ComplexNumber;
 import representation.bounds.Bound;
 import utilities.Utilities;
@@ -20,8 +27,18 @@ public class StringBasedFunction extends BoundedFunction
     protected String _transformed;
     public String getFunction() { return _transformed; }
 
+    // The expression trees of _baseFunction and _transformed (parsed on-demand; null if not yet parsed)
+    protected transient Expr _base;
+    protected transient Expr _expression;
+
     // The on-demand computed inverse
-    protected StringBasedFunction _inverse;
+    protected BoundedFunction _inverse;
+
+    // The on-demand compiled evaluator of _transformed (null if not yet compiled)
+    protected transient DoubleUnaryOperator _compiled;
+
+    // Whether _transformed is outside the compilable subset (so evaluation requires the CAS)
+    protected transient boolean _uncompilable;
 
     public StringBasedFunction(String f)
     {
@@ -29,7 +46,11 @@ public class StringBasedFunction extends BoundedFunction
 
         _baseFunction = f;
         _transformed = f;
+        _base = null;
+        _expression = null;
         _inverse = null;
+        _compiled = null;
+        _uncompilable = false;
 
         if (f.contains("y"))  _variable = VariableT.Y;
 
@@ -44,7 +65,7 @@ public class StringBasedFunction extends BoundedFunction
         if (isVertical())
         {
             // acquire the constant
-            double constant = Double.parseDouble(LocalMathematicaCasInterface.getInstance().query(getFunction()));
+            double constant = Double.parseDouble(CasInterface.getInstance().query(getFunction()));
 
             // Set it's domain as a single 'x'-value
             setDomain(constant, constant);
@@ -63,7 +84,7 @@ public class StringBasedFunction extends BoundedFunction
     {
         if (_variable != VariableT.Y) return false;
 
-        String result = LocalMathematicaCasInterface.getInstance().query(getFunction());
+        String result = CasInterface.getInstance().query(getFunction());
 
         return !result.contains(_variable.toString());
     }
@@ -75,7 +96,7 @@ public class StringBasedFunction extends BoundedFunction
 
         return getFunction().contains("=");
         
-//        String result = LocalMathematicaCasInterface.getInstance().query(getFunction());
+//        String result = CasInterface.getInstance().query(getFunction());
 //
 //        return !result.contains(_variable.toString());
     }
@@ -103,44 +124,101 @@ public class StringBasedFunction extends BoundedFunction
     /////////////////////////////////////////////////////////////////////////////////////////
 
     /**
-     * When a new parameter is specified, we perform a complete re-computation of the String 
-     * version of the transformed function
+     * When a new parameter is specified, we perform a complete re-computation of the
+     * transformed function: the transformations compose as nodes around the base expression tree
      * f(x) ---> a f(b(x - h)) + k
      */
     private void transform()
     {
-        // Reset / start with the base function
+        String previous = _transformed;
+
+        Expr base = baseExpression();
+
+        if (base == null) transformText();
+        else
+        {
+            Expr f = base;
+
+            //
+            // Apply the transformations inside and out.
+            //
+            // Horizontal f( b(x - h) )
+            if (!Utilities.equalDoubles(this.b, 1) || !Utilities.equalDoubles(this.h, 0))
+            {
+                Expr interior = Expr.minus(Expr.symbol("x"), Expr.number(Utilities.equalDoubles(this.h, 0) ? 0 : this.h));
+
+                f = f.substitute("x", Expr.times(Expr.number(Utilities.equalDoubles(this.b, 1) ? 1 : this.b), interior));
+            }
+
+            //
+            // Vertical:    a f(x) + k
+            //
+            if (!Utilities.equalDoubles(this.a, 1)) f = Expr.times(Expr.number(this.a), f);
+
+            if (!Utilities.equalDoubles(this.k, 0)) f = Expr.plus(f, Expr.number(this.k));
+
+            _expression = f;
+
+            // An identity transformation keeps the function as written
+            _transformed = f == base ? _baseFunction : f.toString();
+        }
+
+        // Since this function has been transformed, reset the inverse and the derivative signs (so they are recomputed on-demand).
+        _inverse = null;
+        _signMap = null;
+
+        // Recompile on-demand only if the function actually changed
+        if (!_transformed.equals(previous))
+        {
+            _compiled = null;
+            _uncompilable = false;
+        }
+    }
+
+    /**
+     * @return the expression tree of the base function; null if it is outside the supported syntax
+     */
+    private Expr baseExpression()
+    {
+        if (_base != null) return _base;
+
+        try
+        {
+            _base = ExpressionParser.parse(_baseFunction);
+        }
+        catch (ParseException e)
+        {
+            System.err.println("StringBasedFunction: transforming unparsed function |" + _baseFunction + "|");
+        }
+
+        return _base;
+    }
+
+    /**
+     * String-based construction of the transformed function (for base functions we cannot parse)
+     */
+    private void transformText()
+    {
         _transformed = _baseFunction;
+        _expression = null;
 
-        //
-        // Apply the transformations inside and out.
-        //
         // Horizontal f( b(x - h) )
         if (!Utilities.equalDoubles(this.b, 1) || !Utilities.equalDoubles(this.h, 0))
         {
-            String replacement = "";
+            String replacement = "x";
             String interior = "(x " + (this.h > 0 ? "-" : "+") + " " + Math.abs(this.h) + ")";
 
             if (!Utilities.equalDoubles(this.b, 1) && Utilities.equalDoubles(this.h, 0)) replacement = "(" + this.b + "x)";
             else if (Utilities.equalDoubles(this.b, 1) && !Utilities.equalDoubles(this.h, 0)) replacement = interior;
-            else if (!Utilities.equalDoubles(this.b, 1) && !Utilities.equalDoubles(this.h, 0))
-            {
-                replacement += "(" + this.b + interior + ")";
-            }
-            else replacement += "x";
+            else if (!Utilities.equalDoubles(this.b, 1) && !Utilities.equalDoubles(this.h, 0)) replacement = "(" + this.b + interior + ")";
 
             _transformed = _transformed.replaceAll("x", replacement);
         }
 
-        //
         // Vertical:    a f(x) + k
-        //
         if (!Utilities.equalDoubles(this.a, 1)) _transformed = this.a + " (" + _transformed + ")";
 
         if (!Utilities.equalDoubles(this.k, 0)) _transformed += (this.k > 0 ? "+" : "-") + Math.abs(this.k);
-
-        // Since this function has been transformed, reset the inverse (so it needs to be recomputed on-demand).
-        _inverse = null;
     }
 
     /**
@@ -202,33 +280,121 @@ public class StringBasedFunction extends BoundedFunction
     @Override
     public ComplexNumber evaluateAtPoint(double x)
     {
-        return LocalMathematicaCasInterface.getInstance().evaluateAtPoint(getFunction(), x);
+        DoubleUnaryOperator f = compiled();
+
+        if (f != null)
+        {
+            double y = f.applyAsDouble(x);
+
+            // Complex values (Sqrt[-1]) are left to the CAS
+            if (!Double.isNaN(y)) return new ComplexNumber(y);
+        }
+
+        return CasInterface.getInstance().evaluateAtPoint(getFunction(), x);
+    }
+
+    /**
+     * @param xs -- x-values
+     * @return f(x) for all x in xs: a compiled loop, with a single CAS query for the values the loop cannot compute
+     */
+    @Override
+    public double[] evaluateAll(double[] xs)
+    {
+        DoubleUnaryOperator f = compiled();
+
+        if (f == null) return CasInterface.getInstance().evaluateAll(getFunction(), xs);
+
+        double[] ys = new double[xs.length];
+        int undefined = 0;
+
+        for (int i = 0; i < xs.length; i++)
+        {
+            ys[i] = f.applyAsDouble(xs[i]);
+            if (Double.isNaN(ys[i])) undefined++;
+        }
+
+        // Complex values (Sqrt[-1]) are left to the CAS
+        if (undefined == 0) return ys;
+
+        double[] remaining = new double[undefined];
+        for (int i = 0, r = 0; i < xs.length; i++)
+        {
+            if (Double.isNaN(ys[i])) remaining[r++] = xs[i];
+        }
+
+        double[] values = CasInterface.getInstance().evaluateAll(getFunction(), remaining);
+        for (int i = 0, r = 0; i < xs.length; i++)
+        {
+            if (Double.isNaN(ys[i])) ys[i] = values[r++];
+        }
+
+        return ys;
+    }
+
+    /**
+     * @return the compiled evaluator of this function; null if the function is not compilable (x = 3, for example)
+     */
+    public DoubleUnaryOperator compiled()
+    {
+        if (_compiled != null || _uncompilable) return _compiled;
+
+        try
+        {
+            String variable = getFunction().contains("y") ? "y" : "x";
+
+            _compiled = ExpressionCompiler.compile(toExpr(), variable);
+        }
+        catch (IllegalArgumentException e)
+        {
+            _uncompilable = true;
+        }
+
+        return _compiled;
     }
 
     /**
      * @param y
-     * @return x = f(y)  OR y = f^{-1}(x) assuming we have a 1-1 piece of a function
+     * @return x = f(y)  OR y = f^{-1}(x) assuming we have a 1-1 piece of a function: evaluated numerically
+     *         in-process when possible, by the (symbolic) inverse otherwise. Beyond the range of this function
+     *         on its domain, without a symbolic inverse, the outermost monotone piece is continued.
+     *         null if no inverse reaches y (callers must check)
      */
     public ComplexNumber evaluateAtPointByY(double y)
     {
-        StringBasedFunction inverse = (StringBasedFunction)inverse();
+        ComplexNumber x = super.evaluateAtPointByY(y);
+
+        if (x != null) return x;
+
+        Bound inverse = inverse();
+
+        // The numeric inverse (already evaluated on the domain) is continued beyond it
+        if( inverse == null || inverse instanceof InverseFunction )
+        {
+            NumericInverse numeric = numericInverse();
+            double extrapolated = numeric == null ? Double.NaN : numeric.extrapolate(y);
 
-        if( inverse == null )
-        	return null ;
+            return Double.isNaN(extrapolated) ? null : new ComplexNumber(extrapolated);
+        }
         
-        return LocalMathematicaCasInterface.getInstance().evaluateAtPoint(inverse.getFunction(), y);
+        return inverse.evaluateAtPoint(y);
     }
 
     /**
-     * @return the inverse of this function (computed using Mathematica)
+     * @return the inverse of this function (computed using Mathematica); evaluated numerically if Mathematica
+     *         finds no inverse
      */
     @Override
     public Bound inverse()
     {
         if (_inverse == null) _inverse = Inverses.getInstance().computeInverse(this);
 
+        if (_inverse == null) _inverse = (BoundedFunction)super.inverse();
+
         return _inverse;
     }
+
+    @Override
+    public DoubleUnaryOperator evaluator() { return compiled(); }
     
     /**
      * @param function -- a String-based function
@@ -271,6 +437,17 @@ public class StringBasedFunction extends BoundedFunction
     @Override
     public String toFullMathematicaString() { return getFunction(); }
 
+    /**
+     * @return the expression tree of the transformed function (without reparsing it)
+     */
+    @Override
+    public Expr toExpr()
+    {
+        if (_expression == null) _expression = super.toExpr();
+
+        return _expression;
+    }
+
     /**
      * @return a string-based representation with identity-based information omitted (1 with multiplication and 0 with addition)
      */
@@ -186,10 +186,7 @@ public class TopBottom extends RegionBound implements Serializable
         //
         for (Bound bound : _bounds)
         {
-            double x = bound.rightBoundX();
-            double fx = bound.evaluateAtPoint(x).getReal();
-
-            points.add(new Point(x, fx));
+            points.add(bound.pointAt(bound.rightBoundX()));
         }
 
         return points;
@@ -233,10 +230,7 @@ public class TopBottom extends RegionBound implements Serializable
     //
     public Point acquireLeftBoundPoint()
     {
-        double x = _bounds.get(0).leftBoundX();
-        double fx = _bounds.get(0).evaluateAtPoint(x).getReal();
-
-        return new Point(x, fx);
+        return _bounds.get(0).pointAt(_bounds.get(0).leftBoundX());
     }
 
     //
@@ -244,10 +238,9 @@ public class TopBottom extends RegionBound implements Serializable
     //
     public Point acquireRightBoundPoint()
     {
-        double x = _bounds.get(_bounds.size() - 1).rightBoundX();
-        double fx = _bounds.get(_bounds.size() - 1).evaluateAtPoint(x).getReal();
+        Bound last = _bounds.get(_bounds.size() - 1);
 
-        return new Point(x, fx);
+        return last.pointAt(last.rightBoundX());
     }
 
     /**
@@ -2,6 +2,10 @@ package solver.area.main;
 
 import java.util.Vector;
 
+import globals.Constants;
+import math.external_interface.CasInterface;
+import math.external_interface.CasT;
+
 //
 // A aggregation class for options specified in the command-line
 //
@@ -44,6 +48,44 @@ public class Options
     //
     private boolean handleOption(int index)
     {
+        //
+        // Answer all CAS queries in-process (no Mathematica kernel)
+        //
+        if (_args[index].equalsIgnoreCase("-native") || _args[index].equalsIgnoreCase("-native-cas"))
+        {
+            Constants.CAS_BACKEND = CasT.NATIVE;
+            CasInterface.initialize(CasT.NATIVE);
+            return true;
+        }
+
+        //
+        // Answer Mathematica queries with a pool of kernels: -pool=4
+        //
+        if (_args[index].toLowerCase().startsWith("-pool="))
+        {
+            try
+            {
+                Constants.CAS_POOL_SIZE = Integer.parseInt(_args[index].substring("-pool=".length()));
+            }
+            catch (NumberFormatException e)
+            {
+                System.err.println("Expected a pool size: " + _args[index]);
+                return false;
+            }
+
+            CasInterface.initialize(Constants.CAS_BACKEND);
+            return true;
+        }
+
+        //
+        // Persist Mathematica query results across (possibly concurrent) runs: -store=/tmp/cas.store
+        //
+        if (_args[index].toLowerCase().startsWith("-store="))
+        {
+            Constants.CAS_STORE_PATH = _args[index].substring("-store=".length());
+            return true;
+        }
+
 //        //
 //        // Debug
 //        //
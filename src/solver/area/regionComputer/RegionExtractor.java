@@ -5,9 +5,10 @@ import java.util.Vector;
 
 import representation.bounds.functions.Domain;
 import representation.regions.Region;
-import solver.area.regionComputer.calculator.FacetCalculator;
+import solver.area.regionComputer.calculator.dcel.DoublyConnectedEdgeList;
 import solver.area.regionComputer.calculator.elements.MinimalCycle;
 import solver.area.regionComputer.calculator.elements.Primitive;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
 import solver.area.regionComputer.undirectedPlanarGraph.NodePointT;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarEdgeAnnotation;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
@@ -60,8 +61,13 @@ public abstract class RegionExtractor
     
     protected void buildRegionsFromGraph( PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph )
     {
-        PlanarGraph<NodePointT, PlanarEdgeAnnotation> copy = new PlanarGraph<>( graph ) ;
-        FacetCalculator<NodePointT, PlanarEdgeAnnotation> fCalculator = new FacetCalculator<>( copy ) ;
+        buildRegionsFromGraph( new CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation>( graph ) ) ;
+    }
+
+    protected void buildRegionsFromGraph( CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> graph )
+    {
+        // The faces of the graph in one pass over its half-edges (the graph is not modified)
+        DoublyConnectedEdgeList<NodePointT, PlanarEdgeAnnotation> fCalculator = new DoublyConnectedEdgeList<>( graph ) ;
 
         // (1) Perform facet identification on the planar graph
         _primitives = fCalculator.getPrimitives();
@@ -92,7 +98,7 @@ public abstract class RegionExtractor
      * @param primitives -- a set of facets describing the planar graph
      * Construct the corresponding set of Regions from the facets
      */
-    protected Vector<Region> convertFacetsToRegions(PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph)
+    protected Vector<Region> convertFacetsToRegions(CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> graph)
     {
         Vector<Region> regions = new Vector<Region>();
         for (MinimalCycle facet : _facets)
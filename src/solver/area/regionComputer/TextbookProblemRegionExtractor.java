@@ -29,8 +29,6 @@ public class TextbookProblemRegionExtractor extends RegionExtractor
         // (1) Based on this textbook problem, compute the planar graph 
         PlanarGraphBuilder builder = new PlanarGraphBuilder( _problem ) ;
 
-        builder.build() ;
-
-    	buildRegionsFromGraph( builder.getGraph() ) ;
+    	buildRegionsFromGraph( builder.buildCompact() ) ;
     }
 }
\ No newline at end of file
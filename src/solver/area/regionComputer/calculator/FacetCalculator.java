@@ -14,10 +14,11 @@ import solver.area.regionComputer.calculator.elements.Filament;
 import solver.area.regionComputer.calculator.elements.IsolatedPoint;
 import solver.area.regionComputer.calculator.elements.MinimalCycle;
 import solver.area.regionComputer.calculator.elements.Primitive;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.GeometricPredicates;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphEdge;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
-import utilities.Utilities;
 
 public class FacetCalculator<N, E>
 {
@@ -54,6 +55,15 @@ public class FacetCalculator<N, E>
 //        }
     }
 
+    /**
+     * Facet calculation removes edges and nodes as it proceeds: it traverses a (mutable) copy of a compact graph
+     * @param g -- a compact planar graph
+     */
+    public FacetCalculator(CompactPlanarGraph<N, E> g)
+    {
+        this(g.toPlanarGraph());
+    }
+
     
     /**
      * Main primitive calculator function
@@ -360,13 +370,8 @@ public class FacetCalculator<N, E>
     //
     private PlanarGraphPoint GetFirstNeighbor(PlanarGraphPoint currentPt)
     {
-        PlanarGraphPoint imaginaryPrevPt = new PlanarGraphPoint("", currentPt.getX(), currentPt.getY() + 1);
-        PlanarGraphPoint prevCurrVector = PlanarGraphPoint.MakeVector(imaginaryPrevPt, currentPt);
-
-        // We want the point that creates the smallest angle w.r.t. to the stdVector
-
-        // Information that will change along with the current candidate next point. 
-        double currentAngle = Math.toRadians(360); // This will be overwritten
+        // We want the point that creates the smallest counter-clockwise angle w.r.t. the downward vector
+        // (compared exactly with orientation predicates; no trigonometry)
         PlanarGraphPoint currentNextPoint = null;
 
         // Index of the current point so we can get its neighbors.
@@ -377,39 +382,15 @@ public class FacetCalculator<N, E>
             int neighborIndex = graph.indexOf(edge.getTarget());
             PlanarGraphPoint neighbor = graph.getNodes().get(neighborIndex).getPoint();
 
-            // Create a vector of the current point with it's neighbor
-            PlanarGraphPoint currentNeighborVector = PlanarGraphPoint.MakeVector(currentPt, neighbor);
-
-            // Cross product of the two vectors to determine if we have an angle that is < 180 or > 180.
-            double crossProduct = PlanarGraphPoint.CrossProduct(prevCurrVector, currentNeighborVector);
-
-            double angleMeasure = PlanarGraphPoint.AngleBetween(prevCurrVector, currentNeighborVector);
-
-            // if (GeometryTutorLib.Utilities.GreaterThan(crossProduct, 0)) angleMeasure = angleMeasure;
-            if (Utilities.looseEqualDoubles(crossProduct, 0)) angleMeasure = Math.toRadians(180);
-            
-            else if (crossProduct < 0) angleMeasure = Math.toRadians(360) - angleMeasure;
-
-            // If there are have the same angle, choose the one farther away (it is due to two connections)
-            // So these points are collinear with a segment, but indistinguishable with two arcs.
-            if (Utilities.looseEqualDoubles(angleMeasure, currentAngle))
-            {
-                double currentDist = PlanarGraphPoint.calcDistance(currentPt, currentNextPoint);
-                double candDist = PlanarGraphPoint.calcDistance(currentPt, neighbor);
-
-                // Take the farthest point.
-                if (candDist > currentDist)
-                {
-                    currentAngle = angleMeasure;
-                    currentNextPoint = neighbor;
-                }
-            }
-            // if angleMeasure is smaller than currentAngle, neighbor becomes the currentNextPoint
-            else if (angleMeasure < currentAngle)
+            if (currentNextPoint == null)
             {
-                currentAngle = angleMeasure;
                 currentNextPoint = neighbor;
+                continue;
             }
+
+            int comparison = GeometricPredicates.compareCounterClockwise(currentPt, 0, -1, neighbor, currentNextPoint);
+
+            if (IsTighter(comparison, currentPt, neighbor, currentNextPoint)) currentNextPoint = neighbor;
         }
 
         return currentNextPoint;
@@ -421,12 +402,8 @@ public class FacetCalculator<N, E>
     //
     private PlanarGraphPoint GetTightestCounterClockwiseNeighbor(PlanarGraphPoint prevPt, PlanarGraphPoint currentPt)
     {
-        PlanarGraphPoint prevCurrVector = PlanarGraphPoint.MakeVector(prevPt, currentPt);
-
-        // We want the point that creates the smallest angle w.r.t. to the stdVector
-
-        // Information that will change along with the current candidate next point. 
-        double currentAngle = Math.toRadians(360); // This will be overwritten
+        // We want the point that creates the smallest clockwise angle w.r.t. the vector back to the previous point
+        // (compared exactly with orientation predicates; no trigonometry)
         PlanarGraphPoint currentNextPoint = null;
 
         // Index of the current point so we can get its neighbors.
@@ -441,58 +418,31 @@ public class FacetCalculator<N, E>
             {
                 PlanarGraphPoint neighbor = graph.getNodes().get(neighborIndex).getPoint();
 
-                // Create a vector of the current point with it's neighbor
-                PlanarGraphPoint currentNeighborVector = PlanarGraphPoint.MakeVector(currentPt, neighbor);
-
-                // Cross product of the two vectors to determine if we have an angle that is < 180 or > 180.
-                double crossProduct = PlanarGraphPoint.CrossProduct(prevCurrVector, currentNeighborVector);
-
-                double angleMeasure = PlanarGraphPoint.AngleBetween(PlanarGraphPoint.GetOppositeVector(prevCurrVector), currentNeighborVector);
-
-                // if (GeometryTutorLib.Utilities.GreaterThan(crossProduct, 0)) angleMeasure = angleMeasure;
-                if (Utilities.looseEqualDoubles(crossProduct, 0))
+                if (currentNextPoint == null)
                 {
-                      // TODO: Dr. Alvin needs to look at this
-                      //commenting this out to see if it will work without it - Drew
-//                    // Circles create a legitimate situation where we want to walk back in the same 'collinear' path.
-//                    if (Point.OppositeVectors(prevCurrVector, currentNeighborVector))
-//                    {
-//                        ExceptionHandler.throwException(new NotImplementedException());
-//                    }
-//                    else 
-//                    {
-//                        angleMeasure = 180;
-//                    }
-                    angleMeasure = Math.toRadians(180);
-                }
-                
-                // if crossProduct < 0, then we want the angle measure going in the opposite direction
-                else if (crossProduct < 0) angleMeasure = Math.toRadians(360) - angleMeasure;
-
-                // If there are have the same angle, choose the one farther away (it is due to two connections)
-                // So these points are collinear with a segment, but indistinguishable with two arcs.
-                if (Utilities.looseEqualDoubles(angleMeasure, currentAngle))
-                {
-                    double currentDist = PlanarGraphPoint.calcDistance(currentPt, currentNextPoint);
-                    double candDist = PlanarGraphPoint.calcDistance(currentPt, neighbor);
-
-                    // Take the farthest point.
-                    if (candDist > currentDist)
-                    {
-                        currentAngle = angleMeasure;
-                        currentNextPoint = neighbor;
-                    }
-                }
-                // if angleMeasure is smaller than currentAngle, neighbor becomes the currentNextPoint
-                else if (angleMeasure < currentAngle)
-                {
-                    currentAngle = angleMeasure;
                     currentNextPoint = neighbor;
+                    continue;
                 }
+
+                int comparison = GeometricPredicates.compareClockwise(currentPt, prevPt, neighbor, currentNextPoint);
+
+                if (IsTighter(comparison, currentPt, neighbor, currentNextPoint)) currentNextPoint = neighbor;
             }
         }
 
         return currentNextPoint;
     }
 
+    //
+    // A candidate neighbor replaces the current one if its angle is smaller.
+    // If they have the same direction, choose the one farther away (it is due to two connections)
+    // So these points are collinear with a segment, but indistinguishable with two arcs.
+    //
+    private boolean IsTighter(int comparison, PlanarGraphPoint currentPt, PlanarGraphPoint candidate, PlanarGraphPoint currentNextPoint)
+    {
+        if (comparison != 0) return comparison < 0;
+
+        return PlanarGraphPoint.calcDistance(currentPt, candidate) > PlanarGraphPoint.calcDistance(currentPt, currentNextPoint);
+    }
+
 }
@@ -8,63 +8,63 @@ You should have received a copy of the GNU Affero General Public License along w
 
 package solver.area.regionComputer.calculator;
 
-import java.util.ArrayList;
-
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
 
 /**
+ * Points in lexicographic order (PlanarGraphPoint.LexicographicOrdering) with O(log n) expected insertion,
+ * minimum, removal of any point, and access by position.
+ *
+ * The points are kept in a treap: a binary search tree by point that is a heap by (pseudo-random) priority,
+ * hence balanced in expectation. Each node records the size of its subtree for access by position.
+ *
  * @author Drew W
  *
  */
 public class LexicographicPoints
 {
-    
-    protected ArrayList<PlanarGraphPoint> ordered = null;
+    private static class Node
+    {
+        PlanarGraphPoint point;
+        long priority;
+        int size;
+        Node left;
+        Node right;
+
+        Node(PlanarGraphPoint pt, long p)
+        {
+            point = pt;
+            priority = p;
+            size = 1;
+        }
+    }
+
+    private Node root = null;
+
+    // Xorshift state for the priorities (deterministic for reproducible shapes)
+    private long seed = 0x2545F4914F6CDD1DL;
 
     /**
-     * Creates the Min-heap array and places the smallest value possible in array position 0.
+     * Creates an empty list.
      */
     public LexicographicPoints()
     {
-        ordered = new ArrayList<PlanarGraphPoint>();
+        root = null;
     }
     
     /**
      * @return true if the list is empty
      */
-    public boolean isEmpty() { return ordered.isEmpty(); }
+    public boolean isEmpty() { return root == null; }
     
     /**
-     * Inserts an element to the list.
+     * Inserts an element to the list (before any equal elements).
      * @param thatNode  the Point to insert into the list
      */
     private void insert(PlanarGraphPoint thatNode)
     {
+        Node[] parts = split(root, thatNode);
 
-        boolean added = false; // Drew added this
-        
-        // Empty List: add to the beginning.
-        if (ordered.isEmpty())
-        {
-            ordered.add(thatNode);
-            return;
-        }
-        
-        // General Insertion
-        for (int i = 0; i < ordered.size(); i++)
-        {
-            if (PlanarGraphPoint.LexicographicOrdering(thatNode, ordered.get(i)) <= 0 )
-            {
-                ordered.add(i, thatNode);
-                added = true;
-                break;
-            }
-        }
-        // Add node to the end of the heap
-        if (added == false)
-        {
-            ordered.add(thatNode);
-        }
+        root = merge(merge(parts[0], new Node(thatNode, nextPriority())), parts[1]);
     }
     
     public void add(PlanarGraphPoint pt)
@@ -73,17 +73,16 @@ public class LexicographicPoints
     }
     
     /**
-     * Removes the node at the first position: O(log n) due to Heapify
+     * Removes the node at the first position: O(log n)
      * @return the node at the first position
      */
     public PlanarGraphPoint extractMin()
     {
         // return null for an empty list
-        if (ordered.isEmpty()) return null;
+        if (root == null) return null;
         
-        // else return the first position
-        PlanarGraphPoint min = ordered.get(0);
-        ordered.remove(0);
+        PlanarGraphPoint min = get(0);
+        removeAt(0);
         return min;
     }
     
@@ -93,17 +92,32 @@ public class LexicographicPoints
      */
     public PlanarGraphPoint peekMin()
     {
-        return ordered.get(0);
+        return get(0);
     }
     
     /**
-     * Return the node at the given index
+     * Return the node at the given index: O(log n)
      * @param index
      * @return
      */
     public PlanarGraphPoint get(int index)
     {
-        return ordered.get(index);
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+        Node node = root;
+        while (true)
+        {
+            int leftSize = size(node.left);
+
+            if (index == leftSize) return node.point;
+
+            if (index < leftSize) node = node.left;
+            else
+            {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
     }
     
     /**
@@ -112,7 +126,7 @@ public class LexicographicPoints
      */
     public int size()
     {
-        return ordered.size();
+        return size(root);
     }
     
     /**
@@ -121,16 +135,151 @@ public class LexicographicPoints
      */
     public PlanarGraphPoint peekNext()
     {
-        return ordered.get(1);
+        return get(1);
     }
     
     /**
-     * Remove a specific point from the list.
+     * Remove a specific point from the list: O(log n)
      * @param pt    the point to be removed
      */
     public void remove(PlanarGraphPoint pt)
     {
-        ordered.remove(pt);
+        int index = indexOf(pt);
+
+        if (index != -1) removeAt(index);
+    }
+
+    /**
+     * @param pt    the given point
+     * @return      the position of a point equal to the given point; -1 if there is none
+     */
+    private int indexOf(PlanarGraphPoint pt)
+    {
+        // Search the tree
+        int index = 0;
+        Node node = root;
+        while (node != null)
+        {
+            int comparison = PlanarGraphPoint.LexicographicOrdering(pt, node.point);
+
+            if (comparison == 0) return index + size(node.left);
+
+            if (comparison < 0) node = node.left;
+            else
+            {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        // Epsilon-equality is not transitive: an equal point may be off the search path (nearly equal
+        // x-coordinates with distinct y-coordinates); search all points
+        return scan(root, pt, 0);
+    }
+
+    /**
+     * @return the position of the first point in the treap (at the given offset) equal to pt; -1 if there is none
+     */
+    private static int scan(Node node, PlanarGraphPoint pt, int offset)
+    {
+        if (node == null) return -1;
+
+        int index = scan(node.left, pt, offset);
+        if (index != -1) return index;
+
+        index = offset + size(node.left);
+        if (pt.equals(node.point)) return index;
+
+        return scan(node.right, pt, index + 1);
+    }
+
+    /**
+     * Remove the point at the given position.
+     */
+    private void removeAt(int index)
+    {
+        Node[] before = splitAt(root, index);
+        Node[] after = splitAt(before[1], 1);
+
+        root = merge(before[0], after[1]);
+    }
+
+    private long nextPriority()
+    {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+
+        return seed;
+    }
+
+    private static int size(Node node) { return node == null ? 0 : node.size; }
+
+    private static Node update(Node node)
+    {
+        node.size = 1 + size(node.left) + size(node.right);
+
+        return node;
+    }
+
+    /**
+     * @return the (root of the) treap of the points of both treaps (the points of a precede those of b)
+     */
+    private static Node merge(Node a, Node b)
+    {
+        if (a == null) return b;
+        if (b == null) return a;
+
+        if (a.priority > b.priority)
+        {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    /**
+     * @return the treaps of the points preceding pt and of the remaining points
+     */
+    private static Node[] split(Node node, PlanarGraphPoint pt)
+    {
+        if (node == null) return new Node[] { null, null };
+
+        if (PlanarGraphPoint.LexicographicOrdering(pt, node.point) > 0)
+        {
+            Node[] parts = split(node.right, pt);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+
+        Node[] parts = split(node.left, pt);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    /**
+     * @return the treaps of the first index points and of the remaining points
+     */
+    private static Node[] splitAt(Node node, int index)
+    {
+        if (node == null) return new Node[] { null, null };
+
+        if (size(node.left) < index)
+        {
+            Node[] parts = splitAt(node.right, index - size(node.left) - 1);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+
+        Node[] parts = splitAt(node.left, index);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
     }
     
     /**
@@ -139,15 +288,21 @@ public class LexicographicPoints
      */
     public String toString()
     {
-        String retS = "";
+        StringBuilder retS = new StringBuilder();
         
-        // traverse the array and dump the (key, data) pairs
-        for (int i = 0; i < ordered.size(); i++)
-        {
-            retS += "(" + i + ": " + ordered.get(i) + ") "; 
-        }
+        // traverse the tree in order and dump the (key, data) pairs
+        toString(root, 0, retS);
         
-        return retS;
+        return retS.toString();
     }
 
+    private static int toString(Node node, int index, StringBuilder retS)
+    {
+        if (node == null) return index;
+
+        index = toString(node.left, index, retS);
+        retS.append("(" + index + ": " + node.point + ") ");
+
+        return toString(node.right, index + 1, retS);
+    }
 }
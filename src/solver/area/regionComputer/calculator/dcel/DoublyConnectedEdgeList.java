@@ -0,0 +1,433 @@
+/*
+iTutor  an intelligent tutor of mathematics
+Copyright (C) 2016-2017 C. Alvin and Bradley University CS Students (list of students)
+This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License for more details.
+You should have received a copy of the GNU Affero General Public License along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package solver.area.regionComputer.calculator.dcel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+import solver.area.regionComputer.calculator.elements.Filament;
+import solver.area.regionComputer.calculator.elements.IsolatedPoint;
+import solver.area.regionComputer.calculator.elements.MinimalCycle;
+import solver.area.regionComputer.calculator.elements.Primitive;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.GeometricPredicates;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
+
+/**
+ * A doubly-connected edge list (half-edge structure) of a planar graph: each undirected edge is a pair of
+ * half-edges (twins), the half-edges leaving each vertex are sorted counter-clockwise once, and
+ *
+ *     next(u -> v) = the half-edge leaving v immediately clockwise of its twin (v -> u)
+ *
+ * traces the boundary of the face to the left of each half-edge. Every face is enumerated in one pass over the
+ * half-edges: O(E log E) overall, without modifying the graph.
+ *
+ * The primitives agree with FacetCalculator (a minimal cycle basis):
+ *     minimal cycles:  the boundaries of the bounded faces, split into simple loops at repeated vertices
+ *                      (a face around a filament or an inner component visits a vertex twice); the
+ *                      counter-clockwise loops, starting at their lexicographically least point
+ *     filaments:       maximal paths of edges with the same face on both sides (not on any cycle)
+ *     isolated points: vertices without edges
+ */
+public class DoublyConnectedEdgeList<N, E>
+{
+    // Vertices: the points of the graph nodes (by node index)
+    private final PlanarGraphPoint[] _points;
+
+    // Half-edges (grouped by origin: those leaving vertex v are _offsets[v], ..., _offsets[v + 1] - 1,
+    // counter-clockwise from the positive x-axis)
+    private final int[] _offsets;
+    private final int[] _origin;
+    private final int[] _target;
+    private final int[] _twin;
+    private final int[] _next;
+    private final int[] _face;
+
+    private final int _faces;
+
+    // The list of minimal cycles, filaments, and isolated points.
+    protected ArrayList<Primitive> _primitives;
+
+    /**
+     * @param graph -- a planar graph (not modified)
+     */
+    public DoublyConnectedEdgeList(PlanarGraph<N, E> graph)
+    {
+        this(new CompactPlanarGraph<N, E>(graph));
+    }
+
+    /**
+     * @param graph -- a compact planar graph
+     */
+    public DoublyConnectedEdgeList(CompactPlanarGraph<N, E> graph)
+    {
+        int n = graph.size();
+
+        _points = new PlanarGraphPoint[n];
+        for (int v = 0; v < n; v++)
+        {
+            _points[v] = graph.getPoint(v);
+        }
+
+        //
+        // Half-edges: the edges of each node (in the rows of the graph), sorted counter-clockwise
+        //
+        _offsets = new int[n + 1];
+        for (int v = 0; v <= n; v++)
+        {
+            _offsets[v] = graph.offset(v);
+        }
+
+        int m = _offsets[n];
+        _origin = new int[m];
+        _target = new int[m];
+        for (int v = 0; v < n; v++)
+        {
+            Integer[] outgoing = new Integer[graph.degree(v)];
+            for (int i = 0; i < outgoing.length; i++)
+            {
+                outgoing[i] = graph.target(_offsets[v] + i);
+            }
+
+            Arrays.sort(outgoing, counterClockwise(_points[v]));
+
+            for (int i = 0; i < outgoing.length; i++)
+            {
+                _origin[_offsets[v] + i] = v;
+                _target[_offsets[v] + i] = outgoing[i];
+            }
+        }
+
+        //
+        // Twins (edges are undirected: each half-edge has one) and the face cycles
+        //
+        _twin = new int[m];
+        for (int h = 0; h < m; h++)
+        {
+            _twin[h] = find(_target[h], _origin[h]);
+
+            if (_twin[h] == -1) throw new IllegalArgumentException("Directed edge " + _points[_origin[h]] + " -> " + _points[_target[h]]);
+        }
+
+        _next = new int[m];
+        for (int h = 0; h < m; h++)
+        {
+            int twin = _twin[h];
+            int v = _origin[twin];
+
+            _next[h] = twin == _offsets[v] ? _offsets[v + 1] - 1 : twin - 1;
+        }
+
+        _face = new int[m];
+        Arrays.fill(_face, -1);
+
+        int faces = 0;
+        for (int h = 0; h < m; h++)
+        {
+            if (_face[h] != -1) continue;
+
+            for (int e = h; _face[e] == -1; e = _next[e]) _face[e] = faces;
+
+            faces++;
+        }
+        _faces = faces;
+    }
+
+    /**
+     * @return the half-edge from vertex v to vertex w; -1 if there is none
+     */
+    private int find(int v, int w)
+    {
+        for (int h = _offsets[v]; h < _offsets[v + 1]; h++)
+        {
+            if (_target[h] == w) return h;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the order of the neighbors of the center counter-clockwise from the positive x-axis, compared
+     *         exactly with orientation predicates. Neighbors in the same direction (overlapping chords of curves)
+     *         are ordered as if the shorter chords bent clockwise from the longer ones seen from their upper (or
+     *         right) endpoint: nearer first in the upper half-plane, farther first in the lower one. Seen from
+     *         the other endpoint the direction is reversed, so the order is consistent at both ends (planar).
+     */
+    private Comparator<Integer> counterClockwise(PlanarGraphPoint center)
+    {
+        return (a, b) ->
+        {
+            int comparison = GeometricPredicates.compareCounterClockwise(center, 1, 0, _points[a], _points[b]);
+
+            if (comparison != 0) return comparison;
+
+            comparison = Double.compare(PlanarGraphPoint.calcDistance(center, _points[a]), PlanarGraphPoint.calcDistance(center, _points[b]));
+
+            return isUpper(center, _points[a]) ? comparison : -comparison;
+        };
+    }
+
+    /**
+     * @return whether the direction from the center to the point has an angle in [0, Pi)
+     */
+    private static boolean isUpper(PlanarGraphPoint center, PlanarGraphPoint pt)
+    {
+        return pt.getY() > center.getY() || (pt.getY() == center.getY() && pt.getX() > center.getX());
+    }
+
+    public int numVertices() { return _points.length; }
+
+    public int numHalfEdges() { return _origin.length; }
+
+    public int numFaces() { return _faces; }
+
+    public PlanarGraphPoint getPoint(int v) { return _points[v]; }
+
+    public int origin(int h) { return _origin[h]; }
+
+    public int target(int h) { return _target[h]; }
+
+    public int twin(int h) { return _twin[h]; }
+
+    public int next(int h) { return _next[h]; }
+
+    public int face(int h) { return _face[h]; }
+
+    /**
+     * @return whether both sides of the edge of the half-edge are the same face (the edge is on no cycle)
+     */
+    public boolean isBridge(int h) { return _face[h] == _face[_twin[h]]; }
+
+    /**
+     * @return the minimal cycles, then the filaments, then the isolated points of the graph
+     */
+    public ArrayList<Primitive> getPrimitives()
+    {
+        if (_primitives == null)
+        {
+            _primitives = new ArrayList<Primitive>();
+
+            _primitives.addAll(getMinimalCycles());
+            extractFilaments();
+            extractIsolatedPoints();
+        }
+
+        return _primitives;
+    }
+
+    /**
+     * @return the minimal cycles (counter-clockwise from their lexicographically least point), in lexicographic
+     *         order of their first two points
+     */
+    public ArrayList<MinimalCycle> getMinimalCycles()
+    {
+        ArrayList<int[]> loops = new ArrayList<int[]>();
+
+        // The position of each vertex on the stack of the current walk (or -1)
+        int[] position = new int[_points.length];
+        Arrays.fill(position, -1);
+
+        boolean[] visited = new boolean[_origin.length];
+        for (int h = 0; h < _origin.length; h++)
+        {
+            if (visited[h]) continue;
+
+            ArrayList<Integer> walk = new ArrayList<Integer>();
+            for (int e = h; !visited[e]; e = _next[e])
+            {
+                visited[e] = true;
+                walk.add(_origin[e]);
+            }
+
+            split(walk, position, loops);
+        }
+
+        // The order of their first points (then the direction to the second)
+        Collections.sort(loops, (a, b) ->
+        {
+            int comparison = PlanarGraphPoint.LexicographicOrdering(_points[a[0]], _points[b[0]]);
+
+            return comparison != 0 ? comparison : PlanarGraphPoint.LexicographicOrdering(_points[a[1]], _points[b[1]]);
+        });
+
+        ArrayList<MinimalCycle> cycles = new ArrayList<MinimalCycle>();
+        for (int[] loop : loops)
+        {
+            MinimalCycle cycle = new MinimalCycle();
+            for (int v : loop) cycle.add(_points[v]);
+
+            cycles.add(cycle);
+        }
+
+        return cycles;
+    }
+
+    /**
+     * Split a closed walk (of vertices) into simple loops at repeated vertices; add the counter-clockwise loops
+     * (rotated to start at their lexicographically least point) to the list
+     * @param position -- -1 for each vertex (restored on return)
+     */
+    private void split(ArrayList<Integer> walk, int[] position, ArrayList<int[]> loops)
+    {
+        int[] stack = new int[walk.size()];
+        int size = 0;
+
+        for (int v : walk)
+        {
+            if (position[v] == -1)
+            {
+                position[v] = size;
+                stack[size++] = v;
+                continue;
+            }
+
+            // Close the loop from the previous visit of v
+            int from = position[v];
+            addLoop(Arrays.copyOfRange(stack, from, size), loops);
+
+            for (int i = from + 1; i < size; i++) position[stack[i]] = -1;
+            size = from + 1;
+        }
+
+        addLoop(Arrays.copyOf(stack, size), loops);
+
+        for (int i = 0; i < size; i++) position[stack[i]] = -1;
+    }
+
+    private void addLoop(int[] loop, ArrayList<int[]> loops)
+    {
+        if (loop.length < 3) return;
+
+        // Rotate to start at the lexicographically least point
+        int least = 0;
+        for (int i = 1; i < loop.length; i++)
+        {
+            if (PlanarGraphPoint.LexicographicOrdering(_points[loop[i]], _points[loop[least]]) < 0) least = i;
+        }
+
+        int[] rotated = new int[loop.length];
+        for (int i = 0; i < loop.length; i++) rotated[i] = loop[(least + i) % loop.length];
+
+        if (isCounterClockwise(rotated)) loops.add(rotated);
+    }
+
+    /**
+     * @param loop -- a simple loop starting at its lexicographically least point
+     * @return whether the loop is counter-clockwise: by the (exact) turn at its least point (a convex corner,
+     *         defined even when the loop passes through a point at infinity), or by its signed area if the turn
+     *         is straight
+     */
+    private boolean isCounterClockwise(int[] loop)
+    {
+        int turn = GeometricPredicates.orientation(_points[loop[0]], _points[loop[1]], _points[loop[loop.length - 1]]);
+
+        if (turn != 0) return turn > 0;
+
+        return signedArea(loop) > 0;
+    }
+
+    /**
+     * @return twice the signed area of the polygon (positive if counter-clockwise)
+     */
+    private double signedArea(int[] loop)
+    {
+        double area = 0;
+        for (int i = 0; i < loop.length; i++)
+        {
+            PlanarGraphPoint p = _points[loop[i]];
+            PlanarGraphPoint q = _points[loop[(i + 1) % loop.length]];
+
+            area += p.getX() * q.getY() - q.getX() * p.getY();
+        }
+
+        return area;
+    }
+
+    /**
+     * Add the maximal paths of bridges (through vertices with two bridges) as filaments
+     */
+    private void extractFilaments()
+    {
+        int[] bridges = new int[_points.length];
+        for (int h = 0; h < _origin.length; h++)
+        {
+            if (isBridge(h)) bridges[_origin[h]]++;
+        }
+
+        boolean[] visited = new boolean[_origin.length];
+
+        // Paths start at an end (or branch) of the forest of bridges, or where they meet a cycle:
+        // lexicographically, as the points
+        Integer[] order = new Integer[_points.length];
+        for (int v = 0; v < order.length; v++) order[v] = v;
+        Arrays.sort(order, (a, b) -> PlanarGraphPoint.LexicographicOrdering(_points[a], _points[b]));
+
+        for (int v : order)
+        {
+            if (bridges[v] == 0 || isInterior(v, bridges)) continue;
+
+            for (int h = _offsets[v]; h < _offsets[v + 1]; h++)
+            {
+                if (!isBridge(h) || visited[h]) continue;
+
+                Filament filament = new Filament();
+                filament.add(_points[v]);
+
+                // Follow the path through vertices with two bridges (and no other edges)
+                int e = h;
+                while (true)
+                {
+                    visited[e] = true;
+                    visited[_twin[e]] = true;
+
+                    int w = _target[e];
+                    filament.add(_points[w]);
+
+                    if (!isInterior(w, bridges)) break;
+
+                    e = otherBridge(w, _twin[e]);
+                }
+
+                _primitives.add(filament);
+            }
+        }
+    }
+
+    /**
+     * @return whether a path of bridges passes through v: v has two edges, both bridges
+     */
+    private boolean isInterior(int v, int[] bridges)
+    {
+        return bridges[v] == 2 && _offsets[v + 1] - _offsets[v] == 2;
+    }
+
+    /**
+     * @return the bridge leaving v other than the given half-edge
+     */
+    private int otherBridge(int v, int h)
+    {
+        for (int e = _offsets[v]; e < _offsets[v + 1]; e++)
+        {
+            if (e != h && isBridge(e)) return e;
+        }
+
+        return -1;
+    }
+
+    private void extractIsolatedPoints()
+    {
+        for (int v = 0; v < _points.length; v++)
+        {
+            if (_offsets[v] == _offsets[v + 1]) _primitives.add(new IsolatedPoint(_points[v]));
+        }
+    }
+}
@@ -18,11 +18,10 @@ import representation.bounds.segments.VerticalLineSegment;
 import representation.regions.LeftRight;
 import representation.regions.Region;
 import representation.regions.TopBottom;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
 import solver.area.regionComputer.undirectedPlanarGraph.NodePointT;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarEdgeAnnotation;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
-import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphEdge;
-import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphNode;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
 import utilities.Utilities;
 
@@ -83,6 +82,15 @@ public class MinimalCycle extends Primitive
      * @return -- region corresponding to this minimal cycle
      */
     public Region convertFacetToRegion(PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph)
+    {
+        return convertFacetToRegion(new CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation>(graph));
+    }
+
+    /**
+     * @param graph -- a compact planar graph (for which this minimal cycle belongs)
+     * @return -- region corresponding to this minimal cycle
+     */
+    public Region convertFacetToRegion(CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> graph)
     {
         System.out.println("Cycle: " + this);
 
@@ -168,7 +176,7 @@ public class MinimalCycle extends Primitive
      * @param points -- a Set of points lexicographically ordered from left to right corresponding to edges in the given planar graph
      * @return Given the list of points, return a region-based representation of that boundary: top or bottom
      */
-    private TopBottom identifyTopBottom(PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph, ArrayList<PlanarGraphPoint> points)
+    private TopBottom identifyTopBottom(CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> graph, ArrayList<PlanarGraphPoint> points)
     {
         TopBottom tb = new TopBottom();
         
@@ -185,21 +193,21 @@ public class MinimalCycle extends Primitive
             //
             // We want to observe the annotation of the point in order to decide if it is the end of the interval
             //
-            PlanarGraphNode<NodePointT, PlanarEdgeAnnotation> priorNode   = graph.getNode( points.get( index - 1 ) ) ;
-            PlanarGraphNode<NodePointT, PlanarEdgeAnnotation> currentNode = graph.getNode( points.get( index     ) ) ;
+            NodePointT priorNode   = graph.getNodeAnnotation( points.get( index - 1 ) ) ;
+            NodePointT currentNode = graph.getNodeAnnotation( points.get( index     ) ) ;
 
             //This is for graphs built without midpoints between intersections
             //In this case we can do in one loop iteration what the two else ifs below have to do in two loop iterations
-            if( priorNode.getAnnotation() == NodePointT.INTERSECTION && currentNode.getAnnotation() == NodePointT.INTERSECTION )
+            if( priorNode == NodePointT.INTERSECTION && currentNode == NodePointT.INTERSECTION )
             {
                 right = points.get( index ) ;
 
-                PlanarGraphEdge<PlanarEdgeAnnotation> edge = graph.getEdge( left,  right ) ;
+                PlanarEdgeAnnotation edge = graph.getEdgeAnnotation( left,  right ) ;
     
                 if( edge == null )
                 	System.err.println( "Edge does not exist in the graph: " + left + " " + right ) ;
                 
-                bound = edge.getAnnotation().getBound().clone() ;
+                bound = edge.getBound().clone() ;
             	
                 bound.setDomain( left.getX(), right.getX() ) ;
 
@@ -210,15 +218,15 @@ public class MinimalCycle extends Primitive
                 left  = right ;
                 right =  null ;
             }
-            else if (currentNode.getAnnotation() == NodePointT.MIDPOINT)
+            else if (currentNode == NodePointT.MIDPOINT)
             {
-                PlanarGraphEdge<PlanarEdgeAnnotation> edge = graph.getEdge(left,  points.get(index));
+                PlanarEdgeAnnotation edge = graph.getEdgeAnnotation(left,  points.get(index));
 
                 if (edge == null) System.err.println("Edge does not exist in the graph: " + left + " " + right);
                 
-                bound = edge.getAnnotation().getBound().clone() ;
+                bound = edge.getBound().clone() ;
             }
-            else if (currentNode.getAnnotation() == NodePointT.INTERSECTION || currentNode.getAnnotation() == NodePointT.VERTICAL)
+            else if (currentNode == NodePointT.INTERSECTION || currentNode == NodePointT.VERTICAL)
             {
                 right = points.get(index);
                 
@@ -242,7 +250,7 @@ public class MinimalCycle extends Primitive
      * @param points -- a Set of points lexicographically ordered from left to right corresponding to edges in the given planar graph
      * @return Given the list of points, return a region-based representation of that boundary: top or bottom
      */
-    private LeftRight identifyLeftRight(PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph, ArrayList<PlanarGraphPoint> points)
+    private LeftRight identifyLeftRight(CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> graph, ArrayList<PlanarGraphPoint> points)
     {
         Bound bound = null;
 
@@ -1,15 +1,19 @@
 package solver.area.regionComputer.graphBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 import math.analysis.intersection.Intersection;
 import representation.Point;
 import representation.bounds.functions.Domain;
 import representation.bounds.functions.StringBasedFunction;
 import solver.TextbookProblem;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
 import solver.area.regionComputer.undirectedPlanarGraph.NodePointT;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarEdgeAnnotation;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
@@ -84,6 +88,14 @@ public class PlanarGraphBuilder
         return _graph;
     }
 
+    /**
+     * @return on-demand: the PlanarGraph in compact (immutable) form
+     */
+    public CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> buildCompact()
+    {
+        return new CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation>(build());
+    }
+
     /**
      * 
      * @return a PlanarGraph that uniquely defines the function regions
@@ -146,11 +158,11 @@ public class PlanarGraphBuilder
                 //
                 // Left / Right
                 Point leftPt = fIntersections.get(pIndex);
-                PlanarGraphPoint leftGrPt = new PlanarGraphPoint(_functions[f].getFunction() + pointCount++, leftPt.getX(), leftPt.getY());
+                PlanarGraphPoint leftGrPt = new PlanarGraphPoint(_functions[f].getFunction() + pointCount++, leftPt);
                 graph.addNode(leftGrPt, NodePointT.INTERSECTION);
 
                 Point rightPt = fIntersections.get(pIndex + 1);
-                PlanarGraphPoint rightGrPt = new PlanarGraphPoint(_functions[f].getFunction() + pointCount++, rightPt.getX(), rightPt.getY());
+                PlanarGraphPoint rightGrPt = new PlanarGraphPoint(_functions[f].getFunction() + pointCount++, rightPt);
                 graph.addNode(rightGrPt, NodePointT.INTERSECTION);
 
                 //
@@ -192,7 +204,28 @@ public class PlanarGraphBuilder
             _intersections.add(new Vector<Vector<Point>>());
         }
 
+        // Identify the intersection points; we are interested in ALL points of intersection
+        // domain with eventually narrow this down further
+        double lowerX = LOWERBOUND_X;
+        double upperX = UPPERBOUND_X;
+        if (_domain != null)
+        {
+            if (_domain.getLowerBound() > LOWERBOUND_X) lowerX = _domain.getLowerBound();
+            if (_domain.getUpperBound() < UPPERBOUND_X) upperX = _domain.getUpperBound();
+        }
+
+        // The N (N - 1) / 2 intersection queries are independent: submit them all before joining any
+        List<CompletableFuture<Vector<Point>>> pending = new ArrayList<CompletableFuture<Vector<Point>>>();
+        for (int f = 0; f < _functions.length; f++)
+        {
+            for (int g = f + 1; g < _functions.length; g++)
+            {
+                pending.add(Intersection.getInstance().allIntersectionsAsync(_functions[f], _functions[g], lowerX, upperX));
+            }
+        }
+
         // Analyze one function at a time: find all intersections of f with ALL g
+        int next = 0;
         for (int f = 0; f < _functions.length; f++)
         {
             for (int g = f; g < _functions.length; g++)
@@ -204,16 +237,8 @@ public class PlanarGraphBuilder
                 }
                 else
                 {
-                    // Identify the intersection points and add to the set; we are interested in ALL points of intersection
-                    // domain with eventually narrow this down further
-                    double lowerX = LOWERBOUND_X;
-                    double upperX = UPPERBOUND_X;
-                    if (_domain != null)
-                    {
-                        if (_domain.getLowerBound() > LOWERBOUND_X) lowerX = _domain.getLowerBound();
-                        if (_domain.getUpperBound() < UPPERBOUND_X) upperX = _domain.getUpperBound();
-                    }
-                    Vector<Point> intersections = Intersection.getInstance().allIntersections(_functions[f], _functions[g], lowerX, upperX);
+                    // Submission order matches this traversal
+                    Vector<Point> intersections = pending.get(next++).join();
 
                     // Assign to the matrix
                     _intersections.get(f).add(intersections);
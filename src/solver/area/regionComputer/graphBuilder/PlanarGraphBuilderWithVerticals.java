@@ -119,8 +119,8 @@ public class PlanarGraphBuilderWithVerticals extends PlanarGraphBuilder
         for (int p = 0; p < points.size() - 1; p++)
         {
             String name = "x = " + x;
-            PlanarGraphPoint grPoint1 = new PlanarGraphPoint(name, verticalPoints.get(p).getX(), verticalPoints.get(p).getY());
-            PlanarGraphPoint grPoint2 = new PlanarGraphPoint(name, verticalPoints.get(p+1).getX(), verticalPoints.get(p+1).getY());
+            PlanarGraphPoint grPoint1 = new PlanarGraphPoint(name, verticalPoints.get(p));
+            PlanarGraphPoint grPoint2 = new PlanarGraphPoint(name, verticalPoints.get(p+1));
 
             graph.addNode(grPoint1, NodePointT.VERTICAL);
             graph.addNode(grPoint2, NodePointT.VERTICAL);
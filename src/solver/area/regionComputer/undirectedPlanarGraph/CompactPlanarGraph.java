@@ -0,0 +1,287 @@
+/*
+iTutor  an intelligent tutor of mathematics
+Copyright (C) 2016-2017 C. Alvin and Bradley University CS Students (list of students)
+This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License for more details.
+You should have received a copy of the GNU Affero General Public License along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package solver.area.regionComputer.undirectedPlanarGraph;
+
+import java.util.Arrays;
+
+import math.numeric.Rational;
+import utilities.Utilities;
+
+/**
+ * An immutable annotated planar graph <N, E> in primitive arrays (compressed sparse rows):
+ *
+ *     nodes v = 0, ..., size() - 1 (in the order of the PlanarGraph it is built from):
+ *         coordinates _xs[v], _ys[v] and annotation _nodeAnnotations[v]
+ *     edges e = offset(v), ..., offset(v + 1) - 1 leaving node v (each undirected edge is stored at both ends):
+ *         target node _targets[e] and annotation _edgeAnnotations[e]
+ *
+ * A PlanarGraph keeps a node object, an edge list, and a named point object per node, and an edge object per
+ * end of each edge; here each is a few array slots. Points are materialized on demand (without names).
+ * Exact coordinates are kept only if some point is exact.
+ *
+ * Points are found (within epsilon, or exactly for exact points, as in PlanarGraph) by a binary search of the
+ * nodes in order of x-coordinate.
+ */
+public class CompactPlanarGraph<N, E>
+{
+    private final double[] _xs;
+    private final double[] _ys;
+
+    // The exact coordinates (null entries for approximate points); null if no point is exact
+    private final Rational[] _exactXs;
+    private final Rational[] _exactYs;
+
+    // Edges leaving node v: _offsets[v], ..., _offsets[v + 1] - 1
+    private final int[] _offsets;
+    private final int[] _targets;
+
+    private final Object[] _nodeAnnotations;
+    private final Object[] _edgeAnnotations;
+
+    // The nodes in order of x-coordinate (for lookup)
+    private final int[] _byX;
+
+    /**
+     * @param graph -- a planar graph (not modified); edges to nodes outside the graph, loops, and repeated edges
+     *                 are dropped
+     */
+    public CompactPlanarGraph(PlanarGraph<N, E> graph)
+    {
+        int n = graph.size();
+
+        _xs = new double[n];
+        _ys = new double[n];
+        _nodeAnnotations = new Object[n];
+
+        boolean exact = false;
+        for (int v = 0; v < n; v++)
+        {
+            PlanarGraphNode<N, E> node = graph.getNodes().get(v);
+
+            _xs[v] = node.getPoint().getX();
+            _ys[v] = node.getPoint().getY();
+            _nodeAnnotations[v] = node.getAnnotation();
+
+            exact |= node.getPoint().isExact();
+        }
+
+        _exactXs = exact ? new Rational[n] : null;
+        _exactYs = exact ? new Rational[n] : null;
+        if (exact)
+        {
+            for (int v = 0; v < n; v++)
+            {
+                _exactXs[v] = graph.getNodes().get(v).getPoint().getExactX();
+                _exactYs[v] = graph.getNodes().get(v).getPoint().getExactY();
+            }
+        }
+
+        //
+        // Edges
+        //
+        int ends = 0;
+        for (int v = 0; v < n; v++)
+        {
+            ends += graph.getNodes().get(v).nodeDegree();
+        }
+
+        _offsets = new int[n + 1];
+        int[] targets = new int[ends];
+        Object[] annotations = new Object[ends];
+
+        int m = 0;
+        for (int v = 0; v < n; v++)
+        {
+            int first = m;
+            _offsets[v] = first;
+
+            for (PlanarGraphEdge<E> edge : graph.getNodes().get(v).getEdges())
+            {
+                int w = graph.indexOf(edge.getTarget());
+
+                if (w == -1 || w == v || contains(targets, first, m, w)) continue;
+
+                targets[m] = w;
+                annotations[m] = edge.getAnnotation();
+                m++;
+            }
+        }
+        _offsets[n] = m;
+
+        _targets = Arrays.copyOf(targets, m);
+        _edgeAnnotations = Arrays.copyOf(annotations, m);
+
+        //
+        // Lookup order
+        //
+        Integer[] byX = new Integer[n];
+        for (int v = 0; v < n; v++) byX[v] = v;
+        Arrays.sort(byX, (a, b) -> Double.compare(_xs[a], _xs[b]));
+
+        _byX = new int[n];
+        for (int v = 0; v < n; v++) _byX[v] = byX[v];
+    }
+
+    private static boolean contains(int[] values, int from, int to, int value)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (values[i] == value) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    public int size() { return _xs.length; }
+
+    /**
+     * @return the number of (undirected) edges in the graph
+     */
+    public int numEdges() { return _targets.length / 2; }
+
+    public double getX(int v) { return _xs[v]; }
+    public double getY(int v) { return _ys[v]; }
+
+    /**
+     * @return the point of node v (a new, unnamed point; exact if the original was)
+     */
+    public PlanarGraphPoint getPoint(int v)
+    {
+        if (_exactXs != null && _exactXs[v] != null) return new PlanarGraphPoint("", _exactXs[v], _exactYs[v]);
+
+        return new PlanarGraphPoint("", _xs[v], _ys[v]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public N getNodeAnnotation(int v) { return (N)_nodeAnnotations[v]; }
+
+    /**
+     * @return the first edge leaving node v; offset(v + 1) is one past its last edge (offset(size()) is the
+     *         number of edge ends)
+     */
+    public int offset(int v) { return _offsets[v]; }
+
+    public int degree(int v) { return _offsets[v + 1] - _offsets[v]; }
+
+    /**
+     * @return the node edge e leads to
+     */
+    public int target(int e) { return _targets[e]; }
+
+    @SuppressWarnings("unchecked")
+    public E getEdgeAnnotation(int e) { return (E)_edgeAnnotations[e]; }
+
+    /**
+     * @return the edge from node v to node w; -1 if there is none
+     */
+    public int edgeIndex(int v, int w)
+    {
+        for (int e = _offsets[v]; e < _offsets[v + 1]; e++)
+        {
+            if (_targets[e] == w) return e;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param pt    the given point
+     * @return      the smallest index of a node at the point (PlanarGraphPoint.equals: exact for exact points,
+     *              within epsilon otherwise); -1 if there is none
+     */
+    public int indexOf(PlanarGraphPoint pt)
+    {
+        double epsilon = Utilities.epsilon();
+
+        // The first node with x no less than pt.x - epsilon
+        int low = 0;
+        int high = _byX.length;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+
+            if (Double.compare(_xs[_byX[middle]], pt.getX() - epsilon) < 0) low = middle + 1;
+            else high = middle;
+        }
+
+        int index = -1;
+        for (int i = low; i < _byX.length && Double.compare(_xs[_byX[i]], pt.getX() + epsilon) <= 0; i++)
+        {
+            int v = _byX[i];
+
+            if ((index == -1 || v < index) && isAt(v, pt)) index = v;
+        }
+
+        return index;
+    }
+
+    private boolean isAt(int v, PlanarGraphPoint pt)
+    {
+        if (_exactXs != null && _exactXs[v] != null && pt.isExact())
+        {
+            return _exactXs[v].equals(pt.getExactX()) && _exactYs[v].equals(pt.getExactY());
+        }
+
+        return Utilities.equalDoubles(_xs[v], pt.getX()) && Utilities.equalDoubles(_ys[v], pt.getY());
+    }
+
+    /**
+     * @return the annotation of the node at the point; null if there is none
+     */
+    public N getNodeAnnotation(PlanarGraphPoint pt)
+    {
+        int v = indexOf(pt);
+
+        return v == -1 ? null : getNodeAnnotation(v);
+    }
+
+    /**
+     * @return the annotation of the edge between the points; null if there is none
+     */
+    public E getEdgeAnnotation(PlanarGraphPoint from, PlanarGraphPoint to)
+    {
+        int v = indexOf(from);
+        int w = indexOf(to);
+
+        if (v == -1 || w == -1) return null;
+
+        int e = edgeIndex(v, w);
+
+        return e == -1 ? null : getEdgeAnnotation(e);
+    }
+
+    /**
+     * @return a (mutable) PlanarGraph with the nodes, edges, and annotations of this graph (for algorithms that
+     *         modify the graph as they traverse it)
+     */
+    public PlanarGraph<N, E> toPlanarGraph()
+    {
+        PlanarGraph<N, E> graph = new PlanarGraph<N, E>();
+
+        PlanarGraphPoint[] points = new PlanarGraphPoint[size()];
+        for (int v = 0; v < size(); v++)
+        {
+            points[v] = getPoint(v);
+            graph.addNode(points[v], getNodeAnnotation(v));
+        }
+
+        for (int v = 0; v < size(); v++)
+        {
+            for (int e = _offsets[v]; e < _offsets[v + 1]; e++)
+            {
+                if (v < _targets[e]) graph.addUndirectedEdge(points[v], points[_targets[e]], getEdgeAnnotation(e));
+            }
+        }
+
+        return graph;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+iTutor  an intelligent tutor of mathematics
+Copyright (C) 2016-2017 C. Alvin and Bradley University CS Students (list of students)
+This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License for more details.
+You should have received a copy of the GNU Affero General Public License along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package solver.area.regionComputer.undirectedPlanarGraph;
+
+import java.math.BigDecimal;
+
+/**
+ * Robust geometric predicates on points with double coordinates: the signs of cross and dot products of
+ * differences of points are exact.
+ *
+ * Each sign is evaluated in floating-point first; the result is accepted if its magnitude exceeds a bound on the
+ * rounding error of the evaluation (Shewchuk's error bound for orient2d). Otherwise (nearly degenerate input) the
+ * sign is evaluated exactly with BigDecimals, in which doubles and their differences and products are exact.
+ *
+ * Angular comparisons use the half-plane of each direction (relative to a reference direction) and then the
+ * sign of a cross product: no trigonometry and no tolerance.
+ *
+ * A difference involving an infinite coordinate is its limit direction: (0, 4) to (0, Infinity) points up.
+ */
+public class GeometricPredicates
+{
+    // Relative error bound of the floating-point evaluation of a sum or difference of two products of differences
+    private static final double ERROR_BOUND = (3 + 16 * Math.ulp(1.0) / 2) * Math.ulp(1.0) / 2;
+
+    private GeometricPredicates()
+    {
+        // To ensure no instances of this class
+    }
+
+    /**
+     * @return the orientation of the points: 1 if a, b, c turn counter-clockwise; -1 if clockwise; 0 if collinear
+     */
+    public static int orientation(PlanarGraphPoint a, PlanarGraphPoint b, PlanarGraphPoint c)
+    {
+        return orient2d(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+    }
+
+    /**
+     * @return the sign of the determinant | bx - ax  by - ay |
+     *                                     | cx - ax  cy - ay |
+     *         1 if (a, b, c) turn counter-clockwise; -1 if clockwise; 0 if collinear (or undefined by a NaN)
+     */
+    public static int orient2d(double ax, double ay, double bx, double by, double cx, double cy)
+    {
+        return cross(new Direction(ax, ay, bx, by, false), new Direction(ax, ay, cx, cy, false));
+    }
+
+    /**
+     * Compare the directions from the center to p and q by their counter-clockwise angles, in [0, 2 Pi), from the
+     * reference direction (referenceX, referenceY).
+     * @return negative if the angle of p is smaller; positive if larger; 0 if p and q are in the same direction
+     */
+    public static int compareCounterClockwise(PlanarGraphPoint center, double referenceX, double referenceY,
+                                              PlanarGraphPoint p, PlanarGraphPoint q)
+    {
+        return compare(new Direction(0, 0, referenceX, referenceY, false), direction(center, p, false), direction(center, q, false));
+    }
+
+    /**
+     * Compare the directions from the center to p and q by their counter-clockwise angles, in [0, 2 Pi), from the
+     * direction from the center to the reference point.
+     * @return negative if the angle of p is smaller; positive if larger; 0 if p and q are in the same direction
+     */
+    public static int compareCounterClockwise(PlanarGraphPoint center, PlanarGraphPoint reference,
+                                              PlanarGraphPoint p, PlanarGraphPoint q)
+    {
+        return compare(direction(center, reference, false), direction(center, p, false), direction(center, q, false));
+    }
+
+    /**
+     * Compare the directions from the center to p and q by their clockwise angles, in [0, 2 Pi), from the
+     * direction from the center to the reference point (the comparison in the plane reflected in the x-axis).
+     * @return negative if the angle of p is smaller; positive if larger; 0 if p and q are in the same direction
+     */
+    public static int compareClockwise(PlanarGraphPoint center, PlanarGraphPoint reference,
+                                       PlanarGraphPoint p, PlanarGraphPoint q)
+    {
+        return compare(direction(center, reference, true), direction(center, p, true), direction(center, q, true));
+    }
+
+    private static Direction direction(PlanarGraphPoint tail, PlanarGraphPoint head, boolean reflect)
+    {
+        return new Direction(tail.getX(), tail.getY(), head.getX(), head.getY(), reflect);
+    }
+
+    /**
+     * @return the order of the angles of u and v counter-clockwise from the reference direction
+     */
+    private static int compare(Direction reference, Direction u, Direction v)
+    {
+        int halfU = half(reference, u);
+        int halfV = half(reference, v);
+
+        if (halfU != halfV) return Integer.compare(halfU, halfV);
+
+        // In the same half-plane: u is first if v is counter-clockwise of u
+        return -cross(u, v);
+    }
+
+    /**
+     * @return 0 if the angle of u from the reference is in [0, Pi); 1 if it is in [Pi, 2 Pi)
+     */
+    private static int half(Direction reference, Direction u)
+    {
+        int cross = cross(reference, u);
+
+        return cross > 0 || (cross == 0 && dot(reference, u) > 0) ? 0 : 1;
+    }
+
+    /**
+     * @return the sign of u x v
+     */
+    private static int cross(Direction u, Direction v)
+    {
+        if (u.isUndefined() || v.isUndefined()) return 0;
+
+        // A product with a zero difference vanishes exactly (axis-parallel directions): the sign is exact
+        if (u._dx == 0 || v._dy == 0) return -sign(u._dy) * sign(v._dx);
+        if (u._dy == 0 || v._dx == 0) return sign(u._dx) * sign(v._dy);
+
+        double left = u._dx * v._dy;
+        double right = u._dy * v._dx;
+        double determinant = left - right;
+        double bound = ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+
+        if (determinant > bound || -determinant > bound) return determinant > 0 ? 1 : -1;
+
+        return u.exactDx().multiply(v.exactDy()).subtract(u.exactDy().multiply(v.exactDx())).signum();
+    }
+
+    /**
+     * @return the sign of u . v
+     */
+    private static int dot(Direction u, Direction v)
+    {
+        if (u.isUndefined() || v.isUndefined()) return 0;
+
+        if (u._dx == 0 || v._dx == 0) return sign(u._dy) * sign(v._dy);
+        if (u._dy == 0 || v._dy == 0) return sign(u._dx) * sign(v._dx);
+
+        double left = u._dx * v._dx;
+        double right = u._dy * v._dy;
+        double sum = left + right;
+        double bound = ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+
+        if (sum > bound || -sum > bound) return sum > 0 ? 1 : -1;
+
+        return u.exactDx().multiply(v.exactDx()).add(u.exactDy().multiply(v.exactDy())).signum();
+    }
+
+    /**
+     * @return the sign of a difference of doubles (exact: a rounded difference has the sign of the exact one)
+     */
+    private static int sign(double difference) { return difference > 0 ? 1 : (difference < 0 ? -1 : 0); }
+
+    /**
+     * The direction from a tail to a head point (optionally reflected in the x-axis, which is exact)
+     */
+    private static class Direction
+    {
+        private final double _tailX;
+        private final double _tailY;
+        private final double _headX;
+        private final double _headY;
+
+        // The rounded differences (with the signs of the exact ones)
+        private final double _dx;
+        private final double _dy;
+
+        Direction(double tailX, double tailY, double headX, double headY, boolean reflect)
+        {
+            if (reflect)
+            {
+                tailY = -tailY;
+                headY = -headY;
+            }
+
+            // The limit direction towards (or from) a point at infinity: finite offsets vanish
+            if (Double.isInfinite(tailX) || Double.isInfinite(tailY) || Double.isInfinite(headX) || Double.isInfinite(headY))
+            {
+                double dx = headX - tailX;
+                double dy = headY - tailY;
+
+                tailX = 0;
+                tailY = 0;
+                headX = Double.isInfinite(dx) ? Math.signum(dx) : (Double.isNaN(dx) ? dx : 0);
+                headY = Double.isInfinite(dy) ? Math.signum(dy) : (Double.isNaN(dy) ? dy : 0);
+            }
+
+            _tailX = tailX;
+            _tailY = tailY;
+            _headX = headX;
+            _headY = headY;
+
+            _dx = headX - tailX;
+            _dy = headY - tailY;
+        }
+
+        boolean isUndefined() { return Double.isNaN(_dx) || Double.isNaN(_dy); }
+
+        BigDecimal exactDx() { return new BigDecimal(_headX).subtract(new BigDecimal(_tailX)); }
+        BigDecimal exactDy() { return new BigDecimal(_headY).subtract(new BigDecimal(_tailY)); }
+    }
+}
@@ -10,8 +10,6 @@ package solver.area.regionComputer.undirectedPlanarGraph;
 
 import java.util.ArrayList;
 
-import utilities.Utilities;
-
 /**
  * An annotated planar graph given by <N, E> : nodes, edges (annotations)
  */
@@ -23,12 +21,18 @@ public class PlanarGraph<N, E>
     private ArrayList<PlanarGraphNode<N, E>> _nodes;
     public ArrayList<PlanarGraphNode<N, E>> getNodes() { return _nodes; }
 
+    //
+    // The points of the nodes (parallel to the nodes) indexed for O(1) expected lookup
+    //
+    private PlanarGraphPointGrid _grid;
+
     /**
      * Constructor
      */
     public PlanarGraph()
     {
         _nodes = new ArrayList<PlanarGraphNode<N, E>>();
+        _grid = new PlanarGraphPointGrid();
     }
 
     /**
@@ -43,6 +47,21 @@ public class PlanarGraph<N, E>
         {
             _nodes.add(new PlanarGraphNode<N, E>(node));
         }
+
+        reindex();
+    }
+
+    /**
+     * Rebuild the index of the points
+     */
+    private void reindex()
+    {
+        _grid.clear();
+
+        for (PlanarGraphNode<N, E> node : _nodes)
+        {
+            _grid.add(node.getPoint());
+        }
     }
     
     /**
@@ -58,6 +77,7 @@ public class PlanarGraph<N, E>
         PlanarGraphNode<N, E> node = new PlanarGraphNode<N, E>(value, annotation);
 
         _nodes.add(node);
+        _grid.add(value);
     }
 
     /**
@@ -67,15 +87,7 @@ public class PlanarGraph<N, E>
      */
     public int indexOf(PlanarGraphPoint that)
     {
-        for (int i = 0; i < _nodes.size(); i++)
-        {
-            if (Utilities.equalDoubles(that.getX(), _nodes.get(i).getPoint().getX()) &&
-                Utilities.equalDoubles(that.getY(), _nodes.get(i).getPoint().getY()))
-            {
-                return i;
-            }
-        }
-        return -1;
+        return _grid.indexOf(that);
     }
     
     /**
@@ -195,12 +207,15 @@ public class PlanarGraph<N, E>
         if (index == -1) return false;
 
         // remove the edge
-        _nodes.remove(index);
+        PlanarGraphNode<N, E> removed = _nodes.remove(index);
+        _grid.remove(index);
 
-        // enumerate through each node in the nodes, removing edges to this node
-        for (PlanarGraphNode<N, E> node : _nodes)
+        // edges are undirected: only the neighbors of this node have edges to it
+        for (PlanarGraphEdge<E> edge : removed.getEdges())
         {
-            node.removeEdge(value);
+            PlanarGraphNode<N, E> neighbor = getNode(edge.getTarget());
+
+            if (neighbor != null) neighbor.removeEdge(value);
         }
 
         return true;
@@ -7,6 +7,8 @@ You should have received a copy of the GNU Affero General Public License along w
  */
 package solver.area.regionComputer.undirectedPlanarGraph;
 
+import math.numeric.Rational;
+import representation.Point;
 import utilities.Utilities;
 
 /**
@@ -32,6 +34,13 @@ public class PlanarGraphPoint implements Comparable<PlanarGraphPoint>
     private double Y; 
     public double getY() { return this.Y; }
 
+    // The exact coordinates; null if the point is only known approximately
+    private Rational exactX;
+    private Rational exactY;
+    public boolean isExact() { return this.exactX != null; }
+    public Rational getExactX() { return this.exactX; }
+    public Rational getExactY() { return this.exactY; }
+
     private int ID; 
     /**
      * Get the unique identifier for this point.
@@ -55,6 +64,31 @@ public class PlanarGraphPoint implements Comparable<PlanarGraphPoint>
         this.Y = y;
     }
 
+    /**
+     * Create a new exact Point: compared to other exact points without tolerance.
+     * @param n The name of the point.
+     * @param x The exact X coordinate
+     * @param y The exact Y coordinate
+     */
+    public PlanarGraphPoint(String n, Rational x, Rational y)
+    {
+        this(n, x.doubleValue(), y.doubleValue());
+        this.exactX = x;
+        this.exactY = y;
+    }
+
+    /**
+     * Create a new Point at the given point (exact if the point is exact).
+     * @param n The name of the point.
+     * @param pt The point
+     */
+    public PlanarGraphPoint(String n, Point pt)
+    {
+        this(n, pt.getX(), pt.getY());
+        this.exactX = pt.getExactX();
+        this.exactY = pt.getExactY();
+    }
+
     /**
      * Expects a radian angle measurement
      * @param center Center
@@ -314,6 +348,9 @@ public class PlanarGraphPoint implements Comparable<PlanarGraphPoint>
         if (!(obj instanceof PlanarGraphPoint)) return false;
         
         PlanarGraphPoint that = (PlanarGraphPoint)obj;
+
+        // Exact points are equal only if they are the same point
+        if (this.isExact() && that.isExact()) return this.exactX.equals(that.exactX) && this.exactY.equals(that.exactY);
         
         return Utilities.equalDoubles(this.X, that.X) && Utilities.equalDoubles(this.Y, that.Y);
     }
@@ -337,6 +374,14 @@ public class PlanarGraphPoint implements Comparable<PlanarGraphPoint>
      */
     public static int LexicographicOrdering(PlanarGraphPoint p1, PlanarGraphPoint p2)
     {
+        // Exact ordering of exact points
+        if (p1.isExact() && p2.isExact())
+        {
+            int comparison = p1.exactX.compareTo(p2.exactX);
+
+            return comparison != 0 ? comparison : p1.exactY.compareTo(p2.exactY);
+        }
+
         // Epsilon-based equality of both coordinates
         if (Utilities.equalDoubles(p1.X, p2.X) &&
             Utilities.equalDoubles(p1.Y, p2.Y)) return 0;
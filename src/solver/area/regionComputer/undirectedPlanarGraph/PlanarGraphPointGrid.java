@@ -0,0 +1,238 @@
+/*
+iTutor  an intelligent tutor of mathematics
+Copyright (C) 2016-2017 C. Alvin and Bradley University CS Students (list of students)
+This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Affero General Public License for more details.
+You should have received a copy of the GNU Affero General Public License along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package solver.area.regionComputer.undirectedPlanarGraph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import utilities.Utilities;
+
+/**
+ * A uniform grid of points (indexed in order of addition) for epsilon-equality lookups.
+ *
+ * Cells are Utilities.epsilon() wide, so a point equal (within epsilon) to a query point lies in the query's
+ * cell or one of its eight neighbors: a lookup compares only the points in those nine cells, O(1) expected.
+ * Points with an infinite (or enormous) coordinate have no cell; they are always compared.
+ *
+ * Each point keeps the id (order of addition) it was added with; removal marks the id in a Fenwick tree of
+ * live ids, so the index of a point (the number of live ids before it) and the id at an index take O(log n).
+ */
+public class PlanarGraphPointGrid
+{
+    private final double _cellSize;
+
+    // The points by id (null once removed)
+    private ArrayList<PlanarGraphPoint> _points;
+    private int _size;
+
+    // Fenwick tree over ids (1-based): _live[i] sums the live flags of ids (i - (i & -i), i]
+    private int[] _live;
+
+    // Cell key -> ids of the points in the cell (distinct cells may share a key; they are compared anyway)
+    private HashMap<Long, ArrayList<Integer>> _cells;
+
+    // Ids of the points with an infinite (or too large for a cell) coordinate
+    private ArrayList<Integer> _unbounded;
+
+    public PlanarGraphPointGrid()
+    {
+        _cellSize = Utilities.epsilon();
+        _points = new ArrayList<PlanarGraphPoint>();
+        _size = 0;
+        _live = new int[17];
+        _cells = new HashMap<Long, ArrayList<Integer>>();
+        _unbounded = new ArrayList<Integer>();
+    }
+
+    public int size() { return _size; }
+
+    /**
+     * Remove all points
+     */
+    public void clear()
+    {
+        _points.clear();
+        _size = 0;
+        _live = new int[17];
+        _cells.clear();
+        _unbounded.clear();
+    }
+
+    /**
+     * @param pt    the point to add (with index size())
+     */
+    public void add(PlanarGraphPoint pt)
+    {
+        int id = _points.size();
+        _points.add(pt);
+        _size++;
+
+        if (id + 1 >= _live.length) grow();
+        else mark(id, 1);
+
+        ids(pt, true).add(id);
+    }
+
+    /**
+     * Remove the point with the given index (the indices of the following points decrease by one)
+     * @param index the index of the point to remove
+     */
+    public void remove(int index)
+    {
+        if (index < 0 || index >= _size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+
+        int id = idAt(index);
+        PlanarGraphPoint pt = _points.set(id, null);
+        _size--;
+        mark(id, -1);
+
+        ArrayList<Integer> ids = ids(pt, false);
+        ids.remove(Integer.valueOf(id));
+
+        if (ids.isEmpty() && ids != _unbounded) _cells.remove(key(pt));
+    }
+
+    /**
+     * @param that  the given point
+     * @return      the smallest index of a point equal to the given point (PlanarGraphPoint.equals: exact for exact
+     *              points, within epsilon otherwise); -1 if there is none
+     */
+    public int indexOf(PlanarGraphPoint that)
+    {
+        // Indices are in the order of ids: the smallest id is the smallest index
+        int id = idOf(that, _unbounded, -1);
+
+        if (isBounded(that))
+        {
+            long x = cell(that.getX());
+            long y = cell(that.getY());
+
+            for (long dx = -1; dx <= 1; dx++)
+            {
+                for (long dy = -1; dy <= 1; dy++)
+                {
+                    id = idOf(that, _cells.get(key(x + dx, y + dy)), id);
+                }
+            }
+        }
+
+        return id == -1 ? -1 : live(id) - 1;
+    }
+
+    /**
+     * @return the smaller of the best id so far and the smallest id of the candidates equal to the point
+     */
+    private int idOf(PlanarGraphPoint that, ArrayList<Integer> candidates, int best)
+    {
+        if (candidates == null) return best;
+
+        for (int id : candidates)
+        {
+            if (best != -1 && id >= best) continue;
+
+            if (that.equals(_points.get(id))) best = id;
+        }
+
+        return best;
+    }
+
+    /**
+     * @param create    whether to create the cell of the point if it does not exist
+     * @return          the ids in the cell of the point (or the unbounded ids)
+     */
+    private ArrayList<Integer> ids(PlanarGraphPoint pt, boolean create)
+    {
+        if (!isBounded(pt)) return _unbounded;
+
+        Long key = key(pt);
+
+        ArrayList<Integer> ids = _cells.get(key);
+        if (ids == null && create)
+        {
+            ids = new ArrayList<Integer>(1);
+            _cells.put(key, ids);
+        }
+
+        return ids;
+    }
+
+    //
+    // Fenwick tree of live ids
+    //
+
+    /**
+     * Add delta to the live flag of the id
+     */
+    private void mark(int id, int delta)
+    {
+        for (int i = id + 1; i < _live.length; i += i & -i) _live[i] += delta;
+    }
+
+    /**
+     * @return the number of live ids no larger than id
+     */
+    private int live(int id)
+    {
+        int count = 0;
+        for (int i = id + 1; i > 0; i -= i & -i) count += _live[i];
+
+        return count;
+    }
+
+    /**
+     * @return the id of the live point with the given index
+     */
+    private int idAt(int index)
+    {
+        // Descend the tree for the largest prefix of ids with no more than index live ids
+        int position = 0;
+        for (int step = Integer.highestOneBit(_live.length - 1); step > 0; step >>= 1)
+        {
+            if (position + step < _live.length && _live[position + step] <= index)
+            {
+                position += step;
+                index -= _live[position];
+            }
+        }
+
+        // The next id is the live point
+        return position;
+    }
+
+    /**
+     * Double the capacity of the tree and rebuild it from the live points (linear time)
+     */
+    private void grow()
+    {
+        _live = new int[2 * _live.length - 1];
+
+        for (int id = 0; id < _points.size(); id++)
+        {
+            if (_points.get(id) != null) _live[id + 1]++;
+        }
+
+        for (int i = 1; i < _live.length; i++)
+        {
+            int parent = i + (i & -i);
+
+            if (parent < _live.length) _live[parent] += _live[i];
+        }
+    }
+
+    private boolean isBounded(PlanarGraphPoint pt) { return isBounded(pt.getX()) && isBounded(pt.getY()); }
+
+    // The cell index must fit (with its neighbors) in a long
+    private boolean isBounded(double coordinate) { return Math.abs(coordinate) < _cellSize * 0x1p62; }
+
+    private long cell(double coordinate) { return (long)Math.floor(coordinate / _cellSize); }
+
+    private Long key(PlanarGraphPoint pt) { return key(cell(pt.getX()), cell(pt.getY())); }
+
+    private static Long key(long x, long y) { return x * 0x9E3779B97F4A7C15L + y; }
+}
@@ -9,6 +9,7 @@ import exceptions.DomainException;
 import exceptions.SolvingException;
 import math.analysis.derivatives.Derivatives;
 import math.analysis.intersection.Intersection;
+import math.expression.DualEvaluator;
 import math.integral.DefiniteIntegral;
 import representation.ComplexNumber;
 import representation.Point;
@@ -476,6 +477,22 @@ public class AreaSolverByY extends Solver
     
     private Pair<Double,Double> getSlopeAtBounds( TopBottom region, Double leftBound, Double rightBound )
     {
+    	//Slopes by forward-mode differentiation (dual numbers), without a symbolic derivative
+    	try
+    	{
+    		DualEvaluator f = DualEvaluator.compile( region.getBounds().get( 0 ).toExpr(), "x", 1 ) ;
+
+    		double left  = f.slope( leftBound  ) ;
+    		double right = f.slope( rightBound ) ;
+
+    		if( !Double.isNaN( left ) && !Double.isNaN( right ) )
+    			return new Pair<Double,Double>( left, right ) ;
+    	}
+    	catch( IllegalArgumentException e )
+    	{
+    		//No numeric derivative; query the derivative below
+    	}
+
     	Vector<Double> pts = new Vector<Double>() ;
     	pts.add( leftBound ) ;
     	pts.add( rightBound ) ;
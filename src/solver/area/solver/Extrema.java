@@ -4,8 +4,10 @@ import java.util.Vector;
 import java.util.ArrayList;
 import java.util.Collections;
 
+import representation.bounds.Bound;
 import representation.regions.TopBottom;
 import math.analysis.derivatives.Derivatives;
+import math.analysis.extrema.CriticalPoints;
 import math.analysis.extrema.ExtremeValues;
 
 public class Extrema
@@ -34,13 +36,29 @@ public class Extrema
     public static ArrayList<Extrema> getExtrema( TopBottom region, Double leftBound, Double rightBound )
     {
     	ArrayList<Extrema> output = new ArrayList<Extrema>() ;
-        
-    	Vector<Double> extrema = new Vector<Double>( ExtremeValues.getInstance().extrema( region.getBounds().get( 0 ), leftBound, rightBound ) ) ;
+
+    	Bound f = region.getBounds().get( 0 ) ;
+
+    	// Critical points found and classified in-process (stationary inflections are neither a min nor a max)
+    	CriticalPoints critical = ExtremeValues.getInstance().criticalPoints( f, leftBound, rightBound ) ;
+
+    	if( critical != null )
+    	{
+    		critical = critical.exclusive( leftBound, rightBound ).extrema() ;
+
+    		for( int i = 0 ; i < critical.size() ; ++i )
+    			output.add( new Extrema( critical.x( i ), critical.type( i ) == CriticalPoints.MINIMUM ? 1.0 : -1.0 ) ) ;
+
+    		return output ;
+    	}
+
+    	Vector<Double> extrema = new Vector<Double>( ExtremeValues.getInstance().extremaAsync( f, leftBound, rightBound ).join() ) ;
     	
     	if( extrema.size() > 0 )
     	{
             Collections.sort( extrema ) ;
-        	Vector<Double> extremaDir = Derivatives.getInstance().secondDerivativeAtPoints( region.getBounds().get( 0 ), extrema ) ;
+        	// Concavity from the (in-process) second derivative
+        	Vector<Double> extremaDir = Derivatives.getInstance().secondDerivativeAtPoints( f, extrema ) ;
         	
         	if( extrema.size() != extremaDir.size() )
         		throw new RuntimeException( "Retrieving concavity of function at extrema did not return 1 and only 1 value for each extrema." ) ;
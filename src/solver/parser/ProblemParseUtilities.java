@@ -1,6 +1,6 @@
 package solver.parser;
 
-import math.external_interface.LocalMathematicaCasInterface;
+import math.external_interface.CasInterface;
 import representation.bounds.functions.Domain;
 import solver.area.TextbookAreaProblem;
 
@@ -54,8 +54,8 @@ public class ProblemParseUtilities
             domainStr = replaceConstants(domainStr);
             String[] bounds = domainStr.split(",");
 
-            left_x = LocalMathematicaCasInterface.getInstance().queryComplexNumber(bounds[0]).getReal();
-            right_x = LocalMathematicaCasInterface.getInstance().queryComplexNumber(bounds[1]).getReal(); // Double.parseDouble(bounds[1])
+            left_x = CasInterface.getInstance().queryComplexNumber(bounds[0]).getReal();
+            right_x = CasInterface.getInstance().queryComplexNumber(bounds[1]).getReal(); // Double.parseDouble(bounds[1])
         }
 
         // No domain was 
@@ -126,6 +126,6 @@ public class ProblemParseUtilities
         String answer = line.substring(beginAnswerIndex+1, endAnswerIndex);
         answer = replaceConstants(answer);
 
-        return LocalMathematicaCasInterface.getInstance().queryComplexNumber(answer).getReal();
+        return CasInterface.getInstance().queryComplexNumber(answer).getReal();
     }
 }
@@ -2,7 +2,7 @@ package solver.volume.parser;
 
 import java.util.ArrayList;
 
-import math.external_interface.LocalMathematicaCasInterface;
+import math.external_interface.CasInterface;
 import representation.bounds.functions.Domain;
 import solver.area.TextbookAreaProblem;
 import solver.parser.ProblemParseUtilities;
@@ -94,7 +94,7 @@ public class VolumeProblemParser implements ProblemParser
 
             // Answer
             String answer = pair.substring(pair.indexOf(',') + 1, pair.indexOf('>'));
-            answers.add(LocalMathematicaCasInterface.getInstance().queryComplexNumber(answer).getReal());
+            answers.add(CasInterface.getInstance().queryComplexNumber(answer).getReal());
         }
         
         return new Pair<ArrayList<AxisOfRevolution>, ArrayList<Double>>(axes, answers);
@@ -0,0 +1,110 @@
+package utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+//
+// A bounded, thread-safe map evicting the least-recently used entry when full.
+// Tracks hits, misses, and evictions.
+//
+public class LruCache<K, V>
+{
+    protected final int _capacity;
+
+    // Access-ordered: iteration begins with the least-recently used entry
+    protected final LinkedHashMap<K, V> _map;
+
+    protected long _hits;
+    protected long _misses;
+    protected long _evictions;
+
+    /**
+     * @param capacity -- the maximum number of entries
+     */
+    public LruCache(int capacity)
+    {
+        if (capacity < 1) throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+
+        _capacity = capacity;
+        _map = new LinkedHashMap<K, V>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+            {
+                if (size() <= _capacity) return false;
+
+                _evictions++;
+                return true;
+            }
+        };
+
+        _hits = 0;
+        _misses = 0;
+        _evictions = 0;
+    }
+
+    /**
+     * @param key -- a key
+     * @return the cached value (marked as most-recently used); null on a miss
+     */
+    public synchronized V get(K key)
+    {
+        V value = _map.get(key);
+
+        if (value == null) _misses++;
+        else _hits++;
+
+        return value;
+    }
+
+    /**
+     * @param key -- a key
+     * @param value -- a non-null value
+     */
+    public synchronized void put(K key, V value)
+    {
+        if (value == null) throw new IllegalArgumentException("Null values are not cached.");
+
+        _map.put(key, value);
+    }
+
+    /**
+     * The value is computed outside of the lock so that a slow computation does not block other readers;
+     * concurrent misses on the same key may compute the value more than once. Null values are not cached.
+     * 
+     * @param key -- a key
+     * @param compute -- computes the value on a miss
+     * @return the cached or newly computed value
+     */
+    public V get(K key, Function<K, V> compute)
+    {
+        V value = get(key);
+
+        if (value != null) return value;
+
+        value = compute.apply(key);
+
+        if (value != null) put(key, value);
+
+        return value;
+    }
+
+    public synchronized void clear() { _map.clear(); }
+
+    public synchronized int size() { return _map.size(); }
+    public int capacity() { return _capacity; }
+
+    public synchronized long getHits() { return _hits; }
+    public synchronized long getMisses() { return _misses; }
+    public synchronized long getEvictions() { return _evictions; }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "Cache [ size = " + _map.size() + " / " + _capacity + ", hits = " + _hits +
+               ", misses = " + _misses + ", evictions = " + _evictions + " ]";
+    }
+}
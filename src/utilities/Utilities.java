@@ -14,6 +14,7 @@ public class Utilities
     // Comparing double within a threshold
     //
     private static double EPSILON = 0.00001;
+    public static double epsilon() { return EPSILON; }
     public static boolean equalDoubles(double a, double b)
     {
         // Check the special case of positive and negative infinity
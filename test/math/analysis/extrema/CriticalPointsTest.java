@@ -0,0 +1,111 @@
+package math.analysis.extrema;
+
+import org.junit.Test;
+
+import math.external_interface.QueryBuilder;
+import representation.Point;
+import representation.bounds.functions.StringBasedFunction;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class CriticalPointsTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Critical Points Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        classification(1);
+        intervals(1);
+        localMaximum(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void classification(int indent)
+    {
+        String testName = "Classification";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Second derivative test
+        CriticalPoints parabola = CriticalPoints.of(QueryBuilder.parse("x^2 - 6x"), -5, 5);
+        Assertions.Assert(parabola.size(), 1);
+        Assertions.Assert(parabola.x(0), 3.0);
+        Assertions.Assert(parabola.value(0), -9.0);
+        Assertions.Assert(parabola.type(0) == CriticalPoints.MINIMUM);
+
+        // f'' = 0: the first derivative sign test decides (x^4 a minimum, -x^4 a maximum, x^3 neither)
+        Assertions.Assert(CriticalPoints.of(QueryBuilder.parse("x^4"), -1, 1).type(0) == CriticalPoints.MINIMUM);
+        Assertions.Assert(CriticalPoints.of(QueryBuilder.parse("-x^4"), -1, 1).type(0) == CriticalPoints.MAXIMUM);
+
+        CriticalPoints cubic = CriticalPoints.of(QueryBuilder.parse("x^3"), -1, 1);
+        Assertions.Assert(cubic.size(), 1);
+        Assertions.Assert(cubic.type(0) == CriticalPoints.INFLECTION);
+        Assertions.Assert(cubic.extrema().isEmpty());
+
+        // (x-1)(x+1)(x^2-4): a maximum at 0 between two minima
+        CriticalPoints quartic = CriticalPoints.of(QueryBuilder.parse("(x-1)(x+1)(x^2-4)"), -5, 5);
+        Assertions.Assert(quartic.size(), 3);
+        Assertions.Assert(quartic.x(0), -1.5811388300841898);
+        Assertions.Assert(quartic.types()[0] == CriticalPoints.MINIMUM);
+        Assertions.Assert(quartic.types()[1] == CriticalPoints.MAXIMUM);
+        Assertions.Assert(quartic.types()[2] == CriticalPoints.MINIMUM);
+        Assertions.Assert(quartic.value(1), 4.0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void intervals(int indent)
+    {
+        String testName = "Intervals";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Sin[x] on [0, 7]: Pi / 2 (max) and 3 Pi / 2 (min)
+        CriticalPoints sine = CriticalPoints.of(QueryBuilder.parse("Sin[x]"), 0, 7);
+        Assertions.Assert(sine.size(), 2);
+        Assertions.Assert(Math.abs(sine.x(0) - Math.PI / 2) < 1e-12);
+        Assertions.Assert(sine.type(0) == CriticalPoints.MAXIMUM);
+        Assertions.Assert(Math.abs(sine.x(1) - 3 * Math.PI / 2) < 1e-12);
+        Assertions.Assert(sine.type(1) == CriticalPoints.MINIMUM);
+
+        // Critical points on a bound are excluded from the exclusive points
+        CriticalPoints cosine = CriticalPoints.of(QueryBuilder.parse("Cos[Pi x]"), -1, 1);
+        Assertions.Assert(cosine.size(), 3);
+        Assertions.Assert(cosine.exclusive(-1, 1).size(), 1);
+        Assertions.Assert(cosine.exclusive(-1, 1).x(0), 0.0);
+
+        // Empty intervals and relations
+        Assertions.Assert(CriticalPoints.of(QueryBuilder.parse("x^2"), 1, -1).isEmpty());
+        Assertions.Assert(CriticalPoints.of(QueryBuilder.parse("x == 3"), 0, 1) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void localMaximum(int indent)
+    {
+        String testName = "Local Maximum";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // The largest local maximum of (x-1)(x+1)(x^2-4) on [-2, 2] is at 0
+        StringBasedFunction f = new StringBasedFunction("(x-1)(x+1)(x^2-4)");
+        Point maximum = ExtremeValues.getInstance().localMaximum(f, -2, 2);
+        Assertions.Assert(maximum.getX(), 0.0);
+        Assertions.Assert(maximum.getY(), 4.0);
+
+        // Larger at a bound
+        maximum = ExtremeValues.getInstance().localMaximum(f, -3, 3);
+        Assertions.Assert(maximum.getX(), -3.0);
+        Assertions.Assert(maximum.getY(), 40.0);
+
+        // Extreme values from the critical points and the bounds
+        Assertions.Assert(ExtremeValues.getInstance().maxValue(f, -1, 1), 4.0);
+        Assertions.Assert(Math.abs(ExtremeValues.getInstance().minValue(f, -2, 2) + 2.25) < 1e-12);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,220 @@
+package math.analysis.intersection;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import math.expression.Expr;
+import math.numeric.ClosedFormRoots;
+import math.numeric.Polynomial;
+import math.numeric.RootIsolator;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.FunctionT;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class ClosedFormIntersectionTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Closed-Form Intersection Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        closedFormRoots(1);
+        polynomialFamilies(1);
+        sinusoids(1);
+        exponentialsAndLogarithms(1);
+        versusIsolation(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void closedFormRoots(int indent)
+    {
+        String testName = "Closed-Form Polynomial Roots";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        assertRoots(ClosedFormRoots.solve(new Polynomial(-4, 0, 1)), -2, 2);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(1, 0, 1)));
+
+        // (x - 1)(x - 2)(x - 3); (x - 1)^2 (x + 2); x^3 - 1
+        assertRoots(ClosedFormRoots.solve(new Polynomial(-6, 11, -6, 1)), 1, 2, 3);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(2, -3, 0, 1)), -2, 1);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(-1, 0, 0, 1)), 1);
+
+        // (x^2 - 1)(x^2 - 4); (x - 1)(x - 2)(x - 3)(x - 4); (x - 1)^2 (x + 1)^2; x^4 + 1
+        assertRoots(ClosedFormRoots.solve(new Polynomial(4, 0, -5, 0, 1)), -2, -1, 1, 2);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(24, -50, 35, -10, 1)), 1, 2, 3, 4);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(1, 0, -2, 0, 1)), -1, 1);
+        assertRoots(ClosedFormRoots.solve(new Polynomial(1, 0, 0, 0, 1)));
+
+        // A negligible leading coefficient lowers the degree
+        assertRoots(ClosedFormRoots.solve(new Polynomial(-1, 1, 1e-20)), 1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertRoots(double[] found, double... expected)
+    {
+        Assertions.Assert(found.length, expected.length);
+        for (int i = 0; i < expected.length; i++)
+        {
+            Assertions.Assert(Math.abs(found[i] - expected[i]) < 1e-7);
+        }
+    }
+
+    private void polynomialFamilies(int indent)
+    {
+        String testName = "Lines, Parabolas, and Higher-Degree Families";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        BoundedFunction line = function(FunctionT.LINEAR, 1, 1, 0, 0);
+        BoundedFunction parabola = function(FunctionT.PARABOLA, 1, 1, 0, 0);
+
+        // y = x and y = x^2
+        assertRoots(ClosedFormIntersection.intersections(line, parabola, -1, 2), 0, 1);
+        assertRoots(ClosedFormIntersection.intersections(line, parabola, 0.5, 2), 1);
+
+        // Tangent: y = 2 (x - 1) and y = x^2 - 1
+        BoundedFunction tangent = function(FunctionT.LINEAR, 2, 1, 1, 0);
+        BoundedFunction shifted = function(FunctionT.PARABOLA, 1, 1, 0, -1);
+        assertRoots(ClosedFormIntersection.intersections(tangent, shifted, -25, 25), 1);
+
+        // y = 3 and y = -2 (3 (x - 1))^2 + 5
+        BoundedFunction horizontal = function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 3);
+        BoundedFunction stretched = function(FunctionT.PARABOLA, -2, 3, 1, 5);
+        assertRoots(ClosedFormIntersection.intersections(horizontal, stretched, -25, 25), 1 - 1 / 3.0, 1 + 1 / 3.0);
+
+        // Parallel and identical lines
+        assertRoots(ClosedFormIntersection.intersections(line, function(FunctionT.LINEAR, 1, 1, 0, 1), -25, 25));
+        assertRoots(ClosedFormIntersection.intersections(line, line.clone(), -25, 25));
+
+        // Cubic and quartic: x^3 = x; x^4 = 1
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.CUBIC, 1, 1, 0, 0), line, -25, 25), -1, 0, 1);
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.QUARTIC, 1, 1, 0, 0), function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 1), -25, 25), -1, 1);
+
+        // Roots on the bounds are included (exactly)
+        double[] xs = ClosedFormIntersection.intersections(line, parabola, 0, 1);
+        Assertions.Assert(xs.length, 2);
+        Assertions.Assert(xs[0], 0.0);
+        Assertions.Assert(xs[1], 1.0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void sinusoids(int indent)
+    {
+        String testName = "Sine and Cosine";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        BoundedFunction sine = function(FunctionT.SINE, 1, 1, 0, 0);
+        BoundedFunction cosine = function(FunctionT.COSINE, 1, 1, 0, 0);
+
+        // Sin[x] = Cos[x] at Pi / 4 + n Pi
+        double[] xs = ClosedFormIntersection.intersections(sine, cosine, -25, 25);
+        Assertions.Assert(xs.length, 16);
+        for (int i = 0; i < xs.length; i++)
+        {
+            Assertions.Assert(Math.abs(xs[i] - (Math.PI / 4 + Math.PI * (i - 8))) < 1e-12);
+        }
+
+        // Sin[x] = 1 / 2 on [0, Pi]; Sin[x] = 1 (tangency) on [0, 2 Pi]; Sin[x] = 2 (never)
+        assertRoots(ClosedFormIntersection.intersections(sine, function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 0.5), 0, Math.PI), Math.PI / 6, 5 * Math.PI / 6);
+        assertRoots(ClosedFormIntersection.intersections(sine, function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 1), 0, 2 * Math.PI), Math.PI / 2);
+        assertRoots(ClosedFormIntersection.intersections(sine, function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 2), -25, 25));
+
+        // Reflected frequencies: Sin[-x] = -Sin[x] and Cos[-2 (x - 1)] = Cos[2 (x - 1)]
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.SINE, 1, -1, 0, 0), function(FunctionT.SINE, -1, 1, 0, 0), -5, 5));
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.COSINE, 1, -2, 1, 0), function(FunctionT.COSINE, 1, 2, 1, 0), -5, 5));
+
+        // Different frequencies have no closed form
+        Assertions.Assert(ClosedFormIntersection.intersections(sine, function(FunctionT.SINE, 1, 2, 0, 0), -5, 5) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void exponentialsAndLogarithms(int indent)
+    {
+        String testName = "Exponentials and Logarithms";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        BoundedFunction two = function(FunctionT.HORIZONTAL_LINE, 1, 1, 0, 2);
+
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.EXPONENTIAL, 1, 1, 0, 0), two, -25, 25), Math.log(2));
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.EXPONENTIAL, 1, 1, 0, 3), two, -25, 25));
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.LOGARITHMIC, 1, 1, 0, 0), two, -25, 25), Math.exp(2));
+
+        // 2 e^x = e^(x - 1) + 1 at x = -Log[2 - 1 / e]
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.EXPONENTIAL, 2, 1, 0, 0), function(FunctionT.EXPONENTIAL, 1, 1, 1, 1), -25, 25), -Math.log(2 - 1 / Math.E));
+
+        // 2 Log[x] = Log[x] + 1 at e
+        assertRoots(ClosedFormIntersection.intersections(function(FunctionT.LOGARITHMIC, 2, 1, 0, 0), function(FunctionT.LOGARITHMIC, 1, 1, 0, 1), -25, 25), Math.E);
+
+        // Mixed families have no closed form
+        Assertions.Assert(ClosedFormIntersection.intersections(function(FunctionT.EXPONENTIAL, 1, 1, 0, 0), function(FunctionT.LINEAR, 1, 1, 0, 2), -5, 5) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Random pairs of the default (allowed) families agree with in-process root isolation of f - g
+     */
+    private void versusIsolation(int indent)
+    {
+        String testName = "Closed Forms versus Root Isolation";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        FunctionT[] families = { FunctionT.HORIZONTAL_LINE, FunctionT.LINEAR, FunctionT.PARABOLA, FunctionT.CUBIC, FunctionT.QUARTIC, FunctionT.SINE, FunctionT.COSINE };
+
+        Random random = new Random(13);
+
+        for (int trial = 0; trial < 500; trial++)
+        {
+            FunctionT first = families[random.nextInt(families.length)];
+            FunctionT second = first == FunctionT.SINE || first == FunctionT.COSINE ? (random.nextBoolean() ? FunctionT.SINE : FunctionT.COSINE)
+                                                                                    : families[random.nextInt(5)];
+
+            BoundedFunction f = function(first, parameter(random), parameter(random), parameter(random), parameter(random));
+            BoundedFunction g = function(second, parameter(random), first == second ? f.getB() : parameter(random), parameter(random), parameter(random));
+
+            if (second == FunctionT.SINE || second == FunctionT.COSINE) g.stretch(g.getA(), f.getB());
+
+            double[] closed = ClosedFormIntersection.intersections(f, g, -5, 5);
+            double[] isolated = RootIsolator.isolate(Expr.minus(f.toExpr(), g.toExpr()), "x", -5, 5).values();
+
+            Assertions.Assert(closed != null);
+            Assertions.Assert(closed.length, isolated.length);
+            for (int i = 0; i < isolated.length; i++)
+            {
+                Assertions.Assert(Math.abs(closed[i] - isolated[i]) < 1e-6);
+            }
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    // A parameter in [-3, 3] with one decimal place (nonzero)
+    private double parameter(Random random)
+    {
+        double p = (random.nextInt(60) - 30) / 10.0;
+
+        return p == 0 ? 1 : p;
+    }
+
+    private BoundedFunction function(FunctionT type, double a, double b, double h, double k)
+    {
+        BoundedFunction f = new BoundedFunction(type);
+
+        f.stretch(a, b);
+        f.translate(h, k);
+
+        return f;
+    }
+}
@@ -0,0 +1,172 @@
+package math.analysis.inverses;
+
+import org.junit.Test;
+
+import exceptions.DomainException;
+import math.expression.Expr;
+import math.external_interface.QueryBuilder;
+import math.integral.DefiniteIntegral;
+import math.numeric.Newton;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.DifferenceBoundedFunction;
+import representation.bounds.functions.FunctionT;
+import representation.bounds.functions.InverseFunction;
+import representation.bounds.functions.StringBasedFunction;
+import representation.bounds.functions.VariableT;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class NumericInverseTest
+{
+    @Test
+    public void test() throws DomainException
+    {
+        String testName = "Numeric Inverse Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        newton(1);
+        monotonePieces(1);
+        withoutClosedForm(1);
+        integralsByY(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void newton(int indent)
+    {
+        String testName = "Safeguarded Newton";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // x^2 - 2 on [0, 2]
+        Assertions.Assert(Math.abs(Newton.root(x -> x * x - 2, x -> 2 * x, 0, -2, 2, 2) - Math.sqrt(2)) < 1e-15);
+
+        // A vanishing derivative at the start (x^3 - 1 from 0) and at the root (x^3 on [-1, 2]) is safeguarded
+        Assertions.Assert(Math.abs(Newton.root(x -> x * x * x - 1, x -> 3 * x * x, 0, -1, 1.5, 2.375) - 1) < 1e-15);
+        Assertions.Assert(Math.abs(Newton.root(x -> x * x * x, x -> 3 * x * x, -1, -1, 2, 8)) < 1e-5);
+
+        // Newton steps leaving the bracket (Atan[x] from far away)
+        Assertions.Assert(Math.abs(Newton.root(Math::atan, x -> 1 / (1 + x * x), -1, -Math.PI / 4, 20, Math.atan(20))) < 1e-15);
+
+        // Without a derivative (Brent's method)
+        Assertions.Assert(Math.abs(Newton.root(x -> Math.cos(x) - x, null, 0, 1, 1, Math.cos(1) - 1) - 0.7390851332151607) < 1e-15);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void monotonePieces(int indent)
+    {
+        String testName = "Monotone Pieces";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // x^2 on [-2, 3]: pieces [-2, 0] and [0, 3]; the leftmost piece containing y is inverted
+        NumericInverse square = NumericInverse.of(QueryBuilder.parse("x^2"), -2, 3);
+        Assertions.Assert(square.pieces(), 2);
+        Assertions.Assert(square.breakpoints()[1], 0.0);
+        Assertions.Assert(square.evaluate(4), -2.0);
+        Assertions.Assert(square.evaluate(1, 1), 1.0);
+        Assertions.Assert(square.evaluate(9), 3.0);
+        Assertions.Assert(Double.isNaN(square.evaluate(10)));
+        Assertions.Assert(Double.isNaN(square.evaluate(-1)));
+
+        // Sin[x] on [0, 7]: turning points Pi / 2, 3 Pi / 2
+        NumericInverse sine = NumericInverse.of(QueryBuilder.parse("Sin[x]"), 0, 7);
+        Assertions.Assert(sine.pieces(), 3);
+        Assertions.Assert(Math.abs(sine.evaluate(0.5) - Math.PI / 6) < 1e-14);
+        Assertions.Assert(Math.abs(sine.evaluate(0.5, 1) - 5 * Math.PI / 6) < 1e-14);
+        Assertions.Assert(Math.abs(sine.evaluate(0.5, 2) - (2 * Math.PI + Math.PI / 6)) < 1e-14);
+
+        // Unbounded domains and relations have no numeric inverse
+        Assertions.Assert(NumericInverse.of(QueryBuilder.parse("x^2"), Double.NEGATIVE_INFINITY, 3) == null);
+        Assertions.Assert(NumericInverse.of(Expr.call("Equal", Expr.symbol("x"), Expr.number(3)), 0, 1) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void withoutClosedForm(int indent)
+    {
+        String testName = "Functions Without a Closed-Form Inverse";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // x^5 + x + Sin[x] is increasing on [-1, 2]
+        StringBasedFunction f = new StringBasedFunction("x^5 + x + Sin[x]");
+        f.setDomain(-1, 2);
+
+        for (double y = -2; y <= 30; y += 0.75)
+        {
+            double x = f.evaluateAtPointByY(y).getReal();
+
+            Assertions.Assert(Math.abs(f.evaluateAtPoint(x).getReal() - y) < 1e-12);
+        }
+
+        // Families: the inverse is recomputed when the function or its domain changes
+        BoundedFunction cubic = new BoundedFunction(FunctionT.CUBIC);
+        cubic.setDomain(0, 2);
+        Assertions.Assert(cubic.evaluateAtPointByY(8).getReal(), 2.0);
+        Assertions.Assert(Math.abs(cubic.evaluateAtPointByY(2).getReal() - Math.cbrt(2)) < 1e-15);
+
+        cubic.translate(1, 0);
+        cubic.setDomain(1, 3);
+        Assertions.Assert(cubic.evaluateAtPointByY(8).getReal(), 3.0);
+        Assertions.Assert(cubic.evaluateAtPointByY(9) == null);
+
+        // The inverse as a bound on the range (written in x, as symbolic inverses)
+        BoundedFunction inverse = (BoundedFunction)cubic.inverse();
+        Assertions.Assert(inverse instanceof InverseFunction);
+        Assertions.Assert(inverse.variableType() == VariableT.X);
+        Assertions.Assert(inverse.getDomain().getLowerBound(), 0.0);
+        Assertions.Assert(inverse.getDomain().getUpperBound(), 8.0);
+        Assertions.Assert(inverse.evaluateAtPoint(1).getReal(), 2.0);
+
+        // Equal inverses have equal hash codes
+        BoundedFunction other = new BoundedFunction(FunctionT.CUBIC);
+        other.translate(1, 0);
+        other.setDomain(1, 3);
+        Assertions.Assert(other.inverse().equals(inverse));
+        Assertions.Assert(other.inverse().hashCode(), inverse.hashCode());
+
+        // Beyond the range on the domain, the outermost pieces are continued while f is monotone: Sqrt[x] on
+        // [0, 20] reaches 5 at 25; x^2 on [1, 2] reaches 1/2 leftward, but turns at 0 before reaching -1
+        NumericInverse sqrt = NumericInverse.of(QueryBuilder.parse("Sqrt[x]"), 0, 20);
+        Assertions.Assert(Double.isNaN(sqrt.evaluate(5)));
+        Assertions.Assert(Math.abs(sqrt.extrapolate(5) - 25) < 1e-12);
+        Assertions.Assert(sqrt.extrapolate(2), 4.0);
+
+        NumericInverse square = NumericInverse.of(QueryBuilder.parse("x^2"), 1, 2);
+        Assertions.Assert(Math.abs(square.extrapolate(0.5) - Math.sqrt(0.5)) < 1e-15);
+        Assertions.Assert(Math.abs(square.extrapolate(100) - 10) < 1e-12);
+        Assertions.Assert(Double.isNaN(square.extrapolate(-1)));
+
+        StringBasedFunction root = new StringBasedFunction("Sqrt[x]");
+        root.setDomain(0, 20);
+        Assertions.Assert(Math.abs(root.evaluateAtPointByY(19).getReal() - 361) < 1e-9);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void integralsByY(int indent) throws DomainException
+    {
+        String testName = "Integrals of Inverses By Y";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // The integral of x^(1/3) from 0 to 8 is 12
+        BoundedFunction cubic = new BoundedFunction(FunctionT.CUBIC);
+        cubic.setDomain(0, 2);
+        Assertions.Assert(Math.abs(new DefiniteIntegral(0, 8, (BoundedFunction)cubic.inverse(), VariableT.X).evaluate() - 12) < 1e-9);
+
+        // The region between x = 2 and the inverse of y = x^3 + x for y in [0, 10]: 20 - (2 * 10 - (4 + 2))
+        StringBasedFunction g = new StringBasedFunction("x^3 + x");
+        g.setDomain(0, 2);
+
+        BoundedFunction two = new BoundedFunction(FunctionT.HORIZONTAL_LINE);
+        two.translate(0, 2);
+        DifferenceBoundedFunction width = new DifferenceBoundedFunction(two, new InverseFunction(g, g.numericInverse()));
+        Assertions.Assert(Math.abs(new DefiniteIntegral(0, 10, width, VariableT.X).evaluate() - 6) < 1e-9);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -32,6 +32,55 @@ public class MonotonicityTest
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }
 
+    @Test
+    public void testSignMap()
+    {
+        String testName = "Derivative Sign Map Test";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        // x(x - 1)(x + 1) turns at -1 / Sqrt[3] and 1 / Sqrt[3]
+        StringBasedFunction cubic = new StringBasedFunction("x(x - 1)(x + 1)");
+        cubic.setDomain(new Domain(-5, 5));
+
+        SignMap signs = cubic.signMap();
+        double turn = 1 / Math.sqrt(3);
+
+        Assertions.Assert(signs.breakpoints().length, 4);
+        Assertions.Assert(signs.pieces(), 3);
+        Assertions.Assert(signs.sign(0) < 0);
+        Assertions.Assert(signs.piece(-2), 0);
+        Assertions.Assert(signs.piece(0), 1);
+        Assertions.Assert(signs.piece(turn), 2);
+
+        Assertions.Assert(signs.isMonotone(-5, -turn), true);
+        Assertions.Assert(signs.isMonotone(-turn, turn), true);
+        Assertions.Assert(signs.isNonincreasing(-turn, turn), true);
+        Assertions.Assert(signs.isMonotone(turn, 5), true);
+        Assertions.Assert(signs.isMonotone(-1, 0), false);
+        Assertions.Assert(signs.isMonotone(0, 1), false);
+        Assertions.Assert(signs.isNondecreasing(1, 4), true);
+
+        // Reused for every interval of the domain; recomputed when the function is transformed
+        Assertions.Assert(cubic.signMap() == signs);
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(cubic, -0.5, 0.5), true);
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(cubic, -0.6, 0.5), false);
+
+        cubic.translate(3, 0);
+        Assertions.Assert(cubic.signMap() != signs);
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(cubic, -5, 2), true);
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(cubic, 2, 3), false);
+
+        // A constant piece is both nondecreasing and nonincreasing
+        StringBasedFunction constant = new StringBasedFunction("4");
+        constant.setDomain(new Domain(-5, 5));
+        Assertions.Assert(constant.signMap().isMonotone(-5, 5), true);
+        Assertions.Assert(constant.signMap().isNondecreasing(-5, 5), true);
+        Assertions.Assert(constant.signMap().isNonincreasing(-5, 5), true);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
     private void runMonotonicity(int indent, String func, double lowerX, double upperX, boolean expected)
     {
         String testName = func;
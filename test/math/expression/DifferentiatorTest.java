@@ -0,0 +1,239 @@
+package math.expression;
+
+import org.junit.Test;
+
+import exceptions.ParseException;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class DifferentiatorTest
+{
+    @Test
+    public void test() throws ParseException
+    {
+        String testName = "Symbolic Differentiation Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        rules(1);
+        simplification(1);
+        higherOrder(1);
+        memoization(1);
+        numericAgreement(1);
+        dualNumbers(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    /**
+     * First derivatives of the function language (simplified)
+     */
+    private void rules(int indent) throws ParseException
+    {
+        String testName = "Derivative Rules";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runDerivative("x^2 - 4x", 1, "2*x - 4");
+        runDerivative("x^3 - 2x^2 + x - 7", 1, "3*x^2 - 4*x + 1");
+        runDerivative("Sin[x^2]", 1, "2*x*Cos[x^2]");
+        runDerivative("Exp[-x^2]", 1, "-2*x*Exp[-x^2]");
+        runDerivative("E^(2x)", 1, "2*E^(2*x)");
+        runDerivative("Log[x^2 + 1]", 1, "2*x/(x^2 + 1)");
+        runDerivative("Log10[x]", 1, "1/(x*Log[10])");
+        runDerivative("x Exp[x]", 1, "Exp[x] + x*Exp[x]");
+        runDerivative("1/x", 1, "-1/x^2");
+        runDerivative("Sqrt[1 - x^2]", 1, "-x/(1 - x^2)^0.5");
+        runDerivative("7", 1, "0");
+
+        // No rule: the caller falls back to the CAS
+        try
+        {
+            Differentiator.simplifiedDerivative(ExpressionParser.parse("Gamma[x]"), "x", 1);
+            Assertions.Assert(false);
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void runDerivative(String f, int n, String expected) throws ParseException
+    {
+        Assertions.Assert(Differentiator.simplifiedDerivative(ExpressionParser.parse(f), "x", n).toString(), expected);
+    }
+
+    private void simplification(int indent) throws ParseException
+    {
+        String testName = "Simplification";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runSimplify("2x + 3x - x", "4*x");
+        runSimplify("x x^2 x^-3", "1");
+        runSimplify("Sin[x] Cos[x] - Cos[x] Sin[x]", "0");
+        runSimplify("2 (x + 1) - 2", "2*x");
+        runSimplify("(x^2)^3", "x^6");
+        runSimplify("(2 x)^2", "4*x^2");
+        runSimplify("Cos[0] + Log[1] x + Sqrt[4]", "3");
+        runSimplify("1 - x^2", "1 - x^2");
+        runSimplify("(-8)^(1/3)", "(-8)^0.3333333333333333");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void runSimplify(String e, String expected) throws ParseException
+    {
+        Assertions.Assert(Simplifier.simplify(ExpressionParser.parse(e)).toString(), expected);
+    }
+
+    /**
+     * Higher-order derivatives collect the terms the raw rules duplicate
+     */
+    private void higherOrder(int indent) throws ParseException
+    {
+        String testName = "Higher-Order Derivatives";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runDerivative("Sin[x] Cos[x]", 2, "-4*Cos[x]*Sin[x]");
+        runDerivative("(x - 1)^2 (x + 1)", 2, "6*x - 2");
+        runDerivative("Cos[x]^2 + Sin[x]^2", 1, "0");
+        runDerivative("x^5", 5, "120");
+        runDerivative("x^5", 6, "0");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * A derivative (of each order) is computed once per function
+     */
+    private void memoization(int indent) throws ParseException
+    {
+        String testName = "Memoization";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Expr f = ExpressionParser.parse("x^4 Sin[x] + Exp[3x]");
+
+        long misses = Differentiator.getMemo().getMisses();
+
+        Expr third = Differentiator.simplifiedDerivative(f, "x", 3);
+
+        // The 3rd derivative memoizes the 1st and 2nd
+        Assertions.Assert(Differentiator.getMemo().getMisses() - misses, 3L);
+
+        long hits = Differentiator.getMemo().getHits();
+
+        Assertions.Assert(Differentiator.simplifiedDerivative(ExpressionParser.parse("x^4 Sin[x] + Exp[3x]"), "x", 3) == third);
+        Assertions.Assert(Differentiator.getMemo().getHits() - hits, 1L);
+
+        // The 4th derivative differentiates the memoized 3rd
+        Differentiator.simplifiedDerivative(f, "x", 4);
+        Assertions.Assert(Differentiator.getMemo().getMisses() - misses, 4L);
+
+        // Orders and variables are distinct keys
+        Assertions.Assert(Differentiator.simplifiedDerivative(f, "x", 1) != third);
+        Assertions.Assert(Differentiator.simplifiedDerivative(f, "y", 1).toString(), "0");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Simplified derivatives agree with central differences
+     */
+    private void numericAgreement(int indent) throws ParseException
+    {
+        String testName = "Agreement with Finite Differences";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        String[] functions = { "x/(x + 1)", "Sqrt[x] Log[x]", "Sin[x]^2 Exp[-x]", "x^3 - 2x + Cos[2x]", "Log2[x^2 + 1]" };
+        double[] points = { 0.5, 1.25, 2, 3.5 };
+        final double h = 1e-5;
+
+        for (String f : functions)
+        {
+            Expr e = ExpressionParser.parse(f);
+            Expr fPrime = Differentiator.simplifiedDerivative(e, "x", 1);
+
+            for (double x : points)
+            {
+                double central = (e.evaluate("x", x + h) - e.evaluate("x", x - h)) / (2 * h);
+
+                Assertions.Assert(Math.abs(fPrime.evaluate("x", x) - central) < 1e-6);
+            }
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Forward-mode (hyper-dual) derivatives agree with the compiled symbolic derivatives
+     */
+    private void dualNumbers(int indent) throws ParseException
+    {
+        String testName = "Dual and Hyper-Dual Numbers";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        String[] functions = { "x/(x + 1)", "Sqrt[x] Log[x]", "Sin[x]^2 Exp[-x]", "x^3 - 2x + Cos[2x]", "Log2[x^2 + 1]",
+                               "Tan[x/3] + Sec[x/3] + Csc[x] + Cot[x]", "ArcSin[x/4] + ArcCos[x/5] + ArcTan[x^2]",
+                               "Sinh[x] Cosh[x] - Tanh[x]", "CubeRoot[x] + Surd[x, 5] + Log[3, x] + Log10[x]", "2^x + x^x",
+                               "(x^2 + 1)^(-3/2) + 3 (x^2 + 1)" };
+        double[] points = { 0.5, 1.25, 2, 3.5 };
+
+        for (String f : functions)
+        {
+            Expr e = ExpressionParser.parse(f);
+            DualEvaluator hyperDual = DualEvaluator.compile(e, "x");
+            DualEvaluator dual = DualEvaluator.compile(e, "x", 1);
+
+            Expr fPrime = Differentiator.simplifiedDerivative(e, "x", 1);
+            Expr fDoublePrime = Differentiator.simplifiedDerivative(e, "x", 2);
+
+            for (double x : points)
+            {
+                double value = hyperDual.evaluate(x);
+
+                Assertions.Assert(Math.abs(value - e.evaluate("x", x)) <= 1e-12 * Math.max(1, Math.abs(value)));
+                Assertions.Assert(Math.abs(hyperDual.slope() - fPrime.evaluate("x", x)) <= 1e-10 * Math.max(1, Math.abs(hyperDual.slope())));
+                Assertions.Assert(Math.abs(hyperDual.curvature() - fDoublePrime.evaluate("x", x)) <= 1e-9 * Math.max(1, Math.abs(hyperDual.curvature())));
+
+                Assertions.Assert(dual.slope(x) == hyperDual.slope());
+            }
+        }
+
+        // Piecewise functions: the derivatives of the selected piece
+        DualEvaluator max = DualEvaluator.compile(ExpressionParser.parse("Max[x^2, 4 - x] + Abs[x - 3]"), "x");
+        Assertions.Assert(max.evaluate(0), 7.0);
+        Assertions.Assert(max.slope(), -2.0);
+        Assertions.Assert(max.evaluate(4), 17.0);
+        Assertions.Assert(max.slope(), 9.0);
+        Assertions.Assert(max.curvature(), 2.0);
+
+        // Undefined values have undefined derivatives (not the finite 1 / x of Log[x] at x < 0)
+        for (String f : new String[] { "Log[x]", "Log10[x]", "Log2[x]", "Log[3, x]", "x^x" })
+        {
+            DualEvaluator undefined = DualEvaluator.compile(ExpressionParser.parse(f), "x");
+
+            Assertions.Assert(Double.isNaN(undefined.evaluate(-1.7)));
+            Assertions.Assert(Double.isNaN(undefined.slope()));
+            Assertions.Assert(Double.isNaN(undefined.curvature()));
+            Assertions.Assert(Double.isNaN(DualEvaluator.compile(ExpressionParser.parse(f), "x", 1).slope(-1.7)));
+        }
+
+        // No derivative rule
+        try
+        {
+            DualEvaluator.compile(ExpressionParser.parse("Gamma[x]"), "x");
+            Assertions.Assert(false);
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,94 @@
+package math.expression;
+
+import org.junit.Test;
+
+import exceptions.ParseException;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class ExpressionParserTest
+{
+    @Test
+    public void test() throws ParseException
+    {
+        String testName = "Expression Parser Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        roundTrip(1);
+        evaluate(1);
+        hashConsing(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    /**
+     * Parsing then writing results in (normalized) InputForm
+     */
+    private void roundTrip(int indent) throws ParseException
+    {
+        String testName = "Round Trip";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runRoundTrip("x^2 - 4x", "x^2 - 4*x");
+        runRoundTrip("1/2 x - 4", "x/2 - 4");
+        runRoundTrip("x(x - 2)(x + 2)", "x*(x - 2)*(x + 2)");
+        runRoundTrip("Exp [ -x^2 ]", "Exp[-x^2]");
+        runRoundTrip("2^-x", "2^(-x)");
+        runRoundTrip("(a^b)^c", "(a^b)^c");
+        runRoundTrip("a^b^c", "a^b^c");
+        runRoundTrip("-(x + 1)", "-(x + 1)");
+        runRoundTrip("1.5*^-3", "0.0015");
+        runRoundTrip("NSolve[f == 0 && -1 < x < 1, x]//N", "N[NSolve[f == 0 && -1 < x && x < 1, x]]");
+        runRoundTrip("fLocal[x_]:=x^2 ; fLocal[2]", "fLocal[x_] := x^2; fLocal[2]");
+        runRoundTrip("InverseFunction[ # + 1 &]", "InverseFunction[# + 1 &]");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void runRoundTrip(String input, String expected) throws ParseException
+    {
+        Assertions.Assert(ExpressionParser.parse(input).toString(), expected);
+    }
+
+    private void evaluate(int indent) throws ParseException
+    {
+        String testName = "Evaluate";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Assertions.Assert(ExpressionParser.parse("1/2 x - 4").evaluate("x", 2), -3);
+        Assertions.Assert(ExpressionParser.parse("Surd[x, 3]").evaluate("x", -27), -3);
+        Assertions.Assert(ExpressionParser.parse("2 Pi x").evaluate("x", 0.5), 2 * Math.PI * 0.5);
+        Assertions.Assert(ExpressionParser.parse("x Exp[-x^2]").evaluate("x", 1), Math.exp(-1));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Structurally equal expressions are the same instance
+     */
+    private void hashConsing(int indent) throws ParseException
+    {
+        String testName = "Hash-Consing";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Expr parsed = ExpressionParser.parse("x^2 - 4x");
+        Expr x = Expr.symbol("x");
+        Expr built = Expr.call(Expr.PLUS, Expr.call(Expr.POWER, x, Expr.number(2)),
+                                          Expr.call(Expr.TIMES, Expr.number(-1), Expr.call(Expr.TIMES, Expr.number(4), x)));
+
+        Assertions.Assert(parsed == built);
+        Assertions.Assert(ExpressionParser.parse("x^2 - 4*x") == parsed);
+        Assertions.Assert(ExpressionParser.parse("x^2 + 4x") != parsed);
+
+        // Substitution shares the unchanged subtrees
+        Expr shifted = parsed.substitute("x", ExpressionParser.parse("x - 1"));
+        Assertions.Assert(shifted == ExpressionParser.parse("(x - 1)^2 - 4(x - 1)"));
+        Assertions.Assert(shifted.arg(0).arg(1) == parsed.arg(0).arg(1));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
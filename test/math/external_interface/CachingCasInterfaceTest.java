@@ -0,0 +1,86 @@
+package math.external_interface;
+
+import org.junit.Test;
+
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class CachingCasInterfaceTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Caching CAS Interface Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        normalize(1);
+        hitsAndMisses(1);
+        eviction(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void normalize(int indent)
+    {
+        String testName = "Query Normalization";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Assertions.Assert(CachingCasInterface.normalize("NSolve[ x^2  ==  4 , x ]"), "NSolve[x^2==4,x]");
+        Assertions.Assert(CachingCasInterface.normalize("  x - 4 "), "x-4");
+
+        // Juxtaposition is multiplication: x y is not the symbol xy
+        Assertions.Assert(CachingCasInterface.normalize("2 x   y"), "2 x y");
+
+        // Operators do not fuse
+        Assertions.Assert(CachingCasInterface.normalize("a / .5"), "a/ .5");
+        Assertions.Assert(CachingCasInterface.normalize("1 - -2"), "1- -2");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void hitsAndMisses(int indent)
+    {
+        String testName = "Hits and Misses";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        CachingCasInterface cas = new CachingCasInterface(NativeCasInterface.getInstance(), 10);
+
+        Assertions.Assert(cas.query("InputForm[D[x^3, x]]"), "3*x^2");
+        Assertions.Assert(cas.query("InputForm[ D[ x^3, x ] ]"), "3*x^2");
+        Assertions.Assert(cas.queryComplexNumber("InputForm[Integrate[x, {x, 0, 2}]]").getReal(), 2);
+
+        Assertions.Assert(cas.getQueryCache().getHits(), 1);
+        Assertions.Assert(cas.getQueryCache().getMisses(), 1);
+        Assertions.Assert(cas.getNumberCache().getMisses(), 1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void eviction(int indent)
+    {
+        String testName = "Least-Recently Used Eviction";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        CachingCasInterface cas = new CachingCasInterface(NativeCasInterface.getInstance(), 2);
+
+        cas.query("InputForm[1 + 1]");
+        cas.query("InputForm[2 + 2]");
+        cas.query("InputForm[1 + 1]");  // 1 + 1 is now most-recently used
+        cas.query("InputForm[3 + 3]");  // evicts 2 + 2
+
+        Assertions.Assert(cas.getQueryCache().size(), 2);
+        Assertions.Assert(cas.getQueryCache().getEvictions(), 1);
+
+        cas.query("InputForm[1 + 1]");
+        Assertions.Assert(cas.getQueryCache().getHits(), 2);
+
+        cas.query("InputForm[2 + 2]");
+        Assertions.Assert(cas.getQueryCache().getMisses(), 4);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,137 @@
+package math.external_interface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import globals.Constants;
+import solver.area.TextbookAreaProblem;
+import solver.area.parser.AreaProblemParserTest;
+import solver.area.regionComputer.PlanarGraphBuilderTest;
+import solver.area.regionComputer.undirectedPlanarGraph.NodePointT;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarEdgeAnnotation;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class CasDispatcherTest
+{
+    // Latency of a simulated kernel query
+    private static final long LATENCY = 20;
+
+    @Test
+    public void test() throws InterruptedException
+    {
+        String testName = "CAS Dispatcher Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        results(1);
+        throughput(1);
+        planarGraph(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void results(int indent)
+    {
+        String testName = "Asynchronous Results Match Synchronous Results";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        CasInterface cas = NativeCasInterface.getInstance();
+
+        List<CompletableFuture<String>> pending = new ArrayList<CompletableFuture<String>>();
+        for (int n = 1; n <= 10; n++)
+        {
+            pending.add(cas.queryAsync("InputForm[D[x^" + n + ", x]]"));
+        }
+
+        for (int n = 1; n <= 10; n++)
+        {
+            Assertions.Assert(pending.get(n - 1).join(), cas.query("InputForm[D[x^" + n + ", x]]"));
+        }
+
+        Assertions.Assert(cas.queryComplexNumberAsync("InputForm[Integrate[x, {x, 0, 2}]]").join().getReal(), 2);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Submitting all queries before joining keeps every simulated kernel busy.
+     */
+    private void throughput(int indent) throws InterruptedException
+    {
+        String testName = "Throughput of Pipelined Queries";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        final int queries = 24;
+
+        Assertions.Assert(peakInFlight(new SimulatedKernelCasInterface(LATENCY, 1), queries), 1);
+        Assertions.Assert(peakInFlight(new SimulatedKernelCasInterface(LATENCY, 4), queries), 4);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * @return the most queries in flight at once: queries are held on their kernels until every kernel is busy
+     */
+    private static int peakInFlight(SimulatedKernelCasInterface cas, int queries) throws InterruptedException
+    {
+        cas.closeGate();
+
+        List<CompletableFuture<String>> pending = new ArrayList<CompletableFuture<String>>();
+        for (int q = 0; q < queries; q++)
+        {
+            pending.add(cas.queryAsync("InputForm[" + q + " + 1]"));
+        }
+
+        // The wait bounds a failure (a dispatcher not pipelining); it is not a measurement
+        Assertions.Assert(cas.awaitInFlight(cas.concurrency(), 10000));
+        Assertions.Assert(cas.getInFlight(), cas.concurrency());
+        cas.openGate();
+
+        for (int q = 0; q < queries; q++)
+        {
+            Assertions.Assert(pending.get(q).join(), Integer.toString(q + 1));
+        }
+
+        Assertions.Assert(cas.getQueryCount(), queries);
+
+        return cas.getPeakInFlight();
+    }
+
+    /**
+     * The intersection queries of a planar graph are submitted together.
+     */
+    private void planarGraph(int indent)
+    {
+        String testName = "Planar Graph Intersections on a Simulated Kernel";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        TextbookAreaProblem problem = AreaProblemParserTest.makeAreaProblem("{ x ; 1/2 x - 4 ; 2 - x ; 0} // Made up: 3 regions");
+
+        try
+        {
+            SimulatedKernelCasInterface kernel = new SimulatedKernelCasInterface(LATENCY, 4);
+            CasInterface.initialize(kernel);
+
+            PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph = PlanarGraphBuilderTest.buildGraph(problem);
+
+            Assertions.Assert(graph.size(), 14);
+            Assertions.Assert(graph.numEdges(), 16);
+
+            System.out.println("\tKernel queries: " + kernel.getQueryCount());
+        }
+        finally
+        {
+            CasInterface.initialize(Constants.CAS_BACKEND);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,269 @@
+package math.external_interface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class CasPoolTest
+{
+    // Latency of a simulated kernel query
+    private static final long LATENCY = 20;
+
+    //
+    // A simulated kernel that can be killed
+    //
+    private static class MortalKernel extends SimulatedKernelCasInterface
+    {
+        // Queries in progress on all kernels, and the most at any time
+        private static final AtomicInteger BUSY = new AtomicInteger();
+        private static final AtomicInteger PEAK_BUSY = new AtomicInteger();
+
+        private volatile boolean _dead = false;
+        private volatile boolean _closed = false;
+
+        // The first query waits here (on its kernel) for the queries of the other kernels; null if none
+        private CyclicBarrier _rendezvous;
+
+        public MortalKernel() { this(null); }
+
+        public MortalKernel(CyclicBarrier rendezvous)
+        {
+            super(LATENCY, 1);
+
+            _rendezvous = rendezvous;
+        }
+
+        public void kill() { _dead = true; }
+
+        @Override
+        public String query(String q)
+        {
+            if (_dead) throw new IllegalStateException("Kernel link is dead");
+
+            PEAK_BUSY.accumulateAndGet(BUSY.incrementAndGet(), Math::max);
+            try
+            {
+                CyclicBarrier rendezvous = _rendezvous;
+                _rendezvous = null;
+
+                // The timeout bounds a failure (kernels not borrowed concurrently); it is not a measurement
+                if (rendezvous != null) rendezvous.await(10, TimeUnit.SECONDS);
+
+                return super.query(q);
+            }
+            catch (InterruptedException | BrokenBarrierException | TimeoutException e)
+            {
+                throw new IllegalStateException("Kernels were not borrowed concurrently", e);
+            }
+            finally
+            {
+                BUSY.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean connection() { return !_dead; }
+
+        @Override
+        public void close() { _closed = true; }
+    }
+
+    @Test
+    public void test() throws InterruptedException
+    {
+        String testName = "CAS Pool Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        parallelQueries(1);
+        relaunchAfterFailure(1);
+        healthCheckOnCheckout(1);
+        waitersWokenByDiscard(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    /**
+     * Independent threads (solvers, for example) query different kernels at the same time.
+     */
+    private void parallelQueries(int indent) throws InterruptedException
+    {
+        String testName = "Parallel Queries";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        final int threads = 4;
+        final int queriesPerThread = 6;
+
+        // Each kernel's first query waits until every kernel is answering a query
+        CyclicBarrier allBorrowed = new CyclicBarrier(threads);
+        CasPool pool = new CasPool(() -> new MortalKernel(allBorrowed), threads);
+        MortalKernel.PEAK_BUSY.set(0);
+
+        List<Thread> solvers = new ArrayList<Thread>();
+        List<String> failures = new ArrayList<String>();
+        for (int t = 0; t < threads; t++)
+        {
+            final int id = t;
+            Thread solver = new Thread(() ->
+            {
+                for (int q = 0; q < queriesPerThread; q++)
+                {
+                    try
+                    {
+                        String result = pool.query("InputForm[" + id + " * 10 + " + q + "]");
+
+                        if (!result.equals(Integer.toString(id * 10 + q)))
+                        {
+                            synchronized (failures) { failures.add(result); }
+                        }
+                    }
+                    catch (RuntimeException e)
+                    {
+                        synchronized (failures) { failures.add(e.getMessage()); }
+                    }
+                }
+            });
+            solvers.add(solver);
+            solver.start();
+        }
+
+        for (Thread solver : solvers) solver.join();
+
+        Assertions.Assert(failures.isEmpty());
+        Assertions.Assert(pool.launched(), threads);
+        Assertions.Assert(pool.idle(), threads);
+        Assertions.Assert(MortalKernel.PEAK_BUSY.get(), threads);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * A query on a dead link is retried on a relaunched link.
+     */
+    private void relaunchAfterFailure(int indent)
+    {
+        String testName = "Relaunch After Failure";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        CasPool pool = new CasPool(MortalKernel::new, 1);
+
+        MortalKernel kernel = (MortalKernel)pool.checkout();
+        pool.checkin(kernel);
+        kernel.kill();
+
+        Assertions.Assert(pool.query("InputForm[2 * 3]"), "6");
+        Assertions.Assert(pool.relaunches(), 1);
+        Assertions.Assert(pool.launched(), 1);
+        Assertions.Assert(kernel._closed);
+
+        // A failing query on a healthy link is not retried
+        try
+        {
+            pool.query("InputForm[UnknownFunction[x]]");
+            Assertions.Assert(false);
+        }
+        catch (RuntimeException e)
+        {
+            Assertions.Assert(pool.relaunches(), 1);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Idle links are verified (with connection()) before use.
+     */
+    private void healthCheckOnCheckout(int indent)
+    {
+        String testName = "Health Check on Checkout";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Verify every checkout
+        CasPool pool = new CasPool(MortalKernel::new, 2, 0);
+
+        MortalKernel first = (MortalKernel)pool.checkout();
+        MortalKernel second = (MortalKernel)pool.checkout();
+        pool.checkin(first);
+        pool.checkin(second);
+        first.kill();
+
+        CasInterface cas = pool.checkout();
+        Assertions.Assert(cas == second);
+        Assertions.Assert(pool.relaunches(), 1);
+
+        // The dead link's replacement is launched on demand
+        CasInterface replacement = pool.checkout();
+        Assertions.Assert(replacement != first && replacement != second);
+        Assertions.Assert(pool.launched(), 2);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Callers waiting for the only link are woken when it is discarded: each launches its own replacement
+     * (here, links that always fail), so every query fails rather than waiting forever.
+     */
+    private void waitersWokenByDiscard(int indent) throws InterruptedException
+    {
+        String testName = "Waiters Woken by Discard";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        CasPool pool = new CasPool(() ->
+        {
+            MortalKernel kernel = new MortalKernel();
+            kernel.kill();
+            return kernel;
+        }, 1);
+
+        // The only link is checked out: both solvers wait for it
+        CasInterface only = pool.checkout();
+
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> solvers = new ArrayList<Thread>();
+        for (int t = 0; t < 2; t++)
+        {
+            Thread solver = new Thread(() ->
+            {
+                try
+                {
+                    pool.query("InputForm[2 * 3]");
+                }
+                catch (RuntimeException e)
+                {
+                    failures.incrementAndGet();
+                }
+            });
+            solvers.add(solver);
+            solver.start();
+        }
+
+        for (Thread solver : solvers)
+        {
+            while (solver.getState() != Thread.State.WAITING) Thread.sleep(1);
+        }
+
+        pool.discard(only);
+
+        // The timeout bounds a failure (a solver never woken); it is not a measurement
+        for (Thread solver : solvers) solver.join(10000);
+
+        for (Thread solver : solvers) Assertions.Assert(!solver.isAlive());
+        Assertions.Assert(failures.get(), 2);
+        Assertions.Assert(pool.launched(), 0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
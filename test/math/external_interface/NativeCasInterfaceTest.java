@@ -0,0 +1,292 @@
+package math.external_interface;
+
+import org.junit.Test;
+
+import exceptions.DomainException;
+import globals.Constants;
+import representation.ComplexNumber;
+import solver.area.TextbookAreaProblem;
+import solver.area.parser.AreaProblemParserTest;
+import solver.area.solver.SolverMain;
+import utilities.Assertions;
+import utilities.StringUtilities;
+import utilities.Utilities;
+
+public class NativeCasInterfaceTest
+{
+    @Test
+    public void test() throws DomainException
+    {
+        String testName = "Native CAS Interface Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        evaluateFunctionAtAPoint(1);
+        evaluateAll(1);
+        derivatives(1);
+        zeros(1);
+        integrals(1);
+        extrema(1);
+        outputForm(1);
+        scopedQueries(1);
+        complexValues(1);
+        unsupportedQueries(1);
+        boundedBySquareRoot(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    /**
+     * @param indent -- level of indentation for this test.
+     * Evaluate f(x) = x^2 + 1 and Sin[Pi x] for x \in [-10, 10]
+     */
+    private void evaluateFunctionAtAPoint(int indent)
+    {
+        String testName = "Evaluate a Function At a Point";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        for (double x = -10; x < 10; x++)
+        {
+            Assertions.Assert(cas.evaluateAtPoint("x^2 + 1", x).getReal(), x * x + 1);
+            Assertions.Assert(cas.evaluateAtPoint("Sin[Pi x]", x).getReal(), 0);
+            Assertions.Assert(cas.evaluateAtPoint("x(x - 2)(x + 2)", x).getReal(), x * (x - 2) * (x + 2));
+        }
+
+        // The query sequence used by the Mathematica backend
+        String[] queries = { "Clear[fLocal]", "Clear[x]", "fLocal[x_]:=Surd[x, 3]", "NumberForm[fLocal[-8.0], Infinity, ExponentFunction -> (Null &)]" };
+        Assertions.Assert(cas.querySequence(queries).getReal(), -2);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void evaluateAll(int indent)
+    {
+        String testName = "Evaluate a Function at Many Points";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        double[] xs = { -2, -1, 0, 1, 2 };
+        double[] ys = cas.evaluateAll("x^2 + 1", xs);
+        for (int i = 0; i < xs.length; i++) Assertions.Assert(ys[i], xs[i] * xs[i] + 1);
+
+
+        // The reply of the Mathematica backend's Table query
+        double[] parsed = CasInterface.parseRealList("{1., 2.5 + 1.*I, -3.5*^-2, Indeterminate}", 4);
+        Assertions.Assert(parsed[0], 1);
+        Assertions.Assert(parsed[1], 2.5);
+        Assertions.Assert(parsed[2], -0.035);
+        Assertions.Assert(Double.isNaN(parsed[3]));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void derivatives(int indent)
+    {
+        String testName = "Derivatives";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        Assertions.Assert(cas.query("InputForm[Factor[D[x^2 - 4x, {x, 1 }]]]"), "2*x - 4");
+        Assertions.Assert(cas.query("InputForm[Factor[D[x^3, {x, 2 }]]]"), "6*x");
+        Assertions.Assert(cas.query("InputForm[D[Exp [ 2 (x - 1) ], x]]"), "2*Exp[2*(x - 1)]");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void zeros(int indent)
+    {
+        String testName = "Zeros and Intersections";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        // Exclusive bounds discard roots on the bounds
+        Assertions.Assert(cas.query("InputForm[NSolve[{Factor[x^2 - 9] == 0,-3 < x < 5}, {x}]] //N"), "{{x -> 3}}");
+        Assertions.Assert(cas.query("InputForm[NSolve[{Factor[x^2 - 9] == 0,-3 <= x <= 5}, {x}]] //N"), "{{x -> -3}, {x -> 3}}");
+
+        // Tangential root
+        Assertions.Assert(cas.query("InputForm[NSolve[{(x - 1)^2 == 0, -5 < x < 5}, {x}]]"), "{{x -> 1}}");
+
+        // No real roots
+        Assertions.Assert(cas.query("InputForm[NSolve[{2^x == 0, -5 < x < 5}, {x}]]"), "{}");
+
+        // Poles are not roots
+        Assertions.Assert(cas.query("InputForm[NSolve[{Tan[x] == 0, -2 < x < 2}, {x}]]"), "{{x -> 0}}");
+
+        // Intersection with infinite bounds
+        Assertions.Assert(cas.query("NSolve[ x^2  ==  x + 2  && -Infinity <= x <= Infinity, x, Reals]//N"), "{{x -> -1}, {x -> 2}}");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void integrals(int indent)
+    {
+        String testName = "Definite Integrals";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        Assertions.Assert(cas.queryComplexNumber("InputForm[Integrate[x^2, { x, 0, 3 } ] ]").getReal(), 9);
+        Assertions.Assert(cas.queryComplexNumber("InputForm[Integrate[Sin[x], { x, 0, Pi } ] ]").getReal(), 2);
+        Assertions.Assert(Utilities.equalDoubles(cas.queryComplexNumber("InputForm[Integrate[x Exp[-x^2], { x, 0, 1 } ] ]").getReal(), (1 - Math.exp(-1)) / 2));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void extrema(int indent)
+    {
+        String testName = "Extreme Values";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        Assertions.Assert(cas.queryComplexNumber("InputForm[MaxValue[{-x^2 + 4, -5.0 <= x <= 5.0}, {x}]]//N").getReal(), 4);
+        Assertions.Assert(cas.queryComplexNumber("InputForm[MinValue[{x^2 - 6x, -5.0 <= x <= 5.0}, {x}]]//N").getReal(), -9);
+
+        // Endpoint extremum
+        Assertions.Assert(cas.queryComplexNumber("InputForm[MaxValue[{x^3, -1 <= x <= 2}, {x}]]//N").getReal(), 8);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Results not wrapped in InputForm (or NumberForm) have the 6 significant digits of Mathematica OutputForm
+     */
+    private void outputForm(int indent)
+    {
+        String testName = "Output Form";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        Assertions.Assert(cas.query("x = 3"), "3");
+        Assertions.Assert(cas.queryComplexNumber("N[Pi] / 6").getReal() == 0.523599);
+        Assertions.Assert(cas.queryComplexNumber("InputForm[N[Pi] / 6]").getReal() == Math.PI / 6);
+        Assertions.Assert(cas.query("x^2 + 1 /. x -> {1.0, 2.0} //N"), "{2, 5}");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Queries in the scoped form sent to the kernel: Block[{x, y, fLocal}, q]
+     */
+    private void scopedQueries(int indent)
+    {
+        String testName = "Scoped Queries";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        Assertions.Assert(cas.query("Block[{x, y, fLocal}, InputForm[D[x^3, x]]]"), "3*x^2");
+        Assertions.Assert(cas.queryComplexNumber("Block[{x, y, fLocal}, fLocal[x_] := x^2 ; fLocal[3]]").getReal(), 9);
+        Assertions.Assert(cas.queryComplexNumber("Block[{x, y, fLocal}, N[Pi] / 6]").getReal() == 0.523599);
+
+        // Definitions inside the scope do not leak; initial values are local
+        Assertions.Assert(cas.query("x = 5 ; Block[{x}, x = 2 ; x + 1] + x"), "8");
+        Assertions.Assert(cas.query("Block[{x = 4}, x^2]"), "16");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Values undefined over the reals are the principal complex values Mathematica reports (not NaN)
+     */
+    private void complexValues(int indent)
+    {
+        String testName = "Complex Values";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        ComplexNumber root = cas.evaluateAtPoint("Sqrt[x-1]", 0);
+        Assertions.Assert(root.hasImaginaryPart());
+        Assertions.Assert(root.getReal(), 0);
+        Assertions.Assert(root.getImaginary(), 1);
+
+        ComplexNumber log = cas.evaluateAtPoint("Log[x]", -1);
+        Assertions.Assert(log.getReal(), 0);
+        Assertions.Assert(log.getImaginary(), Math.PI);
+
+        // Principal cube root of -8: 1 + Sqrt[3] I
+        ComplexNumber cube = cas.queryComplexNumber("N[(-8)^(1/3)]");
+        Assertions.Assert(cube.getReal(), 1);
+        Assertions.Assert(cube.getImaginary(), Math.sqrt(3));
+
+        // Real values are unchanged
+        Assertions.Assert(!cas.evaluateAtPoint("Sqrt[x-1]", 5).hasImaginaryPart());
+        Assertions.Assert(cas.evaluateAtPoint("Sqrt[x-1]", 5).getReal(), 2);
+        Assertions.Assert(cas.evaluateAtPoint("Surd[x, 3]", -8).getReal(), -2);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Queries the native CAS cannot answer fail as any unanswerable query does: IllegalArgumentException
+     */
+    private void unsupportedQueries(int indent)
+    {
+        String testName = "Unsupported Queries";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        NativeCasInterface cas = NativeCasInterface.getInstance();
+
+        assertUnsupported(cas, "Integrate[x^2, x]");
+        assertUnsupported(cas, "Limit[Sin[x]/x, x -> 0]");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertUnsupported(NativeCasInterface cas, String q)
+    {
+        try
+        {
+            cas.query(q);
+            Assertions.Assert(false);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Expected
+        }
+    }
+
+    /**
+     * LH, Page 431 #11: Sqrt[x-1] is imaginary on [0, 1), so the vertical at x = 0 meets only 2 and 0
+     */
+    private void boundedBySquareRoot(int indent) throws DomainException
+    {
+        String testName = "Region Bounded by a Square Root";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        try
+        {
+            CasInterface.initialize(NativeCasInterface.getInstance());
+
+            TextbookAreaProblem problem = AreaProblemParserTest.makeAreaProblem("{ Sqrt[x-1] ; 2 ; 0 } [0, 5] <4.66666> // LH, Page 431 #11;");
+            problem.setAttemptSolveByY(false);
+            problem.setExpectInvertibilitySuccess(true);
+
+            Assertions.Assert(new SolverMain().solve(problem), problem.getAnswer());
+        }
+        finally
+        {
+            CasInterface.initialize(Constants.CAS_BACKEND);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,180 @@
+package math.external_interface;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Test;
+
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class PersistentQueryStoreTest
+{
+    @Test
+    public void test() throws IOException
+    {
+        String testName = "Persistent Query Store Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        reopen(1);
+        versioning(1);
+        tornRecord(1);
+        sharedFile(1);
+        persistedReplies(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void reopen(int indent) throws IOException
+    {
+        String testName = "Results Survive Reopening";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        File file = File.createTempFile("query", ".store");
+        file.deleteOnExit();
+
+        PersistentQueryStore store = new PersistentQueryStore(file, "v1");
+        store.put("D[x^3,x]", "3 x^2");
+        store.put("NSolve[x^2==4,x]", "{{x -> -2.}, {x -> 2.}}");
+        Assertions.Assert(store.get("D[x^3,x]"), "3 x^2");
+        Assertions.Assert(store.get("D[x^4,x]") == null);
+
+        // Appends after a read are visible through the remapped view
+        store.put("D[x^4,x]", "4 x^3");
+        Assertions.Assert(store.get("D[x^4,x]"), "4 x^3");
+
+        // The most recent result wins
+        store.put("D[x^3,x]", "3*x^2");
+        store.close();
+
+        store = new PersistentQueryStore(file, "v1");
+        Assertions.Assert(store.size(), 3);
+        Assertions.Assert(store.get("D[x^3,x]"), "3*x^2");
+        Assertions.Assert(store.get("NSolve[x^2==4,x]"), "{{x -> -2.}, {x -> 2.}}");
+        store.close();
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void versioning(int indent) throws IOException
+    {
+        String testName = "Invalidation by Tag";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        File file = File.createTempFile("query", ".store");
+        file.deleteOnExit();
+
+        PersistentQueryStore store = new PersistentQueryStore(file, "v1");
+        store.put("2 * 3", "6");
+        store.close();
+
+        // A different producer discards the results
+        store = new PersistentQueryStore(file, "v2");
+        Assertions.Assert(store.size(), 0);
+        Assertions.Assert(store.get("2 * 3") == null);
+        store.put("2 * 3", "6");
+
+        store.invalidate();
+        Assertions.Assert(store.get("2 * 3") == null);
+        store.close();
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void tornRecord(int indent) throws IOException
+    {
+        String testName = "Torn Final Record";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        File file = File.createTempFile("query", ".store");
+        file.deleteOnExit();
+
+        PersistentQueryStore store = new PersistentQueryStore(file, "v1");
+        store.put("a", "1");
+        store.put("b", "2");
+        store.close();
+
+        // Simulate an interrupted append
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            raf.setLength(raf.length() - 1);
+        }
+
+        store = new PersistentQueryStore(file, "v1");
+        Assertions.Assert(store.size(), 1);
+        Assertions.Assert(store.get("a"), "1");
+        Assertions.Assert(store.get("b") == null);
+
+        store.put("b", "2");
+        Assertions.Assert(store.get("b"), "2");
+        store.close();
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void sharedFile(int indent) throws IOException
+    {
+        String testName = "Stores Sharing a File";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        File file = File.createTempFile("query", ".store");
+        file.deleteOnExit();
+
+        // Interleaved appends (as from two runs) neither overwrite nor hide each other
+        PersistentQueryStore first = new PersistentQueryStore(file, "v1");
+        PersistentQueryStore second = new PersistentQueryStore(file, "v1");
+        for (int i = 0; i < 50; i++)
+        {
+            first.put("a" + i, "" + i);
+            second.put("b" + i, "" + -i);
+        }
+        Assertions.Assert(first.get("b49"), "-49");
+        Assertions.Assert(second.get("a49"), "49");
+
+        // An invalidation by one is observed by the other, even once the file has grown past its old end
+        first.invalidate();
+
+        // Reads hold no mapping of the file, so invalidation truncates it to the header (on every platform)
+        Assertions.Assert(file.length() < 64);
+
+        for (int i = 0; i < 100; i++) first.put("c" + i, "" + i);
+        Assertions.Assert(second.get("a0") == null);
+        Assertions.Assert(second.get("c99"), "99");
+        second.put("d", "4");
+        Assertions.Assert(first.get("d"), "4");
+        first.close();
+        second.close();
+
+        PersistentQueryStore store = new PersistentQueryStore(file, "v1");
+        Assertions.Assert(store.size(), 101);
+        store.close();
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void persistedReplies(int indent)
+    {
+        String testName = "Only Results Are Persisted";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Assertions.Assert(LocalMathematicaCasInterface.isResult("{{x -> -2.}, {x -> 2.}}"));
+        Assertions.Assert(LocalMathematicaCasInterface.isResult("1 + x^2"));
+        Assertions.Assert(LocalMathematicaCasInterface.isResult("1.6653345369377348*^-16"));
+
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult(null));
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult("$Failed"));
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult("NSolve::ratnz: NSolve was unable to solve the system"));
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult("NSolve[Cos[x] == x^3 && 0 <= x <= 2, x]"));
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult("2 + Integrate[Sin[Sin[x]], x]"));
+        Assertions.Assert(!LocalMathematicaCasInterface.isResult("{{x -> 2.}"));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
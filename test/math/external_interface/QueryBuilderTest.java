@@ -0,0 +1,142 @@
+package math.external_interface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import globals.Constants;
+import math.analysis.derivatives.Derivatives;
+import math.analysis.intersection.Intersection;
+import math.expression.Differentiator;
+import math.expression.Expr;
+import math.expression.ExpressionCompiler;
+import representation.ComplexNumber;
+import representation.Point;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.Domain;
+import representation.bounds.functions.StringBasedFunction;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class QueryBuilderTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Query Builder Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        unparsedText(1);
+        unparsedQueries(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    /**
+     * Input outside the parsed syntax is written as is, and rejected by every in-process evaluation
+     */
+    private void unparsedText(int indent)
+    {
+        String testName = "Unparsed Text";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Expr factorial = QueryBuilder.parseOrText("x!");
+
+        Assertions.Assert(factorial.isText());
+        Assertions.Assert(factorial == Expr.text("x!"));
+        Assertions.Assert(QueryBuilder.equal(factorial, QueryBuilder.number(2)).toString(), "(x!) == 2");
+
+        // Parsed input is unchanged
+        Assertions.Assert(!QueryBuilder.parseOrText("x^2 - 4").isText());
+        Assertions.Assert(QueryBuilder.parseOrText("x^2 - 4") == QueryBuilder.parse("x^2 - 4"));
+
+        assertRejected(() -> Differentiator.derivative(factorial, "x"));
+        assertRejected(() -> ExpressionCompiler.compile(factorial, "x"));
+        assertRejected(() -> factorial.evaluate("x", 1));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertRejected(Runnable evaluation)
+    {
+        try
+        {
+            evaluation.run();
+            Assertions.Assert(false);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Expected
+        }
+    }
+
+    /**
+     * Functions outside the parsed syntax reach the kernel as written (as they did before queries were trees)
+     */
+    private void unparsedQueries(int indent)
+    {
+        String testName = "Unparsed Queries";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        RecordingKernel kernel = new RecordingKernel();
+
+        try
+        {
+            CasInterface.initialize(kernel);
+
+            Derivatives.getInstance().nthDerivative("x!", 1);
+            Assertions.Assert(kernel._queries.get(0), "InputForm[Factor[D[(x!), {x, 1}]]]");
+
+            StringBasedFunction f = new StringBasedFunction("x!");
+            f.setDomain(new Domain(0, 3));
+            StringBasedFunction g = new StringBasedFunction("2");
+            g.setDomain(new Domain(0, 3));
+
+            Intersection.getInstance().allIntersections(f, g, 0, 3);
+            Assertions.Assert(kernel._queries.get(1), "N[NSolve[(x!) == 2 && 0 <= x && x <= 3, x, Reals]]");
+        }
+        finally
+        {
+            CasInterface.initialize(Constants.CAS_BACKEND);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * A kernel recording the InputForm of each query; every query has no solutions
+     */
+    private static class RecordingKernel extends CasInterface
+    {
+        private final List<String> _queries = new ArrayList<String>();
+
+        @Override
+        public synchronized String query(String q)
+        {
+            _queries.add(q);
+            return "{}";
+        }
+
+        @Override
+        public ComplexNumber queryComplexNumber(String q) { return new ComplexNumber(Double.NaN); }
+
+        @Override
+        public ComplexNumber querySequence(String[] queries) { return new ComplexNumber(Double.NaN); }
+
+        @Override
+        public ComplexNumber evaluateAtPoint(String function, double x) { return new ComplexNumber(Double.NaN); }
+
+        @Override
+        public String getIntersection(BoundedFunction func1, BoundedFunction func2) { return "{}"; }
+
+        @Override
+        public String getLagrangePolynomial(Point[] points) { return "{}"; }
+
+        @Override
+        public boolean connection() { return true; }
+    }
+}
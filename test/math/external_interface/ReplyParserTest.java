@@ -0,0 +1,194 @@
+package math.external_interface;
+
+import java.math.BigDecimal;
+import java.util.Vector;
+
+import org.junit.Test;
+
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class ReplyParserTest
+{
+    //
+    // Replies captured from the kernel (intersections, zeros, extrema, and evaluated points)
+    //
+    private static final String[] RULE_LIST_REPLIES =
+    {
+        "{{x -> -2.0000000000000004}, {x -> 1.9999999999999998}}",
+        "{{x -> 0.7853981633974483}, {x -> 3.9269908169872414}}",
+        "{{x -> -4.}, {x -> 0.}, {x -> 4.}}",
+        "{{x -> 2.6666666666666665}}",
+        "{{x -> -1.5707963267948966}, {x -> 1.5707963267948966}, {x -> 4.71238898038469}}",
+        "{}"
+    };
+
+    private static final String[] COMPLEX_REPLIES =
+    {
+        "0.7937005259840998 - 0.000000000000000333066907387547 I",
+        "1. - 3.3306690738754696*^-16 I",
+        "16.",
+        "-40.000000000000000333066907387547",
+        "2.23606797749979"
+    };
+
+    @Test
+    public void test()
+    {
+        String testName = "CAS Reply Parser Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        values(1);
+        complexNumbers(1);
+        realParts(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void values(int indent)
+    {
+        String testName = "Rule Lists and Nested Lists";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        assertValues("{{x -> -2.0000000000000004}, {x -> 1.9999999999999998}}", -2.0000000000000004, 1.9999999999999998);
+        assertValues("{{x -> 5}, {x -> 2.}}", 5, 2);
+        assertValues("{1, {2.5, {3}}}", 1, 2.5, 3);
+        assertValues("{{x -> 1.6653345369377348*^-16}, {x -> 2.5*^3}}", 1.6653345369377348e-16, 2500);
+        assertValues("{}");
+
+        // Complex and symbolic solutions are not x-values
+        assertValues("{{x -> 1. + 2. I}, {x -> True}, {x -> Sqrt[2]}, {x -> 3.}}", 3);
+
+        // A buffer receives the leading values; the count is complete
+        double[] into = new double[1];
+        Assertions.Assert(ReplyParser.parseValues("{{x -> 1.}, {x -> 2.}}", into), 2);
+        Assertions.Assert(into[0], 1);
+
+        // Every reply agrees with the previous (split and parse) implementation
+        for (String reply : RULE_LIST_REPLIES)
+        {
+            double[] values = ReplyParser.parseValues(reply);
+            Vector<Double> legacy = legacyParseXValues(reply);
+
+            Assertions.Assert(values.length, legacy.size());
+            for (int i = 0; i < values.length; i++) Assertions.Assert(values[i] == legacy.get(i));
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertValues(String reply, double... expected)
+    {
+        double[] values = ReplyParser.parseValues(reply);
+
+        Assertions.Assert(values.length, expected.length);
+        for (int i = 0; i < expected.length; i++) Assertions.Assert(values[i] == expected[i]);
+    }
+
+    private void complexNumbers(int indent)
+    {
+        String testName = "Complex Numbers";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        assertComplex("1. - 3.3306690738754696*^-16 I", 1, -3.3306690738754696e-16);
+        assertComplex("0.5 + 2.*I", 0.5, 2);
+        assertComplex("-I", 0, -1);
+        assertComplex("2. I", 0, 2);
+        assertComplex("-1.6653345369377348*^-16I", 0, -1.6653345369377348e-16);
+        assertComplex("1.5`16.", 1.5, 0);
+        assertComplex("123456789.123456789", 123456789.123456789, 0);
+
+        double[] parts = new double[2];
+        Assertions.Assert(ReplyParser.parseComplex("Sqrt[2]", parts), false);
+        Assertions.Assert(ReplyParser.parseComplex("1 + x", parts), false);
+        Assertions.Assert(ReplyParser.parseComplex("Infinity", parts), false);
+
+        // Every reply agrees with the previous (split and BigDecimal) implementation
+        for (String reply : COMPLEX_REPLIES)
+        {
+            Assertions.Assert(ComplexNumberParser.simplify(reply).getReal(), legacySimplifyReal(reply));
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertComplex(String reply, double real, double imaginary)
+    {
+        double[] parts = new double[2];
+
+        Assertions.Assert(ReplyParser.parseComplex(reply, parts));
+        Assertions.Assert(parts[0] == real);
+        Assertions.Assert(parts[1] == imaginary);
+    }
+
+    private void realParts(int indent)
+    {
+        String testName = "Real Parts of a List";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        double[] into = new double[4];
+        Assertions.Assert(ReplyParser.parseRealParts("{1., 2.5 + 1.*I, Indeterminate, ComplexInfinity}", into), 4);
+        Assertions.Assert(into[0], 1);
+        Assertions.Assert(into[1], 2.5);
+        Assertions.Assert(Double.isNaN(into[2]));
+        Assertions.Assert(Double.isNaN(into[3]));
+
+        Assertions.Assert(ReplyParser.parseRealParts("{f[1, 2], 3}", into), 2);
+        Assertions.Assert(into[1], 3);
+
+        Assertions.Assert(ReplyParser.parseRealParts("{}", into), 0);
+        Assertions.Assert(ReplyParser.parseRealParts("$Failed", into), -1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////// Previous implementations (for comparison) /////////////////////
+    /////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Vector<Double> legacyParseXValues(String input)
+    {
+        String[] points = input.split("[{]|[}]|,");
+
+        Vector<Double> xs = new Vector<Double>();
+        for (String point : points)
+        {
+            String p = point.trim();
+
+            try
+            {
+                if (p.length() > 5 && p.charAt(0) == 'x') p = p.substring(p.indexOf("->") + 3);
+
+                if (p.length() > 0) xs.add(Double.parseDouble(p));
+            }
+            catch (NumberFormatException e)
+            {
+            }
+        }
+
+        return xs;
+    }
+
+    private static double legacySimplifyReal(String number)
+    {
+        String real = number;
+
+        if (number.indexOf('I') != -1)
+        {
+            String[] split = number.split("\\s+");
+            real = split.length <= 2 ? "0" : split[0];
+        }
+
+        if (real.indexOf('^') != -1) return 0;
+
+        BigDecimal bd = new BigDecimal(real);
+        double doubleVal = bd.doubleValue();
+        int integerVal = bd.intValue();
+
+        return Math.abs(doubleVal - integerVal) < 0.00001 ? integerVal : doubleVal;
+    }
+}
@@ -0,0 +1,183 @@
+package math.numeric;
+
+import java.util.Vector;
+
+import org.junit.Test;
+
+import math.analysis.basics.Functions;
+import math.analysis.extrema.ExtremeValues;
+import math.analysis.monotonicity.Monotonicity;
+import math.expression.Expr;
+import math.external_interface.QueryBuilder;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.FunctionT;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class ChebyshevTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Chebyshev Proxy Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        fit(1);
+        calculus(1);
+        roots(1);
+        analyses(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void fit(int indent)
+    {
+        String testName = "Adaptive Fit and Evaluation";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Chebyshev sine = Chebyshev.fit(Math::sin, 0, 10);
+        System.out.println("\t" + sine);
+
+        Assertions.Assert(sine.degree() < 40);
+        for (double x = 0; x <= 10; x += 0.37)
+        {
+            Assertions.Assert(Math.abs(sine.evaluate(x) - Math.sin(x)) < 1e-13);
+        }
+
+        // Polynomials are represented exactly
+        Chebyshev cubic = Chebyshev.fit(x -> x * x * x - 2 * x, -3, 2);
+        Assertions.Assert(cubic.degree(), 3);
+        Assertions.Assert(Math.abs(cubic.evaluate(1.5) - (3.375 - 3)) < 1e-13);
+
+        // Oscillatory: Sin[50 x] on [-25, 25]
+        Chebyshev fast = Chebyshev.fit(x -> Math.sin(50 * x), -25, 25);
+        Assertions.Assert(fast != null);
+        Assertions.Assert(Math.abs(fast.evaluate(0.123) - Math.sin(50 * 0.123)) < 1e-11);
+
+        // Not smooth (a singular derivative, a pole, a kink) or undefined: not resolved
+        Assertions.Assert(Chebyshev.fit(Math::sqrt, 0, 1) == null);
+        Assertions.Assert(Chebyshev.fit(x -> 1 / x, -1, 1) == null);
+        Assertions.Assert(Chebyshev.fit(Math::abs, -1, 1) == null);
+        Assertions.Assert(Chebyshev.fit(Math::log, -1, 1) == null);
+
+        // Proxies of expressions are memoized
+        Expr f = QueryBuilder.parse("Sin[x] + Exp[x / 3]");
+        Chebyshev first = Chebyshev.proxy(f, "x", -2, 2);
+        Assertions.Assert(first == Chebyshev.proxy(f, "x", -2, 2));
+        Assertions.Assert(Chebyshev.proxy(QueryBuilder.parse("Sqrt[x]"), "x", 0, 1) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void calculus(int indent)
+    {
+        String testName = "Derivatives and Integrals";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Chebyshev sine = Chebyshev.fit(Math::sin, 0, 10);
+
+        Chebyshev derivative = sine.derivative();
+        for (double x = 0; x <= 10; x += 0.37)
+        {
+            Assertions.Assert(Math.abs(derivative.evaluate(x) - Math.cos(x)) < 1e-11);
+        }
+
+        Assertions.Assert(Math.abs(sine.integral() - (1 - Math.cos(10))) < 1e-13);
+        Assertions.Assert(Math.abs(sine.integral(1, 4) - (Math.cos(1) - Math.cos(4))) < 1e-13);
+
+        Chebyshev antiderivative = sine.antiderivative();
+        Assertions.Assert(Math.abs(antiderivative.evaluate(0)) < 1e-15);
+        Assertions.Assert(Math.abs(antiderivative.evaluate(2.5) - (1 - Math.cos(2.5))) < 1e-13);
+
+        // Exactly: the integral of x^2 over [0, 3]
+        Assertions.Assert(Math.abs(Chebyshev.fit(x -> x * x, 0, 3).integral() - 9) < 1e-13);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void roots(int indent)
+    {
+        String testName = "Roots of the Colleague Matrix";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Sin[x] on [0, 10]: 0, Pi, 2 Pi, 3 Pi (a root on the bound)
+        double[] roots = Chebyshev.fit(Math::sin, 0, 10).roots();
+        Assertions.Assert(roots.length, 4);
+        for (int i = 0; i < roots.length; i++)
+        {
+            Assertions.Assert(Math.abs(roots[i] - i * Math.PI) < 1e-12);
+        }
+
+        // (x - 1)^2 (x + 2): a double root
+        roots = Chebyshev.fit(x -> (x - 1) * (x - 1) * (x + 2), -25, 25).roots();
+        Assertions.Assert(roots.length, 2);
+        Assertions.Assert(Math.abs(roots[0] + 2) < 1e-10);
+        Assertions.Assert(Math.abs(roots[1] - 1) < 1e-6);
+
+        // Tangencies: Sin[x]^2 on [-4, 4]
+        roots = Chebyshev.fit(x -> Math.sin(x) * Math.sin(x), -4, 4).roots();
+        Assertions.Assert(roots.length, 3);
+        Assertions.Assert(Math.abs(roots[0] + Math.PI) < 1e-6);
+        Assertions.Assert(Math.abs(roots[1]) < 1e-6);
+        Assertions.Assert(Math.abs(roots[2] - Math.PI) < 1e-6);
+
+        // High degree (subdivided): Sin[50 x] on [-25, 25] vanishes at n Pi / 50
+        roots = Chebyshev.fit(x -> Math.sin(50 * x), -25, 25).roots();
+        int expected = 2 * (int)Math.floor(25 * 50 / Math.PI) + 1;
+        Assertions.Assert(roots.length, expected);
+        for (int i = 0; i < roots.length; i++)
+        {
+            Assertions.Assert(Math.abs(roots[i] - (i - expected / 2) * Math.PI / 50) < 1e-10);
+        }
+
+        // No roots
+        Assertions.Assert(Chebyshev.fit(x -> Math.exp(x) + 1, -5, 5).roots().length, 0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * Zeros, extrema, monotonicity, and integrals of smooth functions in the analyses (without the CAS)
+     */
+    private void analyses(int indent)
+    {
+        String testName = "Analyses by Proxy";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Zeros of Sin[x] + Cos[x] on [-5, 5]: 3 Pi / 4 + n Pi
+        Vector<Double> zeros = Functions.getInstance().zerosInclusive(QueryBuilder.parse("Sin[x] + Cos[x]").toString(), -5, 5);
+        Assertions.Assert(zeros.size(), 3);
+        for (int i = 0; i < zeros.size(); i++)
+        {
+            Assertions.Assert(Math.abs(zeros.get(i) - (-Math.PI / 4 + Math.PI * (i - 1))) < 1e-12);
+        }
+
+        // Exclusive zeros: Sin[x] on [0, 2 Pi] vanishes only at Pi within
+        zeros = Functions.getInstance().zerosExclusive("Sin[x]", 0, 2 * Math.PI);
+        Assertions.Assert(zeros.size(), 1);
+        Assertions.Assert(Math.abs(zeros.get(0) - Math.PI) < 1e-12);
+
+        BoundedFunction sine = new BoundedFunction(FunctionT.SINE);
+
+        Assertions.Assert(Math.abs(ExtremeValues.getInstance().maxValue(sine, 0, 2) - 1) < 1e-12);
+        Assertions.Assert(Math.abs(ExtremeValues.getInstance().minValue(sine, 0, 2)) < 1e-12);
+
+        Vector<Double> extrema = ExtremeValues.getInstance().extrema(sine, 0, 7);
+        Assertions.Assert(extrema.size(), 2);
+        Assertions.Assert(Math.abs(extrema.get(0) - Math.PI / 2) < 1e-10);
+        Assertions.Assert(Math.abs(extrema.get(1) - 3 * Math.PI / 2) < 1e-10);
+
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(sine, -1.5, 1.5));
+        Assertions.Assert(!Monotonicity.getInstance().isMonotone(sine, 0, 3));
+
+        // x^3 is monotone through its stationary point
+        Assertions.Assert(Monotonicity.getInstance().isMonotone(new BoundedFunction(FunctionT.CUBIC), -1, 1));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
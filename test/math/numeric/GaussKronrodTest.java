@@ -0,0 +1,150 @@
+package math.numeric;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+import exceptions.DomainException;
+import math.integral.DefiniteIntegral;
+import representation.bounds.functions.BoundedFunction;
+import representation.bounds.functions.FunctionT;
+import representation.bounds.functions.StringBasedFunction;
+import representation.bounds.functions.VariableT;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class GaussKronrodTest
+{
+    @Test
+    public void test() throws DomainException
+    {
+        String testName = "Gauss-Kronrod Quadrature Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        smooth(1);
+        endpointSingularities(1);
+        nodeSingularities(1);
+        tolerance(1);
+        definiteIntegrals(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void smooth(int indent)
+    {
+        String testName = "Smooth Integrands";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Polynomials of degree 22 or less are integrated exactly by one Kronrod rule
+        assertIntegral(x -> x * x, 0, 3, 9, 1e-14);
+        assertIntegral(x -> Math.pow(x, 7) - 2 * x, -1, 2, 255.0 / 8 - 3, 1e-13);
+
+        assertIntegral(Math::sin, 0, Math.PI, 2, 1e-12);
+        assertIntegral(Math::exp, -1, 1, Math.E - 1 / Math.E, 1e-12);
+
+        // Oscillatory: Sin[50 x] over [0, Pi / 2]
+        assertIntegral(x -> Math.sin(50 * x), 0, Math.PI / 2, 0.04, 1e-10);
+
+        // Reversed limits
+        assertIntegral(x -> x * x, 3, 0, -9, 1e-14);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void endpointSingularities(int indent)
+    {
+        String testName = "Endpoint Singularities";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Infinite slope: Sqrt[x] and the quarter circle Sqrt[1 - x^2]
+        assertSingular(Math::sqrt, 0, 1, 2.0 / 3);
+        assertSingular(x -> Math.sqrt(1 - x * x), 0, 1, Math.PI / 4);
+
+        // Infinite value: Log[x] and 1 / Sqrt[x]
+        assertSingular(Math::log, 0, 1, -1);
+        assertSingular(x -> 1 / Math.sqrt(x), 0, 1, 2);
+
+        // Complex-valued (undefined) integrands
+        Assertions.Assert(Double.isNaN(GaussKronrod.integrate(x -> Math.sqrt(x), -1, 1, GaussKronrod.DEFAULT_TOLERANCE, false)));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * An integrable singularity exactly on a node (the midpoint 0 of [-1, 1]) evaluates to an infinity there:
+     * the quadrature fails (NaN) rather than returning an infinite integral
+     */
+    private void nodeSingularities(int indent)
+    {
+        String testName = "Singularities On Nodes";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // 1 / Sqrt[Abs[x]] (integral 4) and Log[Abs[x]] (integral -2) on [-1, 1]
+        Assertions.Assert(Double.isNaN(GaussKronrod.integrate(x -> 1 / Math.sqrt(Math.abs(x)), -1, 1)));
+        Assertions.Assert(Double.isNaN(GaussKronrod.integrate(x -> Math.log(Math.abs(x)), -1, 1)));
+        Assertions.Assert(Double.isNaN(GaussKronrod.integrate(x -> Math.log(Math.abs(x)), -1, 1, GaussKronrod.DEFAULT_TOLERANCE, true)));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertIntegral(DoubleUnaryOperator f, double a, double b, double expected, double tolerance)
+    {
+        Assertions.Assert(Math.abs(GaussKronrod.integrate(f, a, b) - expected) < tolerance);
+    }
+
+    private void assertSingular(DoubleUnaryOperator f, double a, double b, double expected)
+    {
+        double smoothed = GaussKronrod.integrate(f, a, b, GaussKronrod.DEFAULT_TOLERANCE, true);
+        double bisected = GaussKronrod.integrate(f, a, b, GaussKronrod.DEFAULT_TOLERANCE, false);
+
+        System.out.println("\tSmoothed: " + smoothed + "; bisected only: " + bisected + "; expected: " + expected);
+
+        Assertions.Assert(Math.abs(smoothed - expected) < 1e-8);
+    }
+
+    private void tolerance(int indent)
+    {
+        String testName = "Requested Tolerance";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        int[] coarse = new int[1];
+        int[] fine = new int[1];
+
+        double expected = Math.PI / 4;
+
+        double c = GaussKronrod.integrate(x -> { coarse[0]++; return Math.sqrt(1 - x * x); }, 0, 1, 1e-4, false);
+        double f = GaussKronrod.integrate(x -> { fine[0]++; return Math.sqrt(1 - x * x); }, 0, 1, 1e-12, false);
+
+        System.out.println("\tEvaluations for 1e-4: " + coarse[0] + "; for 1e-12: " + fine[0]);
+
+        Assertions.Assert(Math.abs(c - expected) < 1e-4);
+        Assertions.Assert(Math.abs(f - expected) < 1e-10);
+        Assertions.Assert(coarse[0] < fine[0]);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void definiteIntegrals(int indent) throws DomainException
+    {
+        String testName = "Definite Integrals Evaluated In-Process";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // 2 (x - 1)^2 + 1 from 0 to 3
+        BoundedFunction parabola = new BoundedFunction(FunctionT.PARABOLA);
+        parabola.stretch(2, 1);
+        parabola.translate(1, 1);
+        Assertions.Assert(Math.abs(new DefiniteIntegral(0, 3, parabola, VariableT.X).evaluate() - 9) < 1e-10);
+
+        // The inverse of y = x^2 by y: Sqrt[y] from 0 to 4
+        StringBasedFunction inverse = new StringBasedFunction("Sqrt[y]");
+        Assertions.Assert(Math.abs(new DefiniteIntegral(0, 4, inverse, VariableT.Y).evaluate() - 16.0 / 3) < 1e-9);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
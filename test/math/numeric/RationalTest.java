@@ -0,0 +1,184 @@
+package math.numeric;
+
+import java.math.BigInteger;
+import java.util.Vector;
+
+import org.junit.Test;
+
+import math.analysis.intersection.Intersection;
+import representation.Point;
+import representation.bounds.functions.Domain;
+import representation.bounds.functions.StringBasedFunction;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class RationalTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Exact Rational Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        arithmetic(1);
+        recognition(1);
+        exactPoints(1);
+        exactFunctions(1);
+        exactGraphs(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void arithmetic(int indent)
+    {
+        String testName = "Arithmetic";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Lowest terms with a positive denominator
+        Assertions.Assert(Rational.valueOf(2, -4).equals(Rational.valueOf(-1, 2)));
+        Assertions.Assert(Rational.valueOf(2, -4).toString(), "-1/2");
+        Assertions.Assert(Rational.valueOf(6, 3).isInteger());
+
+        Rational third = Rational.valueOf(1, 3);
+        Rational sixth = Rational.valueOf(1, 6);
+        Assertions.Assert(third.add(sixth).equals(Rational.valueOf(1, 2)));
+        Assertions.Assert(third.subtract(sixth).equals(sixth));
+        Assertions.Assert(third.multiply(sixth).equals(Rational.valueOf(1, 18)));
+        Assertions.Assert(third.divide(sixth).equals(Rational.valueOf(2)));
+        Assertions.Assert(third.pow(3).equals(Rational.valueOf(1, 27)));
+        Assertions.Assert(third.compareTo(sixth) > 0);
+
+        // Overflow of longs is carried out exactly, returning to longs when the result fits
+        Rational large = Rational.valueOf(Long.MAX_VALUE);
+        Rational square = large.multiply(large);
+        Assertions.Assert(square.numerator().equals(BigInteger.valueOf(Long.MAX_VALUE).pow(2)));
+        Assertions.Assert(square.divide(large).equals(large));
+        Assertions.Assert(square.compareTo(large) > 0);
+        Assertions.Assert(square.hashCode() == square.divide(large).multiply(large).hashCode());
+
+        // Doubles are exactly dyadic rationals
+        Assertions.Assert(Rational.exact(0.75).equals(Rational.valueOf(3, 4)));
+        Assertions.Assert(!Rational.exact(0.1).equals(Rational.valueOf(1, 10)));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void recognition(int indent)
+    {
+        String testName = "Recognition";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Assertions.Assert(Rational.recognize(1 / 3.0).equals(Rational.valueOf(1, 3)));
+        Assertions.Assert(Rational.recognize(0.1).equals(Rational.valueOf(1, 10)));
+        Assertions.Assert(Rational.recognize(-22 / 7.0).equals(Rational.valueOf(-22, 7)));
+        Assertions.Assert(Rational.recognize(4.0).equals(Rational.valueOf(4)));
+
+        // Irrationals (and rationals with large denominators) are not recognized
+        Assertions.Assert(Rational.recognize(Math.sqrt(2)) == null);
+        Assertions.Assert(Rational.recognize(Math.PI) == null);
+        Assertions.Assert(Rational.recognize(Double.NaN) == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void exactPoints(int indent)
+    {
+        String testName = "Exact Points and Domains";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Exact points are equal without tolerance: points closer than epsilon are distinct
+        Point p = new Point(Rational.valueOf(1, 3), Rational.ONE);
+        Point q = new Point(Rational.valueOf(1, 3).add(Rational.valueOf(1, 1000000000000L)), Rational.ONE);
+        Assertions.Assert(p.isExact());
+        Assertions.Assert(!p.equals(q));
+        Assertions.Assert(p.lessThan(q));
+        Assertions.Assert(p.equals(new Point(Rational.valueOf(2, 6), Rational.ONE)));
+        Assertions.Assert(p.hashCode() == new Point(Rational.valueOf(2, 6), Rational.ONE).hashCode());
+
+        // Mixed comparisons keep the tolerance
+        Assertions.Assert(p.equals(new Point(1 / 3.0, 1)));
+        Assertions.Assert(p.clone().isExact());
+
+        // Exact domains keep exact endpoints under intersection
+        Domain d = new Domain(Rational.valueOf(-1, 3), Rational.valueOf(5, 2));
+        Domain intersection = d.intersection(new Domain(Rational.ZERO, Rational.valueOf(7)));
+        Assertions.Assert(intersection.isExact());
+        Assertions.Assert(intersection.getExactLowerBound().equals(Rational.ZERO));
+        Assertions.Assert(intersection.getExactUpperBound().equals(Rational.valueOf(5, 2)));
+        Assertions.Assert(d.exactEndpoint(-1 / 3.0).equals(Rational.valueOf(-1, 3)));
+        Assertions.Assert(d.exactEndpoint(1) == null);
+
+        d.setDomainUpperBound(3.5);
+        Assertions.Assert(!d.isExact());
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void exactFunctions(int indent)
+    {
+        String testName = "Exact Functions and Intersections";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Polynomials with rational coefficients evaluate exactly
+        StringBasedFunction f = new StringBasedFunction("x^2 / 3 - x + 1/2");
+        Assertions.Assert(f.evaluateExactly(Rational.valueOf(3, 2)).equals(Rational.valueOf(-1, 4)));
+        Assertions.Assert(new StringBasedFunction("Sin[x]").evaluateExactly(Rational.ONE) == null);
+
+        Point pt = f.pointAt(1.5);
+        Assertions.Assert(pt.isExact());
+        Assertions.Assert(pt.getExactY().equals(Rational.valueOf(-1, 4)));
+        Assertions.Assert(!f.pointAt(Math.sqrt(2)).isExact());
+
+        // x^2 and x + 2 intersect exactly at (-1, 1) and (2, 4)
+        Vector<Point> points = Intersection.getInstance().allIntersections(new StringBasedFunction("x^2"), new StringBasedFunction("x + 2"));
+        Assertions.Assert(points.size(), 2);
+        for (Point point : points)
+        {
+            Assertions.Assert(point.isExact());
+        }
+        Assertions.Assert(points.contains(new Point(Rational.valueOf(-1), Rational.ONE)));
+        Assertions.Assert(points.contains(new Point(Rational.valueOf(2), Rational.valueOf(4))));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void exactGraphs(int indent)
+    {
+        String testName = "Exact Planar Graph Nodes";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        PlanarGraph<String, String> graph = new PlanarGraph<String, String>();
+
+        // Exact nodes are found by hashing; nodes closer than epsilon remain distinct
+        for (int i = 0; i < 1000; i++)
+        {
+            graph.addNode(new PlanarGraphPoint("" + i, Rational.valueOf(i, 1000000000000L), Rational.ZERO), "");
+        }
+        Assertions.Assert(graph.size(), 1000);
+        Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", Rational.valueOf(500, 1000000000000L), Rational.ZERO)), 500);
+
+        // Repeated additions are ignored
+        graph.addNode(new PlanarGraphPoint("", Rational.valueOf(1, 2000000000000L).multiply(Rational.valueOf(2)), Rational.ZERO), "");
+        Assertions.Assert(graph.size(), 1000);
+
+        // Approximate points are found by tolerance
+        Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", 1e-3, 0)), -1);
+        graph.addNode(new PlanarGraphPoint("", 1, 1), "");
+        Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", Rational.ONE, Rational.ONE)), 1000);
+
+        // Indices shift on removal
+        graph.removeNode(new PlanarGraphPoint("", Rational.ZERO, Rational.ZERO));
+        Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", Rational.valueOf(500, 1000000000000L), Rational.ZERO)), 499);
+        Assertions.Assert(new PlanarGraph<String, String>(graph).indexOf(new PlanarGraphPoint("", Rational.valueOf(999, 1000000000000L), Rational.ZERO)), 998);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
@@ -0,0 +1,200 @@
+package math.numeric;
+
+import org.junit.Test;
+
+import exceptions.ParseException;
+import math.expression.ExpressionParser;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class RootIsolatorTest
+{
+    @Test
+    public void test() throws ParseException
+    {
+        String testName = "Root Isolation Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        sturmSequences(1);
+        intervals(1);
+        polynomials(1);
+        transcendental(1);
+        nonIsolable(1);
+        versusSampling(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void sturmSequences(int indent)
+    {
+        String testName = "Sturm Sequences";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // (x - 1)(x - 2)(x - 3) = x^3 - 6x^2 + 11x - 6
+        Polynomial p = new Polynomial(-6, 11, -6, 1);
+        Assertions.Assert(p.countRoots(0, 4), 3);
+        Assertions.Assert(p.countRoots(1.5, 2.5), 1);
+        Assertions.Assert(p.countRoots(3.5, 10), 0);
+        Assertions.Assert(p.countRoots(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), 3);
+
+        // Distinct roots: (x - 1)^2 (x + 2) has two
+        Polynomial q = new Polynomial(2, -3, 0, 1);
+        Assertions.Assert(q.countRoots(-10, 10), 2);
+        Assertions.Assert(q.squareFree().degree(), 2);
+
+        // x^2 + 1 has no real roots
+        Assertions.Assert(new Polynomial(1, 0, 1).countRoots(-100, 100), 0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void intervals(int indent)
+    {
+        String testName = "Interval Arithmetic";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Interval x = Interval.of(-1, 2);
+
+        Assertions.Assert(x.power(2).contains(0));
+        Assertions.Assert(x.power(2).getLower() >= 0);
+        Assertions.Assert(x.power(2).getUpper() >= 4);
+        Assertions.Assert(x.multiply(Interval.of(-3, -2)).contains(-6));
+        Assertions.Assert(x.reciprocal() == Interval.ENTIRE);
+        Assertions.Assert(Interval.of(-2, -1).log().isEmpty());
+        Assertions.Assert(Interval.of(0, 0.1).cos().getUpper() >= 1);
+        Assertions.Assert(!Interval.of(0.1, 3).sin().contains(-0.01));
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void polynomials(int indent) throws ParseException
+    {
+        String testName = "Polynomials";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runIsolate("x^2 - 4", -25, 25, new double[] { -2, 2 }, new int[] { 1, 1 });
+        runIsolate("(x - 1)^2 (x + 2)", -25, 25, new double[] { -2, 1 }, new int[] { 1, 2 });
+        runIsolate("x^3", -1, 1, new double[] { 0 }, new int[] { 3 });
+        runIsolate("2.0 * ( 1.5 * (x - 1.3) )^2 + 0.0", -25, 25, new double[] { 1.3 }, new int[] { 2 });
+        runIsolate("x^2 + 1", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, new double[0], new int[0]);
+
+        // Roots on the bounds are included
+        runIsolate("x^2 - 4", -2, 2, new double[] { -2, 2 }, new int[] { 1, 1 });
+
+        // Infinite intervals are bounded by the roots
+        runIsolate("x^3 - 1000x", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, new double[] { -Math.sqrt(1000), 0, Math.sqrt(1000) }, new int[] { 1, 1, 1 });
+
+        // Identical functions (f - g = 0) have no isolated roots
+        runIsolate("x - x", -1, 1, new double[0], new int[0]);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void transcendental(int indent) throws ParseException
+    {
+        String testName = "Transcendental Functions";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        runIsolate("Exp[x] - 2", -25, 25, new double[] { Math.log(2) }, new int[] { 1 });
+        runIsolate("Log[x] - 1", -25, 25, new double[] { Math.E }, new int[] { 1 });
+        runIsolate("Sqrt[x] - 2", -25, 25, new double[] { 4 }, new int[] { 1 });
+        runIsolate("2^x - 1", -5, 5, new double[] { 0 }, new int[] { 1 });
+
+        // Tangencies (no sign change)
+        runIsolate("Sin[x]^2", -4, 4, new double[] { -Math.PI, 0, Math.PI }, new int[] { 2, 2, 2 });
+        runIsolate("Cos[x] - 1", -1, 7, new double[] { 0, 2 * Math.PI }, new int[] { 2, 2 });
+
+        // A pole is not a root
+        runIsolate("1/x", -1, 1, new double[0], new int[0]);
+
+        // A root on the boundary of the real domain (no sign change; complex to its left)
+        runIsolate("Sqrt[x - 1]", 0, 5, new double[] { 1 }, new int[] { 1 });
+
+        // Sin[x] = Cos[x]: 16 roots in [-25, 25]
+        Roots roots = RootIsolator.isolate(ExpressionParser.parse("Sin[x] - Cos[x]"), "x", -25, 25);
+        Assertions.Assert(roots.size(), 16);
+        for (int i = 0; i < roots.size(); i++)
+        {
+            Assertions.Assert(Math.abs(roots.get(i) - (Math.PI / 4 + Math.PI * (i - 8))) < 1e-12);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void runIsolate(String f, double lower, double upper, double[] expected, int[] multiplicities) throws ParseException
+    {
+        Roots roots = RootIsolator.isolate(ExpressionParser.parse(f), "x", lower, upper);
+
+        Assertions.Assert(roots.size(), expected.length);
+        for (int i = 0; i < expected.length; i++)
+        {
+            // Even multiplicities are determined to about the square root of the precision
+            double tolerance = multiplicities[i] > 1 ? 1e-7 : 1e-12;
+
+            Assertions.Assert(Math.abs(roots.get(i) - expected[i]) < tolerance);
+            Assertions.Assert(roots.multiplicity(i), multiplicities[i]);
+        }
+    }
+
+    private void nonIsolable(int indent) throws ParseException
+    {
+        String testName = "Functions Without Isolation";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // No enclosure of Tan: isolation is abandoned (the caller defers to the CAS)
+        assertNotIsolated("Tan[x] - 1", -25, 25);
+
+        // A non-polynomial on an infinite interval
+        assertNotIsolated("Sin[x]", Double.NEGATIVE_INFINITY, 0);
+
+        // No numeric evaluation
+        assertNotIsolated("Gamma[x] - 2", 1, 3);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void assertNotIsolated(String f, double lower, double upper) throws ParseException
+    {
+        try
+        {
+            RootIsolator.isolate(ExpressionParser.parse(f), "x", lower, upper);
+            Assertions.Assert(false);
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+
+    /**
+     * Closely-spaced roots that a uniform sampling misses
+     */
+    private void versusSampling(int indent) throws ParseException
+    {
+        String testName = "Closely-Spaced Roots";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Roots at 1 and 1.001: both within one sampled subinterval (no sign change between samples)
+        String f = "(x - 1) (x - 1.001)";
+
+        Roots roots = RootIsolator.isolate(ExpressionParser.parse(f), "x", -25, 25);
+        double[] sampled = RootScanner.roots(x -> (x - 1) * (x - 1.001), -25, 25);
+
+        System.out.println("\tIsolated: " + roots + "; sampled: " + sampled.length + " root(s)");
+
+        Assertions.Assert(roots.size(), 2);
+        Assertions.Assert(roots.get(0), 1.0);
+        Assertions.Assert(roots.get(1), 1.001);
+
+        // Sin[50 x] has 2 roots per 0.0628 units (a sampled subinterval is 0.025 wide)
+        Assertions.Assert(RootIsolator.isolate(ExpressionParser.parse("Sin[50 x]"), "x", -1, 1).size(), 31);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+}
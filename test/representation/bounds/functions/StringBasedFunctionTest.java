@@ -1,5 +1,7 @@
 package representation.bounds.functions;
 
+import java.util.function.DoubleUnaryOperator;
+
 import org.junit.Test;
 
 import utilities.Assertions;
@@ -45,6 +47,36 @@ public class StringBasedFunctionTest
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }
     
+    @Test
+    public void testTransformedExpression()
+    {
+        String testName = "String-based Function: Transformations Compose as Expression Trees";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        // Symbols containing an x (Exp) are not rewritten: only the variable is substituted
+        StringBasedFunction f = new StringBasedFunction("Exp[x]");
+        f.translate(1, 0);
+        Assertions.Assert(f.getFunction(), "Exp[x - 1]");
+
+        f.stretch(2, 3);
+        Assertions.Assert(f.getFunction(), "2*Exp[3*(x - 1)]");
+        Assertions.Assert(f.evaluateAtPoint(1).getReal(), 2);
+
+        f = new StringBasedFunction("x^2 - 4x");
+        f.translate(-1, 2);
+        Assertions.Assert(f.getFunction(), "(x + 1)^2 - 4*(x + 1) + 2");
+
+        // The identity transformation keeps the function as written
+        f.translate(0, 0);
+        Assertions.Assert(f.getFunction(), "x^2 - 4x");
+
+        // The transformed tree is shared (not reparsed)
+        Assertions.Assert(f.toExpr() == f.toExpr());
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
     @Test
     public void test()
     {
@@ -54,6 +86,7 @@ public class StringBasedFunctionTest
 
         testEvaluateAtPointByY(1);
         testEvaluateAtPoint(1);
+        testCompiled(1);
         testTranslation(1);
         testStretching(1);
         testShrinking(1);
@@ -122,6 +155,37 @@ public class StringBasedFunctionTest
         System.out.println(StringUtilities.generateTestEndString(testName, indent));
     }
 
+    private void testCompiled(int indent)
+    {
+        String testName = "Compiled Evaluation";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        //
+        // The compiled evaluator is cached until a transformation changes the function
+        //
+        StringBasedFunction f = new StringBasedFunction("x^2 - 4x");
+
+        Assertions.Assert(f.compiled() != null);
+        Assertions.Assert(f.compiled() == f.compiled());
+        Assertions.Assert(f.compiled().applyAsDouble(4), 0);
+
+        DoubleUnaryOperator original = f.compiled();
+        f.translate(0, 0);
+        Assertions.Assert(f.compiled() == original);
+
+        f.translate(1, 2);
+        Assertions.Assert(f.compiled() != original);
+        Assertions.Assert(f.compiled().applyAsDouble(5), 2);
+
+        //
+        // Relations are not compiled
+        //
+        Assertions.Assert(new StringBasedFunction("x = 3").compiled() == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
     private void testTranslation(int indent)
     {
         String testName = "Translating a String-Based Function";
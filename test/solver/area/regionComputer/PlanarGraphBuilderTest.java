@@ -1,13 +1,23 @@
 package solver.area.regionComputer;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import solver.area.TextbookAreaProblem;
 import solver.area.parser.AreaProblemParserTest;
 import solver.area.regionComputer.graphBuilder.PlanarGraphBuilder;
+import solver.area.regionComputer.calculator.FacetCalculator;
+import solver.area.regionComputer.calculator.dcel.DoublyConnectedEdgeList;
+import solver.area.regionComputer.calculator.elements.MinimalCycle;
+import solver.area.regionComputer.calculator.elements.Primitive;
+import solver.area.regionComputer.undirectedPlanarGraph.CompactPlanarGraph;
 import solver.area.regionComputer.undirectedPlanarGraph.NodePointT;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarEdgeAnnotation;
 import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphEdge;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphNode;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
 import utilities.Assertions;
 import utilities.StringUtilities;
 
@@ -22,6 +32,8 @@ public class PlanarGraphBuilderTest
 
         testNonVerticalRegions(1);
         testVerticalRegions(1);
+        testPointLookup(1);
+        testCompactGraph(1);
         
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }
@@ -61,6 +73,172 @@ public class PlanarGraphBuilderTest
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }
     
+    private void testPointLookup(int indent)
+    {
+        String testName = "Planar Graph Point Lookup";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph = new PlanarGraph<NodePointT, PlanarEdgeAnnotation>();
+
+        // Points within epsilon (10^-5) of a node are the node, even across cells of the index
+        graph.addNode(new PlanarGraphPoint("", 0.99999e-5, 0), NodePointT.INTERSECTION);
+        graph.addNode(new PlanarGraphPoint("", 1.00001e-5, 0), NodePointT.INTERSECTION);
+        graph.addNode(new PlanarGraphPoint("", 0.2e-5, 0), NodePointT.INTERSECTION);
+        Assertions.Assert(graph.size(), 1);
+        graph.addNode(new PlanarGraphPoint("", 0.3e-5, 1), NodePointT.INTERSECTION);
+        graph.addNode(new PlanarGraphPoint("", -0.3e-5, 1), NodePointT.INTERSECTION);
+        Assertions.Assert(graph.size(), 2);
+        graph.addNode(new PlanarGraphPoint("", 2.1e-5, 0), NodePointT.INTERSECTION);
+        Assertions.Assert(graph.size(), 3);
+        graph.addNode(new PlanarGraphPoint("", Double.POSITIVE_INFINITY, 1), NodePointT.INTERSECTION);
+        Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", Double.POSITIVE_INFINITY, 1)), 3);
+
+        // The first node within epsilon, as by a linear search
+        Random random = new Random(2017);
+        graph = new PlanarGraph<NodePointT, PlanarEdgeAnnotation>();
+        PlanarGraphPoint[] points = new PlanarGraphPoint[2000];
+        for (int i = 0; i < points.length; i++)
+        {
+            points[i] = new PlanarGraphPoint("", random.nextInt(40) * 1e-5 + random.nextDouble() * 1e-5, random.nextInt(40) * 1e-5);
+            graph.addNode(points[i], NodePointT.INTERSECTION);
+        }
+        for (int i = 0; i < 2000; i++)
+        {
+            // Removal shifts the indices of the following nodes
+            if (i % 4 == 0) graph.removeNode(graph.getNodes().get(random.nextInt(graph.size())).getPoint());
+
+            PlanarGraphPoint query = new PlanarGraphPoint("", random.nextDouble() * 4e-4, random.nextInt(40) * 1e-5 + (random.nextDouble() - 0.5) * 2e-5);
+
+            int expected = -1;
+            for (int n = 0; n < graph.size() && expected == -1; n++)
+            {
+                if (query.equals(graph.getNodes().get(n).getPoint())) expected = n;
+            }
+
+            Assertions.Assert(graph.indexOf(query), expected);
+        }
+
+        // A dense grid: points within epsilon of a node are merged into it and found at its index
+        graph = new PlanarGraph<NodePointT, PlanarEdgeAnnotation>();
+        for (int i = 0; i < 2000; i++)
+        {
+            graph.addNode(new PlanarGraphPoint("", (i % 50) * 0.01, (i / 50) * 0.01), NodePointT.INTERSECTION);
+            graph.addNode(new PlanarGraphPoint("", (i % 50) * 0.01 + 1e-7, (i / 50) * 0.01), NodePointT.INTERSECTION);
+        }
+        Assertions.Assert(graph.size(), 2000);
+        for (int i = 0; i < 2000; i++)
+        {
+            Assertions.Assert(graph.indexOf(new PlanarGraphPoint("", (i % 50) * 0.01, (i / 50) * 0.01 - 1e-7)), i);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void testCompactGraph(int indent)
+    {
+        String testName = "Compact Planar Graphs";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // The compact graph has the nodes, edges, and annotations of the graph
+        PlanarGraphBuilder builder = new PlanarGraphBuilder(AreaProblemParserTest.makeAreaProblem("{ x ; 1/2 x - 4 ; 2 - x ; 0} // Made up: 3 regions"));
+        PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph = builder.build();
+        CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation> compact = builder.buildCompact();
+
+        Assertions.Assert(compact.size(), graph.size());
+        Assertions.Assert(compact.numEdges(), graph.numEdges());
+        for (int v = 0; v < graph.size(); v++)
+        {
+            PlanarGraphNode<NodePointT, PlanarEdgeAnnotation> node = graph.getNodes().get(v);
+
+            Assertions.Assert(compact.indexOf(node.getPoint()), v);
+            Assertions.Assert(compact.getPoint(v).equals(node.getPoint()));
+            Assertions.Assert(compact.getNodeAnnotation(v) == node.getAnnotation());
+            Assertions.Assert(compact.degree(v), node.nodeDegree());
+
+            for (PlanarGraphEdge<PlanarEdgeAnnotation> edge : node.getEdges())
+            {
+                Assertions.Assert(compact.getEdgeAnnotation(node.getPoint(), edge.getTarget()) == edge.getAnnotation());
+            }
+        }
+        Assertions.Assert(compact.indexOf(new PlanarGraphPoint("", 100, 100)), -1);
+        Assertions.Assert(compact.getEdgeAnnotation(graph.getNodes().get(0).getPoint(), graph.getNodes().get(0).getPoint()) == null);
+
+        // Facets and regions are the same from either representation
+        Assertions.Assert(new DoublyConnectedEdgeList<NodePointT, PlanarEdgeAnnotation>(compact).getPrimitives().toString(),
+                          unnamed(new FacetCalculator<NodePointT, PlanarEdgeAnnotation>(new PlanarGraph<NodePointT, PlanarEdgeAnnotation>(graph)).getPrimitives().toString()));
+        Assertions.Assert(new FacetCalculator<NodePointT, PlanarEdgeAnnotation>(compact).getPrimitives().toString(),
+                          unnamed(new FacetCalculator<NodePointT, PlanarEdgeAnnotation>(new PlanarGraph<NodePointT, PlanarEdgeAnnotation>(graph)).getPrimitives().toString()));
+
+        for (Primitive primitive : new DoublyConnectedEdgeList<NodePointT, PlanarEdgeAnnotation>(compact).getPrimitives())
+        {
+            if (!(primitive instanceof MinimalCycle)) continue;
+
+            MinimalCycle cycle = (MinimalCycle)primitive;
+            MinimalCycle copy = new MinimalCycle();
+            copy.addAll(cycle.getPoints());
+
+            Assertions.Assert(cycle.convertFacetToRegion(compact).toString(), copy.convertFacetToRegion(graph).toString());
+        }
+
+        // An arrangement of 8 horizontal and 8 vertical lines, with a midpoint on each edge between intersections
+        // (as built): intersections are shared by the lines
+        graph = arrangement(8);
+        compact = new CompactPlanarGraph<NodePointT, PlanarEdgeAnnotation>(graph);
+
+        Assertions.Assert(compact.size(), 8 * 8 + 2 * 8 * 7);
+        Assertions.Assert(compact.numEdges(), 2 * 2 * 8 * 7);
+        Assertions.Assert(compact.toPlanarGraph().size(), compact.size());
+        Assertions.Assert(compact.toPlanarGraph().numEdges(), compact.numEdges());
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * @return the primitives without point names (compact graphs do not keep them)
+     */
+    private String unnamed(String primitives)
+    {
+        return primitives.replaceAll("Point\\([^)]*\\)\\(", "Point()(");
+    }
+
+    /**
+     * @return the graph of the arrangement of lines x = 0, ..., n - 1 and y = 0, ..., n - 1 (nodes named as built)
+     */
+    private PlanarGraph<NodePointT, PlanarEdgeAnnotation> arrangement(int n)
+    {
+        PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph = new PlanarGraph<NodePointT, PlanarEdgeAnnotation>();
+
+        int counter = 0;
+        for (int line = 0; line < n; line++)
+        {
+            for (int i = 0; i + 1 < n; i++)
+            {
+                // Horizontal, then vertical
+                for (int direction = 0; direction < 2; direction++)
+                {
+                    String function = direction == 0 ? "y = " + line : "x = " + line;
+
+                    PlanarGraphPoint left = direction == 0 ? new PlanarGraphPoint(" " + function + " " + counter++, i, line)
+                                                           : new PlanarGraphPoint(" " + function + " " + counter++, line, i);
+                    PlanarGraphPoint middle = direction == 0 ? new PlanarGraphPoint(" " + function + " " + counter++, i + 0.5, line)
+                                                             : new PlanarGraphPoint(" " + function + " " + counter++, line, i + 0.5);
+                    PlanarGraphPoint right = direction == 0 ? new PlanarGraphPoint(" " + function + " " + counter++, i + 1, line)
+                                                            : new PlanarGraphPoint(" " + function + " " + counter++, line, i + 1);
+
+                    graph.addNode(left, NodePointT.INTERSECTION);
+                    graph.addNode(middle, NodePointT.MIDPOINT);
+                    graph.addNode(right, NodePointT.INTERSECTION);
+                    graph.addUndirectedEdge(left, middle, new PlanarEdgeAnnotation(null));
+                    graph.addUndirectedEdge(middle, right, new PlanarEdgeAnnotation(null));
+                }
+            }
+        }
+
+        return graph;
+    }
+
     private void runGraphVerification(int indent, String pStr, int numNodes, int numEdges)
     {
         String testName = pStr;
@@ -1,6 +1,19 @@
 package solver.area.regionComputer.calculator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
 import org.junit.Test;
+
+import solver.area.regionComputer.calculator.dcel.DoublyConnectedEdgeList;
+import solver.area.regionComputer.calculator.elements.Filament;
+import solver.area.regionComputer.calculator.elements.MinimalCycle;
+import solver.area.regionComputer.calculator.elements.Primitive;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraph;
+import solver.area.regionComputer.undirectedPlanarGraph.PlanarGraphPoint;
+import utilities.Assertions;
 import utilities.StringUtilities;
 
 public class FacetCalculatorTest
@@ -13,12 +26,203 @@ public class FacetCalculatorTest
         System.out.println(StringUtilities.generateTestStartString(testName, 0));
 
         //upwardTest(1);
+        lexicographicPoints(1);
+        halfEdges(1);
 
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }
 
+    private void lexicographicPoints(int indent)
+    {
+        String testName = "Lexicographic Points";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Random insertions and removals agree with a sorted list
+        Random random = new Random(2017);
+        LexicographicPoints points = new LexicographicPoints();
+        ArrayList<PlanarGraphPoint> expected = new ArrayList<PlanarGraphPoint>();
+
+        for (int i = 0; i < 400; i++)
+        {
+            PlanarGraphPoint pt = new PlanarGraphPoint("", random.nextInt(20), random.nextInt(20) / 7.0);
+
+            if (!expected.contains(pt))
+            {
+                points.add(pt);
+                expected.add(pt);
+            }
+
+            if (random.nextInt(3) == 0)
+            {
+                PlanarGraphPoint removed = expected.remove(random.nextInt(expected.size()));
+
+                // Equal (within epsilon) points are removed
+                points.remove(new PlanarGraphPoint("", removed.getX() + 1e-7, removed.getY() - 1e-7));
+            }
+        }
+
+        Collections.sort(expected);
+        Assertions.Assert(points.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            Assertions.Assert(points.get(i) == expected.get(i));
+        }
+        Assertions.Assert(points.peekNext() == expected.get(1));
+
+        // Removing an absent point changes nothing
+        points.remove(new PlanarGraphPoint("", -1, -1));
+        Assertions.Assert(points.size(), expected.size());
+
+        for (PlanarGraphPoint pt : expected)
+        {
+            Assertions.Assert(points.peekMin() == pt);
+            Assertions.Assert(points.extractMin() == pt);
+        }
+        Assertions.Assert(points.isEmpty());
+        Assertions.Assert(points.extractMin() == null);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void halfEdges(int indent)
+    {
+        String testName = "Half-Edge Faces";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // A square with a filament into it and an isolated point
+        PlanarGraph<String, String> graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 4, 0, 4, 4, 0, 4);
+        addPath(graph, 0, 0, 1, 1, 2, 1);
+        graph.addNode(new PlanarGraphPoint("", 10, 10), "");
+        assertSamePrimitives(graph, 1);
+
+        // A square containing a triangle joined by a bridge; a triangle outside sharing a vertex with the square
+        graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 8, 0, 8, 8, 0, 8);
+        addCycle(graph, 2, 2, 4, 2, 3, 4);
+        addPath(graph, 0, 0, 2, 2);
+        addCycle(graph, 8, 8, 10, 9, 9, 10);
+        assertSamePrimitives(graph, 3);
+
+        // Two curves between the same points (distinguished by their midpoints); nested, disjoint components
+        graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 1, -1, 2, 0, 1, 1);
+        addPath(graph, 0, 0, 1, 0.5, 2, 0);
+        addCycle(graph, -5, -5, 5, -5, 5, 5, -5, 5);
+        addCycle(graph, 20, 0, 21, 0, 21, 1);
+        assertSamePrimitives(graph, 4);
+
+        // Two filaments from the same vertex of a square (paths do not continue through a vertex of a cycle)
+        graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 4, 0, 4, 4, 0, 4);
+        addPath(graph, -1, -1, 0, 0, -1, 0);
+        assertSamePrimitives(graph, 1);
+
+        // A 10 x 12 grid
+        graph = new PlanarGraph<String, String>();
+        for (int x = 0; x < 10; x++)
+        {
+            for (int y = 0; y < 12; y++)
+            {
+                if (x + 1 < 10) addPath(graph, x, y, x + 1, y);
+                if (y + 1 < 12) addPath(graph, x, y, x, y + 1);
+            }
+        }
+        assertSamePrimitives(graph, 9 * 11);
+
+        // Faces facet calculation misses: a triangle inside a square sharing a vertex with it (the square is not
+        // a filament); a filament from a vertex of two cycles (facet calculation does not terminate)
+        graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 8, 0, 8, 8, 0, 8);
+        addCycle(graph, 8, 8, 7, 5, 6, 7);
+        Assertions.Assert(new DoublyConnectedEdgeList<String, String>(graph).getPrimitives().toString(),
+                          "[Cycle { Point()(0.0, 0.0), Point()(8.0, 0.0), Point()(8.0, 8.0), Point()(0.0, 8.0) }, " +
+                          "Cycle { Point()(6.0, 7.0), Point()(7.0, 5.0), Point()(8.0, 8.0) }]");
+
+        graph = new PlanarGraph<String, String>();
+        addCycle(graph, 0, 0, 4, 0, 4, 4, 0, 4);
+        addCycle(graph, 4, 0, 6, 1, 4, 4);
+        addPath(graph, 0, 0, 1, 1, 2, 1);
+        Assertions.Assert(new DoublyConnectedEdgeList<String, String>(graph).getPrimitives().toString(),
+                          "[Cycle { Point()(0.0, 0.0), Point()(4.0, 0.0), Point()(4.0, 4.0), Point()(0.0, 4.0) }, " +
+                          "Cycle { Point()(4.0, 0.0), Point()(6.0, 1.0), Point()(4.0, 4.0) }, " +
+                          "Filament { Point()(0.0, 0.0), Point()(1.0, 1.0), Point()(2.0, 1.0) }]");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    /**
+     * The DCEL finds the primitives of facet calculation (on a copy) and leaves the graph intact
+     */
+    private void assertSamePrimitives(PlanarGraph<String, String> graph, int cycles)
+    {
+        int nodes = graph.size();
+        int edges = graph.numEdges();
+
+        ArrayList<Primitive> primitives = new DoublyConnectedEdgeList<String, String>(graph).getPrimitives();
+        ArrayList<Primitive> expected = new FacetCalculator<String, String>(new PlanarGraph<String, String>(graph)).getPrimitives();
+
+        Assertions.Assert(graph.size(), nodes);
+        Assertions.Assert(graph.numEdges(), edges);
+
+        Assertions.Assert(cycles(primitives).toString(), cycles(expected).toString());
+        Assertions.Assert(cycles(primitives).size(), cycles);
+        Assertions.Assert(filaments(primitives).toString(), filaments(expected).toString());
+        Assertions.Assert(primitives.size(), expected.size());
+    }
+
+    /**
+     * @return the filaments (as strings), sorted
+     */
+    private ArrayList<String> filaments(ArrayList<Primitive> primitives)
+    {
+        ArrayList<String> filaments = new ArrayList<String>();
+        for (Primitive primitive : primitives)
+        {
+            if (primitive instanceof Filament) filaments.add(primitive.toString());
+        }
+        Collections.sort(filaments);
+
+        return filaments;
+    }
+
+    private ArrayList<MinimalCycle> cycles(ArrayList<Primitive> primitives)
+    {
+        ArrayList<MinimalCycle> cycles = new ArrayList<MinimalCycle>();
+        for (Primitive primitive : primitives)
+        {
+            if (primitive instanceof MinimalCycle) cycles.add((MinimalCycle)primitive);
+        }
+
+        return cycles;
+    }
+
+    private void addPath(PlanarGraph<String, String> graph, double... coordinates)
+    {
+        for (int i = 0; i + 3 < coordinates.length; i += 2)
+        {
+            PlanarGraphPoint from = new PlanarGraphPoint("", coordinates[i], coordinates[i + 1]);
+            PlanarGraphPoint to = new PlanarGraphPoint("", coordinates[i + 2], coordinates[i + 3]);
+
+            graph.addNode(from, "");
+            graph.addNode(to, "");
+            graph.addUndirectedEdge(from, to, "");
+        }
+    }
+
+    private void addCycle(PlanarGraph<String, String> graph, double... coordinates)
+    {
+        double[] closed = Arrays.copyOf(coordinates, coordinates.length + 2);
+        closed[coordinates.length] = coordinates[0];
+        closed[coordinates.length + 1] = coordinates[1];
+
+        addPath(graph, closed);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////////////
-    
+
 //    private void upwardTest(int indent)
 //    {
 //        String testName = "First point is up-and to right";
@@ -37,9 +241,9 @@ public class FacetCalculatorTest
 //        TextbookAreaProblem problem = AreaProblemParserTest.makeAreaProblem(pStr);
 //
 //        PlanarGraph<NodePointT, PlanarEdgeAnnotation> graph = buildGraph(problem);
-//        
-//        
-//        
+//
+//
+//
 //
 //        System.out.println(StringUtilities.generateTestEndString(testName, 0));
 //    }
@@ -0,0 +1,184 @@
+package solver.area.regionComputer.undirectedPlanarGraph;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import solver.area.regionComputer.calculator.FacetCalculator;
+import solver.area.regionComputer.calculator.dcel.DoublyConnectedEdgeList;
+import utilities.Assertions;
+import utilities.StringUtilities;
+
+public class GeometricPredicatesTest
+{
+    @Test
+    public void test()
+    {
+        String testName = "Geometric Predicates Tests";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, 0));
+
+        orientation(1);
+        angularOrder(1);
+        degenerateGraphs(1);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, 0));
+    }
+
+    private void orientation(int indent)
+    {
+        String testName = "Orientation";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        Assertions.Assert(GeometricPredicates.orient2d(0, 0, 1, 0, 0, 1), 1);
+        Assertions.Assert(GeometricPredicates.orient2d(0, 0, 0, 1, 1, 0), -1);
+        Assertions.Assert(GeometricPredicates.orient2d(0, 0, 1, 1, 3, 3), 0);
+
+        // Nearly collinear points (a grid of ulps near (0.5, 0.5) against the diagonal): the floating-point
+        // determinant has the wrong sign for many of them; the predicate agrees with exact arithmetic
+        double ulp = Math.ulp(0.5);
+        int naiveErrors = 0;
+        for (int i = 0; i < 64; i++)
+        {
+            for (int j = 0; j < 64; j++)
+            {
+                double ax = 0.5 + i * ulp;
+                double ay = 0.5 + j * ulp;
+
+                int exact = exactOrientation(ax, ay, 12, 12, 24, 24);
+                double naive = (12 - ax) * (24 - ay) - (12 - ay) * (24 - ax);
+
+                if ((int)Math.signum(naive) != exact) naiveErrors++;
+
+                Assertions.Assert(GeometricPredicates.orient2d(ax, ay, 12, 12, 24, 24), exact);
+            }
+        }
+        Assertions.Assert(naiveErrors > 0);
+
+        // Points at infinity are limit directions (up from (0, 1), then right); NaN is undefined
+        PlanarGraphPoint infinite = new PlanarGraphPoint("", 0, Double.POSITIVE_INFINITY);
+        Assertions.Assert(GeometricPredicates.orientation(new PlanarGraphPoint("", 0, 1), infinite, new PlanarGraphPoint("", 2, 1)), -1);
+        Assertions.Assert(GeometricPredicates.orient2d(0, 0, Double.NaN, 1, 1, 0), 0);
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private int exactOrientation(double ax, double ay, double bx, double by, double cx, double cy)
+    {
+        BigDecimal left = new BigDecimal(bx).subtract(new BigDecimal(ax)).multiply(new BigDecimal(cy).subtract(new BigDecimal(ay)));
+        BigDecimal right = new BigDecimal(by).subtract(new BigDecimal(ay)).multiply(new BigDecimal(cx).subtract(new BigDecimal(ax)));
+
+        return left.subtract(right).signum();
+    }
+
+    private void angularOrder(int indent)
+    {
+        String testName = "Angular Order";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        PlanarGraphPoint center = new PlanarGraphPoint("", 1, 1);
+        PlanarGraphPoint east = new PlanarGraphPoint("", 3, 1);
+        PlanarGraphPoint north = new PlanarGraphPoint("", 1, 2);
+        PlanarGraphPoint west = new PlanarGraphPoint("", 0, 1);
+        PlanarGraphPoint south = new PlanarGraphPoint("", 1, -5);
+        PlanarGraphPoint northEast = new PlanarGraphPoint("", 2, 2);
+
+        ArrayList<PlanarGraphPoint> points = new ArrayList<PlanarGraphPoint>(Arrays.asList(south, west, northEast, north, east));
+        Collections.sort(points, (p, q) -> GeometricPredicates.compareCounterClockwise(center, 1, 0, p, q));
+        Assertions.Assert(points.equals(Arrays.asList(east, northEast, north, west, south)));
+
+        // Clockwise from the west
+        Collections.sort(points, (p, q) -> GeometricPredicates.compareClockwise(center, west, p, q));
+        Assertions.Assert(points.equals(Arrays.asList(west, north, northEast, east, south)));
+
+        // The same direction (coincident chords) compares equal
+        Assertions.Assert(GeometricPredicates.compareCounterClockwise(center, east, northEast, new PlanarGraphPoint("", 5, 5)), 0);
+
+        // Tangent parabolas: x^2 and its tangent 2x - 1 at (1, 1). The chords differ in direction by about h / 5
+        // radians, far below any angle tolerance; the parabola is counter-clockwise of the tangent on the right
+        // and clockwise of it on the left
+        for (double h = 1e-2; h > 1e-7; h /= 10)
+        {
+            PlanarGraphPoint parabola = new PlanarGraphPoint("", 1 + h, (1 + h) * (1 + h));
+            PlanarGraphPoint tangent = new PlanarGraphPoint("", 1 + h, 2 * (1 + h) - 1);
+            Assertions.Assert(GeometricPredicates.compareCounterClockwise(center, 1, 0, tangent, parabola) < 0);
+
+            parabola = new PlanarGraphPoint("", 1 - h, (1 - h) * (1 - h));
+            tangent = new PlanarGraphPoint("", 1 - h, 2 * (1 - h) - 1);
+            Assertions.Assert(GeometricPredicates.compareCounterClockwise(center, 1, 0, tangent, parabola) > 0);
+        }
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void degenerateGraphs(int indent)
+    {
+        String testName = "Degenerate Graphs";
+
+        System.out.println(StringUtilities.generateTestStartString(testName, indent));
+
+        // Tangent parabolas x^2 and 2x - 1 on [1, 2] (sampled every 0.004; the first chords differ by less than
+        // 0.001 radians) closed by x = 2: the cycle is counter-clockwise, along the tangent first
+        PlanarGraph<String, String> graph = new PlanarGraph<String, String>();
+        PlanarGraphPoint previousParabola = new PlanarGraphPoint("", 1, 1);
+        PlanarGraphPoint previousTangent = previousParabola;
+        graph.addNode(previousParabola, "");
+        for (int i = 1; i <= 250; i++)
+        {
+            double x = 1 + i / 250.0;
+            PlanarGraphPoint parabola = new PlanarGraphPoint("", x, x * x);
+            PlanarGraphPoint tangent = new PlanarGraphPoint("", x, 2 * x - 1);
+
+            graph.addNode(parabola, "");
+            graph.addNode(tangent, "");
+            graph.addUndirectedEdge(previousParabola, parabola, "");
+            graph.addUndirectedEdge(previousTangent, tangent, "");
+
+            previousParabola = parabola;
+            previousTangent = tangent;
+        }
+        graph.addUndirectedEdge(previousTangent, previousParabola, "");
+
+        String cycles = new DoublyConnectedEdgeList<String, String>(graph).getPrimitives().toString();
+        Assertions.Assert(cycles.startsWith("[Cycle { Point()(1.0, 1.0), Point()(1.004000, 1.008000), "));
+        Assertions.Assert(new FacetCalculator<String, String>(new PlanarGraph<String, String>(graph)).getPrimitives().toString(), cycles);
+
+        // A thin lens (chords 0.0004 radians apart) with a filament
+        graph = new PlanarGraph<String, String>();
+        addPath(graph, 0, 0, 1, 0.0002, 2, 0);
+        addPath(graph, 0, 0, 1, -0.0002, 2, 0);
+        addPath(graph, -1, 0, 0, 0);
+        Assertions.Assert(new FacetCalculator<String, String>(graph).getPrimitives().toString(),
+                          "[Filament { Point()(-1.0, 0.0), Point()(0.0, 0.0) }, " +
+                          "Cycle { Point()(0.0, 0.0), Point()(1.000000, -0.000200), Point()(2.0, 0.0), Point()(1.000000, 0.000200) }]");
+
+        // Coincident chords: (0, 0) to (2, 2) directly and through (1, 1), in a triangle. Half-edges in the same
+        // direction are ordered consistently at both ends (the path through (1, 1) is on the triangle's side);
+        // the zero-area lens between them is not a region
+        graph = new PlanarGraph<String, String>();
+        addPath(graph, 0, 0, 1, 1, 2, 2, 2, 0, 0, 0);
+        addPath(graph, 0, 0, 2, 2);
+        Assertions.Assert(new DoublyConnectedEdgeList<String, String>(graph).getPrimitives().toString(),
+                          "[Cycle { Point()(0.0, 0.0), Point()(2.0, 0.0), Point()(2.0, 2.0), Point()(1.0, 1.0) }]");
+
+        System.out.println(StringUtilities.generateTestEndString(testName, indent));
+    }
+
+    private void addPath(PlanarGraph<String, String> graph, double... coordinates)
+    {
+        for (int i = 0; i + 3 < coordinates.length; i += 2)
+        {
+            PlanarGraphPoint from = new PlanarGraphPoint("", coordinates[i], coordinates[i + 1]);
+            PlanarGraphPoint to = new PlanarGraphPoint("", coordinates[i + 2], coordinates[i + 3]);
+
+            graph.addNode(from, "");
+            graph.addNode(to, "");
+            graph.addUndirectedEdge(from, to, "");
+        }
+    }
+}
@@ -26,8 +26,8 @@ public class AreaSolverByYTest
 
         System.out.println(StringUtilities.generateTestStartString(testName, 0));
 
-        runProblem( 1, "{ 2-.1*x+.75*Sin[x] ; 1.2-.5*x+.8*Cos[1.5*x] } [0, 7] <1000> //", true ) ;
-        runProblem( 1, "{ ((x/3)-2)^2 ; 2-((x/3)-2)^2 } [3, 8] <6.22222222> //", false ) ;
+        runProblem( 1, "{ 2-.1*x+.75*Sin[x] ; 1.2-.5*x+.8*Cos[1.5*x] } [0, 7] <16.0537443812> //", false ) ;
+        runProblem( 1, "{ ((x/3)-2)^2 ; 2-((x/3)-2)^2 } [3, 8] <7.40740741> //", false ) ;
         
         System.out.println(StringUtilities.generateTestEndString(testName, 0));
     }